@@ -4,9 +4,23 @@ import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
+import org.hibernate.annotations.CurrentTimestamp;
+import org.hibernate.annotations.SourceType;
+
+import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "asientos")
+// Un asiento es único por función; las búsquedas de reserva van por (funcionId, numeroAsiento)
+// y los listados por funcionId + estado o por cliente + estado; la reconciliación busca por actualizadoEn
+@Table(name = "asientos",
+        uniqueConstraints = {
+                @UniqueConstraint(name = "uk_asientos_funcion_numero", columnNames = {"funcionId", "numeroAsiento"})
+        },
+        indexes = {
+                @Index(name = "idx_asientos_funcion_estado", columnList = "funcionId, estado"),
+                @Index(name = "idx_asientos_cliente_estado", columnList = "clienteEmail, estado"),
+                @Index(name = "idx_asientos_actualizado", columnList = "actualizadoEn, funcionId")
+        })
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -37,6 +51,18 @@ public class Asiento {
 
     private String clienteEmail;
 
+    // Bloqueo optimista para los caminos que todavía guardan la entidad completa
+    @Version
+    @Column(nullable = false)
+    private Long version = 0L;
+
+    // Último cambio de estado; los UPDATE masivos lo ponen en la misma sentencia.
+    // Con esto el job de reconciliación solo revisa las funciones que se movieron.
+    // Los INSERT/UPDATE de JPA también toman la hora de la BD, no la de la JVM,
+    // para que todos los caminos y la marca de agua del job usen el mismo reloj
+    @CurrentTimestamp(source = SourceType.DB)
+    private LocalDateTime actualizadoEn;
+
     // Constructor para crear asiento
     public Asiento(Long funcionId, String numeroAsiento, Integer fila, Integer columna) {
         this.funcionId = funcionId;
@@ -1,11 +1,17 @@
 package com.cine.AppGestionCine.asientos;
 
+import com.cine.AppGestionCine.compartido.Paginador;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @RestController
 @RequestMapping("/api/asientos")
@@ -14,12 +20,32 @@ import java.util.List;
 @CrossOrigin(origins = "*")
 public class AsientoController {
 
+    private static final Set<String> CAMPOS_ASIENTO = Paginador.nombres(
+            "id", "funcionId", "numeroAsiento", "fila", "columna", "estado", "clienteId", "clienteEmail", "version");
+
     private final AsientoService asientoService;
+    private final CacheMapaAsientos cacheMapaAsientos;
+    private final StreamMapaAsientos streamMapaAsientos;
+    private final Paginador paginador;
 
     @GetMapping("/funcion/{funcionId}")
-    public ResponseEntity<List<Asiento>> getAsientosPorFuncion(@PathVariable Long funcionId) {
-        List<Asiento> asientos = asientoService.getAsientosPorFuncion(funcionId);
-        return ResponseEntity.ok(asientos);
+    public ResponseEntity<?> getAsientosPorFuncion(@PathVariable Long funcionId,
+                                                   @RequestParam(required = false) Long cursor,
+                                                   @RequestParam(required = false) Integer limite,
+                                                   @RequestParam(required = false) String fields) {
+        try {
+            // Página por cursor; el siguiente cursor va en la cabecera X-Cursor-Siguiente
+            Set<String> campos = paginador.campos(fields, CAMPOS_ASIENTO);
+            int tamanio = paginador.limite(limite);
+            Class<?> tipo = paginador.cabeEn(campos, AsientoResumen.CAMPOS) ? AsientoResumen.class : Asiento.class;
+
+            List<?> asientos = asientoService.getAsientosPorFuncion(funcionId, cursor, tamanio + 1, tipo);
+            return paginador.responder(asientos, tamanio, campos);
+
+        } catch (Exception e) {
+            log.error("Error al listar asientos de función {}: {}", funcionId, e.getMessage());
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
     }
 
     @GetMapping("/funcion/{funcionId}/disponibles")
@@ -28,22 +54,112 @@ public class AsientoController {
         return ResponseEntity.ok(asientos);
     }
 
+    @GetMapping("/funcion/{funcionId}/mejores")
+    public ResponseEntity<?> getMejoresAsientos(@PathVariable Long funcionId,
+                                                @RequestParam(defaultValue = "1") int cantidad) {
+        try {
+            List<Asiento> asientos = asientoService.getMejoresAsientos(funcionId, cantidad);
+
+            if (asientos.isEmpty()) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body("No hay " + cantidad + " asientos juntos disponibles");
+            }
+
+            return ResponseEntity.ok(asientos);
+
+        } catch (Exception e) {
+            log.error("Error al buscar mejores asientos: {}", e.getMessage());
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
+    }
+
     @PostMapping("/reservar")
-    public ResponseEntity<?> reservarAsiento(@RequestBody ReservarAsientoRequest request) {
+    public CompletableFuture<ResponseEntity<?>> reservarAsiento(@RequestBody ReservarAsientoRequest request) {
+        CompletableFuture<Asiento> reserva;
+
         try {
             log.info("Reservando asiento: función {}, asiento {}, cliente {}",
                     request.getFuncionId(), request.getNumeroAsiento(), request.getClienteEmail());
 
-            Asiento asientoReservado = asientoService.reservarAsiento(
+            if (request.getHoldToken() != null) {
+                // Confirmar un hold no compite por el asiento: se resuelve directo
+                reserva = CompletableFuture.completedFuture(asientoService.reservarAsiento(
+                        request.getFuncionId(),
+                        request.getNumeroAsiento(),
+                        request.getClienteEmail(),
+                        request.getHoldToken()
+                ));
+            } else {
+                // El hilo de Tomcat queda libre mientras el carril de la función confirma
+                reserva = asientoService.reservarAsientoSecuenciado(
+                        request.getFuncionId(),
+                        request.getNumeroAsiento(),
+                        request.getClienteEmail()
+                );
+            }
+
+        } catch (Exception e) {
+            reserva = CompletableFuture.failedFuture(e);
+        }
+
+        return reserva
+                .<ResponseEntity<?>>thenApply(asientoReservado ->
+                        ResponseEntity.status(HttpStatus.CREATED).body(asientoReservado))
+                .exceptionally(e -> {
+                    Throwable causa = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                    log.error("Error al reservar asiento: {}", causa.getMessage());
+                    return ResponseEntity.badRequest().body("Error: " + causa.getMessage());
+                });
+    }
+
+    @PostMapping("/hold")
+    public ResponseEntity<?> crearHold(@RequestBody ReservarAsientoRequest request) {
+        try {
+            log.info("Creando hold: función {}, asiento {}, cliente {}",
+                    request.getFuncionId(), request.getNumeroAsiento(), request.getClienteEmail());
+
+            HoldAsiento hold = asientoService.crearHold(
                     request.getFuncionId(),
                     request.getNumeroAsiento(),
                     request.getClienteEmail()
             );
 
-            return ResponseEntity.status(HttpStatus.CREATED).body(asientoReservado);
+            return ResponseEntity.status(HttpStatus.CREATED).body(hold);
 
         } catch (Exception e) {
-            log.error("Error al reservar asiento: {}", e.getMessage());
+            log.error("Error al crear hold: {}", e.getMessage());
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
+    }
+
+    @DeleteMapping("/hold/{token}")
+    public ResponseEntity<?> liberarHold(@PathVariable String token) {
+        try {
+            asientoService.liberarHold(token);
+            return ResponseEntity.ok().body("Hold liberado exitosamente");
+
+        } catch (Exception e) {
+            log.error("Error al liberar hold {}: {}", token, e.getMessage());
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
+    }
+
+    @PostMapping("/reservar-lote")
+    public ResponseEntity<?> reservarLote(@RequestBody ReservarLoteRequest request) {
+        try {
+            log.info("Reservando lote: función {}, asientos {}, cliente {}",
+                    request.getFuncionId(), request.getNumerosAsiento(), request.getClienteEmail());
+
+            List<Asiento> asientosReservados = asientoService.reservarAsientos(
+                    request.getFuncionId(),
+                    request.getNumerosAsiento(),
+                    request.getClienteEmail()
+            );
+
+            return ResponseEntity.status(HttpStatus.CREATED).body(asientosReservados);
+
+        } catch (Exception e) {
+            log.error("Error al reservar lote de asientos: {}", e.getMessage());
             return ResponseEntity.badRequest().body("Error: " + e.getMessage());
         }
     }
@@ -76,29 +192,20 @@ public class AsientoController {
     }
 
     @GetMapping("/funcion/{funcionId}/mapa")
-    public ResponseEntity<?> getMapaAsientos(@PathVariable Long funcionId) {
+    public ResponseEntity<?> getMapaAsientos(@PathVariable Long funcionId,
+                                             @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         try {
-            List<Asiento> asientos = asientoService.getAsientosPorFuncion(funcionId);
-
-            // Organizar asientos por fila para mostrar como mapa
-            MapaAsientosResponse mapa = new MapaAsientosResponse();
+            // JSON precalculado; si el cliente ya tiene esta versión, 304 sin cuerpo
+            CacheMapaAsientos.MapaSerializado mapa = cacheMapaAsientos.getMapa(funcionId);
 
-            for (Asiento asiento : asientos) {
-                String fila = String.valueOf((char)('A' + asiento.getFila() - 1));
-
-                if (!mapa.filas.containsKey(fila)) {
-                    mapa.filas.put(fila, new java.util.ArrayList<>());
-                }
-
-                mapa.filas.get(fila).add(new AsientoInfo(
-                        asiento.getId(),
-                        asiento.getNumeroAsiento(),
-                        asiento.getEstado().toString(),
-                        asiento.getClienteEmail()
-                ));
+            if (ifNoneMatch != null && ifNoneMatch.contains(mapa.getEtag())) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(mapa.getEtag()).build();
             }
 
-            return ResponseEntity.ok(mapa);
+            return ResponseEntity.ok()
+                    .eTag(mapa.getEtag())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(mapa.getJson());
 
         } catch (Exception e) {
             log.error("Error al obtener mapa de asientos: {}", e.getMessage());
@@ -106,11 +213,24 @@ public class AsientoController {
         }
     }
 
+    @GetMapping(value = "/funcion/{funcionId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<?> streamMapaAsientos(@PathVariable Long funcionId) {
+        try {
+            // Primero llega el mapa completo ("mapa") y luego solo los cambios ("delta")
+            return ResponseEntity.ok(streamMapaAsientos.abrir(funcionId));
+
+        } catch (Exception e) {
+            log.error("Error al abrir stream de función {}: {}", funcionId, e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("Error: " + e.getMessage());
+        }
+    }
+
     // DTOs internos
     public static class ReservarAsientoRequest {
         private Long funcionId;
         private String numeroAsiento;
         private String clienteEmail;
+        private String holdToken;
 
         public Long getFuncionId() { return funcionId; }
         public void setFuncionId(Long funcionId) { this.funcionId = funcionId; }
@@ -120,6 +240,24 @@ public class AsientoController {
 
         public String getClienteEmail() { return clienteEmail; }
         public void setClienteEmail(String clienteEmail) { this.clienteEmail = clienteEmail; }
+
+        public String getHoldToken() { return holdToken; }
+        public void setHoldToken(String holdToken) { this.holdToken = holdToken; }
+    }
+
+    public static class ReservarLoteRequest {
+        private Long funcionId;
+        private List<String> numerosAsiento;
+        private String clienteEmail;
+
+        public Long getFuncionId() { return funcionId; }
+        public void setFuncionId(Long funcionId) { this.funcionId = funcionId; }
+
+        public List<String> getNumerosAsiento() { return numerosAsiento; }
+        public void setNumerosAsiento(List<String> numerosAsiento) { this.numerosAsiento = numerosAsiento; }
+
+        public String getClienteEmail() { return clienteEmail; }
+        public void setClienteEmail(String clienteEmail) { this.clienteEmail = clienteEmail; }
     }
 
     public static class GenerarAsientosRequest {
@@ -0,0 +1,79 @@
+package com.cine.AppGestionCine.asientos;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Inserción masiva de asientos con JDBC batch
+ *
+ * Asiento usa IDENTITY, así que Hibernate no puede agrupar sus INSERT.
+ * Aquí se mandan en lotes de cine.asientos.batch-size filas; con
+ * rewriteBatchedStatements=true el driver de MySQL los convierte
+ * en un INSERT multi-fila por lote.
+ */
+@Repository
+@Slf4j
+public class AsientoJdbcRepository {
+
+    // Las columnas conservan el nombre del campo (PhysicalNamingStrategyStandardImpl)
+    private static final String INSERT_ASIENTO =
+            "INSERT INTO asientos (funcionId, numeroAsiento, fila, columna, estado, version, actualizadoEn) " +
+            "VALUES (?, ?, ?, ?, ?, 0, LOCALTIMESTAMP)";
+
+    private static final String RESERVAR_SI_LIBRE =
+            "UPDATE asientos SET estado = 'RESERVADO', clienteEmail = ?, version = version + 1, actualizadoEn = LOCALTIMESTAMP " +
+            "WHERE funcionId = ? AND numeroAsiento = ? AND estado = 'LIBRE'";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+
+    public AsientoJdbcRepository(JdbcTemplate jdbcTemplate,
+                                 @Value("${cine.asientos.batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Insertar asientos nuevos en lotes, ordenados por función, fila y columna
+     */
+    public int insertarLote(List<Asiento> asientos) {
+        List<Asiento> ordenados = asientos.stream()
+                .sorted(Comparator.comparing(Asiento::getFuncionId)
+                        .thenComparing(Asiento::getFila)
+                        .thenComparing(Asiento::getColumna))
+                .toList();
+
+        int[][] resultados = jdbcTemplate.batchUpdate(INSERT_ASIENTO, ordenados, batchSize, (ps, asiento) -> {
+            ps.setLong(1, asiento.getFuncionId());
+            ps.setString(2, asiento.getNumeroAsiento());
+            ps.setInt(3, asiento.getFila());
+            ps.setInt(4, asiento.getColumna());
+            ps.setString(5, asiento.getEstado().name());
+        });
+
+        log.debug("Insertados {} asientos en {} lotes de hasta {}", ordenados.size(), resultados.length, batchSize);
+        return ordenados.size();
+    }
+
+    /**
+     * Reservar varios asientos (de una o varias funciones) en un solo batch.
+     * Retorna las filas afectadas por asiento: 0 si ya no estaba libre
+     */
+    public int[] reservarSiLibres(List<Asiento> asientos) {
+        List<Object[]> parametros = new ArrayList<>(asientos.size());
+        for (Asiento asiento : asientos) {
+            parametros.add(new Object[]{asiento.getClienteEmail(), asiento.getFuncionId(), asiento.getNumeroAsiento()});
+        }
+        return jdbcTemplate.batchUpdate(RESERVAR_SI_LIBRE, parametros);
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+}
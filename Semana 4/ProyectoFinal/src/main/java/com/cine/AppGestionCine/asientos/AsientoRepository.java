@@ -1,6 +1,8 @@
 package com.cine.AppGestionCine.asientos;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -12,6 +14,12 @@ public interface AsientoRepository extends JpaRepository<Asiento, Long> {
 
     List<Asiento> findByFuncionId(Long funcionId);
 
+    // Página por cursor: tipo es Asiento o la proyección AsientoResumen
+    <T> List<T> findByFuncionIdAndIdGreaterThanOrderByIdAsc(Long funcionId, Long id, Limit limite, Class<T> tipo);
+
+    @Query("SELECT DISTINCT a.funcionId FROM Asiento a")
+    List<Long> findFuncionIdsConAsientos();
+
     List<Asiento> findByFuncionIdAndEstado(Long funcionId, EstadoAsiento estado);
 
     @Query("SELECT COUNT(a) FROM Asiento a WHERE a.funcionId = :funcionId AND a.estado = 'LIBRE'")
@@ -24,4 +32,34 @@ public interface AsientoRepository extends JpaRepository<Asiento, Long> {
     @Query("SELECT CASE WHEN COUNT(a) > 0 THEN false ELSE true END FROM Asiento a " +
             "WHERE a.funcionId = :funcionId AND a.numeroAsiento = :numeroAsiento AND a.estado = 'LIBRE'")
     boolean isAsientoDisponible(@Param("funcionId") Long funcionId, @Param("numeroAsiento") String numeroAsiento);
+
+    // Transiciones atómicas: un solo UPDATE condicionado al estado actual.
+    // Retornan las filas afectadas (0 = otro cliente ganó la carrera).
+    // Todas marcan actualizadoEn para el job de reconciliación
+
+    @Modifying
+    @Query("UPDATE Asiento a SET a.estado = 'RESERVADO', a.clienteEmail = :clienteEmail, a.version = a.version + 1, a.actualizadoEn = LOCAL DATETIME " +
+            "WHERE a.funcionId = :funcionId AND a.numeroAsiento = :numeroAsiento AND a.estado = 'LIBRE'")
+    int reservarSiLibre(@Param("funcionId") Long funcionId,
+                        @Param("numeroAsiento") String numeroAsiento,
+                        @Param("clienteEmail") String clienteEmail);
+
+    // Lote: si retorna menos filas que asientos pedidos, el servicio hace rollback
+    @Modifying
+    @Query("UPDATE Asiento a SET a.estado = 'RESERVADO', a.clienteEmail = :clienteEmail, a.version = a.version + 1, a.actualizadoEn = LOCAL DATETIME " +
+            "WHERE a.funcionId = :funcionId AND a.numeroAsiento IN :numerosAsiento AND a.estado = 'LIBRE'")
+    int reservarLoteSiLibres(@Param("funcionId") Long funcionId,
+                             @Param("numerosAsiento") List<String> numerosAsiento,
+                             @Param("clienteEmail") String clienteEmail);
+
+    @Modifying
+    @Query("UPDATE Asiento a SET a.estado = 'LIBRE', a.clienteEmail = NULL, a.version = a.version + 1, a.actualizadoEn = LOCAL DATETIME " +
+            "WHERE a.id = :asientoId AND a.estado = 'RESERVADO'")
+    int liberarSiReservado(@Param("asientoId") Long asientoId);
+
+    // Función cancelada: todos sus asientos en una sola sentencia
+    @Modifying
+    @Query("UPDATE Asiento a SET a.estado = 'CANCELADO', a.version = a.version + 1, a.actualizadoEn = LOCAL DATETIME " +
+            "WHERE a.funcionId = :funcionId AND a.estado <> 'CANCELADO'")
+    int cancelarPorFuncion(@Param("funcionId") Long funcionId);
 }
\ No newline at end of file
@@ -0,0 +1,23 @@
+package com.cine.AppGestionCine.asientos;
+
+import com.cine.AppGestionCine.compartido.Paginador;
+
+import java.util.Set;
+
+/**
+ * Proyección de Asiento para listas con ?fields=: solo lee estas columnas
+ */
+public interface AsientoResumen {
+
+    Set<String> CAMPOS = Paginador.nombres("id", "numeroAsiento", "fila", "columna", "estado");
+
+    Long getId();
+
+    String getNumeroAsiento();
+
+    Integer getFila();
+
+    Integer getColumna();
+
+    EstadoAsiento getEstado();
+}
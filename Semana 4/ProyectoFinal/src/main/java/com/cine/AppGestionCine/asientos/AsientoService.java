@@ -3,31 +3,80 @@ package com.cine.AppGestionCine.asientos;
 
 import com.cine.AppGestionCine.asientos.events.AsientoReservadoEvent;
 import com.cine.AppGestionCine.asientos.events.AsientoCanceladoEvent;
-import com.cine.AppGestionCine.clientes.Cliente;
+import com.cine.AppGestionCine.asientos.events.AsientosReservadosEvent;
+import com.cine.AppGestionCine.clientes.ClienteEstado;
 import com.cine.AppGestionCine.clientes.ClienteService;
 import com.cine.AppGestionCine.clientes.EstadoCliente;
+import com.cine.AppGestionCine.funciones.GeneradorAsientos;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 @Transactional
-public class AsientoService {
+public class AsientoService implements GeneradorAsientos {
 
     private final AsientoRepository asientoRepository;
+    private final AsientoJdbcRepository asientoJdbcRepository;
     private final ApplicationEventPublisher eventPublisher;
     private final ClienteService clienteService;
+    private final MotorAsientos motorAsientos;
+    private final HoldsAsientos holdsAsientos;
+    private final CacheMapaAsientos cacheMapaAsientos;
+    private final SecuenciadorReservas secuenciadorReservas;
 
     public void generarAsientosPorFuncion(Long funcionId, Integer totalAsientos) {
         log.info("Generando {} asientos para función {}", totalAsientos, funcionId);
 
-        // Generar asientos con formato A1, A2, B1, B2, etc.
+        // Un INSERT por lote en lugar de un save() por asiento
+        asientoJdbcRepository.insertarLote(crearAsientos(funcionId, totalAsientos));
+
+        motorAsientos.reconstruir(funcionId);
+        cacheMapaAsientos.invalidar(funcionId);
+
+        log.info("Asientos generados exitosamente para función {}", funcionId);
+    }
+
+    /**
+     * Generar los asientos de varias funciones juntas en los mismos lotes (importación de programación).
+     * Retorna cuántos asientos se insertaron
+     */
+    @Override
+    public int generarAsientosPorFunciones(Map<Long, Integer> totalesPorFuncion) {
+        List<Asiento> asientos = new ArrayList<>();
+        totalesPorFuncion.forEach((funcionId, total) -> asientos.addAll(crearAsientos(funcionId, total)));
+
+        asientoJdbcRepository.insertarLote(asientos);
+
+        // Funciones nuevas: sus mapas se cargan cuando alguien las consulte, no una consulta por función aquí
+        for (Long funcionId : totalesPorFuncion.keySet()) {
+            motorAsientos.descartar(funcionId);
+            cacheMapaAsientos.invalidar(funcionId);
+        }
+
+        log.debug("Generados {} asientos para {} funciones", asientos.size(), totalesPorFuncion.size());
+        return asientos.size();
+    }
+
+    /**
+     * Asientos con formato A1, A2, ... A10, B1, B2, etc.
+     */
+    private static List<Asiento> crearAsientos(Long funcionId, int totalAsientos) {
+        List<Asiento> asientos = new ArrayList<>(totalAsientos);
         int asientosGenerados = 0;
         char fila = 'A';
         int columna = 1;
@@ -35,8 +84,7 @@ public class AsientoService {
 
         while (asientosGenerados < totalAsientos) {
             String numeroAsiento = fila + String.valueOf(columna);
-            Asiento asiento = new Asiento(funcionId, numeroAsiento, (int)(fila - 'A' + 1), columna);
-            asientoRepository.save(asiento);
+            asientos.add(new Asiento(funcionId, numeroAsiento, (int)(fila - 'A' + 1), columna));
 
             asientosGenerados++;
             columna++;
@@ -46,40 +94,58 @@ public class AsientoService {
                 columna = 1;
             }
         }
-
-        log.info("Asientos generados exitosamente para función {}", funcionId);
+        return asientos;
     }
 
     public Asiento reservarAsiento(Long funcionId, String numeroAsiento, String clienteEmail) {
+        return reservarAsiento(funcionId, numeroAsiento, clienteEmail, null);
+    }
+
+    /**
+     * Reservar un asiento; si viene holdToken, se confirma el hold en lugar de competir por el asiento
+     */
+    public Asiento reservarAsiento(Long funcionId, String numeroAsiento, String clienteEmail, String holdToken) {
         log.info("Reservando asiento {} para función {} por cliente {}", numeroAsiento, funcionId, clienteEmail);
 
-        Cliente cliente = clienteService.getClienteByEmail(clienteEmail)
-                .orElseThrow(() -> new RuntimeException(
-                        "Cliente no encontrado con email: " + clienteEmail +
-                                ". Debe registrarse primero."));
+        validarCliente(clienteEmail);
 
-        if (cliente.getEstado() != EstadoCliente.ACTIVO) {
-            throw new RuntimeException(
-                    "El cliente está inactivo. Contacte al administrador.");
-        }
-        Optional<Asiento> asientoOpt = asientoRepository.findByFuncionIdAndNumeroAsiento(funcionId, numeroAsiento);
+        MapaOcupacion mapa = motorAsientos.getMapa(funcionId);
+        int indice;
 
-        if (asientoOpt.isEmpty()) {
-            throw new RuntimeException("Asiento no encontrado: " + numeroAsiento);
+        if (holdToken != null) {
+            // El bit ya es nuestro desde que se creó el hold
+            indice = holdsAsientos.consumir(holdToken, funcionId, numeroAsiento, clienteEmail);
+
+        } else {
+            // La decisión se toma en memoria: CAS sobre el bitset de la función
+            indice = mapa.indice(numeroAsiento);
+
+            if (indice < 0) {
+                throw new RuntimeException("Asiento no encontrado: " + numeroAsiento);
+            }
+
+            if (!mapa.reservar(indice)) {
+                throw new RuntimeException("El asiento " + numeroAsiento + " no está disponible");
+            }
         }
 
-        Asiento asiento = asientoOpt.get();
+        Asiento asientoReservado = new Asiento(funcionId, numeroAsiento, mapa.fila(indice), mapa.columna(indice));
+        asientoReservado.setId(mapa.asientoId(indice));
+        asientoReservado.setEstado(EstadoAsiento.RESERVADO);
+        asientoReservado.setClienteEmail(clienteEmail);
 
-        if (asiento.getEstado() != EstadoAsiento.LIBRE) {
+        // Antes del UPDATE: si falla (deadlock, timeout, conexión) o no confirma, el rollback libera el bit
+        liberarSiHayRollback(mapa, indice);
+
+        // Write-through: un solo UPDATE condicionado a estado = LIBRE.
+        // Solo los ganadores en memoria llegan aquí; la BD sigue siendo el árbitro final
+        if (asientoRepository.reservarSiLibre(funcionId, numeroAsiento, clienteEmail) == 0) {
+            // Otro nodo lo reservó antes
             throw new RuntimeException("El asiento " + numeroAsiento + " no está disponible");
         }
 
-        asiento.setEstado(EstadoAsiento.RESERVADO);
-        asiento.setClienteEmail(clienteEmail);
-        Asiento asientoReservado = asientoRepository.save(asiento);
-
         AsientoReservadoEvent evento = new AsientoReservadoEvent(
-                asiento.getId(),
+                asientoReservado.getId(),
                 funcionId,
                 numeroAsiento,
                 clienteEmail
@@ -91,6 +157,122 @@ public class AsientoService {
         return asientoReservado;
     }
 
+    /**
+     * Reservar un asiento a través del carril de su función.
+     * No abre transacción: el carril confirma la reserva en su propio group commit
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public CompletableFuture<Asiento> reservarAsientoSecuenciado(Long funcionId, String numeroAsiento, String clienteEmail) {
+        log.info("Encolando reserva del asiento {} para función {} por cliente {}", numeroAsiento, funcionId, clienteEmail);
+
+        validarCliente(clienteEmail);
+
+        return secuenciadorReservas.reservar(funcionId, numeroAsiento, clienteEmail);
+    }
+
+    /**
+     * Reservar varios asientos de una función: todos o ninguno.
+     * El cliente se valida una vez, la BD recibe un solo UPDATE
+     * y se publica un único evento con el lote completo
+     */
+    public List<Asiento> reservarAsientos(Long funcionId, List<String> numerosAsiento, String clienteEmail) {
+        log.info("Reservando lote de asientos {} para función {} por cliente {}", numerosAsiento, funcionId, clienteEmail);
+
+        if (numerosAsiento == null || numerosAsiento.isEmpty()) {
+            throw new RuntimeException("Debe indicar al menos un asiento");
+        }
+
+        if (new HashSet<>(numerosAsiento).size() != numerosAsiento.size()) {
+            throw new RuntimeException("El lote contiene asientos repetidos");
+        }
+
+        validarCliente(clienteEmail);
+
+        MapaOcupacion mapa = motorAsientos.getMapa(funcionId);
+        int[] indices = new int[numerosAsiento.size()];
+
+        for (int i = 0; i < indices.length; i++) {
+            indices[i] = mapa.indice(numerosAsiento.get(i));
+            if (indices[i] < 0) {
+                throw new RuntimeException("Asiento no encontrado: " + numerosAsiento.get(i));
+            }
+        }
+
+        // Todo o nada en memoria: si uno falla, devolver los que ya se tomaron
+        for (int i = 0; i < indices.length; i++) {
+            if (!mapa.reservar(indices[i])) {
+                for (int j = 0; j < i; j++) {
+                    mapa.liberar(indices[j]);
+                }
+                throw new RuntimeException("El asiento " + numerosAsiento.get(i) + " no está disponible");
+            }
+        }
+
+        // Si la BD no confirma el lote completo, el rollback libera todos los bits
+        liberarSiHayRollback(mapa, indices);
+
+        int reservados = asientoRepository.reservarLoteSiLibres(funcionId, numerosAsiento, clienteEmail);
+        if (reservados != numerosAsiento.size()) {
+            throw new RuntimeException("Solo " + reservados + " de " + numerosAsiento.size()
+                    + " asientos siguen disponibles");
+        }
+
+        List<Asiento> asientosReservados = new ArrayList<>(indices.length);
+        List<Long> asientoIds = new ArrayList<>(indices.length);
+
+        for (int i = 0; i < indices.length; i++) {
+            Asiento asiento = new Asiento(funcionId, numerosAsiento.get(i), mapa.fila(indices[i]), mapa.columna(indices[i]));
+            asiento.setId(mapa.asientoId(indices[i]));
+            asiento.setEstado(EstadoAsiento.RESERVADO);
+            asiento.setClienteEmail(clienteEmail);
+
+            asientosReservados.add(asiento);
+            asientoIds.add(asiento.getId());
+        }
+
+        AsientosReservadosEvent evento = new AsientosReservadosEvent(
+                funcionId,
+                asientoIds,
+                List.copyOf(numerosAsiento),
+                clienteEmail
+        );
+
+        log.info("Publicando evento AsientosReservadosEvent con {} asientos", evento.getCantidad());
+        eventPublisher.publishEvent(evento);
+
+        return asientosReservados;
+    }
+
+    /**
+     * Apartar un asiento por unos minutos sin escribir en la BD
+     */
+    public HoldAsiento crearHold(Long funcionId, String numeroAsiento, String clienteEmail) {
+        log.info("Creando hold del asiento {} para función {} por cliente {}", numeroAsiento, funcionId, clienteEmail);
+
+        validarCliente(clienteEmail);
+
+        MapaOcupacion mapa = motorAsientos.getMapa(funcionId);
+        int indice = mapa.indice(numeroAsiento);
+
+        if (indice < 0) {
+            throw new RuntimeException("Asiento no encontrado: " + numeroAsiento);
+        }
+
+        if (!mapa.reservar(indice)) {
+            throw new RuntimeException("El asiento " + numeroAsiento + " no está disponible");
+        }
+
+        return holdsAsientos.crear(mapa, indice, clienteEmail, System.currentTimeMillis());
+    }
+
+    /**
+     * Soltar un hold antes de que expire
+     */
+    public void liberarHold(String holdToken) {
+        log.info("Liberando hold {}", holdToken);
+        holdsAsientos.liberar(holdToken);
+    }
+
     public void cancelarReserva(Long asientoId) {
         log.info("Cancelando reserva de asiento {}", asientoId);
 
@@ -110,9 +292,12 @@ public class AsientoService {
         String numeroAsiento = asiento.getNumeroAsiento();
         Long funcionId = asiento.getFuncionId();
 
-        asiento.setEstado(EstadoAsiento.LIBRE);
-        asiento.setClienteEmail(null);
-        asientoRepository.save(asiento);
+        // UPDATE condicionado: si alguien lo canceló antes, no afecta filas
+        if (asientoRepository.liberarSiReservado(asientoId) == 0) {
+            throw new RuntimeException("El asiento no está reservado");
+        }
+
+        motorAsientos.liberar(funcionId, numeroAsiento);
 
         AsientoCanceladoEvent evento = new AsientoCanceladoEvent(
                 asientoId,
@@ -125,27 +310,84 @@ public class AsientoService {
         eventPublisher.publishEvent(evento);
     }
 
-    public void cancelarAsientosPorFuncion(Long funcionId) {
+    /**
+     * Cancelar todos los asientos de una función con un solo UPDATE.
+     * Retorna cuántos asientos cambiaron de estado
+     */
+    public int cancelarAsientosPorFuncion(Long funcionId) {
         log.info("Cancelando todos los asientos de función {}", funcionId);
 
-        List<Asiento> asientos = asientoRepository.findByFuncionId(funcionId);
+        int cancelados = asientoRepository.cancelarPorFuncion(funcionId);
 
-        for (Asiento asiento : asientos) {
-            if (asiento.getEstado() != EstadoAsiento.CANCELADO) {
-                asiento.setEstado(EstadoAsiento.CANCELADO);
-                asientoRepository.save(asiento);
-            }
+        // Primero descartar holds para que ninguno expire y libere un asiento
+        holdsAsientos.descartarFuncion(funcionId);
+        motorAsientos.bloquearFuncion(funcionId);
+        cacheMapaAsientos.invalidar(funcionId);
+
+        log.info("{} asientos de función {} han sido cancelados", cancelados, funcionId);
+        return cancelados;
+    }
+
+    private void validarCliente(String clienteEmail) {
+        ClienteEstado cliente = clienteService.getEstadoCliente(clienteEmail)
+                .orElseThrow(() -> new RuntimeException(
+                        "Cliente no encontrado con email: " + clienteEmail +
+                                ". Debe registrarse primero."));
+
+        if (cliente.getEstado() != EstadoCliente.ACTIVO) {
+            throw new RuntimeException(
+                    "El cliente está inactivo. Contacte al administrador.");
+        }
+    }
+
+    /**
+     * Si la transacción de la reserva hace rollback (ej. falla un listener),
+     * devolver los asientos a LIBRE también en memoria
+     */
+    private void liberarSiHayRollback(MapaOcupacion mapa, int... indices) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
         }
 
-        log.info("Todos los asientos de función {} han sido cancelados", funcionId);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    for (int indice : indices) {
+                        mapa.liberar(indice);
+                    }
+                }
+            }
+        });
     }
 
+    /**
+     * Asientos de la función con id mayor al cursor, en orden de id (tipo: Asiento o AsientoResumen)
+     */
     @Transactional(readOnly = true)
-    public List<Asiento> getAsientosPorFuncion(Long funcionId) {
-        return asientoRepository.findByFuncionId(funcionId);
+    public <T> List<T> getAsientosPorFuncion(Long funcionId, Long cursor, int limite, Class<T> tipo) {
+        return asientoRepository.findByFuncionIdAndIdGreaterThanOrderByIdAsc(
+                funcionId, cursor != null ? cursor : 0L, Limit.of(limite), tipo);
     }
 
 
+    /**
+     * Mejores N asientos contiguos libres (más cerca del centro de la sala), resueltos en memoria
+     */
+    @Transactional(readOnly = true)
+    public List<Asiento> getMejoresAsientos(Long funcionId, int cantidad) {
+        MapaOcupacion mapa = motorAsientos.getMapa(funcionId);
+        int[] indices = BuscadorMejoresAsientos.buscar(mapa, cantidad);
+
+        List<Asiento> asientos = new ArrayList<>(indices.length);
+        for (int indice : indices) {
+            Asiento asiento = new Asiento(funcionId, mapa.numeroAsiento(indice), mapa.fila(indice), mapa.columna(indice));
+            asiento.setId(mapa.asientoId(indice));
+            asientos.add(asiento);
+        }
+        return asientos;
+    }
+
     @Transactional(readOnly = true)
     public List<Asiento> getAsientosDisponibles(Long funcionId) {
         return asientoRepository.findByFuncionIdAndEstado(funcionId, EstadoAsiento.LIBRE);
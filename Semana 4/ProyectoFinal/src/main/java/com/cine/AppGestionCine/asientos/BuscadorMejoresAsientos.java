@@ -0,0 +1,84 @@
+package com.cine.AppGestionCine.asientos;
+
+/**
+ * Busca los mejores N asientos contiguos de una función
+ *
+ * Trabaja sobre las palabras de 64 bits de MapaOcupacion: en cada fila,
+ * después de x &= x >>> k, el bit j queda encendido solo si las columnas
+ * j..j+k-1 están libres. Cada bloque se califica por su distancia al
+ * centro de la sala (columna central frente a la pantalla y fila central).
+ */
+public final class BuscadorMejoresAsientos {
+
+    private BuscadorMejoresAsientos() {
+    }
+
+    /**
+     * Índices de los asientos del mejor bloque, o un arreglo vacío si no hay ninguno
+     */
+    public static int[] buscar(MapaOcupacion mapa, int cantidad) {
+        if (cantidad < 1 || cantidad > mapa.getColumnas()) {
+            return new int[0];
+        }
+
+        // Coordenadas dobladas para trabajar con enteros: centro = filas + 1, columnas + 1
+        int centroFila = mapa.getFilas() + 1;
+        int centroColumna = mapa.getColumnas() + 1;
+
+        long mejorPuntaje = Long.MAX_VALUE;
+        int mejorFila = -1;
+        int mejorInicio = -1;
+
+        for (int fila = 1; fila <= mapa.getFilas(); fila++) {
+            long inicios = iniciosDeBloque(mapa.libresEnFila(fila), cantidad);
+
+            long dFila = 2L * fila - centroFila;
+            long puntajeFila = dFila * dFila;
+            if (puntajeFila >= mejorPuntaje) {
+                continue;
+            }
+
+            while (inicios != 0) {
+                int inicio = Long.numberOfTrailingZeros(inicios);
+                inicios &= inicios - 1;
+
+                // Centro del bloque (doblado): columna inicial + columna final
+                long dColumna = (2L * inicio + cantidad + 1) - centroColumna;
+                long puntaje = puntajeFila + dColumna * dColumna;
+
+                if (puntaje < mejorPuntaje) {
+                    mejorPuntaje = puntaje;
+                    mejorFila = fila;
+                    mejorInicio = inicio;
+                }
+            }
+        }
+
+        if (mejorFila < 0) {
+            return new int[0];
+        }
+
+        int[] indices = new int[cantidad];
+        for (int i = 0; i < cantidad; i++) {
+            indices[i] = mapa.indice(mejorFila, mejorInicio + i + 1);
+        }
+        return indices;
+    }
+
+    /**
+     * Bit j encendido si hay k bits libres consecutivos desde j (duplicando el salto: O(log k))
+     */
+    static long iniciosDeBloque(long libres, int k) {
+        long x = libres;
+        int largo = 1;
+
+        while (largo * 2 <= k) {
+            x &= x >>> largo;
+            largo *= 2;
+        }
+        if (largo < k) {
+            x &= x >>> (k - largo);
+        }
+        return x;
+    }
+}
@@ -0,0 +1,252 @@
+package com.cine.AppGestionCine.asientos;
+
+import com.cine.AppGestionCine.asientos.AsientoController.AsientoInfo;
+import com.cine.AppGestionCine.asientos.AsientoController.MapaAsientosResponse;
+import com.cine.AppGestionCine.asientos.events.AsientoCanceladoEvent;
+import com.cine.AppGestionCine.asientos.events.AsientoReservadoEvent;
+import com.cine.AppGestionCine.asientos.events.AsientosReservadosEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Mapa de asientos de cada función ya serializado a JSON
+ *
+ * Se arma una vez desde la BD y luego se actualiza asiento por asiento con
+ * los eventos de reserva/cancelación (después del commit). Cada cambio
+ * genera una versión nueva que se usa como ETag: si el kiosko ya tiene esa
+ * versión, el controller responde 304 sin tocar la BD ni serializar nada.
+ *
+ * Igual que en MotorAsientos, los mapas tienen límite (cine.asientos.mapas.max-funciones)
+ * y se descartan tras unas horas sin uso; un ID sin asientos no se guarda, así que
+ * pedir IDs al azar en GET /funcion/{id}/mapa no hace crecer la memoria.
+ */
+@Component
+@Slf4j
+public class CacheMapaAsientos {
+
+    private final AsientoRepository asientoRepository;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // Arranca en el reloj para que un ETag de antes de reiniciar nunca coincida
+    private final AtomicLong version = new AtomicLong(System.currentTimeMillis() * 1000);
+
+    // Cambios recibidos (estuviera o no el mapa en caché): si llega uno mientras
+    // se carga un mapa de la BD, esa carga puede no incluirlo y no se guarda
+    private final AtomicLong cambios = new AtomicLong();
+
+    private final Cache<Long, Entrada> entradas;
+
+    public CacheMapaAsientos(AsientoRepository asientoRepository,
+                             ObjectMapper objectMapper,
+                             ApplicationEventPublisher eventPublisher,
+                             @Value("${cine.asientos.mapas.max-funciones:10000}") long maxFunciones,
+                             @Value("${cine.asientos.mapas.inactividad-horas:24}") long inactividadHoras) {
+        this.asientoRepository = asientoRepository;
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+        this.entradas = Caffeine.newBuilder()
+                .maximumSize(maxFunciones)
+                .expireAfterAccess(Duration.ofHours(inactividadHoras))
+                .build();
+    }
+
+    /**
+     * Mapa serializado actual (se carga de la BD la primera vez, fuera de cualquier candado).
+     * Sin asientos devuelve un mapa vacío que no se guarda
+     */
+    public MapaSerializado getMapa(Long funcionId) {
+        Entrada entrada = entradas.getIfPresent(funcionId);
+        if (entrada != null) {
+            return entrada.serializado;
+        }
+
+        long cambiosAntes = cambios.get();
+        Entrada cargada = cargar(funcionId);
+        if (cargada.posiciones.isEmpty()) {
+            return cargada.serializado;
+        }
+
+        // Si otro hilo lo cargó al mismo tiempo, todos usan el primero que quedó guardado
+        Entrada previa = entradas.asMap().putIfAbsent(funcionId, cargada);
+        if (previa != null) {
+            return previa.serializado;
+        }
+        if (cambios.get() != cambiosAntes) {
+            entradas.asMap().remove(funcionId, cargada);
+        }
+        return cargada.serializado;
+    }
+
+    /**
+     * Mapas en memoria (aproximado: Caffeine descarta en segundo plano)
+     */
+    public long totalMapas() {
+        entradas.cleanUp();
+        return entradas.estimatedSize();
+    }
+
+    /**
+     * Descartar el mapa de una función (asientos generados o función cancelada).
+     * Dentro de una transacción se descarta otra vez después del commit,
+     * por si alguien lo recargó con datos viejos mientras tanto
+     */
+    public void invalidar(Long funcionId) {
+        descartar(funcionId);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    descartar(funcionId);
+                }
+            });
+        }
+    }
+
+    private void descartar(Long funcionId) {
+        cambios.incrementAndGet();
+        entradas.invalidate(funcionId);
+        eventPublisher.publishEvent(new CambioMapaAsientos(funcionId, version.get(), null));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void manejarAsientoReservado(AsientoReservadoEvent evento) {
+        actualizar(evento.getFuncionId(), List.of(evento.getAsientoId()),
+                EstadoAsiento.RESERVADO, evento.getClienteEmail());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void manejarAsientosReservados(AsientosReservadosEvent evento) {
+        actualizar(evento.getFuncionId(), evento.getAsientoIds(),
+                EstadoAsiento.RESERVADO, evento.getClienteEmail());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void manejarAsientoCancelado(AsientoCanceladoEvent evento) {
+        actualizar(evento.getFuncionId(), List.of(evento.getAsientoId()),
+                EstadoAsiento.LIBRE, null);
+    }
+
+    private void actualizar(Long funcionId, List<Long> asientoIds, EstadoAsiento estado, String clienteEmail) {
+        cambios.incrementAndGet();
+
+        // Si la función no está en caché no hay nada que actualizar: se cargará completa al pedirla
+        Entrada entrada = entradas.getIfPresent(funcionId);
+        if (entrada == null) {
+            return;
+        }
+
+        // Candado por función (no del mapa): los cambios de una función salen en orden de versión
+        synchronized (entrada) {
+            List<AsientoInfo> asientos = new ArrayList<>(asientoIds.size());
+
+            for (Long asientoId : asientoIds) {
+                Posicion posicion = entrada.posiciones.get(asientoId);
+                if (posicion == null) {
+                    // Asiento desconocido: descartar y que la próxima lectura lo arme desde la BD
+                    descartar(funcionId);
+                    return;
+                }
+
+                List<AsientoInfo> fila = entrada.mapa.getFilas().get(posicion.fila);
+                AsientoInfo actual = fila.get(posicion.indice);
+                AsientoInfo nuevo = new AsientoInfo(actual.getId(), actual.getNumero(), estado.toString(), clienteEmail);
+                fila.set(posicion.indice, nuevo);
+                asientos.add(nuevo);
+            }
+
+            entrada.serializado = serializar(entrada.mapa);
+            eventPublisher.publishEvent(new CambioMapaAsientos(funcionId, entrada.serializado.getVersion(), asientos));
+        }
+    }
+
+    private Entrada cargar(Long funcionId) {
+        log.debug("Armando mapa de asientos en caché para función {}", funcionId);
+
+        MapaAsientosResponse mapa = new MapaAsientosResponse();
+        Map<Long, Posicion> posiciones = new HashMap<>();
+
+        for (Asiento asiento : asientoRepository.findByFuncionId(funcionId)) {
+            String fila = String.valueOf((char) ('A' + asiento.getFila() - 1));
+            List<AsientoInfo> asientosFila = mapa.getFilas().computeIfAbsent(fila, f -> new ArrayList<>());
+
+            posiciones.put(asiento.getId(), new Posicion(fila, asientosFila.size()));
+            asientosFila.add(new AsientoInfo(
+                    asiento.getId(),
+                    asiento.getNumeroAsiento(),
+                    asiento.getEstado().toString(),
+                    asiento.getClienteEmail()
+            ));
+        }
+
+        return new Entrada(mapa, posiciones, serializar(mapa));
+    }
+
+    private MapaSerializado serializar(MapaAsientosResponse mapa) {
+        try {
+            long nueva = version.incrementAndGet();
+            return new MapaSerializado(nueva, objectMapper.writeValueAsBytes(mapa));
+
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar el mapa de asientos", e);
+        }
+    }
+
+    /**
+     * JSON listo para enviar y su ETag; inmutable
+     */
+    public static class MapaSerializado {
+        private final long version;
+        private final String etag;
+        private final byte[] json;
+
+        public MapaSerializado(long version, byte[] json) {
+            this.version = version;
+            this.etag = "\"" + version + "\"";
+            this.json = json;
+        }
+
+        public long getVersion() { return version; }
+        public String getEtag() { return etag; }
+        public byte[] getJson() { return json; }
+    }
+
+    private static class Posicion {
+        private final String fila;
+        private final int indice;
+
+        private Posicion(String fila, int indice) {
+            this.fila = fila;
+            this.indice = indice;
+        }
+    }
+
+    private static class Entrada {
+        private final MapaAsientosResponse mapa;
+        private final Map<Long, Posicion> posiciones;
+        private volatile MapaSerializado serializado;
+
+        private Entrada(MapaAsientosResponse mapa, Map<Long, Posicion> posiciones, MapaSerializado serializado) {
+            this.mapa = mapa;
+            this.posiciones = posiciones;
+            this.serializado = serializado;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.cine.AppGestionCine.asientos;
+
+import com.cine.AppGestionCine.asientos.AsientoController.AsientoInfo;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Evento interno del módulo: el mapa en caché de una función cambió
+ *
+ * asientos trae solo los asientos modificados con la versión resultante;
+ * si es null, el mapa se invalidó y hay que volver a pedirlo completo.
+ */
+@Data
+@AllArgsConstructor
+public class CambioMapaAsientos {
+    private final Long funcionId;
+    private final long version;
+    private final List<AsientoInfo> asientos;
+
+    public boolean esInvalidacion() {
+        return asientos == null;
+    }
+}
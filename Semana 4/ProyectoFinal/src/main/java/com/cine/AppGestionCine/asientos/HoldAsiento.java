@@ -0,0 +1,20 @@
+package com.cine.AppGestionCine.asientos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Apartado temporal de un asiento mientras el cliente paga
+ * Vive solo en memoria: si expira, el asiento vuelve a estar libre sin tocar la BD
+ */
+@Data
+@AllArgsConstructor
+public class HoldAsiento {
+    private final String token;
+    private final Long funcionId;
+    private final String numeroAsiento;
+    private final String clienteEmail;
+    private final LocalDateTime expiraEn;
+}
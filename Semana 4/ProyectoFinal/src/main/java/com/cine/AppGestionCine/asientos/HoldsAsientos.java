@@ -0,0 +1,182 @@
+package com.cine.AppGestionCine.asientos;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Holds de asientos con expiración automática
+ *
+ * El hold ocupa el bit del asiento en MapaOcupacion, así nadie más puede
+ * reservarlo. Si el cliente no confirma antes del TTL, la rueda de
+ * temporizadores lo expira y el bit se libera; la BD nunca se entera.
+ */
+@Component
+@Slf4j
+public class HoldsAsientos {
+
+    private final long ttlMs;
+    private final RuedaTemporizadora<Registro> rueda;
+
+    private final Map<String, Registro> holds = new ConcurrentHashMap<>();
+    private final Map<Long, Set<String>> tokensPorFuncion = new ConcurrentHashMap<>();
+
+    public HoldsAsientos(@Value("${cine.asientos.hold-ttl-segundos:600}") long ttlSegundos,
+                         @Value("${cine.asientos.hold-tick-ms:1000}") long tickMs) {
+        this.ttlMs = ttlSegundos * 1000;
+        this.rueda = new RuedaTemporizadora<>(tickMs, System.currentTimeMillis());
+    }
+
+    /**
+     * Registrar un hold sobre un asiento que ya se ocupó en el mapa
+     */
+    public HoldAsiento crear(MapaOcupacion mapa, int indice, String clienteEmail, long ahoraMs) {
+        long expiraEnMs = ahoraMs + ttlMs;
+
+        HoldAsiento hold = new HoldAsiento(
+                UUID.randomUUID().toString(),
+                mapa.getFuncionId(),
+                mapa.numeroAsiento(indice),
+                clienteEmail,
+                LocalDateTime.ofInstant(Instant.ofEpochMilli(expiraEnMs), ZoneId.systemDefault())
+        );
+
+        Registro registro = new Registro(hold, mapa, indice);
+
+        synchronized (rueda) {
+            registro.temporizador = rueda.programar(registro, expiraEnMs);
+            holds.put(hold.getToken(), registro);
+            tokensPorFuncion.computeIfAbsent(hold.getFuncionId(), id -> ConcurrentHashMap.newKeySet())
+                    .add(hold.getToken());
+        }
+
+        return hold;
+    }
+
+    /**
+     * Consumir un hold para convertirlo en reserva.
+     * Retorna el índice del asiento, que sigue ocupado en el mapa
+     */
+    public int consumir(String token, Long funcionId, String numeroAsiento, String clienteEmail) {
+        Registro registro = holds.get(token);
+
+        if (registro == null) {
+            throw new RuntimeException("El hold expiró o no existe");
+        }
+
+        HoldAsiento hold = registro.hold;
+        if (!hold.getFuncionId().equals(funcionId)
+                || !hold.getNumeroAsiento().equals(numeroAsiento)
+                || !hold.getClienteEmail().equalsIgnoreCase(clienteEmail)) {
+            throw new RuntimeException("El hold no corresponde a este asiento o cliente");
+        }
+
+        // Quien lo quite del mapa (consumo o expiración) se queda con el asiento
+        if (!quitar(token, registro)) {
+            throw new RuntimeException("El hold expiró o no existe");
+        }
+
+        return registro.indice;
+    }
+
+    /**
+     * Soltar un hold antes de que expire (el cliente abandonó el checkout)
+     */
+    public void liberar(String token) {
+        Registro registro = holds.get(token);
+
+        if (registro == null || !quitar(token, registro)) {
+            throw new RuntimeException("El hold expiró o no existe");
+        }
+
+        registro.mapa.liberar(registro.indice);
+    }
+
+    /**
+     * Descartar los holds de una función cancelada (sus asientos ya quedaron ocupados)
+     */
+    public void descartarFuncion(Long funcionId) {
+        Set<String> tokens = tokensPorFuncion.remove(funcionId);
+        if (tokens == null) {
+            return;
+        }
+
+        for (String token : tokens) {
+            Registro registro = holds.get(token);
+            if (registro != null) {
+                quitar(token, registro);
+            }
+        }
+    }
+
+    public Optional<HoldAsiento> getHold(String token) {
+        return Optional.ofNullable(holds.get(token)).map(registro -> registro.hold);
+    }
+
+    public int activos() {
+        return holds.size();
+    }
+
+    @Scheduled(fixedRateString = "${cine.asientos.hold-tick-ms:1000}")
+    public void avanzar() {
+        expirarVencidos(System.currentTimeMillis());
+    }
+
+    /**
+     * Expirar los holds vencidos hasta el instante indicado
+     */
+    public void expirarVencidos(long ahoraMs) {
+        synchronized (rueda) {
+            rueda.avanzar(ahoraMs, registro -> {
+                if (holds.remove(registro.hold.getToken(), registro)) {
+                    quitarDeFuncion(registro.hold);
+                    registro.mapa.liberar(registro.indice);
+                    log.debug("Hold {} expirado, asiento {} liberado",
+                            registro.hold.getToken(), registro.hold.getNumeroAsiento());
+                }
+            });
+        }
+    }
+
+    private boolean quitar(String token, Registro registro) {
+        if (!holds.remove(token, registro)) {
+            return false;
+        }
+
+        quitarDeFuncion(registro.hold);
+        synchronized (rueda) {
+            rueda.cancelar(registro.temporizador);
+        }
+        return true;
+    }
+
+    private void quitarDeFuncion(HoldAsiento hold) {
+        Set<String> tokens = tokensPorFuncion.get(hold.getFuncionId());
+        if (tokens != null) {
+            tokens.remove(hold.getToken());
+        }
+    }
+
+    private static class Registro {
+        private final HoldAsiento hold;
+        private final MapaOcupacion mapa;
+        private final int indice;
+        private RuedaTemporizadora.Temporizador<Registro> temporizador;
+
+        private Registro(HoldAsiento hold, MapaOcupacion mapa, int indice) {
+            this.hold = hold;
+            this.mapa = mapa;
+            this.indice = indice;
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.cine.AppGestionCine.asientos;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Estado en memoria de los asientos de una función
+ *
+ * Cada fila es una palabra de 64 bits (bit encendido = asiento ocupado),
+ * así que la transición LIBRE → RESERVADO es un compareAndSet sobre la fila,
+ * sin locks ni consultas a la BD.
+ *
+ * Las posiciones que no tienen asiento (última fila incompleta) nacen ocupadas
+ * para que nunca se puedan reservar.
+ */
+public class MapaOcupacion {
+
+    public static final int MAX_COLUMNAS = 64;
+
+    private final Long funcionId;
+    private final int filas;
+    private final int columnas;
+
+    // Una palabra por fila: bit (columna - 1)
+    private final AtomicLongArray ocupacion;
+
+    // Datos inmutables del asiento, por índice (fila - 1) * columnas + (columna - 1)
+    private final long[] ids;
+    private final String[] numeros;
+    private final Map<String, Integer> indicePorNumero;
+
+    private MapaOcupacion(Long funcionId, int filas, int columnas) {
+        this.funcionId = funcionId;
+        this.filas = filas;
+        this.columnas = columnas;
+        this.ocupacion = new AtomicLongArray(filas);
+        this.ids = new long[filas * columnas];
+        this.numeros = new String[filas * columnas];
+        this.indicePorNumero = new HashMap<>(filas * columnas * 2);
+    }
+
+    /**
+     * Construye el mapa a partir de los asientos guardados en la BD
+     */
+    public static MapaOcupacion desde(Long funcionId, List<Asiento> asientos) {
+        int filas = 0;
+        int columnas = 0;
+
+        for (Asiento asiento : asientos) {
+            filas = Math.max(filas, asiento.getFila());
+            columnas = Math.max(columnas, asiento.getColumna());
+        }
+
+        if (columnas > MAX_COLUMNAS) {
+            throw new IllegalStateException("La función " + funcionId + " tiene filas de más de "
+                    + MAX_COLUMNAS + " asientos");
+        }
+
+        MapaOcupacion mapa = new MapaOcupacion(funcionId, filas, columnas);
+
+        // Todo ocupado hasta que aparezca un asiento LIBRE en esa posición
+        long filaLlena = filaLlena(columnas);
+        long[] palabras = new long[filas];
+        Arrays.fill(palabras, filaLlena);
+
+        for (Asiento asiento : asientos) {
+            int indice = mapa.indice(asiento.getFila(), asiento.getColumna());
+            mapa.ids[indice] = asiento.getId();
+            mapa.numeros[indice] = asiento.getNumeroAsiento();
+            mapa.indicePorNumero.put(asiento.getNumeroAsiento(), indice);
+
+            if (asiento.getEstado() == EstadoAsiento.LIBRE) {
+                palabras[asiento.getFila() - 1] &= ~bit(asiento.getColumna());
+            }
+        }
+
+        for (int f = 0; f < filas; f++) {
+            mapa.ocupacion.set(f, palabras[f]);
+        }
+
+        return mapa;
+    }
+
+    // ════════════════════════════════════════════════════════
+    // TRANSICIONES
+    // ════════════════════════════════════════════════════════
+
+    /**
+     * LIBRE → RESERVADO. Retorna false si otro hilo lo ocupó primero
+     */
+    public boolean reservar(int indice) {
+        int fila = indice / columnas;
+        long mascara = 1L << (indice % columnas);
+
+        while (true) {
+            long actual = ocupacion.get(fila);
+            if ((actual & mascara) != 0) {
+                return false;
+            }
+            if (ocupacion.compareAndSet(fila, actual, actual | mascara)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * RESERVADO → LIBRE. Retorna false si el asiento ya estaba libre
+     */
+    public boolean liberar(int indice) {
+        int fila = indice / columnas;
+        long mascara = 1L << (indice % columnas);
+
+        while (true) {
+            long actual = ocupacion.get(fila);
+            if ((actual & mascara) == 0) {
+                return false;
+            }
+            if (ocupacion.compareAndSet(fila, actual, actual & ~mascara)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Marca todos los asientos como ocupados (función cancelada)
+     */
+    public void ocuparTodos() {
+        long filaLlena = filaLlena(columnas);
+        for (int f = 0; f < filas; f++) {
+            ocupacion.set(f, filaLlena);
+        }
+    }
+
+    // ════════════════════════════════════════════════════════
+    // CONSULTAS
+    // ════════════════════════════════════════════════════════
+
+    /**
+     * Índice del asiento o -1 si no existe en esta función
+     */
+    public int indice(String numeroAsiento) {
+        Integer indice = indicePorNumero.get(numeroAsiento);
+        return indice != null ? indice : -1;
+    }
+
+    public int indice(int fila, int columna) {
+        return (fila - 1) * columnas + (columna - 1);
+    }
+
+    public boolean estaOcupado(int indice) {
+        return (ocupacion.get(indice / columnas) & (1L << (indice % columnas))) != 0;
+    }
+
+    /**
+     * Bits libres de una fila (fila empieza en 1): bit (columna - 1) encendido = asiento libre
+     */
+    public long libresEnFila(int fila) {
+        return ~ocupacion.get(fila - 1) & filaLlena(columnas);
+    }
+
+    public int disponibles() {
+        int libres = 0;
+        for (int f = 0; f < filas; f++) {
+            libres += columnas - Long.bitCount(ocupacion.get(f));
+        }
+        return libres;
+    }
+
+    public Long getFuncionId() { return funcionId; }
+    public int getFilas() { return filas; }
+    public int getColumnas() { return columnas; }
+    public Long asientoId(int indice) { return ids[indice]; }
+    public String numeroAsiento(int indice) { return numeros[indice]; }
+    public int fila(int indice) { return indice / columnas + 1; }
+    public int columna(int indice) { return indice % columnas + 1; }
+
+    private static long filaLlena(int columnas) {
+        return columnas == MAX_COLUMNAS ? -1L : (1L << columnas) - 1;
+    }
+
+    private static long bit(int columna) {
+        return 1L << (columna - 1);
+    }
+}
@@ -0,0 +1,151 @@
+package com.cine.AppGestionCine.asientos;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+/**
+ * Motor en memoria con el estado de asientos de cada función
+ *
+ * Decide quién gana un asiento sin ir a la BD: los perdedores se rechazan aquí
+ * y solo los ganadores hacen el UPDATE condicionado en AsientoRepository.
+ * La BD sirve para reconstruir los mapas al arrancar.
+ *
+ * Los mapas tienen límite (cine.asientos.mapas.max-funciones) y se descartan
+ * tras unas horas sin uso (cine.asientos.mapas.inactividad-horas), así las
+ * funciones que ya pasaron salen solas; las canceladas salen al cancelarse.
+ * Un ID sin asientos (función inexistente o aún sin generar) no se guarda.
+ * Si un mapa descartado se vuelve a pedir se recarga de la BD; el UPDATE
+ * condicionado sigue protegiendo contra dobles reservas mientras tanto.
+ */
+@Component
+@Slf4j
+public class MotorAsientos {
+
+    private final AsientoRepository asientoRepository;
+
+    private final Cache<Long, MapaOcupacion> mapas;
+
+    public MotorAsientos(AsientoRepository asientoRepository,
+                         @Value("${cine.asientos.mapas.max-funciones:10000}") long maxFunciones,
+                         @Value("${cine.asientos.mapas.inactividad-horas:24}") long inactividadHoras) {
+        this.asientoRepository = asientoRepository;
+        this.mapas = Caffeine.newBuilder()
+                .maximumSize(maxFunciones)
+                .expireAfterAccess(Duration.ofHours(inactividadHoras))
+                .build();
+    }
+
+    /**
+     * Al arrancar, reconstruir los mapas de todas las funciones con asientos
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconstruirTodo() {
+        try {
+            for (Long funcionId : asientoRepository.findFuncionIdsConAsientos()) {
+                reconstruir(funcionId);
+            }
+            log.info("Mapas de asientos cargados en memoria: {}", mapas.estimatedSize());
+
+        } catch (Exception e) {
+            // Si falla, los mapas se cargan bajo demanda en getMapa()
+            log.error("Error al reconstruir mapas de asientos: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Obtener el mapa de una función (lo carga de la BD la primera vez).
+     * Sin asientos devuelve un mapa vacío que no se guarda
+     */
+    public MapaOcupacion getMapa(Long funcionId) {
+        MapaOcupacion mapa = mapas.getIfPresent(funcionId);
+        if (mapa != null) {
+            return mapa;
+        }
+
+        MapaOcupacion cargado = cargar(funcionId);
+        if (cargado.getFilas() == 0) {
+            return cargado;
+        }
+        // Si otro hilo lo cargó al mismo tiempo, todos usan el primero que quedó guardado
+        MapaOcupacion previo = mapas.asMap().putIfAbsent(funcionId, cargado);
+        return previo != null ? previo : cargado;
+    }
+
+    /**
+     * Volver a leer el mapa desde la BD (ej. después de generar asientos)
+     */
+    public MapaOcupacion reconstruir(Long funcionId) {
+        MapaOcupacion mapa = cargar(funcionId);
+        if (mapa.getFilas() == 0) {
+            mapas.invalidate(funcionId);
+        } else {
+            mapas.put(funcionId, mapa);
+        }
+        return mapa;
+    }
+
+    /**
+     * Olvidar el mapa de una función; se vuelve a cargar de la BD la próxima vez que se use
+     */
+    public void descartar(Long funcionId) {
+        mapas.invalidate(funcionId);
+    }
+
+    /**
+     * Mapas en memoria (aproximado: Caffeine descarta en segundo plano)
+     */
+    public long totalMapas() {
+        mapas.cleanUp();
+        return mapas.estimatedSize();
+    }
+
+    /**
+     * Liberar un asiento en memoria (solo si el mapa ya está cargado)
+     */
+    public void liberar(Long funcionId, String numeroAsiento) {
+        MapaOcupacion mapa = mapas.getIfPresent(funcionId);
+        if (mapa == null) {
+            return;
+        }
+
+        int indice = mapa.indice(numeroAsiento);
+        if (indice >= 0) {
+            mapa.liberar(indice);
+        }
+    }
+
+    /**
+     * Ocupar todos los asientos de una función cancelada y sacar su mapa de memoria;
+     * quien todavía tenga la referencia ve todo ocupado y en la BD ya no hay asientos LIBRE
+     */
+    public void bloquearFuncion(Long funcionId) {
+        MapaOcupacion mapa = mapas.asMap().remove(funcionId);
+        if (mapa != null) {
+            mapa.ocuparTodos();
+        }
+
+        // Una lectura antes del commit pudo recargar los asientos todavía LIBRE
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    mapas.invalidate(funcionId);
+                }
+            });
+        }
+    }
+
+    private MapaOcupacion cargar(Long funcionId) {
+        log.debug("Cargando mapa de asientos de función {}", funcionId);
+        return MapaOcupacion.desde(funcionId, asientoRepository.findByFuncionId(funcionId));
+    }
+}
@@ -0,0 +1,146 @@
+package com.cine.AppGestionCine.asientos;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Rueda de temporizadores jerárquica (hashed hierarchical timing wheel)
+ *
+ * Cada nivel tiene 64 casillas; una casilla del nivel N cubre 64^N ticks.
+ * Programar y cancelar es O(1); al avanzar, las casillas de niveles
+ * superiores "caen" al nivel inferior cuando les llega su turno.
+ * Con 4 niveles y ticks de 1 s cubre más de 190 días.
+ *
+ * No es thread-safe por sí sola: quien la use debe sincronizar.
+ */
+public class RuedaTemporizadora<T> {
+
+    private static final int BITS_POR_NIVEL = 6;
+    private static final int CASILLAS = 1 << BITS_POR_NIVEL;
+    private static final int NIVELES = 4;
+
+    private final long tickMs;
+    private final List<List<Temporizador<T>>> casillas = new ArrayList<>(NIVELES * CASILLAS);
+
+    private long tickActual;
+    private int pendientes;
+
+    public RuedaTemporizadora(long tickMs, long inicioMs) {
+        if (tickMs <= 0) {
+            throw new IllegalArgumentException("El tick debe ser mayor a 0 ms");
+        }
+        this.tickMs = tickMs;
+        this.tickActual = inicioMs / tickMs;
+
+        for (int i = 0; i < NIVELES * CASILLAS; i++) {
+            casillas.add(new ArrayList<>());
+        }
+    }
+
+    /**
+     * Programar un elemento para que expire en el instante indicado (redondeado al tick siguiente)
+     */
+    public Temporizador<T> programar(T elemento, long expiraEnMs) {
+        long tick = Math.max(Math.floorDiv(expiraEnMs + tickMs - 1, tickMs), tickActual + 1);
+        Temporizador<T> temporizador = new Temporizador<>(elemento, tick);
+        insertar(temporizador);
+        pendientes++;
+        return temporizador;
+    }
+
+    /**
+     * Avanzar hasta el instante indicado y entregar los elementos vencidos
+     */
+    public void avanzar(long ahoraMs, Consumer<T> alExpirar) {
+        long tickDestino = ahoraMs / tickMs;
+
+        while (tickActual < tickDestino) {
+            tickActual++;
+
+            // Bajar las casillas de niveles superiores que empiezan en este tick
+            for (int nivel = NIVELES - 1; nivel > 0; nivel--) {
+                long mascara = (1L << (BITS_POR_NIVEL * nivel)) - 1;
+                if ((tickActual & mascara) == 0) {
+                    List<Temporizador<T>> casilla = casilla(nivel, tickActual);
+                    List<Temporizador<T>> bajar = new ArrayList<>(casilla);
+                    casilla.clear();
+                    bajar.forEach(this::insertar);
+                }
+            }
+
+            List<Temporizador<T>> casilla = casilla(0, tickActual);
+            if (casilla.isEmpty()) {
+                continue;
+            }
+
+            List<Temporizador<T>> vencidos = new ArrayList<>(casilla);
+            casilla.clear();
+
+            for (Temporizador<T> temporizador : vencidos) {
+                if (temporizador.cancelado) {
+                    continue;
+                }
+                if (temporizador.tickExpiracion > tickActual) {
+                    insertar(temporizador);
+                    continue;
+                }
+                pendientes--;
+                temporizador.cancelado = true;
+                alExpirar.accept(temporizador.elemento);
+            }
+        }
+    }
+
+    /**
+     * Cancelar un temporizador (se descarta cuando su casilla se procese)
+     */
+    public boolean cancelar(Temporizador<T> temporizador) {
+        if (temporizador.cancelado) {
+            return false;
+        }
+        temporizador.cancelado = true;
+        pendientes--;
+        return true;
+    }
+
+    public int pendientes() {
+        return pendientes;
+    }
+
+    private void insertar(Temporizador<T> temporizador) {
+        // Al bajar de nivel puede tocar el tick actual: su casilla se procesa enseguida
+        long tick = Math.max(temporizador.tickExpiracion, tickActual);
+        long distancia = tick - tickActual;
+
+        int nivel = 0;
+        while (nivel < NIVELES - 1 && distancia >= 1L << (BITS_POR_NIVEL * (nivel + 1))) {
+            nivel++;
+        }
+
+        // Más allá del último nivel: esperar en la casilla más lejana y reubicar al bajar
+        long limite = tickActual + (1L << (BITS_POR_NIVEL * (nivel + 1))) - 1;
+        casilla(nivel, Math.min(tick, limite)).add(temporizador);
+    }
+
+    private List<Temporizador<T>> casilla(int nivel, long tick) {
+        int indice = (int) ((tick >>> (BITS_POR_NIVEL * nivel)) & (CASILLAS - 1));
+        return casillas.get(nivel * CASILLAS + indice);
+    }
+
+    /**
+     * Referencia a un elemento programado, sirve para cancelarlo
+     */
+    public static class Temporizador<T> {
+        private final T elemento;
+        private final long tickExpiracion;
+        private boolean cancelado;
+
+        private Temporizador(T elemento, long tickExpiracion) {
+            this.elemento = elemento;
+            this.tickExpiracion = tickExpiracion;
+        }
+
+        public T getElemento() { return elemento; }
+    }
+}
@@ -0,0 +1,268 @@
+package com.cine.AppGestionCine.asientos;
+
+import com.cine.AppGestionCine.asientos.events.AsientoReservadoEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Secuenciador de reservas por función
+ *
+ * Cada función se asigna siempre al mismo carril (hash del funcionId) y
+ * cada carril tiene un solo hilo: las reservas de un asiento de una misma
+ * función nunca compiten entre sí y las de otras funciones van en paralelo.
+ * El carril no es el único escritor del mapa: los holds, el lote de
+ * /reservar-lote y las cancelaciones hacen su CAS directo en AsientoService,
+ * así que quien decide sigue siendo el CAS del bitset y el UPDATE condicionado.
+ * El hilo toma todo lo que haya en su cola (hasta max-lote), decide en
+ * memoria y confirma a los ganadores con un solo batch de UPDATE en una
+ * transacción (group commit). A cada cliente se le responde por su
+ * CompletableFuture cuando el lote ya hizo commit.
+ */
+@Component
+@Slf4j
+public class SecuenciadorReservas {
+
+    private final MotorAsientos motorAsientos;
+    private final AsientoJdbcRepository asientoJdbcRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxLote;
+    private final Carril[] carriles;
+
+    public SecuenciadorReservas(MotorAsientos motorAsientos,
+                                AsientoJdbcRepository asientoJdbcRepository,
+                                ApplicationEventPublisher eventPublisher,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${cine.asientos.secuenciador.carriles:4}") int carriles,
+                                @Value("${cine.asientos.secuenciador.capacidad:4096}") int capacidad,
+                                @Value("${cine.asientos.secuenciador.max-lote:256}") int maxLote) {
+        this.motorAsientos = motorAsientos;
+        this.asientoJdbcRepository = asientoJdbcRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxLote = maxLote;
+
+        this.carriles = new Carril[carriles];
+        for (int i = 0; i < carriles; i++) {
+            this.carriles[i] = new Carril(i, capacidad);
+            this.carriles[i].hilo.start();
+        }
+    }
+
+    /**
+     * Encolar una reserva en el carril de su función (no bloquea)
+     */
+    public CompletableFuture<Asiento> reservar(Long funcionId, String numeroAsiento, String clienteEmail) {
+        Solicitud solicitud = new Solicitud(funcionId, numeroAsiento, clienteEmail);
+
+        // Cola llena: mejor rechazar rápido que dejar crecer la latencia de todos
+        if (!carril(funcionId).cola.offer(solicitud)) {
+            solicitud.respuesta.completeExceptionally(
+                    new RuntimeException("Demasiadas reservas en espera, intente más tarde"));
+        }
+
+        return solicitud.respuesta;
+    }
+
+    public int pendientes() {
+        int total = 0;
+        for (Carril carril : carriles) {
+            total += carril.cola.size();
+        }
+        return total;
+    }
+
+    @PreDestroy
+    public void cerrar() {
+        for (Carril carril : carriles) {
+            carril.hilo.interrupt();
+        }
+    }
+
+    private Carril carril(Long funcionId) {
+        return carriles[Math.floorMod(Long.hashCode(funcionId), carriles.length)];
+    }
+
+    /**
+     * Procesar un lote del carril: decidir en memoria y confirmar a los ganadores juntos
+     */
+    private void procesar(List<Solicitud> lote) {
+        List<Solicitud> ganadores = new ArrayList<>(lote.size());
+
+        for (Solicitud solicitud : lote) {
+            try {
+                MapaOcupacion mapa = motorAsientos.getMapa(solicitud.funcionId);
+                int indice = mapa.indice(solicitud.numeroAsiento);
+
+                if (indice < 0) {
+                    throw new RuntimeException("Asiento no encontrado: " + solicitud.numeroAsiento);
+                }
+
+                // Entre reservas del carril no hay carrera; el CAS puede perder contra un hold,
+                // un lote o cualquier escritura que no pase por aquí
+                if (!mapa.reservar(indice)) {
+                    throw new RuntimeException("El asiento " + solicitud.numeroAsiento + " no está disponible");
+                }
+
+                Asiento asiento = new Asiento(solicitud.funcionId, solicitud.numeroAsiento, mapa.fila(indice), mapa.columna(indice));
+                asiento.setId(mapa.asientoId(indice));
+                asiento.setEstado(EstadoAsiento.RESERVADO);
+                asiento.setClienteEmail(solicitud.clienteEmail);
+
+                solicitud.mapa = mapa;
+                solicitud.indice = indice;
+                solicitud.asiento = asiento;
+                ganadores.add(solicitud);
+
+            } catch (Exception e) {
+                solicitud.respuesta.completeExceptionally(e);
+            }
+        }
+
+        if (!ganadores.isEmpty()) {
+            confirmar(ganadores);
+        }
+    }
+
+    /**
+     * Group commit: un batch de UPDATE en una sola transacción; los eventos salen después del commit.
+     * Si el lote falla se reintenta uno por uno para no castigar a todos por uno
+     */
+    private void confirmar(List<Solicitud> ganadores) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                List<Asiento> asientos = new ArrayList<>(ganadores.size());
+                for (Solicitud solicitud : ganadores) {
+                    asientos.add(solicitud.asiento);
+                }
+
+                int[] filas = asientoJdbcRepository.reservarSiLibres(asientos);
+
+                for (int i = 0; i < ganadores.size(); i++) {
+                    Solicitud solicitud = ganadores.get(i);
+
+                    // Otro nodo lo reservó antes: el bit queda ocupado, igual que en la BD
+                    solicitud.confirmada = filas[i] != 0;
+                }
+            });
+
+        } catch (Exception e) {
+            if (ganadores.size() > 1) {
+                log.warn("Falló el commit de un lote de {} reservas, reintentando una por una: {}",
+                        ganadores.size(), e.getMessage());
+                for (Solicitud solicitud : ganadores) {
+                    confirmar(List.of(solicitud));
+                }
+                return;
+            }
+
+            Solicitud solicitud = ganadores.get(0);
+            solicitud.mapa.liberar(solicitud.indice);
+            solicitud.respuesta.completeExceptionally(e);
+            return;
+        }
+
+        // Ya hay commit: publicar fuera de la transacción (sin locks de filas y sin
+        // repetir eventos de un lote deshecho) y responder a cada cliente
+        for (Solicitud solicitud : ganadores) {
+            if (solicitud.confirmada) {
+                publicarReservado(solicitud);
+                solicitud.respuesta.complete(solicitud.asiento);
+            } else {
+                solicitud.respuesta.completeExceptionally(
+                        new RuntimeException("El asiento " + solicitud.numeroAsiento + " no está disponible"));
+            }
+        }
+    }
+
+    /**
+     * La reserva ya está confirmada: si un listener falla, se registra y el cliente igual recibe su asiento
+     */
+    private void publicarReservado(Solicitud solicitud) {
+        try {
+            eventPublisher.publishEvent(new AsientoReservadoEvent(
+                    solicitud.asiento.getId(),
+                    solicitud.funcionId,
+                    solicitud.numeroAsiento,
+                    solicitud.clienteEmail
+            ));
+        } catch (Exception e) {
+            log.error("Error al publicar AsientoReservadoEvent del asiento {} de función {}: {}",
+                    solicitud.numeroAsiento, solicitud.funcionId, e.getMessage());
+        }
+    }
+
+    /**
+     * Un hilo escritor con su cola acotada
+     */
+    private class Carril implements Runnable {
+        private final BlockingQueue<Solicitud> cola;
+        private final Thread hilo;
+
+        private Carril(int numero, int capacidad) {
+            this.cola = new ArrayBlockingQueue<>(capacidad);
+            this.hilo = new Thread(this, "CineCarril-" + numero);
+            this.hilo.setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            List<Solicitud> lote = new ArrayList<>(maxLote);
+
+            while (!Thread.currentThread().isInterrupted()) {
+                try {
+                    lote.add(cola.take());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+
+                // Lo que llegó mientras se confirmaba el lote anterior va en este
+                cola.drainTo(lote, maxLote - 1);
+
+                try {
+                    procesar(lote);
+                } catch (Exception e) {
+                    log.error("Error inesperado en {}: {}", hilo.getName(), e.getMessage());
+                    lote.forEach(solicitud -> solicitud.respuesta.completeExceptionally(e));
+                }
+                lote.clear();
+            }
+
+            // Al apagar, no dejar a nadie esperando
+            List<Solicitud> restantes = new ArrayList<>();
+            cola.drainTo(restantes);
+            restantes.forEach(solicitud -> solicitud.respuesta.completeExceptionally(
+                    new RuntimeException("El servicio de reservas se está deteniendo")));
+        }
+    }
+
+    private static class Solicitud {
+        private final Long funcionId;
+        private final String numeroAsiento;
+        private final String clienteEmail;
+        private final CompletableFuture<Asiento> respuesta = new CompletableFuture<>();
+
+        private MapaOcupacion mapa;
+        private int indice;
+        private Asiento asiento;
+        private boolean confirmada;
+
+        private Solicitud(Long funcionId, String numeroAsiento, String clienteEmail) {
+            this.funcionId = funcionId;
+            this.numeroAsiento = numeroAsiento;
+            this.clienteEmail = clienteEmail;
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package com.cine.AppGestionCine.asientos;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Stream SSE del mapa de asientos de cada función
+ *
+ * Al suscribirse se manda el mapa completo ("mapa") y luego solo los
+ * asientos que cambian ("delta"). Cada suscriptor tiene una cola acotada:
+ * publicar nunca bloquea la reserva, y si un kiosko lento llena su cola
+ * se descartan sus deltas y recibe otra vez el mapa completo.
+ * Los envíos los hace un pool chico compartido por todos los suscriptores.
+ */
+@Component
+@Slf4j
+public class StreamMapaAsientos {
+
+    private final CacheMapaAsientos cacheMapaAsientos;
+    private final ObjectMapper objectMapper;
+    private final int capacidadCola;
+    private final int maxSuscriptores;
+    private final long timeoutMs;
+    private final ExecutorService enviador;
+
+    private final Map<Long, Set<Suscriptor>> suscriptores = new ConcurrentHashMap<>();
+    private final AtomicInteger totalSuscriptores = new AtomicInteger();
+
+    public StreamMapaAsientos(CacheMapaAsientos cacheMapaAsientos,
+                              ObjectMapper objectMapper,
+                              @Value("${cine.asientos.sse.capacidad-cola:64}") int capacidadCola,
+                              @Value("${cine.asientos.sse.max-suscriptores:10000}") int maxSuscriptores,
+                              @Value("${cine.asientos.sse.timeout-ms:1800000}") long timeoutMs,
+                              @Value("${cine.asientos.sse.hilos:4}") int hilos) {
+        this.cacheMapaAsientos = cacheMapaAsientos;
+        this.objectMapper = objectMapper;
+        this.capacidadCola = capacidadCola;
+        this.maxSuscriptores = maxSuscriptores;
+        this.timeoutMs = timeoutMs;
+
+        AtomicInteger contador = new AtomicInteger();
+        this.enviador = Executors.newFixedThreadPool(hilos, r -> {
+            Thread hilo = new Thread(r, "CineSse-" + contador.incrementAndGet());
+            hilo.setDaemon(true);
+            return hilo;
+        });
+    }
+
+    /**
+     * Abrir un SseEmitter para la función
+     */
+    public SseEmitter abrir(Long funcionId) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+
+        Suscriptor suscriptor = suscribir(funcionId, new Canal() {
+            @Override
+            public void enviar(String evento, long id, String json) throws IOException {
+                emitter.send(SseEmitter.event()
+                        .name(evento)
+                        .id(String.valueOf(id))
+                        .data(json, MediaType.APPLICATION_JSON));
+            }
+
+            @Override
+            public void cerrar() {
+                emitter.complete();
+            }
+        });
+
+        emitter.onCompletion(() -> quitar(suscriptor));
+        emitter.onTimeout(() -> quitar(suscriptor));
+        emitter.onError(e -> quitar(suscriptor));
+
+        return emitter;
+    }
+
+    /**
+     * Registrar un canal; lo primero que recibe es el mapa completo
+     */
+    Suscriptor suscribir(Long funcionId, Canal canal) {
+        if (totalSuscriptores.incrementAndGet() > maxSuscriptores) {
+            totalSuscriptores.decrementAndGet();
+            throw new RuntimeException("Demasiados suscriptores, intente más tarde");
+        }
+
+        Suscriptor suscriptor = new Suscriptor(funcionId, canal, capacidadCola);
+        suscriptores.computeIfAbsent(funcionId, id -> ConcurrentHashMap.newKeySet()).add(suscriptor);
+        programar(suscriptor);
+        return suscriptor;
+    }
+
+    /**
+     * Repartir un cambio del mapa a los suscriptores de la función (no bloquea)
+     */
+    @EventListener
+    public void manejarCambio(CambioMapaAsientos cambio) {
+        Set<Suscriptor> destino = suscriptores.get(cambio.getFuncionId());
+        if (destino == null || destino.isEmpty()) {
+            return;
+        }
+
+        Delta delta = null;
+        if (!cambio.esInvalidacion()) {
+            try {
+                // Se serializa una sola vez para todos los suscriptores
+                delta = new Delta(cambio.getVersion(), objectMapper.writeValueAsString(cambio.getAsientos()));
+            } catch (JsonProcessingException e) {
+                log.error("Error al serializar delta de función {}: {}", cambio.getFuncionId(), e.getMessage());
+            }
+        }
+
+        for (Suscriptor suscriptor : destino) {
+            if (delta == null || !suscriptor.cola.offer(delta)) {
+                // Cola llena (kiosko lento) o mapa invalidado: mandar el mapa completo
+                suscriptor.resincronizar.set(true);
+            }
+            programar(suscriptor);
+        }
+    }
+
+    public int suscriptoresActivos() {
+        return totalSuscriptores.get();
+    }
+
+    @PreDestroy
+    public void cerrar() {
+        enviador.shutdownNow();
+        suscriptores.values().forEach(conjunto -> conjunto.forEach(s -> s.canal.cerrar()));
+    }
+
+    private void programar(Suscriptor suscriptor) {
+        if (suscriptor.programado.compareAndSet(false, true)) {
+            enviador.execute(() -> drenar(suscriptor));
+        }
+    }
+
+    /**
+     * Enviar lo pendiente de un suscriptor; nunca corre dos veces a la vez para el mismo
+     */
+    private void drenar(Suscriptor suscriptor) {
+        try {
+            do {
+                if (suscriptor.resincronizar.getAndSet(false)) {
+                    suscriptor.cola.clear();
+                    CacheMapaAsientos.MapaSerializado mapa = cacheMapaAsientos.getMapa(suscriptor.funcionId);
+                    suscriptor.canal.enviar("mapa", mapa.getVersion(), new String(mapa.getJson(), StandardCharsets.UTF_8));
+                    suscriptor.versionEnviada = mapa.getVersion();
+                }
+
+                Delta delta;
+                while ((delta = suscriptor.cola.poll()) != null) {
+                    // Ya incluido en el mapa completo que se mandó
+                    if (delta.version <= suscriptor.versionEnviada) {
+                        continue;
+                    }
+                    suscriptor.canal.enviar("delta", delta.version, delta.json);
+                    suscriptor.versionEnviada = delta.version;
+                }
+
+                suscriptor.programado.set(false);
+
+            } while ((!suscriptor.cola.isEmpty() || suscriptor.resincronizar.get())
+                    && suscriptor.programado.compareAndSet(false, true));
+
+        } catch (Exception e) {
+            log.debug("Suscriptor de función {} desconectado: {}", suscriptor.funcionId, e.getMessage());
+            quitar(suscriptor);
+            suscriptor.canal.cerrar();
+        }
+    }
+
+    private void quitar(Suscriptor suscriptor) {
+        Set<Suscriptor> conjunto = suscriptores.get(suscriptor.funcionId);
+        if (conjunto != null && conjunto.remove(suscriptor)) {
+            totalSuscriptores.decrementAndGet();
+        }
+    }
+
+    /**
+     * Destino de los eventos de un suscriptor (SseEmitter en producción)
+     */
+    interface Canal {
+        void enviar(String evento, long id, String json) throws IOException;
+
+        void cerrar();
+    }
+
+    static class Suscriptor {
+        private final Long funcionId;
+        private final Canal canal;
+        private final ArrayBlockingQueue<Delta> cola;
+        private final AtomicBoolean programado = new AtomicBoolean();
+        private final AtomicBoolean resincronizar = new AtomicBoolean(true);
+        private long versionEnviada;
+
+        private Suscriptor(Long funcionId, Canal canal, int capacidadCola) {
+            this.funcionId = funcionId;
+            this.canal = canal;
+            this.cola = new ArrayBlockingQueue<>(capacidadCola);
+        }
+    }
+
+    private static class Delta {
+        private final long version;
+        private final String json;
+
+        private Delta(long version, String json) {
+            this.version = version;
+            this.json = json;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.cine.AppGestionCine.asientos.events;
+
+import lombok.Data;
+import lombok.AllArgsConstructor;
+
+/**
+ * Evento que se dispara cuando se cancelaron los asientos de una función cancelada
+ * El historial registra la cancelación con la cantidad real de asientos afectados
+ */
+@Data
+@AllArgsConstructor
+public class AsientosCanceladosPorFuncionEvent {
+    private final Long funcionId;
+    private final String pelicula;
+    private final int asientosCancelados;
+}
@@ -0,0 +1,23 @@
+package com.cine.AppGestionCine.asientos.events;
+
+import lombok.Data;
+import lombok.AllArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Evento que se dispara cuando se reservan varios asientos en una sola operación
+ * Las funciones deben restar la cantidad completa en una sola escritura
+ */
+@Data
+@AllArgsConstructor
+public class AsientosReservadosEvent {
+    private final Long funcionId;
+    private final List<Long> asientoIds;
+    private final List<String> numerosAsiento;
+    private final String clienteEmail;
+
+    public int getCantidad() {
+        return asientoIds.size();
+    }
+}
@@ -2,9 +2,11 @@ package com.cine.AppGestionCine.asientos.events.handlers;
 
 
 import com.cine.AppGestionCine.asientos.AsientoService;
+import com.cine.AppGestionCine.asientos.events.AsientosCanceladosPorFuncionEvent;
 import com.cine.AppGestionCine.funciones.events.FuncionCanceladaEvent;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
@@ -19,6 +21,7 @@ import org.springframework.transaction.annotation.Transactional;
 public class FuncionEventHandler {
 
     private final AsientoService asientoService;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Cuando una función se cancela, todos sus asientos deben marcarse como cancelados
@@ -30,11 +33,18 @@ public class FuncionEventHandler {
                 evento.getFuncionId(), evento.getPelicula());
 
         try {
-            // Delegar al servicio la cancelación de asientos
-            asientoService.cancelarAsientosPorFuncion(evento.getFuncionId());
-
-            log.info("✅ Asientos cancelados exitosamente para función {} - {}",
-                    evento.getFuncionId(), evento.getPelicula());
+            // Delegar al servicio la cancelación de asientos (un solo UPDATE)
+            int cancelados = asientoService.cancelarAsientosPorFuncion(evento.getFuncionId());
+
+            log.info("✅ {} asientos cancelados exitosamente para función {} - {}",
+                    cancelados, evento.getFuncionId(), evento.getPelicula());
+
+            // Avisar cuántos asientos se cancelaron realmente
+            eventPublisher.publishEvent(new AsientosCanceladosPorFuncionEvent(
+                    evento.getFuncionId(),
+                    evento.getPelicula(),
+                    cancelados
+            ));
 
         } catch (Exception e) {
             log.error("❌ Error al cancelar asientos para función {}: {}",
@@ -0,0 +1,61 @@
+package com.cine.AppGestionCine.batch;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+
+/**
+ * Rutas de la importación de clientes
+ *
+ * El parámetro archivo llega del API, así que solo se aceptan rutas relativas
+ * dentro de cine.batch.importacion-clientes.directorio: nada absoluto ni con ".."
+ * que salga de él. Así el job no lee cualquier archivo del servidor ni escribe
+ * el reporte de rechazados fuera del directorio.
+ */
+@Component
+public class ArchivosImportacion {
+
+    private final Path directorio;
+
+    public ArchivosImportacion(@Value("${cine.batch.importacion-clientes.directorio:importaciones}") String directorio) {
+        this.directorio = Path.of(directorio).toAbsolutePath().normalize();
+    }
+
+    /**
+     * Ruta del CSV dentro del directorio de importaciones; lanza excepción si sale de él
+     */
+    public Path resolver(String archivo) {
+        if (archivo == null || archivo.isBlank()) {
+            throw new RuntimeException("Falta el nombre del archivo a importar");
+        }
+
+        Path relativo;
+        try {
+            relativo = Path.of(archivo);
+        } catch (InvalidPathException e) {
+            throw new RuntimeException("Nombre de archivo inválido: " + archivo);
+        }
+
+        for (Path parte : relativo) {
+            if (parte.toString().equals("..")) {
+                throw new RuntimeException("El archivo no puede contener '..': " + archivo);
+            }
+        }
+
+        Path ruta = directorio.resolve(relativo).normalize();
+        if (relativo.isAbsolute() || !ruta.startsWith(directorio) || ruta.equals(directorio)) {
+            throw new RuntimeException("El archivo debe ser una ruta relativa dentro del directorio de importaciones: " + archivo);
+        }
+        return ruta;
+    }
+
+    /**
+     * Reporte de filas rechazadas, junto al archivo importado
+     */
+    public Path rechazados(String archivo) {
+        Path ruta = resolver(archivo);
+        return ruta.resolveSibling(ruta.getFileName() + ".rechazados.csv");
+    }
+}
@@ -6,6 +6,8 @@ import org.springframework.batch.core.Job;
 import org.springframework.batch.core.JobExecution;
 import org.springframework.batch.core.JobParameters;
 import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.item.ExecutionContext;
 import org.springframework.batch.core.launch.JobLauncher;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -17,7 +19,9 @@ import java.util.Map;
  * Controller: Ejecutar jobs manualmente desde API
  *
  * Endpoints:
- * - POST /api/batch/limpiar-reservas  (ejecutar job)
+ * - POST /api/batch/limpiar-reservas       (ejecutar job)
+ * - POST /api/batch/reconciliar-asientos   (reconciliar asientos disponibles)
+ * - POST /api/batch/importar-clientes      (importar clientes desde un CSV)
  */
 @RestController
 @RequestMapping("/api/batch")
@@ -28,6 +32,10 @@ public class BatchController {
 
     private final JobLauncher jobLauncher;
     private final Job limpiezaReservasJob;
+    private final Job reconciliacionAsientosJob;
+    private final Job importacionClientesJob;
+    private final MarcaReconciliacion marcaReconciliacion;
+    private final ArchivosImportacion archivosImportacion;
 
     /**
      * Ejecutar job manualmente
@@ -78,4 +86,87 @@ public class BatchController {
             return ResponseEntity.badRequest().body(error);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Reconciliar asientos disponibles de las funciones con cambios desde la última ejecución
+     *
+     * POST /api/batch/reconciliar-asientos
+     */
+    @PostMapping("/reconciliar-asientos")
+    public ResponseEntity<?> ejecutarReconciliacion() {
+        try {
+            JobParameters params = marcaReconciliacion.siguienteVentana("manual-api");
+            if (params == null) {
+                return ResponseEntity.ok(Map.of("mensaje", "Sin cambios nuevos desde la última reconciliación"));
+            }
+
+            JobExecution execution = jobLauncher.run(reconciliacionAsientosJob, params);
+            StepExecution step = execution.getStepExecutions().iterator().next();
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("status", execution.getStatus().toString());
+            response.put("desde", params.getLocalDateTime("desde"));
+            response.put("hasta", params.getLocalDateTime("hasta"));
+            response.put("funcionesRevisadas", step.getReadCount());
+            response.put("funcionesCorregidas", step.getWriteCount());
+
+            return ResponseEntity.ok(response);
+
+        } catch (Exception e) {
+            log.error("❌ Error al ejecutar reconciliación: {}", e.getMessage(), e);
+
+            Map<String, Object> error = new HashMap<>();
+            error.put("error", "Error al ejecutar reconciliación");
+            error.put("detalle", e.getMessage());
+
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+
+    /**
+     * Importar clientes desde un CSV en el servidor (encabezado y nombre,apellido,email,telefono)
+     *
+     * POST /api/batch/importar-clientes?archivo=clientes.csv
+     *
+     * archivo es relativo a cine.batch.importacion-clientes.directorio; una ruta
+     * absoluta o que salga del directorio responde 400 sin lanzar el job.
+     *
+     * Si una ejecución falla, llamarlo otra vez con el mismo archivo la reinicia
+     * desde el último chunk confirmado; los totales son de todo el archivo.
+     */
+    @PostMapping("/importar-clientes")
+    public ResponseEntity<?> ejecutarImportacionClientes(@RequestParam String archivo) {
+        try {
+            archivosImportacion.resolver(archivo);
+
+            JobParameters params = new JobParametersBuilder()
+                    .addString("archivo", archivo)
+                    .toJobParameters();
+
+            JobExecution execution = jobLauncher.run(importacionClientesJob, params);
+            StepExecution step = execution.getStepExecutions().iterator().next();
+            ExecutionContext contexto = step.getExecutionContext();
+            long rechazados = contexto.getLong(ImportacionClientesWriter.RECHAZADOS, 0L);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("status", execution.getStatus().toString());
+            response.put("exitStatus", execution.getExitStatus().toString());
+            response.put("importados", contexto.getLong(ImportacionClientesWriter.IMPORTADOS, 0L));
+            response.put("rechazados", rechazados);
+            if (rechazados > 0) {
+                response.put("reporteRechazados", archivo + ".rechazados.csv");
+            }
+
+            return ResponseEntity.ok(response);
+
+        } catch (Exception e) {
+            log.error("❌ Error al ejecutar importación de clientes: {}", e.getMessage(), e);
+
+            Map<String, Object> error = new HashMap<>();
+            error.put("error", "Error al ejecutar importación de clientes");
+            error.put("detalle", e.getMessage());
+
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+}
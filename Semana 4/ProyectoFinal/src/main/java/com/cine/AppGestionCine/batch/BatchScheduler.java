@@ -3,6 +3,7 @@ package com.cine.AppGestionCine.batch;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
 import org.springframework.batch.core.JobParameters;
 import org.springframework.batch.core.JobParametersBuilder;
 import org.springframework.batch.core.launch.JobLauncher;
@@ -14,6 +15,7 @@ import org.springframework.scheduling.annotation.Scheduled;
  * Scheduler: Ejecuta jobs automáticamente
  *
  * Por defecto: Cada día a las 2:00 AM
+ * Reconciliación de asientos disponibles: cada cine.batch.reconciliacion.intervalo-ms
  */
 @Configuration
 @EnableScheduling  // ← Habilita scheduling
@@ -23,6 +25,8 @@ public class BatchScheduler {
 
     private final JobLauncher jobLauncher;
     private final Job limpiezaReservasJob;
+    private final Job reconciliacionAsientosJob;
+    private final MarcaReconciliacion marcaReconciliacion;
 
     @Scheduled(cron = "0 0 2 * * ?")//Significa que se ejecutará todos los días a las 2am
     public void ejecutarLimpiezaDiaria() {
@@ -52,6 +56,27 @@ public class BatchScheduler {
         }
     }
 
+    /**
+     * Reconciliación de asientos disponibles; solo revisa las funciones con cambios
+     * desde la última ejecución completada, así que es barata aunque corra seguido
+     */
+    @Scheduled(fixedDelayString = "${cine.batch.reconciliacion.intervalo-ms:60000}",
+            initialDelayString = "${cine.batch.reconciliacion.intervalo-ms:60000}")
+    public void ejecutarReconciliacion() {
+        try {
+            JobParameters params = marcaReconciliacion.siguienteVentana("scheduled");
+            if (params == null) {
+                return;
+            }
+
+            JobExecution execution = jobLauncher.run(reconciliacionAsientosJob, params);
+            log.debug("Reconciliación de asientos: {}", execution.getStatus());
+
+        } catch (Exception e) {
+            log.error("❌ Error al ejecutar reconciliación de asientos: {}", e.getMessage(), e);
+        }
+    }
+
     /**
      * TESTING: Ejecutar cada 5 minutos
      *
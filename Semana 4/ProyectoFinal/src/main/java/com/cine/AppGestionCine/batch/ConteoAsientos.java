@@ -0,0 +1,18 @@
+package com.cine.AppGestionCine.batch;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Fila del conteo de reconciliación: lo que dice la tabla funciones
+ * (registrados) contra los asientos LIBRE contados en la tabla asientos.
+ * enMovimiento: la función tiene asientos cambiados después de hasta
+ */
+@Data
+@AllArgsConstructor
+public class ConteoAsientos {
+    private final Long funcionId;
+    private final int registrados;
+    private final int libres;
+    private final boolean enMovimiento;
+}
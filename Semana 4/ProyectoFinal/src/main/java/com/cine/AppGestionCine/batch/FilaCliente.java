@@ -0,0 +1,24 @@
+package com.cine.AppGestionCine.batch;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Fila del CSV de clientes a importar; motivoRechazo queda en null mientras sea válida
+ */
+@Data
+@AllArgsConstructor
+public class FilaCliente {
+    private final int linea;
+    // Texto tal cual viene en el archivo, para el reporte de rechazados
+    private final String original;
+    private final String nombre;
+    private final String apellido;
+    private final String email;
+    private final String telefono;
+    private String motivoRechazo;
+
+    public boolean isRechazada() {
+        return motivoRechazo != null;
+    }
+}
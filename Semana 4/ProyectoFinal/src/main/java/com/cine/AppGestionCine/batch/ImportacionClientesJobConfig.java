@@ -0,0 +1,176 @@
+package com.cine.AppGestionCine.batch;
+
+import com.cine.AppGestionCine.clientes.CacheClientes;
+import com.cine.AppGestionCine.clientes.ClienteJdbcRepository;
+import com.cine.AppGestionCine.clientes.FiltroEmails;
+import com.cine.AppGestionCine.clientes.dto.CrearClienteRequest;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.batch.item.ItemProcessor;
+import org.springframework.batch.item.file.FlatFileItemReader;
+import org.springframework.batch.item.file.FlatFileItemWriter;
+import org.springframework.batch.item.file.LineMapper;
+import org.springframework.batch.item.file.builder.FlatFileItemReaderBuilder;
+import org.springframework.batch.item.file.builder.FlatFileItemWriterBuilder;
+import org.springframework.batch.item.file.transform.DelimitedLineTokenizer;
+import org.springframework.batch.item.file.transform.FieldSet;
+import org.springframework.batch.item.file.transform.FlatFileFormatException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Collectors;
+
+/**
+ * Job de importación masiva de clientes desde un CSV
+ *
+ * Dar de alta clientes de otro cine uno por uno con POST /api/clientes cuesta
+ * un SELECT de email, un INSERT y un evento por fila. Este job lee el archivo
+ * en streaming (encabezado y luego nombre,apellido,email,telefono), valida cada
+ * fila con las mismas reglas de CrearClienteRequest y por chunk hace un solo
+ * SELECT de emails y un INSERT por lotes (ver ImportacionClientesWriter).
+ *
+ * El archivo es una ruta relativa a cine.batch.importacion-clientes.directorio
+ * (ver ArchivosImportacion). Las filas rechazadas van a <archivo>.rechazados.csv
+ * con el número de línea y el motivo. El parámetro archivo identifica la ejecución: si falla, lanzarlo
+ * otra vez con el mismo archivo la reinicia desde el último chunk confirmado.
+ */
+@Configuration
+@RequiredArgsConstructor
+public class ImportacionClientesJobConfig {
+
+    public static final String JOB = "importacionClientesJob";
+
+    static final String[] COLUMNAS = {"nombre", "apellido", "email", "telefono"};
+
+    private final ClienteJdbcRepository clienteJdbcRepository;
+    private final FiltroEmails filtroEmails;
+    private final CacheClientes cacheClientes;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Validator validator;
+    private final ArchivosImportacion archivosImportacion;
+
+    // ════════════════════════════════════════════════════════
+    // JOB Y STEP
+    // ════════════════════════════════════════════════════════
+
+    @Bean
+    public Job importacionClientesJob(JobRepository jobRepository, Step importarClientesStep) {
+        return new JobBuilder(JOB, jobRepository)
+                .start(importarClientesStep)
+                .build();
+    }
+
+    /**
+     * readCount = filas leídas; importados y rechazados quedan en el ExecutionContext del step
+     */
+    @Bean
+    public Step importarClientesStep(JobRepository jobRepository,
+                                     PlatformTransactionManager transactionManager,
+                                     FlatFileItemReader<FilaCliente> filaClienteReader,
+                                     ItemProcessor<FilaCliente, FilaCliente> validacionClienteProcessor,
+                                     ImportacionClientesWriter importacionClientesWriter,
+                                     @Value("${cine.batch.importacion-clientes.chunk:1000}") int chunk) {
+        return new StepBuilder("importarClientesStep", jobRepository)
+                .<FilaCliente, FilaCliente>chunk(chunk, transactionManager)
+                .reader(filaClienteReader)
+                .processor(validacionClienteProcessor)
+                .writer(importacionClientesWriter)
+                .build();
+    }
+
+    // ════════════════════════════════════════════════════════
+    // READER: línea por línea, guarda la posición en cada commit
+    // ════════════════════════════════════════════════════════
+
+    @Bean
+    @StepScope
+    public FlatFileItemReader<FilaCliente> filaClienteReader(@Value("#{jobParameters['archivo']}") String archivo) {
+        return new FlatFileItemReaderBuilder<FilaCliente>()
+                .name("filaClienteReader")
+                .resource(new FileSystemResource(archivosImportacion.resolver(archivo)))
+                .encoding(StandardCharsets.UTF_8.name())
+                .linesToSkip(1)
+                .lineMapper(mapeadorFilas())
+                .build();
+    }
+
+    /**
+     * Una línea mal formada no detiene el job: sale como fila rechazada
+     */
+    static LineMapper<FilaCliente> mapeadorFilas() {
+        DelimitedLineTokenizer tokenizer = new DelimitedLineTokenizer();
+        tokenizer.setNames(COLUMNAS);
+
+        return (linea, numero) -> {
+            try {
+                FieldSet campos = tokenizer.tokenize(linea);
+                return new FilaCliente(numero, linea, campos.readString("nombre"), campos.readString("apellido"),
+                        campos.readString("email"), campos.readString("telefono"), null);
+            } catch (FlatFileFormatException e) {
+                return new FilaCliente(numero, linea, null, null, null, null,
+                        "Formato inválido: se esperaban " + COLUMNAS.length + " columnas");
+            }
+        };
+    }
+
+    // ════════════════════════════════════════════════════════
+    // PROCESSOR: mismas validaciones que POST /api/clientes
+    // ════════════════════════════════════════════════════════
+
+    @Bean
+    public ItemProcessor<FilaCliente, FilaCliente> validacionClienteProcessor() {
+        return fila -> {
+            if (fila.isRechazada()) {
+                return fila;
+            }
+
+            CrearClienteRequest request = new CrearClienteRequest();
+            request.setNombre(fila.getNombre());
+            request.setApellido(fila.getApellido());
+            request.setEmail(fila.getEmail());
+            request.setTelefono(fila.getTelefono());
+
+            String errores = validator.validate(request).stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+            if (!errores.isEmpty()) {
+                fila.setMotivoRechazo(errores);
+            }
+            return fila;
+        };
+    }
+
+    // ════════════════════════════════════════════════════════
+    // WRITER: deduplicar, insertar por lotes y reportar rechazados
+    // ════════════════════════════════════════════════════════
+
+    @Bean
+    @StepScope
+    public ImportacionClientesWriter importacionClientesWriter(@Value("#{jobParameters['archivo']}") String archivo) {
+        // Transaccional: solo se escriben las líneas de chunks confirmados; al reiniciar se trunca a esa posición
+        FlatFileItemWriter<FilaCliente> reporte = new FlatFileItemWriterBuilder<FilaCliente>()
+                .name("reporteRechazados")
+                .resource(new FileSystemResource(archivosImportacion.rechazados(archivo)))
+                .encoding(StandardCharsets.UTF_8.name())
+                .headerCallback(writer -> writer.write("linea,motivo," + String.join(",", COLUMNAS)))
+                .lineAggregator(fila -> fila.getLinea() + ",\"" + fila.getMotivoRechazo().replace("\"", "\"\"") + "\","
+                        + fila.getOriginal())
+                .shouldDeleteIfEmpty(true)
+                .build();
+
+        return new ImportacionClientesWriter(clienteJdbcRepository, filtroEmails, cacheClientes, eventPublisher, reporte);
+    }
+}
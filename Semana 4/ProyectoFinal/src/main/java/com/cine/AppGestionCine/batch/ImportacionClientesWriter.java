@@ -0,0 +1,145 @@
+package com.cine.AppGestionCine.batch;
+
+import com.cine.AppGestionCine.clientes.CacheClientes;
+import com.cine.AppGestionCine.clientes.Cliente;
+import com.cine.AppGestionCine.clientes.ClienteJdbcRepository;
+import com.cine.AppGestionCine.clientes.EstadoCliente;
+import com.cine.AppGestionCine.clientes.FiltroEmails;
+import com.cine.AppGestionCine.clientes.events.ClientesImportadosEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamWriter;
+import org.springframework.batch.item.file.FlatFileItemWriter;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Writer de la importación de clientes: por chunk, un SELECT de emails y un INSERT por lotes
+ *
+ * 1. Aparta las filas ya rechazadas (formato o validación).
+ * 2. Un email repetido dentro del chunk se queda con la primera fila.
+ * 3. Busca los emails que ya tienen cliente con un solo IN; el filtro de Bloom
+ *    saca de la consulta los que seguro no están. Los de chunks anteriores ya
+ *    están confirmados, así que ahí aparecen como registrados.
+ * 4. Inserta el resto con JDBC batch, actualiza filtro y near-cache y publica
+ *    un solo ClientesImportadosEvent.
+ * 5. Escribe los rechazados al reporte (FlatFileItemWriter transaccional).
+ *
+ * Los totales se guardan en el ExecutionContext del step con cada commit, igual
+ * que la posición del reader y del reporte: al reiniciar un job fallido todo
+ * sigue desde el último chunk confirmado.
+ */
+@Slf4j
+public class ImportacionClientesWriter implements ItemStreamWriter<FilaCliente> {
+
+    static final String IMPORTADOS = "importacion.importados";
+    static final String RECHAZADOS = "importacion.rechazados";
+
+    private final ClienteJdbcRepository clienteJdbcRepository;
+    private final FiltroEmails filtroEmails;
+    private final CacheClientes cacheClientes;
+    private final ApplicationEventPublisher eventPublisher;
+    private final FlatFileItemWriter<FilaCliente> reporteRechazados;
+
+    private long importados;
+    private long rechazados;
+
+    public ImportacionClientesWriter(ClienteJdbcRepository clienteJdbcRepository,
+                                     FiltroEmails filtroEmails,
+                                     CacheClientes cacheClientes,
+                                     ApplicationEventPublisher eventPublisher,
+                                     FlatFileItemWriter<FilaCliente> reporteRechazados) {
+        this.clienteJdbcRepository = clienteJdbcRepository;
+        this.filtroEmails = filtroEmails;
+        this.cacheClientes = cacheClientes;
+        this.eventPublisher = eventPublisher;
+        this.reporteRechazados = reporteRechazados;
+    }
+
+    @Override
+    public void write(Chunk<? extends FilaCliente> filas) throws Exception {
+        List<FilaCliente> rechazadas = new ArrayList<>();
+        // Email normalizado -> primera fila con ese email
+        Map<String, FilaCliente> validas = new LinkedHashMap<>();
+
+        for (FilaCliente fila : filas) {
+            if (fila.isRechazada()) {
+                rechazadas.add(fila);
+                continue;
+            }
+            FilaCliente primera = validas.putIfAbsent(FiltroEmails.normalizar(fila.getEmail()), fila);
+            if (primera != null) {
+                fila.setMotivoRechazo("Email repetido en la línea " + primera.getLinea());
+                rechazadas.add(fila);
+            }
+        }
+
+        Set<String> registrados = filtroEmails.existentes(
+                validas.values().stream().map(FilaCliente::getEmail).toList(),
+                clienteJdbcRepository::emailsRegistrados);
+
+        List<Cliente> clientes = new ArrayList<>();
+        for (Map.Entry<String, FilaCliente> entrada : validas.entrySet()) {
+            FilaCliente fila = entrada.getValue();
+            if (registrados.contains(entrada.getKey())) {
+                fila.setMotivoRechazo("Ya existe un cliente con el email: " + fila.getEmail());
+                rechazadas.add(fila);
+                continue;
+            }
+            Cliente cliente = new Cliente();
+            cliente.setNombre(fila.getNombre());
+            cliente.setApellido(fila.getApellido());
+            cliente.setEmail(fila.getEmail());
+            cliente.setTelefono(fila.getTelefono());
+            cliente.setEstado(EstadoCliente.ACTIVO);
+            clientes.add(cliente);
+        }
+
+        if (!clientes.isEmpty()) {
+            // El filtro se actualiza antes: si hay rollback solo quedan falsos positivos
+            List<String> emails = clientes.stream().map(Cliente::getEmail).toList();
+            emails.forEach(filtroEmails::registrar);
+            clienteJdbcRepository.insertarLote(clientes);
+            // Puede haber un "no existe" en caché para esos emails
+            cacheClientes.invalidar(emails.toArray(String[]::new));
+
+            eventPublisher.publishEvent(new ClientesImportadosEvent(
+                    clientes.stream().map(Cliente::getId).toList(), emails));
+        }
+
+        if (!rechazadas.isEmpty()) {
+            rechazadas.sort((a, b) -> Integer.compare(a.getLinea(), b.getLinea()));
+            reporteRechazados.write(new Chunk<>(rechazadas));
+        }
+
+        importados += clientes.size();
+        rechazados += rechazadas.size();
+        log.info("Importación de clientes: {} importados y {} rechazados en el chunk ({} y {} en total)",
+                clientes.size(), rechazadas.size(), importados, rechazados);
+    }
+
+    @Override
+    public void open(ExecutionContext executionContext) {
+        importados = executionContext.getLong(IMPORTADOS, 0L);
+        rechazados = executionContext.getLong(RECHAZADOS, 0L);
+        reporteRechazados.open(executionContext);
+    }
+
+    @Override
+    public void update(ExecutionContext executionContext) {
+        executionContext.putLong(IMPORTADOS, importados);
+        executionContext.putLong(RECHAZADOS, rechazados);
+        reporteRechazados.update(executionContext);
+    }
+
+    @Override
+    public void close() {
+        reporteRechazados.close();
+    }
+}
@@ -0,0 +1,107 @@
+package com.cine.AppGestionCine.batch;
+
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobInstance;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Marca de agua del job de reconciliación
+ *
+ * La ventana de cada ejecución es (desde, hasta]: desde es el hasta de la última
+ * ejecución COMPLETED (guardado en sus parámetros por Spring Batch, así sobrevive
+ * reinicios) y hasta es la hora de la BD menos cine.batch.reconciliacion.margen-segundos,
+ * para no contar transacciones que todavía no hacen commit. Si una ejecución
+ * falla la marca no avanza y la siguiente vuelve a cubrir esa ventana.
+ *
+ * También lleva cuántas ventanas seguidas se ha diferido cada función con cambios
+ * después de hasta (en memoria: tras reiniciar se empieza de cero).
+ */
+@Component
+public class MarcaReconciliacion {
+
+    private static final int INSTANCIAS_A_REVISAR = 100;
+
+    private final JobExplorer jobExplorer;
+    private final JdbcTemplate jdbcTemplate;
+    private final long margenSegundos;
+    private final int maxVentanasDiferidas;
+
+    private final Map<Long, Integer> diferidas = new ConcurrentHashMap<>();
+
+    public MarcaReconciliacion(JobExplorer jobExplorer,
+                               JdbcTemplate jdbcTemplate,
+                               @Value("${cine.batch.reconciliacion.margen-segundos:30}") long margenSegundos,
+                               @Value("${cine.batch.reconciliacion.max-ventanas-diferidas:5}") int maxVentanasDiferidas) {
+        this.jobExplorer = jobExplorer;
+        this.jdbcTemplate = jdbcTemplate;
+        this.margenSegundos = margenSegundos;
+        this.maxVentanasDiferidas = maxVentanasDiferidas;
+    }
+
+    /**
+     * Una función con cambios después de hasta puede tener transacciones en curso y se deja
+     * para la siguiente ventana, pero no más de cine.batch.reconciliacion.max-ventanas-diferidas
+     * veces seguidas: con reservas sin pausa siempre tendría un cambio más nuevo y nunca se
+     * revisaría. Retorna si hay que diferirla otra vez
+     */
+    public boolean diferir(Long funcionId) {
+        if (diferidas.merge(funcionId, 1, Integer::sum) <= maxVentanasDiferidas) {
+            return true;
+        }
+        diferidas.remove(funcionId);
+        return false;
+    }
+
+    /**
+     * La función ya se revisó: vuelve a tener todas sus ventanas de espera
+     */
+    public void revisada(Long funcionId) {
+        diferidas.remove(funcionId);
+    }
+
+    /**
+     * Parámetros de la siguiente ejecución, o null si la ventana todavía está vacía
+     */
+    public JobParameters siguienteVentana(String trigger) {
+        // Mismo reloj que actualizadoEn en los UPDATE masivos
+        LocalDateTime hasta = jdbcTemplate.queryForObject("SELECT LOCALTIMESTAMP", LocalDateTime.class)
+                .minusSeconds(margenSegundos);
+        LocalDateTime desde = ultimaMarca();
+
+        if (desde != null && !hasta.isAfter(desde)) {
+            return null;
+        }
+
+        JobParametersBuilder parametros = new JobParametersBuilder()
+                .addLocalDateTime("hasta", hasta)
+                .addString("trigger", trigger, false);
+        if (desde != null) {
+            parametros.addLocalDateTime("desde", desde, false);
+        }
+        return parametros.toJobParameters();
+    }
+
+    /**
+     * hasta de la última ejecución completada; null si nunca se completó (revisión completa)
+     */
+    public LocalDateTime ultimaMarca() {
+        for (JobInstance instancia : jobExplorer.getJobInstances(ReconciliacionAsientosJobConfig.JOB, 0, INSTANCIAS_A_REVISAR)) {
+            for (JobExecution ejecucion : jobExplorer.getJobExecutions(instancia)) {
+                if (ejecucion.getStatus() == BatchStatus.COMPLETED) {
+                    return ejecucion.getJobParameters().getLocalDateTime("hasta");
+                }
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,184 @@
+package com.cine.AppGestionCine.batch;
+
+import com.cine.AppGestionCine.funciones.ContadoresAsientos;
+import com.cine.AppGestionCine.funciones.FuncionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.batch.item.ItemProcessor;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.batch.item.database.JdbcCursorItemReader;
+import org.springframework.batch.item.database.builder.JdbcCursorItemReaderBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * Job de reconciliación de asientos disponibles
+ *
+ * Funcion.asientosDisponibles se mantiene con +/-1 por eventos; si un evento
+ * falla el valor se desvía sin que nadie lo note. Este job cuenta los asientos
+ * LIBRE reales con un solo GROUP BY funcionId y corrige solo las funciones
+ * desviadas (la fila y el contador en memoria).
+ *
+ * Para no recorrer todo el catálogo cada minuto, solo revisa las funciones con
+ * asientos cambiados en la ventana (desde, hasta] según asientos.actualizadoEn
+ * (índice idx_asientos_actualizado). MarcaReconciliacion arma la ventana: desde
+ * es el hasta de la última ejecución completada. Sin desde se revisa todo.
+ *
+ * Una función con asientos cambiados después de hasta puede tener transacciones
+ * en curso y se difiere; como entra en la siguiente ventana nunca se olvida, pero
+ * tras cine.batch.reconciliacion.max-ventanas-diferidas ventanas seguidas se revisa
+ * igual. En ese caso el conteo puede errar por lo que cambió durante el margen, y
+ * la siguiente revisión lo vuelve a corregir: el desvío queda acotado.
+ */
+@Configuration
+@RequiredArgsConstructor
+@Slf4j
+public class ReconciliacionAsientosJobConfig {
+
+    public static final String JOB = "reconciliacionAsientosJob";
+
+    // Las columnas conservan el nombre del campo (PhysicalNamingStrategyStandardImpl).
+    // enMovimiento marca las funciones con cambios después de hasta; el processor decide si se difieren
+    private static final String CONTEO_LIBRES =
+            "SELECT a.funcionId, f.asientosDisponibles, " +
+            "SUM(CASE WHEN a.estado = 'LIBRE' THEN 1 ELSE 0 END) AS libres, " +
+            "CASE WHEN MAX(a.actualizadoEn) > ? THEN 1 ELSE 0 END AS enMovimiento " +
+            "FROM asientos a JOIN funciones f ON f.id = a.funcionId " +
+            "WHERE f.estado = 'EN_CARTELERA' %s" +
+            "GROUP BY a.funcionId, f.asientosDisponibles " +
+            "ORDER BY a.funcionId";
+
+    private static final String SOLO_VENTANA =
+            "AND a.funcionId IN (SELECT t.funcionId FROM asientos t WHERE t.actualizadoEn > ? AND t.actualizadoEn <= ?) ";
+
+    private final FuncionRepository funcionRepository;
+    private final ContadoresAsientos contadoresAsientos;
+    private final MarcaReconciliacion marcaReconciliacion;
+
+    // ════════════════════════════════════════════════════════
+    // JOB Y STEP
+    // ════════════════════════════════════════════════════════
+
+    @Bean
+    public Job reconciliacionAsientosJob(JobRepository jobRepository, Step reconciliarAsientosStep) {
+        return new JobBuilder(JOB, jobRepository)
+                .start(reconciliarAsientosStep)
+                .build();
+    }
+
+    /**
+     * readCount = funciones revisadas, filterCount = sin desvío o diferidas, writeCount = corregidas
+     */
+    @Bean
+    public Step reconciliarAsientosStep(JobRepository jobRepository,
+                                        PlatformTransactionManager transactionManager,
+                                        JdbcCursorItemReader<ConteoAsientos> conteoAsientosReader,
+                                        ItemProcessor<ConteoAsientos, ConteoAsientos> desvioProcessor,
+                                        ItemWriter<ConteoAsientos> desvioWriter,
+                                        @Value("${cine.batch.reconciliacion.chunk:100}") int chunk) {
+        return new StepBuilder("reconciliarAsientosStep", jobRepository)
+                .<ConteoAsientos, ConteoAsientos>chunk(chunk, transactionManager)
+                .reader(conteoAsientosReader)
+                .processor(desvioProcessor)
+                .writer(desvioWriter)
+                .build();
+    }
+
+    // ════════════════════════════════════════════════════════
+    // READER: un solo GROUP BY sobre asientos
+    // ════════════════════════════════════════════════════════
+
+    @Bean
+    @StepScope
+    public JdbcCursorItemReader<ConteoAsientos> conteoAsientosReader(
+            DataSource dataSource,
+            @Value("#{jobParameters['desde']}") LocalDateTime desde,
+            @Value("#{jobParameters['hasta']}") LocalDateTime hasta) {
+
+        return new JdbcCursorItemReaderBuilder<ConteoAsientos>()
+                .name("conteoAsientosReader")
+                .dataSource(dataSource)
+                .sql(sqlConteo(desde != null))
+                .preparedStatementSetter(ps -> {
+                    ps.setTimestamp(1, Timestamp.valueOf(hasta));
+                    if (desde != null) {
+                        ps.setTimestamp(2, Timestamp.valueOf(desde));
+                        ps.setTimestamp(3, Timestamp.valueOf(hasta));
+                    }
+                })
+                .rowMapper((rs, fila) -> new ConteoAsientos(rs.getLong(1), rs.getInt(2), rs.getInt(3), rs.getInt(4) == 1))
+                .build();
+    }
+
+    /**
+     * Conteo de libres por función, de la ventana o de todas
+     */
+    static String sqlConteo(boolean soloVentana) {
+        return String.format(CONTEO_LIBRES, soloVentana ? SOLO_VENTANA : "");
+    }
+
+    // ════════════════════════════════════════════════════════
+    // PROCESSOR: solo pasan las funciones desviadas (las que se mueven, tras unas ventanas)
+    // ════════════════════════════════════════════════════════
+
+    @Bean
+    public ItemProcessor<ConteoAsientos, ConteoAsientos> desvioProcessor() {
+        return conteo -> {
+            if (conteo.isEnMovimiento() && marcaReconciliacion.diferir(conteo.getFuncionId())) {
+                log.debug("Función {} con cambios después de hasta, se revisa en la siguiente ventana",
+                        conteo.getFuncionId());
+                return null;
+            }
+            marcaReconciliacion.revisada(conteo.getFuncionId());
+
+            Integer enMemoria = contadoresAsientos.disponiblesEnMemoria(conteo.getFuncionId());
+            boolean desviadaTabla = conteo.getRegistrados() != conteo.getLibres();
+            boolean desviadaMemoria = enMemoria != null && enMemoria != conteo.getLibres();
+
+            if (!desviadaTabla && !desviadaMemoria) {
+                return null;
+            }
+
+            log.warn("Función {} desviada: tabla {}, memoria {}, libres reales {}",
+                    conteo.getFuncionId(), conteo.getRegistrados(), enMemoria, conteo.getLibres());
+            return conteo;
+        };
+    }
+
+    // ════════════════════════════════════════════════════════
+    // WRITER: corrige la fila y el contador en memoria
+    // ════════════════════════════════════════════════════════
+
+    @Bean
+    public ItemWriter<ConteoAsientos> desvioWriter() {
+        return conteos -> {
+            for (ConteoAsientos conteo : conteos) {
+                // Primero la fila: con su lock tomado, un volcado de esta función ya terminó
+                // o espera a este commit (y su cambio sigue contando como pendiente)
+                funcionRepository.fijarAsientosDisponibles(conteo.getFuncionId(), conteo.getLibres());
+
+                Integer pendiente = contadoresAsientos.corregir(conteo.getFuncionId(), conteo.getLibres());
+                if (pendiente == null) {
+                    log.info("Contador de función {} con reservas en curso, se corrige en la siguiente ventana",
+                            conteo.getFuncionId());
+                } else if (pendiente != 0) {
+                    // Lo pendiente ya está en el conteo: el volcado lo sumará a la fila
+                    funcionRepository.fijarAsientosDisponibles(conteo.getFuncionId(), conteo.getLibres() - pendiente);
+                }
+            }
+            log.info("Reconciliación: {} funciones corregidas", conteos.size());
+        };
+    }
+}
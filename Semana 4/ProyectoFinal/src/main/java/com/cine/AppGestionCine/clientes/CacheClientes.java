@@ -0,0 +1,83 @@
+package com.cine.AppGestionCine.clientes;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Near-cache de email -> (ID, estado) para validar al cliente en cada reserva
+ *
+ * Cada fallo es un viaje a la BD; los aciertos no salen del proceso.
+ * ClienteService invalida el email en cuanto lo cambia (crear, actualizar,
+ * activar, desactivar) y otra vez al terminar la transacción, para que una
+ * lectura concurrente no deje en caché el valor anterior al commit.
+ * Los emails que no existen también se guardan, con un TTL corto
+ * (cine.clientes.cache.ttl-no-encontrado-segundos).
+ * La llave es el email normalizado (FiltroEmails.normalizar), igual que lo compara
+ * la collation de MySQL: "Ana@X.com" y "ana@x.com" son la misma entrada y se invalidan juntas.
+ * Métricas en /actuator/metrics/cache.gets?tag=cache:clientes (miss = viaje a la BD).
+ */
+@Component
+@Slf4j
+public class CacheClientes {
+
+    private final ClienteRepository clienteRepository;
+    private final Cache<String, Optional<ClienteEstado>> porEmail;
+
+    public CacheClientes(ClienteRepository clienteRepository,
+                         MeterRegistry meterRegistry,
+                         @Value("${cine.clientes.cache.max-entradas:10000}") long maxEntradas,
+                         @Value("${cine.clientes.cache.ttl-segundos:300}") long ttlSegundos,
+                         @Value("${cine.clientes.cache.ttl-no-encontrado-segundos:30}") long ttlNoEncontradoSegundos) {
+        this.clienteRepository = clienteRepository;
+        Duration ttl = Duration.ofSeconds(ttlSegundos);
+        Duration ttlNoEncontrado = Duration.ofSeconds(ttlNoEncontradoSegundos);
+
+        this.porEmail = Caffeine.newBuilder()
+                .maximumSize(maxEntradas)
+                .expireAfter(Expiry.<String, Optional<ClienteEstado>>writing(
+                        (email, estado) -> estado.isPresent() ? ttl : ttlNoEncontrado))
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, porEmail, "clientes");
+    }
+
+    /**
+     * ID y estado del cliente con ese email; vacío si no está registrado
+     */
+    public Optional<ClienteEstado> buscar(String email) {
+        return porEmail.get(FiltroEmails.normalizar(email), clave -> clienteRepository.buscarPorEmail(email)
+                .map(cliente -> new ClienteEstado(cliente.getId(), cliente.getEstado())));
+    }
+
+    /**
+     * Invalidar ya y, si hay transacción, otra vez al terminarla
+     */
+    public void invalidar(String... emails) {
+        List<String> claves = Arrays.stream(emails).map(FiltroEmails::normalizar).toList();
+        porEmail.invalidateAll(claves);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    porEmail.invalidateAll(claves);
+                }
+            });
+        }
+        log.debug("Caché de clientes invalidado para {} email(s)", emails.length);
+    }
+}
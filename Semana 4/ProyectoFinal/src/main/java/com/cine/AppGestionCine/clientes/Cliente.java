@@ -1,13 +1,23 @@
 package com.cine.AppGestionCine.clientes;
 
 import jakarta.persistence.*;
-        import lombok.AllArgsConstructor;
+import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "clientes")
+// Caché de segundo nivel: región "clientes" por ID y "clientes-email" de email a ID (hibernate-cache.conf)
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "clientes")
+@NaturalIdCache(region = "clientes-email")
+// email ya es único (y por lo tanto indexado); los listados filtran por estado
+@Table(name = "clientes", indexes = {
+        @Index(name = "idx_clientes_estado", columnList = "estado")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -23,6 +33,8 @@ public class Cliente {
     @Column(nullable = false)
     private String apellido;
 
+    // Se puede cambiar desde actualizarCliente: Hibernate actualiza la caché de natural-id al hacer flush
+    @NaturalId(mutable = true)
     @Column(nullable = false, unique = true)
     private String email;
 
@@ -3,20 +3,27 @@ package com.cine.AppGestionCine.clientes;
 import com.cine.AppGestionCine.clientes.dto.ActualizarClienteRequest;
 import com.cine.AppGestionCine.clientes.dto.ClienteResponse;
 import com.cine.AppGestionCine.clientes.dto.CrearClienteRequest;
+import com.cine.AppGestionCine.compartido.Paginador;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/clientes")
@@ -25,7 +32,12 @@ import java.util.stream.Collectors;
 @CrossOrigin(origins = "*")
 public class ClienteController {
 
+    private static final Set<String> CAMPOS_CLIENTE = Paginador.nombres(
+            "id", "nombre", "apellido", "email", "telefono", "estado", "fechaRegistro");
+
     private final ClienteService clienteService;
+    private final ExportadorClientes exportadorClientes;
+    private final Paginador paginador;
 
     // ════════════════════════════════════════════════════════
     // CREAR CLIENTE
@@ -57,27 +69,116 @@ public class ClienteController {
     // ════════════════════════════════════════════════════════
 
     @GetMapping
-    public ResponseEntity<List<ClienteResponse>> getAllClientes() {
-        log.info("Obteniendo todos los clientes");
+    public ResponseEntity<?> getAllClientes(@RequestParam(required = false) Long cursor,
+                                            @RequestParam(required = false) Integer limite,
+                                            @RequestParam(required = false) String fields) {
+        log.info("Obteniendo clientes desde el cursor {}", cursor);
+        return paginaClientes(null, cursor, limite, fields);
+    }
 
-        List<ClienteResponse> clientes = clienteService.getAllClientes()
-                .stream()
-                .map(ClienteResponse::fromEntity)
-                .collect(Collectors.toList());
+    @GetMapping("/activos")
+    public ResponseEntity<?> getClientesActivos(@RequestParam(required = false) Long cursor,
+                                                @RequestParam(required = false) Integer limite,
+                                                @RequestParam(required = false) String fields) {
+        log.info("Obteniendo clientes activos desde el cursor {}", cursor);
+        return paginaClientes(EstadoCliente.ACTIVO, cursor, limite, fields);
+    }
 
-        return ResponseEntity.ok(clientes);
+    // Página por cursor; el siguiente cursor va en la cabecera X-Cursor-Siguiente
+    private ResponseEntity<?> paginaClientes(EstadoCliente estado, Long cursor, Integer limite, String fields) {
+        try {
+            Set<String> campos = paginador.campos(fields, CAMPOS_CLIENTE);
+            int tamanio = paginador.limite(limite);
+
+            List<?> clientes;
+            if (paginador.cabeEn(campos, ClienteResumen.CAMPOS)) {
+                clientes = clienteService.getClientesPagina(estado, cursor, tamanio + 1, ClienteResumen.class);
+            } else {
+                clientes = clienteService.getClientesPagina(estado, cursor, tamanio + 1, Cliente.class)
+                        .stream()
+                        .map(ClienteResponse::fromEntity)
+                        .collect(Collectors.toList());
+            }
+
+            return paginador.responder(clientes, tamanio, campos);
+
+        } catch (Exception e) {
+            log.error("Error al listar clientes: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
     }
 
-    @GetMapping("/activos")
-    public ResponseEntity<List<ClienteResponse>> getClientesActivos() {
-        log.info("Obteniendo clientes activos");
+    // ════════════════════════════════════════════════════════
+    // EXPORTAR CLIENTES (NDJSON en streaming)
+    // ════════════════════════════════════════════════════════
 
-        List<ClienteResponse> clientes = clienteService.getClientesActivos()
-                .stream()
-                .map(ClienteResponse::fromEntity)
-                .collect(Collectors.toList());
+    /**
+     * Un cliente por línea, escrito mientras se lee el cursor; comprimido con gzip
+     * si el cliente lo acepta (Accept-Encoding)
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportarClientes(
+            @RequestParam(required = false) EstadoCliente estado,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        boolean gzip = aceptaGzip(acceptEncoding);
+        log.info("Exportando clientes (estado: {}, gzip: {})", estado, gzip);
+
+        StreamingResponseBody cuerpo = salida -> {
+            if (gzip) {
+                GZIPOutputStream comprimida = new GZIPOutputStream(salida, 8192);
+                exportadorClientes.exportar(estado, comprimida);
+                comprimida.finish();
+            } else {
+                exportadorClientes.exportar(estado, salida);
+            }
+        };
+
+        ResponseEntity.BodyBuilder respuesta = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"clientes.ndjson\"")
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            respuesta.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return respuesta.body(cuerpo);
+    }
 
-        return ResponseEntity.ok(clientes);
+    /**
+     * Si Accept-Encoding admite gzip: "gzip" (o "x-gzip") con q > 0, o "*" con q > 0
+     * cuando gzip no aparece. "gzip;q=0" lo rechaza explícitamente
+     */
+    static boolean aceptaGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+
+        Double calidadGzip = null;
+        Double calidadComodin = null;
+        for (String codificacion : acceptEncoding.split(",")) {
+            String[] partes = codificacion.split(";");
+            String nombre = partes[0].trim().toLowerCase(Locale.ROOT);
+
+            double calidad = 1.0;
+            for (int i = 1; i < partes.length; i++) {
+                String parametro = partes[i].trim().toLowerCase(Locale.ROOT);
+                if (parametro.startsWith("q=")) {
+                    try {
+                        calidad = Double.parseDouble(parametro.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        calidad = 0;
+                    }
+                }
+            }
+
+            if (nombre.equals("gzip") || nombre.equals("x-gzip")) {
+                calidadGzip = calidad;
+            } else if (nombre.equals("*")) {
+                calidadComodin = calidad;
+            }
+        }
+
+        double calidad = calidadGzip != null ? calidadGzip : calidadComodin != null ? calidadComodin : 0;
+        return calidad > 0;
     }
 
     // ════════════════════════════════════════════════════════
@@ -118,10 +219,11 @@ public class ClienteController {
 
     @GetMapping("/buscar")
     public ResponseEntity<List<ClienteResponse>> buscarClientes(
-            @RequestParam String q) {
+            @RequestParam String q,
+            @RequestParam(defaultValue = "20") int limite) {
         log.info("Buscando clientes: {}", q);
 
-        List<ClienteResponse> clientes = clienteService.buscarClientes(q)
+        List<ClienteResponse> clientes = clienteService.buscarClientes(q, limite)
                 .stream()
                 .map(ClienteResponse::fromEntity)
                 .collect(Collectors.toList());
@@ -0,0 +1,14 @@
+package com.cine.AppGestionCine.clientes;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Lo que una reserva necesita saber de un cliente: su ID y si está activo
+ */
+@Data
+@AllArgsConstructor
+public class ClienteEstado {
+    private final Long id;
+    private final EstadoCliente estado;
+}
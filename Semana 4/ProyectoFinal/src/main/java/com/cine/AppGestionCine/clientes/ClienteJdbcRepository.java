@@ -0,0 +1,111 @@
+package com.cine.AppGestionCine.clientes;
+
+import com.cine.AppGestionCine.compartido.CacheConsultas;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Inserción masiva de clientes con JDBC batch (importación desde CSV)
+ *
+ * Igual que FuncionJdbcRepository: Cliente usa IDENTITY y Hibernate no agrupa
+ * sus INSERT. Aquí van en lotes de cine.clientes.batch-size filas y los IDs
+ * generados se asignan a cada Cliente; después se vacía la caché de consultas
+ * con CacheConsultas.
+ */
+@Repository
+@Slf4j
+public class ClienteJdbcRepository {
+
+    // Las columnas conservan el nombre del campo (PhysicalNamingStrategyStandardImpl)
+    private static final String INSERT_CLIENTE =
+            "INSERT INTO clientes (nombre, apellido, email, telefono, estado, fechaRegistro, ultimaActualizacion) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    // Entra por el índice único de email
+    private static final String EMAILS_REGISTRADOS = "SELECT email FROM clientes WHERE email IN (%s)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CacheConsultas cacheConsultas;
+    private final int batchSize;
+
+    public ClienteJdbcRepository(JdbcTemplate jdbcTemplate,
+                                 CacheConsultas cacheConsultas,
+                                 @Value("${cine.clientes.batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.cacheConsultas = cacheConsultas;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Insertar clientes nuevos en lotes y asignarles el ID; las fechas se llenan como en @PrePersist
+     */
+    public int insertarLote(List<Cliente> clientes) {
+        LocalDateTime ahora = LocalDateTime.now();
+        for (Cliente cliente : clientes) {
+            cliente.setFechaRegistro(ahora);
+            cliente.setUltimaActualizacion(ahora);
+        }
+
+        for (int desde = 0; desde < clientes.size(); desde += batchSize) {
+            List<Cliente> lote = clientes.subList(desde, Math.min(desde + batchSize, clientes.size()));
+            KeyHolder ids = new GeneratedKeyHolder();
+
+            jdbcTemplate.batchUpdate(con -> con.prepareStatement(INSERT_CLIENTE, new String[]{"id"}),
+                    new BatchPreparedStatementSetter() {
+                        @Override
+                        public void setValues(PreparedStatement ps, int i) throws SQLException {
+                            Cliente cliente = lote.get(i);
+                            ps.setString(1, cliente.getNombre());
+                            ps.setString(2, cliente.getApellido());
+                            ps.setString(3, cliente.getEmail());
+                            ps.setString(4, cliente.getTelefono());
+                            ps.setString(5, cliente.getEstado().name());
+                            ps.setTimestamp(6, Timestamp.valueOf(cliente.getFechaRegistro()));
+                            ps.setTimestamp(7, Timestamp.valueOf(cliente.getUltimaActualizacion()));
+                        }
+
+                        @Override
+                        public int getBatchSize() {
+                            return lote.size();
+                        }
+                    }, ids);
+
+            List<Long> generados = ids.getKeyList().stream()
+                    .map(fila -> ((Number) fila.values().iterator().next()).longValue())
+                    .toList();
+            if (generados.size() != lote.size()) {
+                throw new RuntimeException("El driver devolvió " + generados.size() + " IDs para " + lote.size() + " clientes");
+            }
+            for (int i = 0; i < lote.size(); i++) {
+                lote.get(i).setId(generados.get(i));
+            }
+        }
+
+        cacheConsultas.invalidar();
+        log.debug("Insertados {} clientes en lotes de hasta {}", clientes.size(), batchSize);
+        return clientes.size();
+    }
+
+    /**
+     * De la lista, los emails que ya tienen cliente (un solo SELECT)
+     */
+    public List<String> emailsRegistrados(List<String> emails) {
+        if (emails.isEmpty()) {
+            return List.of();
+        }
+        String marcas = String.join(", ", Collections.nCopies(emails.size(), "?"));
+        return jdbcTemplate.queryForList(String.format(EMAILS_REGISTRADOS, marcas), String.class, emails.toArray());
+    }
+}
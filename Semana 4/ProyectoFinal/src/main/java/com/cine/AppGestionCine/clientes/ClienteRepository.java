@@ -1,13 +1,17 @@
 package com.cine.AppGestionCine.clientes;
 
-
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface ClienteRepository extends JpaRepository<Cliente, Long> {
+public interface ClienteRepository extends JpaRepository<Cliente, Long>, ClienteRepositoryCustom {
 
     // Buscar cliente por email (único)
     Optional<Cliente> findByEmail(String email);
@@ -15,10 +19,30 @@ public interface ClienteRepository extends JpaRepository<Cliente, Long> {
     // Verificar si existe email (para validación)
     boolean existsByEmail(String email);
 
-    // Buscar clientes por estado
+    // Buscar clientes por estado; caché de consultas, se invalida con cualquier cambio en clientes
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Cliente> findByEstado(EstadoCliente estado);
 
-    // Buscar clientes por nombre (like)
+    // Páginas por cursor: tipo es Cliente o la proyección ClienteResumen
+    <T> List<T> findByIdGreaterThanOrderByIdAsc(Long id, Limit limite, Class<T> tipo);
+
+    <T> List<T> findByEstadoAndIdGreaterThanOrderByIdAsc(EstadoCliente estado, Long id, Limit limite, Class<T> tipo);
+
+    // Exportación (ver ExportadorClientes): cursor de solo lectura por lotes de 1000 filas;
+    // en MySQL el fetch size requiere useCursorFetch=true
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Cliente> streamAllByOrderByIdAsc();
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Cliente> streamByEstadoOrderByIdAsc(EstadoCliente estado);
+
+    // Buscar clientes por nombre (like); buscarClientes usa IndiceClientes
     List<Cliente> findByNombreContainingIgnoreCaseOrApellidoContainingIgnoreCase(
             String nombre,
             String apellido
@@ -0,0 +1,12 @@
+package com.cine.AppGestionCine.clientes;
+
+import java.util.Optional;
+
+/**
+ * Consultas de clientes que necesitan la Session de Hibernate
+ */
+public interface ClienteRepositoryCustom {
+
+    // Buscar cliente por email a través de la caché de natural-id
+    Optional<Cliente> buscarPorEmail(String email);
+}
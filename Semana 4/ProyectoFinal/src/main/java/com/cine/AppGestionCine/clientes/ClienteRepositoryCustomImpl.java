@@ -0,0 +1,27 @@
+package com.cine.AppGestionCine.clientes;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+/**
+ * findByEmail siempre va a la BD (las consultas no pasan por la caché de entidades).
+ * bySimpleNaturalId resuelve email -> ID en la región "clientes-email" y luego
+ * el cliente en la región "clientes": con ambas calientes no hay SELECT.
+ */
+class ClienteRepositoryCustomImpl implements ClienteRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Cliente> buscarPorEmail(String email) {
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(Cliente.class)
+                .loadOptional(email);
+    }
+}
@@ -0,0 +1,23 @@
+package com.cine.AppGestionCine.clientes;
+
+import com.cine.AppGestionCine.compartido.Paginador;
+
+import java.util.Set;
+
+/**
+ * Proyección de Cliente para listas con ?fields=: solo lee estas columnas
+ */
+public interface ClienteResumen {
+
+    Set<String> CAMPOS = Paginador.nombres("id", "nombre", "apellido", "email", "estado");
+
+    Long getId();
+
+    String getNombre();
+
+    String getApellido();
+
+    String getEmail();
+
+    EstadoCliente getEstado();
+}
@@ -6,11 +6,17 @@ import com.cine.AppGestionCine.clientes.events.ClienteRegistradoEvent;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Servicio de gestión de clientes
@@ -21,8 +27,13 @@ import java.util.Optional;
 @Transactional
 public class ClienteService {
 
+    private static final int MAX_RESULTADOS_BUSQUEDA = 50;
+
     private final ClienteRepository clienteRepository;
     private final ApplicationEventPublisher eventPublisher;
+    private final CacheClientes cacheClientes;
+    private final FiltroEmails filtroEmails;
+    private final IndiceClientes indiceClientes;
 
     // ════════════════════════════════════════════════════════
     // CREAR CLIENTE
@@ -34,8 +45,8 @@ public class ClienteService {
     public Cliente crearCliente(CrearClienteRequest request) {
         log.info("Creando cliente: {} {}", request.getNombre(), request.getApellido());
 
-        // Validar que el email no exista
-        if (clienteRepository.existsByEmail(request.getEmail())) {
+        // Validar que el email no exista (sin SELECT si el filtro de emails lo descarta)
+        if (filtroEmails.existe(request.getEmail(), clienteRepository::existsByEmail)) {
             throw new RuntimeException("Ya existe un cliente con el email: " + request.getEmail());
         }
 
@@ -47,8 +58,12 @@ public class ClienteService {
         cliente.setTelefono(request.getTelefono());
         cliente.setEstado(EstadoCliente.ACTIVO);
 
-        // Guardar
+        // Guardar; el filtro se actualiza antes: si hay rollback solo queda un falso positivo
+        filtroEmails.registrar(cliente.getEmail());
         Cliente clienteGuardado = clienteRepository.save(cliente);
+        // Puede haber un "no existe" en caché para ese email
+        cacheClientes.invalidar(clienteGuardado.getEmail());
+        indiceClientes.indexar(clienteGuardado);
 
         // Publicar evento
         ClienteRegistradoEvent evento = new ClienteRegistradoEvent(
@@ -78,6 +93,7 @@ public class ClienteService {
 
         Cliente cliente = clienteRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Cliente no encontrado con ID: " + id));
+        String emailAnterior = cliente.getEmail();
 
         // Actualizar solo campos no nulos
         if (request.getNombre() != null) {
@@ -90,10 +106,11 @@ public class ClienteService {
 
         if (request.getEmail() != null) {
             // Verificar que el nuevo email no esté en uso por otro cliente
-            Optional<Cliente> clienteConEmail = clienteRepository.findByEmail(request.getEmail());
+            Optional<Cliente> clienteConEmail = filtroEmails.buscar(request.getEmail(), clienteRepository::findByEmail);
             if (clienteConEmail.isPresent() && !clienteConEmail.get().getId().equals(id)) {
                 throw new RuntimeException("El email ya está en uso por otro cliente");
             }
+            filtroEmails.registrar(request.getEmail());
             cliente.setEmail(request.getEmail());
         }
 
@@ -102,6 +119,8 @@ public class ClienteService {
         }
 
         Cliente actualizado = clienteRepository.save(cliente);
+        cacheClientes.invalidar(emailAnterior, actualizado.getEmail());
+        indiceClientes.indexar(actualizado);
 
         log.info("Cliente {} actualizado exitosamente", id);
 
@@ -123,6 +142,7 @@ public class ClienteService {
 
         cliente.setEstado(EstadoCliente.ACTIVO);
         clienteRepository.save(cliente);
+        cacheClientes.invalidar(cliente.getEmail());
 
         log.info("Cliente {} activado", id);
     }
@@ -138,6 +158,7 @@ public class ClienteService {
 
         cliente.setEstado(EstadoCliente.INACTIVO);
         clienteRepository.save(cliente);
+        cacheClientes.invalidar(cliente.getEmail());
 
         log.info("Cliente {} desactivado", id);
     }
@@ -154,6 +175,18 @@ public class ClienteService {
         return clienteRepository.findAll();
     }
 
+    /**
+     * Página de clientes con id mayor al cursor, opcionalmente de un estado (tipo: Cliente o ClienteResumen)
+     */
+    @Transactional(readOnly = true)
+    public <T> List<T> getClientesPagina(EstadoCliente estado, Long cursor, int limite, Class<T> tipo) {
+        long desde = cursor != null ? cursor : 0L;
+        if (estado == null) {
+            return clienteRepository.findByIdGreaterThanOrderByIdAsc(desde, Limit.of(limite), tipo);
+        }
+        return clienteRepository.findByEstadoAndIdGreaterThanOrderByIdAsc(estado, desde, Limit.of(limite), tipo);
+    }
+
     /**
      * Obtener cliente por ID
      */
@@ -163,11 +196,20 @@ public class ClienteService {
     }
 
     /**
-     * Obtener cliente por email
+     * Obtener cliente por email; va por la caché de natural-id, así cada reserva no hace un SELECT
      */
     @Transactional(readOnly = true)
     public Optional<Cliente> getClienteByEmail(String email) {
-        return clienteRepository.findByEmail(email);
+        return clienteRepository.buscarPorEmail(email);
+    }
+
+    /**
+     * ID y estado del cliente, desde el near-cache (para validar reservas).
+     * SUPPORTS: un acierto no debe abrir transacción
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public Optional<ClienteEstado> getEstadoCliente(String email) {
+        return cacheClientes.buscar(email);
     }
 
     /**
@@ -179,14 +221,27 @@ public class ClienteService {
     }
 
     /**
-     * Buscar clientes por nombre o apellido
+     * Buscar clientes por nombre, apellido o email (sin acentos, por prefijo y
+     * tolerante a errores), del más al menos relevante; se resuelve con el índice
+     * de trigramas y solo se leen de la BD los clientes que se devuelven
      */
     @Transactional(readOnly = true)
-    public List<Cliente> buscarClientes(String busqueda) {
-        return clienteRepository.findByNombreContainingIgnoreCaseOrApellidoContainingIgnoreCase(
-                busqueda,
-                busqueda
-        );
+    public List<Cliente> buscarClientes(String busqueda, int limite) {
+        List<Long> ids = indiceClientes.buscar(busqueda, Math.min(limite, MAX_RESULTADOS_BUSQUEDA));
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, Cliente> porId = clienteRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Cliente::getId, Function.identity()));
+        List<Cliente> clientes = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Cliente cliente = porId.get(id);
+            if (cliente != null) {
+                clientes.add(cliente);
+            }
+        }
+        return clientes;
     }
 
     /**
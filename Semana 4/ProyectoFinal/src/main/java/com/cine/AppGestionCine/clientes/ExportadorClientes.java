@@ -0,0 +1,79 @@
+package com.cine.AppGestionCine.clientes;
+
+import com.cine.AppGestionCine.clientes.dto.ClienteResponse;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Exportación de clientes en NDJSON (un ClienteResponse por línea) sin cargar la tabla en memoria
+ *
+ * findAll() arma la lista completa de entidades y luego la de ClienteResponse
+ * antes de serializar. Aquí las filas llegan por un cursor de solo lectura
+ * (fetch size 1000) y cada cliente se escribe y se saca del contexto de
+ * persistencia al momento: la memoria no crece con el número de clientes.
+ * La sesión ignora la caché de segundo nivel mientras tanto para no llenar la
+ * región "clientes" con toda la tabla (Hibernate no aplica el modo de caché
+ * de la consulta a resultados con cursor).
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ExportadorClientes {
+
+    private final ClienteRepository clienteRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Escribir los clientes (todos o los de un estado) ordenados por ID; no cierra la salida
+     */
+    @Transactional(readOnly = true)
+    public long exportar(EstadoCliente estado, OutputStream salida) throws IOException {
+        // Sin flush por cliente: el generador vacía su búfer cuando se llena
+        ObjectWriter writer = objectMapper.writerFor(ClienteResponse.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        long total = 0;
+
+        Session session = entityManager.unwrap(Session.class);
+        CacheMode cacheModeAnterior = session.getCacheMode();
+        session.setCacheMode(CacheMode.IGNORE);
+
+        try (Stream<Cliente> clientes = estado == null
+                ? clienteRepository.streamAllByOrderByIdAsc()
+                : clienteRepository.streamByEstadoOrderByIdAsc(estado);
+             JsonGenerator generador = objectMapper.createGenerator(salida)) {
+
+            generador.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // El salto de línea va después de cada cliente, no el espacio entre valores de Jackson
+            generador.setRootValueSeparator(null);
+
+            Iterator<Cliente> iterador = clientes.iterator();
+            while (iterador.hasNext()) {
+                Cliente cliente = iterador.next();
+                writer.writeValue(generador, ClienteResponse.fromEntity(cliente));
+                generador.writeRaw('\n');
+                entityManager.detach(cliente);
+                total++;
+            }
+        } finally {
+            session.setCacheMode(cacheModeAnterior);
+        }
+
+        log.info("Exportación de clientes{}: {} escritos", estado != null ? " " + estado : "", total);
+        return total;
+    }
+}
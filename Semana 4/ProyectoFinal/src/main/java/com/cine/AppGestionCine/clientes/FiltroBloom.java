@@ -0,0 +1,155 @@
+package com.cine.AppGestionCine.clientes;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtro de Bloom escalable: responde "seguro no está" o "puede estar"
+ *
+ * Un filtro de Bloom fijo se satura si recibe más elementos de los previstos.
+ * Este agrega capas: cuando la última llega a su capacidad se crea otra del
+ * doble de tamaño y con la mitad de tasa de falsos positivos, así la tasa
+ * total queda acotada por la pedida sin importar cuántos elementos entren.
+ * Un valor puede estar si alguna capa tiene encendidos sus k bits.
+ * No se pueden quitar elementos; agregar y consultar no usan locks.
+ */
+public class FiltroBloom {
+
+    private static final int CRECIMIENTO = 2;
+    private static final double REDUCCION = 0.5;
+
+    private final List<Capa> capas = new CopyOnWriteArrayList<>();
+
+    public FiltroBloom(long capacidadInicial, double tasaFalsosPositivos) {
+        if (capacidadInicial <= 0 || tasaFalsosPositivos <= 0 || tasaFalsosPositivos >= 1) {
+            throw new IllegalArgumentException("Capacidad mayor a 0 y tasa de falsos positivos entre 0 y 1");
+        }
+        // p0 + p0 r + p0 r² + ... = p0 / (1 - r) = tasa pedida
+        capas.add(new Capa(capacidadInicial, tasaFalsosPositivos * (1 - REDUCCION)));
+    }
+
+    public void agregar(String valor) {
+        long hash = hash(valor);
+        Capa ultima = capas.get(capas.size() - 1);
+
+        if (ultima.elementos.get() >= ultima.capacidad) {
+            ultima = crecer(ultima);
+        }
+        ultima.agregar(hash);
+    }
+
+    public boolean puedeContener(String valor) {
+        long hash = hash(valor);
+        for (Capa capa : capas) {
+            if (capa.puedeContener(hash)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public long elementos() {
+        return capas.stream().mapToLong(capa -> capa.elementos.get()).sum();
+    }
+
+    public int numeroCapas() {
+        return capas.size();
+    }
+
+    public long bytes() {
+        return capas.stream().mapToLong(capa -> capa.bits.length() * 8L).sum();
+    }
+
+    /**
+     * Tasa de falsos positivos esperada con los elementos que hay ahora
+     */
+    public double tasaFalsosPositivosEstimada() {
+        double ningunaCapaFalla = 1;
+        for (Capa capa : capas) {
+            ningunaCapaFalla *= 1 - capa.tasaEstimada();
+        }
+        return 1 - ningunaCapaFalla;
+    }
+
+    private synchronized Capa crecer(Capa llena) {
+        Capa ultima = capas.get(capas.size() - 1);
+        if (ultima != llena) {
+            // Otro hilo ya creó la capa nueva
+            return ultima;
+        }
+        Capa nueva = new Capa(llena.capacidad * CRECIMIENTO, llena.tasa * REDUCCION);
+        capas.add(nueva);
+        return nueva;
+    }
+
+    /**
+     * FNV-1a de 64 bits sobre UTF-8, con la mezcla final de MurmurHash3 para repartir los bits
+     */
+    static long hash(String valor) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : valor.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b & 0xff;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private static final class Capa {
+        private final long capacidad;
+        private final double tasa;
+        private final long m;
+        private final int k;
+        private final AtomicLongArray bits;
+        private final AtomicLong elementos = new AtomicLong();
+
+        private Capa(long capacidad, double tasa) {
+            this.capacidad = capacidad;
+            this.tasa = tasa;
+            // Tamaño y número de funciones óptimos: m = -n ln p / (ln 2)², k = (m / n) ln 2
+            long bitsOptimos = (long) Math.ceil(-capacidad * Math.log(tasa) / (Math.log(2) * Math.log(2)));
+            this.bits = new AtomicLongArray(Math.toIntExact((bitsOptimos + 63) / 64));
+            this.m = bits.length() * 64L;
+            this.k = Math.max(1, (int) Math.round((double) m / capacidad * Math.log(2)));
+        }
+
+        // Doble hashing (Kirsch-Mitzenmacher): posición i = h1 + i * h2
+        private void agregar(long hash) {
+            long h1 = hash;
+            long h2 = (hash >>> 32) | 1;
+            for (int i = 0; i < k; i++) {
+                long posicion = Math.floorMod(h1 + i * h2, m);
+                long bit = 1L << posicion;
+                int palabra = (int) (posicion >>> 6);
+                if ((bits.get(palabra) & bit) == 0) {
+                    bits.getAndAccumulate(palabra, bit, (actual, nuevo) -> actual | nuevo);
+                }
+            }
+            elementos.incrementAndGet();
+        }
+
+        private boolean puedeContener(long hash) {
+            long h1 = hash;
+            long h2 = (hash >>> 32) | 1;
+            for (int i = 0; i < k; i++) {
+                long posicion = Math.floorMod(h1 + i * h2, m);
+                if ((bits.get((int) (posicion >>> 6)) & (1L << posicion)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // (1 - e^(-k n / m))^k
+        private double tasaEstimada() {
+            return Math.pow(1 - Math.exp(-(double) k * elementos.get() / m), k);
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.cine.AppGestionCine.clientes;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * Filtro de Bloom de los emails registrados, para no consultar la BD por emails nuevos
+ *
+ * Si el filtro dice que un email seguro no está, crearCliente y actualizarCliente
+ * se ahorran el SELECT; si dice que puede estar, se consulta como antes. La
+ * restricción única de clientes.email sigue siendo la última palabra.
+ * Nunca debe haber un "no está" equivocado, por eso:
+ * - Mientras no termine la carga inicial (o si falla) todo "puede estar".
+ * - Cada email se agrega antes del INSERT/UPDATE; si la transacción se
+ *   deshace solo queda un falso positivo.
+ * - Los emails se normalizan (minúsculas, sin acentos) como los compara la
+ *   collation de MySQL, así "José@x.com" y "jose@x.com" caen en los mismos bits.
+ * existentes() hace lo mismo para una lista (importación): un solo SELECT con
+ * los emails que el filtro no descarta.
+ * Métricas: clientes.emails.filtro.bytes, .elementos, .falsos-positivos.estimados
+ * y clientes.emails.filtro.consultas por resultado (descartado, duplicado, falso-positivo).
+ */
+@Component
+@Slf4j
+public class FiltroEmails {
+
+    private static final Pattern MARCAS = Pattern.compile("\\p{M}+");
+
+    private final ClienteRepository clienteRepository;
+    private final FiltroBloom filtro;
+    private final int lote;
+    private volatile boolean cargado;
+
+    private final Counter descartados;
+    private final Counter duplicados;
+    private final Counter falsosPositivos;
+
+    /**
+     * Solo lo que la carga necesita de cada cliente
+     */
+    public interface EmailRegistrado {
+        Long getId();
+
+        String getEmail();
+    }
+
+    public FiltroEmails(ClienteRepository clienteRepository,
+                        MeterRegistry meterRegistry,
+                        @Value("${cine.clientes.filtro-emails.capacidad-inicial:100000}") long capacidadInicial,
+                        @Value("${cine.clientes.filtro-emails.tasa-falsos-positivos:0.01}") double tasaFalsosPositivos,
+                        @Value("${cine.clientes.filtro-emails.lote:5000}") int lote) {
+        this.clienteRepository = clienteRepository;
+        this.filtro = new FiltroBloom(capacidadInicial, tasaFalsosPositivos);
+        this.lote = lote;
+
+        Gauge.builder("clientes.emails.filtro.bytes", filtro, FiltroBloom::bytes)
+                .description("Memoria de los bits del filtro de emails")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("clientes.emails.filtro.elementos", filtro, FiltroBloom::elementos)
+                .description("Emails agregados al filtro")
+                .register(meterRegistry);
+        Gauge.builder("clientes.emails.filtro.falsos-positivos.estimados", filtro, FiltroBloom::tasaFalsosPositivosEstimada)
+                .description("Tasa de falsos positivos esperada con los emails actuales")
+                .register(meterRegistry);
+
+        this.descartados = consultas(meterRegistry, "descartado");
+        this.duplicados = consultas(meterRegistry, "duplicado");
+        this.falsosPositivos = consultas(meterRegistry, "falso-positivo");
+    }
+
+    private static Counter consultas(MeterRegistry meterRegistry, String resultado) {
+        return Counter.builder("clientes.emails.filtro.consultas")
+                .description("Verificaciones de email: descartado = sin SELECT")
+                .tag("resultado", resultado)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Al arrancar, recorrer clientes.email por páginas de cine.clientes.filtro-emails.lote
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void cargar() {
+        try {
+            long cursor = 0;
+            List<EmailRegistrado> pagina;
+            do {
+                pagina = clienteRepository.findByIdGreaterThanOrderByIdAsc(cursor, Limit.of(lote), EmailRegistrado.class);
+                for (EmailRegistrado cliente : pagina) {
+                    registrar(cliente.getEmail());
+                }
+                if (!pagina.isEmpty()) {
+                    cursor = pagina.get(pagina.size() - 1).getId();
+                }
+            } while (pagina.size() == lote);
+
+            cargado = true;
+            log.info("Filtro de emails cargado: {} emails, {} capa(s), {} KB, falsos positivos estimados {}",
+                    filtro.elementos(), filtro.numeroCapas(), filtro.bytes() / 1024,
+                    String.format(Locale.ROOT, "%.4f", filtro.tasaFalsosPositivosEstimada()));
+
+        } catch (Exception e) {
+            // Sin filtro cada verificación va a la BD, como antes
+            log.error("Error al cargar el filtro de emails: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Agregar un email que se va a guardar (antes del INSERT o UPDATE)
+     */
+    public void registrar(String email) {
+        filtro.agregar(normalizar(email));
+    }
+
+    /**
+     * Buscar en la BD solo si el filtro no descarta el email
+     */
+    public <T> Optional<T> buscar(String email, Function<String, Optional<T>> consulta) {
+        if (cargado && !filtro.puedeContener(normalizar(email))) {
+            descartados.increment();
+            return Optional.empty();
+        }
+
+        Optional<T> resultado = consulta.apply(email);
+        if (cargado) {
+            (resultado.isPresent() ? duplicados : falsosPositivos).increment();
+        }
+        return resultado;
+    }
+
+    /**
+     * true si el email ya está registrado; sin SELECT cuando el filtro lo descarta
+     */
+    public boolean existe(String email, Function<String, Boolean> consulta) {
+        return buscar(email, e -> consulta.apply(e) ? Optional.of(e) : Optional.empty()).isPresent();
+    }
+
+    /**
+     * Emails de la lista que ya están registrados, normalizados; la consulta
+     * recibe solo los que el filtro no descarta y no se llama si no queda ninguno
+     */
+    public Set<String> existentes(Collection<String> emails, Function<List<String>, List<String>> consulta) {
+        List<String> candidatos = new ArrayList<>();
+        for (String email : emails) {
+            if (cargado && !filtro.puedeContener(normalizar(email))) {
+                descartados.increment();
+            } else {
+                candidatos.add(email);
+            }
+        }
+        if (candidatos.isEmpty()) {
+            return Set.of();
+        }
+
+        Set<String> registrados = new HashSet<>();
+        for (String email : consulta.apply(candidatos)) {
+            registrados.add(normalizar(email));
+        }
+        if (cargado) {
+            for (String email : candidatos) {
+                (registrados.contains(normalizar(email)) ? duplicados : falsosPositivos).increment();
+            }
+        }
+        return registrados;
+    }
+
+    public boolean isCargado() {
+        return cargado;
+    }
+
+    public static String normalizar(String email) {
+        String sinAcentos = MARCAS.matcher(Normalizer.normalize(email.trim(), Normalizer.Form.NFD)).replaceAll("");
+        return sinAcentos.toLowerCase(Locale.ROOT);
+    }
+}
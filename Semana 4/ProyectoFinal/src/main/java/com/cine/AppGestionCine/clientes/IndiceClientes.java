@@ -0,0 +1,514 @@
+package com.cine.AppGestionCine.clientes;
+
+import com.cine.AppGestionCine.clientes.events.ClientesImportadosEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Índice de trigramas sobre nombre, apellido y email de los clientes
+ *
+ * Como IndicePeliculas, reemplaza los LIKE '%x%' de buscarClientes (recorren
+ * toda la tabla) por una búsqueda en memoria sin acentos ni mayúsculas, por
+ * prefijo, tolerante a errores de dedo y con resultados ordenados. La
+ * diferencia es el tamaño: con un millón de clientes no cabe un String por
+ * trigrama ni un Set por cliente, así que:
+ * - Cada trigrama es un número (37 símbolos: espacio, a-z, 0-9) y su lista es
+ *   un int[] ordenado con las posiciones de los clientes que lo tienen.
+ * - De cada cliente solo se guardan el ID y el texto normalizado en ASCII.
+ * - Del email se indexa lo que va antes de la @: el dominio lo comparten
+ *   casi todos y no distingue a nadie (en la búsqueda también se ignora).
+ * Queda en unos 150-250 bytes por cliente (ver bytesEstimados()).
+ * Hay muchas más altas que funciones (importación): las listas crecen en su
+ * lugar y un ReadWriteLock separa las búsquedas de las escrituras.
+ * Lo mantienen ClienteService al crear o actualizar (después del commit) y la
+ * importación con ClientesImportadosEvent. No hay bajas: eliminar solo desactiva.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class IndiceClientes {
+
+    // Fracción mínima de trigramas de la búsqueda que debe tener un cliente parecido.
+    // Más alta que en IndicePeliculas: con 0.5, "pena" ya trae a todos los "pe..."
+    private static final double SIMILITUD_MINIMA = 0.6;
+    // Las búsquedas más largas se recortan: los contadores por cliente son de un byte
+    private static final int MAX_CONSULTA = 60;
+    private static final int LOTE_CARGA = 5000;
+
+    private static final int SIMBOLOS = 37;
+    private static final int TRIGRAMAS = SIMBOLOS * SIMBOLOS * SIMBOLOS;
+
+    // Mayor puntaje primero; a igual puntaje, el cliente más antiguo
+    private static final Comparator<Candidato> ORDEN = Comparator
+            .comparingDouble((Candidato c) -> c.puntaje).reversed()
+            .thenComparingLong(c -> c.id);
+
+    private static final Pattern MARCAS = Pattern.compile("\\p{M}+");
+    private static final Pattern NO_ALFANUMERICO = Pattern.compile("[^a-z0-9]+");
+    private static final Pattern DOMINIO = Pattern.compile("@\\S*");
+
+    private final ClienteRepository clienteRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Por trigrama: posiciones de cliente en orden ascendente; largos[t] dice cuántas se usan
+    private final int[][] listas = new int[TRIGRAMAS][];
+    private final int[] largos = new int[TRIGRAMAS];
+
+    // Por posición: ID y texto normalizado
+    private long[] ids = new long[1024];
+    private byte[][] textos = new byte[1024][];
+    private int total;
+
+    // ID -> posición + 1 con direccionamiento abierto: sin un objeto por cliente
+    private long[] claves = new long[2048];
+    private int[] posiciones = new int[2048];
+
+    /**
+     * Al arrancar, indexar todos los clientes por páginas
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void cargarTodo() {
+        try {
+            long cursor = 0;
+            List<ClienteResumen> pagina;
+            do {
+                pagina = clienteRepository.findByIdGreaterThanOrderByIdAsc(cursor, Limit.of(LOTE_CARGA), ClienteResumen.class);
+                for (ClienteResumen cliente : pagina) {
+                    agregar(cliente.getId(), cliente.getNombre(), cliente.getApellido(), cliente.getEmail());
+                }
+                if (!pagina.isEmpty()) {
+                    cursor = pagina.get(pagina.size() - 1).getId();
+                }
+            } while (pagina.size() == LOTE_CARGA);
+
+            log.info("Índice de clientes cargado: {} clientes, {} bytes por cliente",
+                    totalClientes(), totalClientes() == 0 ? 0 : bytesEstimados() / totalClientes());
+
+        } catch (Exception e) {
+            log.error("Error al cargar índice de clientes: {}", e.getMessage());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void manejarClientesImportados(ClientesImportadosEvent evento) {
+        for (Cliente cliente : clienteRepository.findAllById(evento.getClienteIds())) {
+            agregar(cliente.getId(), cliente.getNombre(), cliente.getApellido(), cliente.getEmail());
+        }
+    }
+
+    /**
+     * Indexar el cliente al confirmar la transacción (o ya, si no hay una)
+     */
+    public void indexar(Cliente cliente) {
+        Long id = cliente.getId();
+        String nombre = cliente.getNombre();
+        String apellido = cliente.getApellido();
+        String email = cliente.getEmail();
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            agregar(id, nombre, apellido, email);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                agregar(id, nombre, apellido, email);
+            }
+        });
+    }
+
+    /**
+     * Agregar un cliente o reemplazar su texto si ya estaba
+     */
+    public void agregar(long id, String nombre, String apellido, String email) {
+        byte[] texto = textoIndexado(nombre, apellido, email).getBytes(StandardCharsets.US_ASCII);
+        int[] nuevos = trigramas(texto);
+
+        lock.writeLock().lock();
+        try {
+            int posicion = posicion(id);
+            if (posicion < 0) {
+                posicion = total++;
+                if (posicion == ids.length) {
+                    ids = Arrays.copyOf(ids, ids.length * 2);
+                    textos = Arrays.copyOf(textos, textos.length * 2);
+                }
+                ids[posicion] = id;
+                textos[posicion] = texto;
+                guardarPosicion(id, posicion);
+
+                // La posición nueva es la mayor: basta con ponerla al final de cada lista
+                for (int trigrama : nuevos) {
+                    insertar(trigrama, posicion, largos[trigrama]);
+                }
+                return;
+            }
+
+            if (Arrays.equals(textos[posicion], texto)) {
+                return;
+            }
+            int[] anteriores = trigramas(textos[posicion]);
+            for (int trigrama : anteriores) {
+                if (Arrays.binarySearch(nuevos, trigrama) < 0) {
+                    quitar(trigrama, posicion);
+                }
+            }
+            for (int trigrama : nuevos) {
+                int donde = buscarEn(trigrama, posicion);
+                if (donde < 0) {
+                    insertar(trigrama, posicion, -donde - 1);
+                }
+            }
+            textos[posicion] = texto;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * IDs de los clientes que coinciden con el texto, del más al menos relevante
+     */
+    public List<Long> buscar(String texto, int limite) {
+        String consulta = normalizar(DOMINIO.matcher(texto == null ? "" : texto).replaceAll(" "));
+        if (consulta.length() > MAX_CONSULTA) {
+            consulta = consulta.substring(0, MAX_CONSULTA).trim();
+        }
+        if (consulta.isEmpty() || limite <= 0) {
+            return List.of();
+        }
+        byte[][] palabras = Arrays.stream(consulta.split(" "))
+                .map(palabra -> palabra.getBytes(StandardCharsets.US_ASCII))
+                .toArray(byte[][]::new);
+        int[] trigramasConsulta = trigramasConsulta(consulta);
+        int minimoEnComun = (int) Math.ceil(trigramasConsulta.length * SIMILITUD_MINIMA);
+
+        // Top-k con un heap acotado: el peor de los mejores queda arriba
+        PriorityQueue<Candidato> mejores = new PriorityQueue<>(limite + 1, ORDEN.reversed());
+
+        lock.readLock().lock();
+        try {
+            // De menos a más clientes por trigrama. Quien tenga minimoEnComun trigramas está
+            // al menos en una de las (n - minimo + 1) listas más cortas: solo esas agregan
+            // candidatos; las largas (" ma", "gar"...) solo suman a los que ya lo son
+            long[] porLargo = new long[trigramasConsulta.length];
+            for (int i = 0; i < trigramasConsulta.length; i++) {
+                porLargo[i] = (long) largos[trigramasConsulta[i]] << 32 | trigramasConsulta[i];
+            }
+            Arrays.sort(porLargo);
+            int cortas = trigramasConsulta.length - minimoEnComun + 1;
+
+            int maximoTocados = 0;
+            for (int i = 0; i < cortas; i++) {
+                maximoTocados += (int) (porLargo[i] >>> 32);
+            }
+
+            // Cuántos trigramas de la búsqueda tiene cada cliente (por posición), como en IndicePeliculas
+            byte[] comunes = new byte[total];
+            int[] tocados = new int[maximoTocados];
+            int totalTocados = 0;
+
+            for (int i = 0; i < porLargo.length; i++) {
+                int trigrama = (int) porLargo[i];
+                int[] lista = listas[trigrama];
+                for (int j = 0; j < largos[trigrama]; j++) {
+                    int posicion = lista[j];
+                    if (i < cortas) {
+                        if (comunes[posicion]++ == 0) {
+                            tocados[totalTocados++] = posicion;
+                        }
+                    } else if (comunes[posicion] != 0) {
+                        comunes[posicion]++;
+                    }
+                }
+            }
+
+            for (int i = 0; i < totalTocados; i++) {
+                int posicion = tocados[i];
+                int enComun = comunes[posicion];
+                if (enComun < minimoEnComun) {
+                    continue;
+                }
+
+                byte[] textoCliente = textos[posicion];
+                // Desempate: más trigramas en común y texto más corto (Jaccard aproximado por el largo)
+                double desempate = (double) enComun / trigramasConsulta.length * 0.5
+                        + (double) enComun / (trigramasConsulta.length + textoCliente.length - enComun + 2) * 0.5;
+
+                // Ni en el mejor caso entra al top-k: no hace falta revisar el texto.
+                // Si todas las palabras empiezan una del cliente, tiene todos los trigramas
+                int mejorNivel = enComun == trigramasConsulta.length ? 3 : 2;
+                if (mejores.size() == limite && mejorNivel + desempate < mejores.peek().puntaje) {
+                    continue;
+                }
+
+                mejores.add(new Candidato(ids[posicion], nivel(textoCliente, palabras, mejorNivel) + desempate));
+                if (mejores.size() > limite) {
+                    mejores.poll();
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<Candidato> ordenados = new ArrayList<>(mejores);
+        ordenados.sort(ORDEN);
+        return ordenados.stream().map(candidato -> candidato.id).toList();
+    }
+
+    /**
+     * 3 si cada palabra buscada empieza alguna palabra del cliente, 2 si todas
+     * aparecen dentro del texto y 1 si solo es parecido (error de dedo).
+     * mejorNivel 2: le faltan trigramas, no puede ser 3
+     */
+    private static int nivel(byte[] texto, byte[][] palabras, int mejorNivel) {
+        boolean prefijos = mejorNivel == 3;
+        for (int i = 0; prefijos && i < palabras.length; i++) {
+            prefijos = buscarEnTexto(texto, palabras[i], true) >= 0;
+        }
+        if (prefijos) {
+            return 3;
+        }
+        for (byte[] palabra : palabras) {
+            if (buscarEnTexto(texto, palabra, false) < 0) {
+                return 1;
+            }
+        }
+        return 2;
+    }
+
+    // Como String.indexOf sobre los bytes, sin crear el String; inicioDePalabra: solo después de un espacio
+    private static int buscarEnTexto(byte[] texto, byte[] palabra, boolean inicioDePalabra) {
+        for (int i = 0; i + palabra.length <= texto.length; i++) {
+            if (inicioDePalabra && i > 0 && texto[i - 1] != ' ') {
+                continue;
+            }
+            int j = 0;
+            while (j < palabra.length && texto[i + j] == palabra[j]) {
+                j++;
+            }
+            if (j == palabra.length) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public int totalClientes() {
+        lock.readLock().lock();
+        try {
+            return total;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Memoria aproximada del índice: arreglos de listas, IDs, textos y mapa de IDs
+     */
+    public long bytesEstimados() {
+        lock.readLock().lock();
+        try {
+            // Encabezado de arreglo: 16 bytes; referencias comprimidas: 4 bytes
+            long bytes = 16L + listas.length * 4L + 16L + largos.length * 4L;
+            for (int[] lista : listas) {
+                if (lista != null) {
+                    bytes += 16L + lista.length * 4L;
+                }
+            }
+            bytes += 16L + ids.length * 8L + 16L + textos.length * 4L;
+            for (int i = 0; i < total; i++) {
+                bytes += (16L + textos[i].length + 7) / 8 * 8;
+            }
+            return bytes + 16L + claves.length * 8L + 16L + posiciones.length * 4L;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ════════════════════════════════════════════════════════
+    // LISTAS DE TRIGRAMAS Y MAPA DE IDS (con el lock de escritura)
+    // ════════════════════════════════════════════════════════
+
+    private void insertar(int trigrama, int posicion, int donde) {
+        int[] lista = listas[trigrama];
+        int largo = largos[trigrama];
+        if (lista == null) {
+            lista = listas[trigrama] = new int[4];
+        } else if (largo == lista.length) {
+            // Crece 1.5x: menos espacio sin usar que duplicar en las listas grandes
+            lista = listas[trigrama] = Arrays.copyOf(lista, largo + (largo >> 1));
+        }
+        System.arraycopy(lista, donde, lista, donde + 1, largo - donde);
+        lista[donde] = posicion;
+        largos[trigrama] = largo + 1;
+    }
+
+    private void quitar(int trigrama, int posicion) {
+        int donde = buscarEn(trigrama, posicion);
+        if (donde >= 0) {
+            int largo = largos[trigrama];
+            System.arraycopy(listas[trigrama], donde + 1, listas[trigrama], donde, largo - donde - 1);
+            largos[trigrama] = largo - 1;
+        }
+    }
+
+    // Como Arrays.binarySearch: negativo si no está (-(lugar donde iría) - 1)
+    private int buscarEn(int trigrama, int posicion) {
+        int[] lista = listas[trigrama];
+        return lista == null ? -1 : Arrays.binarySearch(lista, 0, largos[trigrama], posicion);
+    }
+
+    private int posicion(long id) {
+        int mascara = claves.length - 1;
+        for (int i = mezclar(id) & mascara; claves[i] != 0; i = (i + 1) & mascara) {
+            if (claves[i] == id) {
+                return posiciones[i] - 1;
+            }
+        }
+        return -1;
+    }
+
+    private void guardarPosicion(long id, int posicion) {
+        // Carga máxima 3/4
+        if ((long) total * 4 > claves.length * 3L) {
+            long[] clavesAnteriores = claves;
+            int[] posicionesAnteriores = posiciones;
+            claves = new long[clavesAnteriores.length * 2];
+            posiciones = new int[clavesAnteriores.length * 2];
+            for (int i = 0; i < clavesAnteriores.length; i++) {
+                if (clavesAnteriores[i] != 0) {
+                    colocar(clavesAnteriores[i], posicionesAnteriores[i]);
+                }
+            }
+        }
+        colocar(id, posicion + 1);
+    }
+
+    private void colocar(long id, int valor) {
+        int mascara = claves.length - 1;
+        int i = mezclar(id) & mascara;
+        while (claves[i] != 0) {
+            i = (i + 1) & mascara;
+        }
+        claves[i] = id;
+        posiciones[i] = valor;
+    }
+
+    private static int mezclar(long id) {
+        long h = id * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    // ════════════════════════════════════════════════════════
+    // TEXTO Y TRIGRAMAS
+    // ════════════════════════════════════════════════════════
+
+    /**
+     * Nombre, apellido y la parte del email antes de la @, normalizados
+     */
+    static String textoIndexado(String nombre, String apellido, String email) {
+        String usuario = email == null ? "" : email;
+        int arroba = usuario.indexOf('@');
+        if (arroba >= 0) {
+            usuario = usuario.substring(0, arroba);
+        }
+        return normalizar(nombre + " " + apellido + " " + usuario);
+    }
+
+    /**
+     * Minúsculas, sin acentos y con un solo espacio entre palabras ("Peña-Núñez" → "pena nunez")
+     */
+    static String normalizar(String texto) {
+        if (texto == null) {
+            return "";
+        }
+        String sinAcentos = MARCAS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("");
+        return NO_ALFANUMERICO.matcher(sinAcentos.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    /**
+     * Trigramas distintos y ordenados del texto, con bordes como en IndicePeliculas ("sol" → "  s", " so", "sol", "ol ")
+     */
+    static int[] trigramas(byte[] texto) {
+        return codificar(texto, true);
+    }
+
+    /**
+     * Como trigramas() pero sin el borde final de la última palabra: puede estar a medio escribir
+     */
+    static int[] trigramasConsulta(String consulta) {
+        return codificar(consulta.getBytes(StandardCharsets.US_ASCII), false);
+    }
+
+    private static int[] codificar(byte[] texto, boolean cerrarUltima) {
+        int[] codigos = new int[texto.length * 2 + 3];
+        int n = 0;
+        // Dos espacios al inicio de cada palabra; cada espacio del texto vale como fin + inicio
+        int a = 0;
+        int b = 0;
+        for (byte caracter : texto) {
+            int c = simbolo(caracter);
+            if (c == 0) {
+                codigos[n++] = (a * SIMBOLOS + b) * SIMBOLOS;   // "ol "
+                a = 0;
+                b = 0;
+                continue;
+            }
+            codigos[n++] = (a * SIMBOLOS + b) * SIMBOLOS + c;
+            a = b;
+            b = c;
+        }
+        if (cerrarUltima && b != 0) {
+            codigos[n++] = (a * SIMBOLOS + b) * SIMBOLOS;
+        }
+
+        int[] ordenados = Arrays.copyOf(codigos, n);
+        Arrays.sort(ordenados);
+        int distintos = 0;
+        for (int i = 0; i < ordenados.length; i++) {
+            if (i == 0 || ordenados[i] != ordenados[i - 1]) {
+                ordenados[distintos++] = ordenados[i];
+            }
+        }
+        return Arrays.copyOf(ordenados, distintos);
+    }
+
+    private static int simbolo(byte caracter) {
+        if (caracter >= 'a' && caracter <= 'z') {
+            return caracter - 'a' + 1;
+        }
+        if (caracter >= '0' && caracter <= '9') {
+            return caracter - '0' + 27;
+        }
+        return 0;
+    }
+
+    private static class Candidato {
+        private final long id;
+        private final double puntaje;
+
+        private Candidato(long id, double puntaje) {
+            this.id = id;
+            this.puntaje = puntaje;
+        }
+    }
+}
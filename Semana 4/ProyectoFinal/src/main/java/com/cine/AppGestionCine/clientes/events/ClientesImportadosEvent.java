@@ -0,0 +1,21 @@
+package com.cine.AppGestionCine.clientes.events;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Evento que se publica por cada chunk de la importación de clientes
+ * Reemplaza a un ClienteRegistradoEvent por cliente
+ */
+@Data
+@AllArgsConstructor
+public class ClientesImportadosEvent {
+    private final List<Long> clienteIds;
+    private final List<String> emails;
+
+    public int getCantidad() {
+        return clienteIds.size();
+    }
+}
@@ -0,0 +1,43 @@
+package com.cine.AppGestionCine.compartido;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Caché de consultas de Hibernate para los repositorios que escriben con JDBC
+ *
+ * Hibernate no ve los INSERT por lotes de FuncionJdbcRepository ni de
+ * ClienteJdbcRepository, así que consultas en caché como findByEstado se
+ * quedarían sin las filas nuevas. Se vacía la región al escribir y otra vez al
+ * terminar la transacción: una consulta que corra en medio volvería a guardar
+ * el resultado viejo.
+ */
+@Component
+public class CacheConsultas {
+
+    private final Cache cacheHibernate;
+
+    public CacheConsultas(EntityManagerFactory entityManagerFactory) {
+        this.cacheHibernate = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+    }
+
+    /**
+     * Vaciar la caché de consultas ya y, si hay transacción, otra vez al terminarla
+     */
+    public void invalidar() {
+        cacheHibernate.evictDefaultQueryRegion();
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cacheHibernate.evictDefaultQueryRegion();
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.cine.AppGestionCine.compartido;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.http.ResponseEntity;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Paginación por cursor (keyset) y selección de campos para los endpoints de listas
+ *
+ * Los endpoints reciben ?cursor=&limite=&fields=. Cada página se pide con
+ * "id > cursor ORDER BY id LIMIT limite + 1": la fila extra solo dice si hay
+ * más, y su cursor va en la cabecera X-Cursor-Siguiente (el cuerpo sigue siendo
+ * una lista). Sin OFFSET, cualquier página cuesta lo mismo que la primera.
+ * Con ?fields= solo se devuelven esos campos; si caben en la proyección del
+ * módulo, la consulta ni siquiera lee las demás columnas.
+ */
+@Component
+@RequiredArgsConstructor
+public class Paginador {
+
+    public static final String CABECERA_CURSOR = "X-Cursor-Siguiente";
+    public static final int LIMITE_PREDETERMINADO = 100;
+    public static final int LIMITE_MAXIMO = 1000;
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Límite pedido, acotado entre 1 y LIMITE_MAXIMO
+     */
+    public int limite(Integer pedido) {
+        if (pedido == null) {
+            return LIMITE_PREDETERMINADO;
+        }
+        return Math.max(1, Math.min(pedido, LIMITE_MAXIMO));
+    }
+
+    /**
+     * Campos pedidos en ?fields=id,numeroAsiento (vacío = todos); falla si alguno no existe
+     */
+    public Set<String> campos(String fields, Set<String> permitidos) {
+        Set<String> campos = new LinkedHashSet<>();
+        if (fields == null || fields.isBlank()) {
+            return campos;
+        }
+
+        for (String campo : fields.split(",")) {
+            if (!campo.isBlank()) {
+                campos.add(campo.trim());
+            }
+        }
+
+        List<String> invalidos = campos.stream().filter(campo -> !permitidos.contains(campo)).toList();
+        if (!invalidos.isEmpty()) {
+            throw new RuntimeException("Campos no válidos: " + String.join(", ", invalidos)
+                    + ". Disponibles: " + String.join(", ", permitidos));
+        }
+        return campos;
+    }
+
+    /**
+     * true si se pidieron campos y todos están en la proyección (la consulta puede usarla)
+     */
+    public boolean cabeEn(Set<String> campos, Set<String> proyeccion) {
+        return !campos.isEmpty() && proyeccion.containsAll(campos);
+    }
+
+    /**
+     * Respuesta de una página; filas debe traer hasta limite + 1 elementos ordenados por id
+     */
+    public ResponseEntity<List<?>> responder(List<?> filas, int limite, Set<String> campos) {
+        boolean hayMas = filas.size() > limite;
+        List<?> pagina = hayMas ? filas.subList(0, limite) : filas;
+
+        ResponseEntity.BodyBuilder respuesta = ResponseEntity.ok();
+        if (hayMas) {
+            Object cursor = aMapa(pagina.get(pagina.size() - 1)).get("id");
+            respuesta.header(CABECERA_CURSOR, String.valueOf(cursor));
+        }
+
+        if (campos.isEmpty()) {
+            return respuesta.body(new ArrayList<>(pagina));
+        }
+
+        List<Map<String, Object>> recortadas = new ArrayList<>(pagina.size());
+        for (Object fila : pagina) {
+            Map<String, Object> completa = aMapa(fila);
+            Map<String, Object> recortada = new LinkedHashMap<>();
+            for (String campo : campos) {
+                recortada.put(campo, completa.get(campo));
+            }
+            recortadas.add(recortada);
+        }
+        return respuesta.body(recortadas);
+    }
+
+    /**
+     * Conjunto de nombres de campos, para declarar los permitidos de cada endpoint
+     */
+    public static Set<String> nombres(String... campos) {
+        return new LinkedHashSet<>(Arrays.asList(campos));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> aMapa(Object fila) {
+        return objectMapper.convertValue(fila, Map.class);
+    }
+}
@@ -0,0 +1,141 @@
+package com.cine.AppGestionCine.funciones;
+
+import com.cine.AppGestionCine.funciones.events.FuncionCanceladaEvent;
+import com.cine.AppGestionCine.funciones.events.FuncionCreadaEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Agenda en memoria de las funciones en cartelera, ordenada por fecha y hora
+ *
+ * Un ConcurrentSkipListMap por sala (y uno con todas) responde "qué hay esta
+ * noche" con un subMap, sin ir a la BD. Se carga al arrancar y se mantiene con
+ * los eventos de creación y cancelación de funciones. Guarda las funciones
+ * tal como se crearon; los asientos disponibles los agrega FuncionService.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AgendaFunciones {
+
+    private final FuncionRepository funcionRepository;
+
+    private final ConcurrentSkipListMap<Horario, Funcion> todas = new ConcurrentSkipListMap<>();
+    private final Map<String, ConcurrentSkipListMap<Horario, Funcion>> porSala = new ConcurrentHashMap<>();
+
+    // Para quitar una función solo con su ID
+    private final Map<Long, Funcion> programadas = new ConcurrentHashMap<>();
+
+    private volatile boolean cargada;
+
+    /**
+     * Al arrancar, cargar las funciones en cartelera
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void cargarTodo() {
+        try {
+            for (Funcion funcion : funcionRepository.findByEstado(EstadoFuncion.EN_CARTELERA)) {
+                agregar(funcion);
+            }
+            cargada = true;
+            log.info("Agenda de funciones cargada: {} funciones en {} salas", todas.size(), porSala.size());
+
+        } catch (Exception e) {
+            // Mientras no esté cargada, FuncionService consulta la BD
+            log.error("Error al cargar agenda de funciones: {}", e.getMessage());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void manejarFuncionCreada(FuncionCreadaEvent evento) {
+        // Después del commit: la función ya se ve en la BD
+        funcionRepository.findById(evento.getFuncionId()).ifPresent(this::agregar);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void manejarFuncionCancelada(FuncionCanceladaEvent evento) {
+        quitar(evento.getFuncionId());
+    }
+
+    public void agregar(Funcion funcion) {
+        if (funcion.getEstado() != EstadoFuncion.EN_CARTELERA || programadas.putIfAbsent(funcion.getId(), funcion) != null) {
+            return;
+        }
+
+        Horario horario = new Horario(funcion.getFechaHora(), funcion.getId());
+        todas.put(horario, funcion);
+        porSala.computeIfAbsent(funcion.getSala(), sala -> new ConcurrentSkipListMap<>()).put(horario, funcion);
+    }
+
+    public void quitar(Long funcionId) {
+        Funcion funcion = programadas.remove(funcionId);
+        if (funcion == null) {
+            return;
+        }
+
+        Horario horario = new Horario(funcion.getFechaHora(), funcion.getId());
+        todas.remove(horario);
+        ConcurrentSkipListMap<Horario, Funcion> sala = porSala.get(funcion.getSala());
+        if (sala != null) {
+            sala.remove(horario);
+        }
+    }
+
+    /**
+     * Funciones entre inicio y fin (ambos incluidos), en orden de fecha y hora;
+     * si sala es null, de todas las salas. Las funciones son compartidas, no modificarlas
+     */
+    public List<Funcion> enRango(LocalDateTime inicio, LocalDateTime fin, String sala) {
+        ConcurrentSkipListMap<Horario, Funcion> agenda = sala == null ? todas : porSala.get(sala);
+        if (agenda == null) {
+            return List.of();
+        }
+
+        return new ArrayList<>(agenda.subMap(
+                new Horario(inicio, Long.MIN_VALUE), true,
+                new Horario(fin, Long.MAX_VALUE), true).values());
+    }
+
+    public boolean isCargada() {
+        return cargada;
+    }
+
+    public int totalFunciones() {
+        return programadas.size();
+    }
+
+    /**
+     * Clave de la agenda: fecha y hora, y el ID para que dos funciones a la misma hora no choquen
+     */
+    private static class Horario implements Comparable<Horario> {
+
+        private static final Comparator<Horario> ORDEN = Comparator
+                .comparing((Horario h) -> h.fechaHora)
+                .thenComparingLong(h -> h.funcionId);
+
+        private final LocalDateTime fechaHora;
+        private final long funcionId;
+
+        private Horario(LocalDateTime fechaHora, long funcionId) {
+            this.fechaHora = fechaHora;
+            this.funcionId = funcionId;
+        }
+
+        @Override
+        public int compareTo(Horario otro) {
+            return ORDEN.compare(this, otro);
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package com.cine.AppGestionCine.funciones;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Árbol de intervalos [inicio, fin) balanceado (AVL)
+ *
+ * Ordenado por inicio; cada nodo guarda además el fin más grande de su
+ * subárbol, así "¿algo se cruza con [a, b)?" baja por una sola rama: O(log n).
+ * Dos intervalos que solo se tocan (uno termina cuando empieza el otro) no
+ * se cruzan. No es thread-safe: PlanificadorSalas lo usa con un lock por sala.
+ */
+class ArbolIntervalos {
+
+    private Nodo raiz;
+    private int tamanio;
+
+    /**
+     * Agregar el intervalo del ID; false si ese ID ya estaba con ese inicio
+     */
+    boolean insertar(long inicio, long fin, long id) {
+        int antes = tamanio;
+        raiz = insertar(raiz, inicio, fin, id);
+        return tamanio > antes;
+    }
+
+    /**
+     * Quitar el intervalo del ID que empieza en inicio; false si no estaba
+     */
+    boolean eliminar(long inicio, long id) {
+        int antes = tamanio;
+        raiz = eliminar(raiz, inicio, id);
+        return tamanio < antes;
+    }
+
+    /**
+     * ID de algún intervalo que se cruza con [inicio, fin), o null si no hay
+     */
+    Long buscarSolape(long inicio, long fin) {
+        Nodo nodo = raiz;
+        while (nodo != null) {
+            if (nodo.inicio < fin && inicio < nodo.fin) {
+                return nodo.id;
+            }
+            // Si algo de la izquierda termina después de inicio, ahí está el único candidato posible
+            nodo = nodo.izquierdo != null && nodo.izquierdo.maxFin > inicio ? nodo.izquierdo : nodo.derecho;
+        }
+        return null;
+    }
+
+    /**
+     * IDs de todos los intervalos que se cruzan con [inicio, fin), ordenados por inicio
+     */
+    List<Long> solapes(long inicio, long fin) {
+        List<Long> ids = new ArrayList<>();
+        solapes(raiz, inicio, fin, ids);
+        return ids;
+    }
+
+    int tamanio() {
+        return tamanio;
+    }
+
+    int altura() {
+        return altura(raiz);
+    }
+
+    private static void solapes(Nodo nodo, long inicio, long fin, List<Long> ids) {
+        if (nodo == null || nodo.maxFin <= inicio) {
+            return;
+        }
+        solapes(nodo.izquierdo, inicio, fin, ids);
+        if (nodo.inicio < fin) {
+            if (inicio < nodo.fin) {
+                ids.add(nodo.id);
+            }
+            solapes(nodo.derecho, inicio, fin, ids);
+        }
+    }
+
+    private Nodo insertar(Nodo nodo, long inicio, long fin, long id) {
+        if (nodo == null) {
+            tamanio++;
+            return new Nodo(inicio, fin, id);
+        }
+
+        int comparacion = comparar(inicio, id, nodo);
+        if (comparacion < 0) {
+            nodo.izquierdo = insertar(nodo.izquierdo, inicio, fin, id);
+        } else if (comparacion > 0) {
+            nodo.derecho = insertar(nodo.derecho, inicio, fin, id);
+        } else {
+            return nodo;
+        }
+        return balancear(nodo);
+    }
+
+    private Nodo eliminar(Nodo nodo, long inicio, long id) {
+        if (nodo == null) {
+            return null;
+        }
+
+        int comparacion = comparar(inicio, id, nodo);
+        if (comparacion < 0) {
+            nodo.izquierdo = eliminar(nodo.izquierdo, inicio, id);
+        } else if (comparacion > 0) {
+            nodo.derecho = eliminar(nodo.derecho, inicio, id);
+        } else {
+            if (nodo.izquierdo == null || nodo.derecho == null) {
+                tamanio--;
+                return nodo.izquierdo != null ? nodo.izquierdo : nodo.derecho;
+            }
+            // Dos hijos: traer el siguiente en orden y quitarlo de la derecha
+            Nodo siguiente = nodo.derecho;
+            while (siguiente.izquierdo != null) {
+                siguiente = siguiente.izquierdo;
+            }
+            nodo.derecho = eliminar(nodo.derecho, siguiente.inicio, siguiente.id);
+            nodo.inicio = siguiente.inicio;
+            nodo.fin = siguiente.fin;
+            nodo.id = siguiente.id;
+        }
+        return balancear(nodo);
+    }
+
+    private static int comparar(long inicio, long id, Nodo nodo) {
+        int comparacion = Long.compare(inicio, nodo.inicio);
+        return comparacion != 0 ? comparacion : Long.compare(id, nodo.id);
+    }
+
+    private static Nodo balancear(Nodo nodo) {
+        actualizar(nodo);
+        int balance = altura(nodo.izquierdo) - altura(nodo.derecho);
+
+        if (balance > 1) {
+            if (altura(nodo.izquierdo.izquierdo) < altura(nodo.izquierdo.derecho)) {
+                nodo.izquierdo = rotarIzquierda(nodo.izquierdo);
+            }
+            return rotarDerecha(nodo);
+        }
+        if (balance < -1) {
+            if (altura(nodo.derecho.derecho) < altura(nodo.derecho.izquierdo)) {
+                nodo.derecho = rotarDerecha(nodo.derecho);
+            }
+            return rotarIzquierda(nodo);
+        }
+        return nodo;
+    }
+
+    private static Nodo rotarDerecha(Nodo nodo) {
+        Nodo nuevaRaiz = nodo.izquierdo;
+        nodo.izquierdo = nuevaRaiz.derecho;
+        nuevaRaiz.derecho = nodo;
+        actualizar(nodo);
+        actualizar(nuevaRaiz);
+        return nuevaRaiz;
+    }
+
+    private static Nodo rotarIzquierda(Nodo nodo) {
+        Nodo nuevaRaiz = nodo.derecho;
+        nodo.derecho = nuevaRaiz.izquierdo;
+        nuevaRaiz.izquierdo = nodo;
+        actualizar(nodo);
+        actualizar(nuevaRaiz);
+        return nuevaRaiz;
+    }
+
+    private static void actualizar(Nodo nodo) {
+        nodo.altura = 1 + Math.max(altura(nodo.izquierdo), altura(nodo.derecho));
+        nodo.maxFin = nodo.fin;
+        if (nodo.izquierdo != null) {
+            nodo.maxFin = Math.max(nodo.maxFin, nodo.izquierdo.maxFin);
+        }
+        if (nodo.derecho != null) {
+            nodo.maxFin = Math.max(nodo.maxFin, nodo.derecho.maxFin);
+        }
+    }
+
+    private static int altura(Nodo nodo) {
+        return nodo == null ? 0 : nodo.altura;
+    }
+
+    private static class Nodo {
+        private long inicio;
+        private long fin;
+        private long id;
+        private long maxFin;
+        private int altura = 1;
+        private Nodo izquierdo;
+        private Nodo derecho;
+
+        private Nodo(long inicio, long fin, long id) {
+            this.inicio = inicio;
+            this.fin = fin;
+            this.id = id;
+            this.maxFin = fin;
+        }
+    }
+}
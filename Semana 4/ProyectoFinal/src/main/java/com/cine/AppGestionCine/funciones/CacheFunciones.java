@@ -0,0 +1,87 @@
+package com.cine.AppGestionCine.funciones;
+
+import com.cine.AppGestionCine.funciones.events.FuncionCanceladaEvent;
+import com.cine.AppGestionCine.funciones.events.FuncionCreadaEvent;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Caché de lectura de funciones (por ID y cartelera)
+ *
+ * Las funciones solo cambian al crearse o cancelarse: esas transacciones
+ * publican su evento y aquí se invalidan exactamente las entradas afectadas
+ * después del commit. Los asientos disponibles no se guardan en caché:
+ * FuncionService los toma de ContadoresAsientos en cada lectura, así las
+ * reservas no invalidan nada. Tamaño máximo y TTL acotan lo que quede viejo
+ * por cambios hechos fuera de la aplicación.
+ * Métricas en /actuator/metrics/cache.gets, cache.puts y cache.evictions.
+ */
+@Component
+@Slf4j
+public class CacheFunciones {
+
+    private final LoadingCache<Long, Optional<Funcion>> porId;
+    private final LoadingCache<EstadoFuncion, List<Funcion>> porEstado;
+
+    public CacheFunciones(FuncionRepository funcionRepository,
+                          MeterRegistry meterRegistry,
+                          @Value("${cine.funciones.cache.max-entradas:1000}") long maxEntradas,
+                          @Value("${cine.funciones.cache.ttl-segundos:300}") long ttlSegundos) {
+        this.porId = Caffeine.newBuilder()
+                .maximumSize(maxEntradas)
+                .expireAfterWrite(Duration.ofSeconds(ttlSegundos))
+                .recordStats()
+                .build(funcionRepository::findById);
+
+        this.porEstado = Caffeine.newBuilder()
+                .maximumSize(EstadoFuncion.values().length)
+                .expireAfterWrite(Duration.ofSeconds(ttlSegundos))
+                .recordStats()
+                .build(estado -> funcionRepository.findByEstado(estado).stream()
+                        .sorted(Comparator.comparing(Funcion::getId))
+                        .toList());
+
+        CaffeineCacheMetrics.monitor(meterRegistry, porId, "funciones");
+        CaffeineCacheMetrics.monitor(meterRegistry, porEstado, "cartelera");
+    }
+
+    /**
+     * Función por ID; las entradas son compartidas, no modificarlas
+     */
+    public Optional<Funcion> getFuncion(Long funcionId) {
+        return porId.get(funcionId);
+    }
+
+    /**
+     * Funciones en un estado (ej. EN_CARTELERA), ordenadas por ID; la lista es inmutable
+     */
+    public List<Funcion> getFunciones(EstadoFuncion estado) {
+        return porEstado.get(estado);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void manejarFuncionCreada(FuncionCreadaEvent evento) {
+        // Puede haber un "no existe" en caché para ese ID
+        porId.invalidate(evento.getFuncionId());
+        porEstado.invalidateAll();
+        log.debug("Caché de funciones invalidado por creación de función {}", evento.getFuncionId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void manejarFuncionCancelada(FuncionCanceladaEvent evento) {
+        porId.invalidate(evento.getFuncionId());
+        porEstado.invalidateAll();
+        log.debug("Caché de funciones invalidado por cancelación de función {}", evento.getFuncionId());
+    }
+}
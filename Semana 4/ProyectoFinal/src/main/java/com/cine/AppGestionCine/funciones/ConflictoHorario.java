@@ -0,0 +1,20 @@
+package com.cine.AppGestionCine.funciones;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Función propuesta que se cruza con otra en la misma sala
+ * indice = posición en la programación enviada
+ */
+@Data
+@AllArgsConstructor
+public class ConflictoHorario {
+    private final int indice;
+    private final String sala;
+    private final LocalDateTime fechaHora;
+    private final String pelicula;
+    private final String motivo;
+}
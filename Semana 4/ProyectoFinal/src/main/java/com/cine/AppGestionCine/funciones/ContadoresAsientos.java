@@ -0,0 +1,216 @@
+package com.cine.AppGestionCine.funciones;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contadores en memoria de asientos disponibles por función
+ *
+ * Las reservas y cancelaciones solo suman al contador (LongAdder, sin locks)
+ * y las lecturas salen de aquí. Lo acumulado se vuelca cada
+ * cine.funciones.contadores.flush-ms con un UPDATE atómico
+ * asientosDisponibles = asientosDisponibles + ?, así la fila de la función
+ * deja de ser el lock más disputado y ya no se pierden actualizaciones.
+ * Lo volcado sigue contando como pendiente hasta que su UPDATE tiene el lock
+ * de la fila, así la reconciliación nunca lo ve dos veces (en la fila y pendiente).
+ */
+@Component
+@Slf4j
+public class ContadoresAsientos {
+
+    private final FuncionRepository funcionRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    // Reintentos de una corrección que coincidió con una reserva a medio aplicar
+    private static final int INTENTOS_CORRECCION = 100;
+
+    private final Map<Long, Contador> contadores = new ConcurrentHashMap<>();
+
+    public ContadoresAsientos(FuncionRepository funcionRepository, PlatformTransactionManager transactionManager) {
+        this.funcionRepository = funcionRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Al arrancar, cargar los contadores de las funciones en cartelera
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void cargarTodo() {
+        try {
+            for (Funcion funcion : funcionRepository.findByEstado(EstadoFuncion.EN_CARTELERA)) {
+                registrar(funcion.getId(), funcion.getAsientosDisponibles());
+            }
+            log.info("Contadores de asientos cargados: {}", contadores.size());
+
+        } catch (Exception e) {
+            // Si falla, cada contador se carga de la BD la primera vez que se usa
+            log.error("Error al cargar contadores de asientos: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Registrar el contador de una función nueva
+     */
+    public void registrar(Long funcionId, int disponibles) {
+        contadores.putIfAbsent(funcionId, new Contador(disponibles));
+    }
+
+    /**
+     * Sumar (o restar) asientos disponibles; no toca la BD
+     */
+    public void sumar(Long funcionId, int cambio) {
+        Contador contador = contadores.computeIfAbsent(funcionId, id -> new Contador(
+                funcionRepository.findById(id).map(Funcion::getAsientosDisponibles).orElse(0)));
+
+        contador.sumar(cambio);
+    }
+
+    /**
+     * Asientos disponibles según el contador; si no hay contador se usa el valor de la BD
+     */
+    public int disponibles(Funcion funcion) {
+        Contador contador = contadores.computeIfAbsent(funcion.getId(),
+                id -> new Contador(funcion.getAsientosDisponibles()));
+        return contador.disponibles.intValue();
+    }
+
+    /**
+     * Asientos disponibles según el contador, o null si la función todavía no tiene uno
+     */
+    public Integer disponiblesEnMemoria(Long funcionId) {
+        Contador contador = contadores.get(funcionId);
+        return contador != null ? contador.disponibles.intValue() : null;
+    }
+
+    /**
+     * Reconciliación: llevar el contador a los asientos libres contados en la tabla.
+     * Se ajusta el mismo contador (no se reemplaza), así una reserva concurrente nunca
+     * se pierde. Retorna lo que sigue pendiente de volcar: la fila debe quedar en
+     * libres - pendiente para que, tras el volcado, fila y contador coincidan. Retorna
+     * null si siempre coincidió con reservas a medio aplicar (se corrige en otra ventana).
+     * Quien llama ya debe tener el lock de la fila de la función
+     */
+    public Integer corregir(Long funcionId, int libres) {
+        Contador actual = contadores.get(funcionId);
+        if (actual == null) {
+            // Se cargará de la BD, que ya tiene el valor corregido
+            return 0;
+        }
+
+        for (int intento = 0; intento < INTENTOS_CORRECCION; intento++) {
+            Integer pendiente = actual.corregir(libres);
+            if (pendiente != null) {
+                return pendiente;
+            }
+            Thread.onSpinWait();
+        }
+        return null;
+    }
+
+    /**
+     * Olvidar el contador de una función cancelada (lo pendiente ya no importa)
+     */
+    public void descartar(Long funcionId) {
+        contadores.remove(funcionId);
+    }
+
+    /**
+     * Volcar lo acumulado a la BD: un UPDATE por función con cambios, todos en una transacción
+     */
+    @Scheduled(fixedDelayString = "${cine.funciones.contadores.flush-ms:1000}")
+    @PreDestroy
+    public void volcar() {
+        Map<Long, Integer> cambios = new HashMap<>();
+        Map<Long, Contador> volcados = new HashMap<>();
+
+        for (Map.Entry<Long, Contador> entrada : contadores.entrySet()) {
+            int cambio = (int) entrada.getValue().pendiente.sum();
+            if (cambio != 0) {
+                cambios.put(entrada.getKey(), cambio);
+                volcados.put(entrada.getKey(), entrada.getValue());
+            }
+        }
+
+        if (cambios.isEmpty()) {
+            return;
+        }
+
+        boolean[] descontado = {false};
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                cambios.forEach((funcionId, cambio) -> {
+                    if (funcionRepository.sumarAsientosDisponibles(funcionId, cambio) == 0) {
+                        // Cancelada o quedaría negativo: igual que antes, no se aplica
+                        log.warn("No se aplicaron {} asientos disponibles a función {}", cambio, funcionId);
+                    }
+                });
+
+                // Antes del commit, con los locks de las filas tomados: lo nuevo que se sumó
+                // mientras tanto se queda como pendiente para el siguiente volcado
+                cambios.forEach((funcionId, cambio) -> volcados.get(funcionId).pendiente.add(-cambio));
+                descontado[0] = true;
+            });
+            log.debug("Contadores de asientos volcados para {} funciones", cambios.size());
+
+        } catch (Exception e) {
+            // Si el commit falló después de descontar, devolverlo para el siguiente volcado
+            log.error("Error al volcar contadores de asientos: {}", e.getMessage());
+            if (descontado[0]) {
+                cambios.forEach((funcionId, cambio) -> volcados.get(funcionId).pendiente.add(cambio));
+            }
+        }
+    }
+
+    private static class Contador {
+        private final LongAdder disponibles = new LongAdder();
+        private final LongAdder pendiente = new LongAdder();
+
+        // Reservas que empezaron y que terminaron de aplicarse: si difieren hay una a medias
+        private final LongAdder iniciadas = new LongAdder();
+        private final LongAdder terminadas = new LongAdder();
+
+        private Contador(int disponibles) {
+            this.disponibles.add(disponibles);
+        }
+
+        private void sumar(int cambio) {
+            iniciadas.increment();
+            disponibles.add(cambio);
+            pendiente.add(cambio);
+            terminadas.increment();
+        }
+
+        /**
+         * Ajustar disponibles a libres con una suma (conmuta con las reservas concurrentes);
+         * null si había una reserva a medias o empezó otra mientras tanto
+         */
+        private synchronized Integer corregir(int libres) {
+            long terminadasAntes = terminadas.sum();
+            long iniciadasAntes = iniciadas.sum();
+            if (iniciadasAntes != terminadasAntes) {
+                return null;
+            }
+
+            long pendienteAntes = pendiente.sum();
+            long ajuste = libres - disponibles.sum();
+            disponibles.add(ajuste);
+
+            if (iniciadas.sum() != iniciadasAntes) {
+                disponibles.add(-ajuste);
+                return null;
+            }
+            return (int) pendienteAntes;
+        }
+    }
+}
@@ -4,10 +4,19 @@ import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "funciones")
+// Caché de segundo nivel, región "funciones". Los UPDATE masivos de FuncionRepository
+// (volcado de contadores, reconciliación) vacían la región completa al hacer commit
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "funciones")
+// Cartelera y rango de fechas (y carga de la agenda al arrancar); funciones de una sala (planificador)
+@Table(name = "funciones", indexes = {
+        @Index(name = "idx_funciones_estado_fecha", columnList = "estado, fechaHora"),
+        @Index(name = "idx_funciones_sala_estado", columnList = "sala, estado")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -39,7 +48,16 @@ public class Funcion {
     @Column(nullable = false)
     private Double precio;
 
+    // En minutos; null = duración predeterminada (cine.funciones.duracion-predeterminada-minutos)
+    private Integer duracionMinutos;
+
     public Funcion(String pelicula, LocalDateTime fechaHora, String sala, Integer totalAsientos, Double precio) {
+        this(pelicula, fechaHora, sala, totalAsientos, precio, null);
+    }
+
+    public Funcion(String pelicula, LocalDateTime fechaHora, String sala, Integer totalAsientos, Double precio,
+                   Integer duracionMinutos) {
+        this.duracionMinutos = duracionMinutos;
         this.pelicula = pelicula;
         this.fechaHora = fechaHora;
         this.sala = sala;
@@ -1,13 +1,17 @@
 package com.cine.AppGestionCine.funciones;
 
+import com.cine.AppGestionCine.compartido.Paginador;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/funciones")
@@ -16,7 +20,12 @@ import java.util.Optional;
 @CrossOrigin(origins = "*")
 public class FuncionController {
 
+    private static final Set<String> CAMPOS_FUNCION = Paginador.nombres(
+            "id", "pelicula", "fechaHora", "sala", "totalAsientos", "asientosDisponibles", "estado", "precio", "duracionMinutos");
+
     private final FuncionService funcionService;
+    private final ImportadorProgramacion importadorProgramacion;
+    private final Paginador paginador;
 
     @PostMapping
     public ResponseEntity<?> crearFuncion(@RequestBody CrearFuncionRequest request) {
@@ -28,7 +37,8 @@ public class FuncionController {
                     request.getFechaHora(),
                     request.getSala(),
                     request.getTotalAsientos(),
-                    request.getPrecio()
+                    request.getPrecio(),
+                    request.getDuracionMinutos()
             );
 
             return ResponseEntity.status(HttpStatus.CREATED).body(funcion);
@@ -39,10 +49,67 @@ public class FuncionController {
         }
     }
 
+    /**
+     * Revisa una programación completa sin crear nada; lista vacía = sin cruces
+     */
+    @PostMapping("/programacion/validar")
+    public ResponseEntity<?> validarProgramacion(@RequestBody List<CrearFuncionRequest> programacion) {
+        try {
+            List<ConflictoHorario> conflictos = funcionService.validarProgramacion(aFunciones(programacion));
+            return ResponseEntity.ok(conflictos);
+
+        } catch (Exception e) {
+            log.error("Error al validar programación: {}", e.getMessage());
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Crea una programación completa (funciones y sus asientos) y reporta el tiempo de cada etapa.
+     * 409 con los conflictos si alguna función se cruza con otra; en ese caso no se crea nada
+     */
+    @PostMapping("/programacion")
+    public ResponseEntity<?> importarProgramacion(@RequestBody List<CrearFuncionRequest> programacion) {
+        try {
+            log.info("Importando programación de {} funciones", programacion.size());
+
+            ResultadoProgramacion resultado = importadorProgramacion.importar(aFunciones(programacion));
+            if (!resultado.getConflictos().isEmpty()) {
+                return ResponseEntity.status(HttpStatus.CONFLICT).body(resultado);
+            }
+            return ResponseEntity.status(HttpStatus.CREATED).body(resultado);
+
+        } catch (Exception e) {
+            log.error("Error al importar programación: {}", e.getMessage());
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
+    }
+
+    private static List<Funcion> aFunciones(List<CrearFuncionRequest> programacion) {
+        List<Funcion> funciones = new ArrayList<>(programacion.size());
+        for (CrearFuncionRequest request : programacion) {
+            funciones.add(new Funcion(request.getPelicula(), request.getFechaHora(), request.getSala(),
+                    request.getTotalAsientos(), request.getPrecio(), request.getDuracionMinutos()));
+        }
+        return funciones;
+    }
+
     @GetMapping
-    public ResponseEntity<List<Funcion>> getFuncionesEnCartelera() {
-        List<Funcion> funciones = funcionService.getFuncionesEnCartelera();
-        return ResponseEntity.ok(funciones);
+    public ResponseEntity<?> getFuncionesEnCartelera(@RequestParam(required = false) Long cursor,
+                                                     @RequestParam(required = false) Integer limite,
+                                                     @RequestParam(required = false) String fields) {
+        try {
+            // La cartelera ya está en memoria: fields solo recorta la respuesta
+            Set<String> campos = paginador.campos(fields, CAMPOS_FUNCION);
+            int tamanio = paginador.limite(limite);
+
+            List<Funcion> funciones = funcionService.getFuncionesEnCartelera(cursor, tamanio + 1);
+            return paginador.responder(funciones, tamanio, campos);
+
+        } catch (Exception e) {
+            log.error("Error al listar funciones: {}", e.getMessage());
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
     }
 
     @GetMapping("/{id}")
@@ -56,12 +123,39 @@ public class FuncionController {
         }
     }
 
+    /**
+     * Funciones en cartelera cuya película coincide con el texto, de la más a la menos relevante.
+     * Sin acentos ni mayúsculas e incluye títulos parecidos (errores de dedo); las funciones
+     * canceladas no aparecen y se devuelven como máximo las funciones de 50 títulos
+     */
     @GetMapping("/buscar")
     public ResponseEntity<List<Funcion>> buscarPorPelicula(@RequestParam String pelicula) {
         List<Funcion> funciones = funcionService.buscarPorPelicula(pelicula);
         return ResponseEntity.ok(funciones);
     }
 
+    @GetMapping("/autocompletar")
+    public ResponseEntity<List<String>> autocompletarPelicula(@RequestParam String q,
+                                                              @RequestParam(defaultValue = "10") int limite) {
+        List<String> peliculas = funcionService.autocompletarPelicula(q, limite);
+        return ResponseEntity.ok(peliculas);
+    }
+
+    @GetMapping("/rango")
+    public ResponseEntity<?> getFuncionesPorRango(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime inicio,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fin,
+            @RequestParam(required = false) String sala) {
+        try {
+            List<Funcion> funciones = funcionService.getFuncionesPorRango(inicio, fin, sala);
+            return ResponseEntity.ok(funciones);
+
+        } catch (Exception e) {
+            log.error("Error al consultar funciones por rango: {}", e.getMessage());
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
+    }
+
     @GetMapping("/disponibles")
     public ResponseEntity<List<Funcion>> getFuncionesDisponibles() {
         List<Funcion> funciones = funcionService.getFuncionesConAsientosDisponibles();
@@ -87,6 +181,7 @@ public class FuncionController {
         private String sala;
         private Integer totalAsientos;
         private Double precio;
+        private Integer duracionMinutos;
 
         // Getters y setters
         public String getPelicula() { return pelicula; }
@@ -104,6 +199,9 @@ public class FuncionController {
         public Double getPrecio() { return precio; }
         public void setPrecio(Double precio) { this.precio = precio; }
 
+        public Integer getDuracionMinutos() { return duracionMinutos; }
+        public void setDuracionMinutos(Integer duracionMinutos) { this.duracionMinutos = duracionMinutos; }
+
         @Override
         public String toString() {
             return "CrearFuncionRequest{pelicula='" + pelicula + "', sala='" + sala + "', totalAsientos=" + totalAsientos + "}";
@@ -0,0 +1,96 @@
+package com.cine.AppGestionCine.funciones;
+
+import com.cine.AppGestionCine.compartido.CacheConsultas;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+
+/**
+ * Inserción masiva de funciones con JDBC batch (importación de programación)
+ *
+ * Igual que AsientoJdbcRepository: Funcion usa IDENTITY y Hibernate no agrupa
+ * sus INSERT. Aquí van en lotes de cine.funciones.batch-size filas y los IDs
+ * generados se leen del mismo batch y se asignan a cada Funcion.
+ * Después se vacía la caché de consultas con CacheConsultas para que la
+ * cartelera no quede sin las funciones nuevas.
+ */
+@Repository
+@Slf4j
+public class FuncionJdbcRepository {
+
+    // Las columnas conservan el nombre del campo (PhysicalNamingStrategyStandardImpl)
+    private static final String INSERT_FUNCION =
+            "INSERT INTO funciones (pelicula, fechaHora, sala, totalAsientos, asientosDisponibles, estado, precio, duracionMinutos) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CacheConsultas cacheConsultas;
+    private final int batchSize;
+
+    public FuncionJdbcRepository(JdbcTemplate jdbcTemplate,
+                                 CacheConsultas cacheConsultas,
+                                 @Value("${cine.funciones.batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.cacheConsultas = cacheConsultas;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Insertar funciones nuevas en lotes y asignarles el ID generado
+     */
+    public int insertarLote(List<Funcion> funciones) {
+        for (int desde = 0; desde < funciones.size(); desde += batchSize) {
+            List<Funcion> lote = funciones.subList(desde, Math.min(desde + batchSize, funciones.size()));
+            KeyHolder ids = new GeneratedKeyHolder();
+
+            jdbcTemplate.batchUpdate(con -> con.prepareStatement(INSERT_FUNCION, new String[]{"id"}),
+                    new BatchPreparedStatementSetter() {
+                        @Override
+                        public void setValues(PreparedStatement ps, int i) throws SQLException {
+                            Funcion funcion = lote.get(i);
+                            ps.setString(1, funcion.getPelicula());
+                            ps.setTimestamp(2, Timestamp.valueOf(funcion.getFechaHora()));
+                            ps.setString(3, funcion.getSala());
+                            ps.setInt(4, funcion.getTotalAsientos());
+                            ps.setInt(5, funcion.getAsientosDisponibles());
+                            ps.setString(6, funcion.getEstado().name());
+                            ps.setDouble(7, funcion.getPrecio());
+                            if (funcion.getDuracionMinutos() != null) {
+                                ps.setInt(8, funcion.getDuracionMinutos());
+                            } else {
+                                ps.setNull(8, Types.INTEGER);
+                            }
+                        }
+
+                        @Override
+                        public int getBatchSize() {
+                            return lote.size();
+                        }
+                    }, ids);
+
+            List<Long> generados = ids.getKeyList().stream()
+                    .map(fila -> ((Number) fila.values().iterator().next()).longValue())
+                    .toList();
+            if (generados.size() != lote.size()) {
+                throw new RuntimeException("El driver devolvió " + generados.size() + " IDs para " + lote.size() + " funciones");
+            }
+            for (int i = 0; i < lote.size(); i++) {
+                lote.get(i).setId(generados.get(i));
+            }
+        }
+
+        cacheConsultas.invalidar();
+        log.debug("Insertadas {} funciones en lotes de hasta {}", funciones.size(), batchSize);
+        return funciones.size();
+    }
+}
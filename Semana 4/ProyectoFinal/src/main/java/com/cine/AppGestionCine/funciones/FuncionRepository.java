@@ -1,7 +1,11 @@
 package com.cine.AppGestionCine.funciones;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.time.LocalDateTime;
@@ -10,10 +14,15 @@ import java.util.List;
 @Repository
 public interface FuncionRepository extends JpaRepository<Funcion, Long> {
 
+    // Caché de consultas: al arrancar la piden ContadoresAsientos, AgendaFunciones e IndicePeliculas
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Funcion> findByEstado(EstadoFuncion estado);
 
+    List<Funcion> findBySalaAndEstado(String sala, EstadoFuncion estado);
+
     List<Funcion> findByPeliculaContainingIgnoreCase(String pelicula);
 
+    // Usa el índice idx_funciones_estado_fecha (estado, fechaHora)
     @Query("SELECT f FROM Funcion f WHERE f.fechaHora BETWEEN :fechaInicio AND :fechaFin AND f.estado = :estado")
     List<Funcion> findFuncionesByFechaRango(
             @Param("fechaInicio") LocalDateTime fechaInicio,
@@ -23,4 +32,16 @@ public interface FuncionRepository extends JpaRepository<Funcion, Long> {
 
     @Query("SELECT f FROM Funcion f WHERE f.asientosDisponibles > 0 AND f.estado = 'EN_CARTELERA'")
     List<Funcion> findFuncionesConAsientosDisponibles();
+
+    // Volcado de los contadores en memoria: suma atómica, sin leer la fila antes
+    @Modifying
+    @Query("UPDATE Funcion f SET f.asientosDisponibles = f.asientosDisponibles + :cambio " +
+            "WHERE f.id = :id AND f.estado = 'EN_CARTELERA' AND f.asientosDisponibles + :cambio >= 0")
+    int sumarAsientosDisponibles(@Param("id") Long id, @Param("cambio") int cambio);
+
+    // Reconciliación: el valor real contado en asientos, solo si la fila se desvió
+    @Modifying
+    @Query("UPDATE Funcion f SET f.asientosDisponibles = :disponibles " +
+            "WHERE f.id = :id AND f.estado = 'EN_CARTELERA' AND f.asientosDisponibles <> :disponibles")
+    int fijarAsientosDisponibles(@Param("id") Long id, @Param("disponibles") int disponibles);
 }
\ No newline at end of file
@@ -1,12 +1,17 @@
 package com.cine.AppGestionCine.funciones;
 
 import com.cine.AppGestionCine.funciones.events.FuncionCanceladaEvent;
+import com.cine.AppGestionCine.funciones.events.FuncionCreadaEvent;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeanUtils;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,14 +21,42 @@ import java.util.Optional;
 @Transactional
 public class FuncionService {
 
+    private static final int MAX_TITULOS_BUSQUEDA = 50;
+
     private final FuncionRepository funcionRepository;
     private final ApplicationEventPublisher eventPublisher;
+    private final ContadoresAsientos contadoresAsientos;
+    private final CacheFunciones cacheFunciones;
+    private final IndicePeliculas indicePeliculas;
+    private final AgendaFunciones agendaFunciones;
+    private final PlanificadorSalas planificadorSalas;
 
     public Funcion crearFuncion(String pelicula, LocalDateTime fechaHora, String sala, Integer totalAsientos, Double precio) {
+        return crearFuncion(pelicula, fechaHora, sala, totalAsientos, precio, null);
+    }
+
+
+    /**
+     * Crear una función; se rechaza si se cruza con otra de la misma sala
+     */
+    public Funcion crearFuncion(String pelicula, LocalDateTime fechaHora, String sala, Integer totalAsientos, Double precio,
+                                Integer duracionMinutos) {
         log.info("Creando nueva función: {} en sala {}", pelicula, sala);
 
-        Funcion funcion = new Funcion(pelicula, fechaHora, sala, totalAsientos, precio);
+        if (duracionMinutos != null && duracionMinutos <= 0) {
+            throw new RuntimeException("La duración debe ser mayor a 0 minutos");
+        }
+
+        Funcion funcion = new Funcion(pelicula, fechaHora, sala, totalAsientos, precio, duracionMinutos);
         Funcion funcionGuardada = funcionRepository.save(funcion);
+        planificadorSalas.reservar(funcionGuardada);
+        contadoresAsientos.registrar(funcionGuardada.getId(), funcionGuardada.getAsientosDisponibles());
+
+        eventPublisher.publishEvent(new FuncionCreadaEvent(
+                funcionGuardada.getId(),
+                funcionGuardada.getPelicula(),
+                funcionGuardada.getSala()
+        ));
 
         log.info("Función creada con ID: {}", funcionGuardada.getId());
         return funcionGuardada;
@@ -47,6 +80,7 @@ public class FuncionService {
         funcion.setEstado(EstadoFuncion.CANCELADA);
         funcion.setAsientosDisponibles(0);
         funcionRepository.save(funcion);
+        contadoresAsientos.descartar(funcionId);
 
         FuncionCanceladaEvent evento = new FuncionCanceladaEvent(
                 funcion.getId(),
@@ -59,48 +93,139 @@ public class FuncionService {
     }
 
 
-    public void actualizarAsientosDisponibles(Long funcionId, int cambio) {
-        log.info("Actualizando asientos disponibles para función {}: {}", funcionId, cambio);
-
-        Optional<Funcion> funcionOpt = funcionRepository.findById(funcionId);
-        if (funcionOpt.isPresent()) {
-            Funcion funcion = funcionOpt.get();
-            int nuevosDisponibles = funcion.getAsientosDisponibles() + cambio;
-
-            // Validar que no sea negativo
-            if (nuevosDisponibles < 0) {
-                log.warn("Intento de asientos disponibles negativos para función {}", funcionId);
-                return;
-            }
-
-            funcion.setAsientosDisponibles(nuevosDisponibles);
-            funcionRepository.save(funcion);
+    // Lecturas servidas desde la caché: sin transacción, un acierto no toma conexión
+    // de la BD (los cargadores de la caché usan la transacción propia del repositorio)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<Funcion> getFuncionesEnCartelera(Long cursor, int limite) {
+        // La cartelera en caché viene ordenada por ID: la página empieza por búsqueda binaria
+        List<Funcion> cartelera = cacheFunciones.getFunciones(EstadoFuncion.EN_CARTELERA);
+        int desde = primeraDespuesDe(cartelera, cursor);
 
-            log.info("Asientos disponibles actualizados para función {}: {}", funcionId, nuevosDisponibles);
+        List<Funcion> funciones = new ArrayList<>();
+        for (int i = desde; i < cartelera.size() && funciones.size() < limite; i++) {
+            funciones.add(conDisponibles(cartelera.get(i)));
         }
+        return funciones;
     }
 
 
-    @Transactional(readOnly = true)
-    public List<Funcion> getFuncionesEnCartelera() {
-        return funcionRepository.findByEstado(EstadoFuncion.EN_CARTELERA);
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Optional<Funcion> getFuncionById(Long id) {
+        return cacheFunciones.getFuncion(id).map(this::conDisponibles);
     }
 
 
+    /**
+     * Funciones en cartelera cuyo título coincide (sin acentos, tolerante a errores),
+     * ordenadas por relevancia; se resuelve con el índice de trigramas, sin LIKE.
+     * El índice solo tiene funciones EN_CARTELERA y se limita a MAX_TITULOS_BUSQUEDA títulos
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<Funcion> buscarPorPelicula(String pelicula) {
+        List<Funcion> funciones = new ArrayList<>();
+        for (Long funcionId : indicePeliculas.buscar(pelicula, MAX_TITULOS_BUSQUEDA)) {
+            cacheFunciones.getFuncion(funcionId).ifPresent(funcion -> funciones.add(conDisponibles(funcion)));
+        }
+        return funciones;
+    }
+
+    /**
+     * Revisar una programación (ej. un mes) sin guardarla: cruces de horario por sala
+     */
     @Transactional(readOnly = true)
-    public Optional<Funcion> getFuncionById(Long id) {
-        return funcionRepository.findById(id);
+    public List<ConflictoHorario> validarProgramacion(List<Funcion> propuestas) {
+        List<ConflictoHorario> conflictos = planificadorSalas.validarProgramacion(propuestas);
+        log.info("Programación de {} funciones validada: {} conflictos", propuestas.size(), conflictos.size());
+        return conflictos;
     }
 
 
-    @Transactional(readOnly = true)
-    public List<Funcion> buscarPorPelicula(String pelicula) {
-        return funcionRepository.findByPeliculaContainingIgnoreCase(pelicula);
+    /**
+     * Funciones en cartelera entre inicio y fin (incluidos), opcionalmente de una sala,
+     * en orden de fecha y hora. Sale de la agenda en memoria; si todavía no se cargó,
+     * de la BD (índice estado + fechaHora)
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<Funcion> getFuncionesPorRango(LocalDateTime inicio, LocalDateTime fin, String sala) {
+        if (inicio == null || fin == null || inicio.isAfter(fin)) {
+            throw new RuntimeException("La fecha de inicio debe ser anterior a la fecha de fin");
+        }
+
+        List<Funcion> funciones = new ArrayList<>();
+
+        if (agendaFunciones.isCargada()) {
+            for (Funcion funcion : agendaFunciones.enRango(inicio, fin, sala)) {
+                funciones.add(conDisponibles(funcion));
+            }
+            return funciones;
+        }
+
+        log.warn("Agenda de funciones sin cargar, consultando rango en la BD");
+        for (Funcion funcion : funcionRepository.findFuncionesByFechaRango(inicio, fin, EstadoFuncion.EN_CARTELERA)) {
+            if (sala == null || sala.equals(funcion.getSala())) {
+                funciones.add(conDisponibles(funcion));
+            }
+        }
+        funciones.sort(Comparator.comparing(Funcion::getFechaHora).thenComparing(Funcion::getId));
+        return funciones;
     }
 
+    /**
+     * Títulos sugeridos para el buscador mientras se escribe (solo memoria, sin transacción)
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<String> autocompletarPelicula(String texto, int limite) {
+        return indicePeliculas.autocompletar(texto, Math.min(limite, MAX_TITULOS_BUSQUEDA));
+    }
 
-    @Transactional(readOnly = true)
+
+    /**
+     * Funciones en cartelera con asientos libres según los contadores en memoria
+     * (la columna de la BD puede ir atrasada hasta el siguiente volcado)
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public List<Funcion> getFuncionesConAsientosDisponibles() {
-        return funcionRepository.findFuncionesConAsientosDisponibles();
+        List<Funcion> funciones = new ArrayList<>();
+
+        for (Funcion funcion : cacheFunciones.getFunciones(EstadoFuncion.EN_CARTELERA)) {
+            Funcion actual = conDisponibles(funcion);
+            if (actual.getAsientosDisponibles() > 0) {
+                funciones.add(actual);
+            }
+        }
+
+        return funciones;
+    }
+
+    // Posición de la primera función con ID mayor al cursor (lista ordenada por ID)
+    private static int primeraDespuesDe(List<Funcion> funciones, Long cursor) {
+        if (cursor == null) {
+            return 0;
+        }
+
+        int bajo = 0;
+        int alto = funciones.size();
+        while (bajo < alto) {
+            int medio = (bajo + alto) >>> 1;
+            if (funciones.get(medio).getId() <= cursor) {
+                bajo = medio + 1;
+            } else {
+                alto = medio;
+            }
+        }
+        return bajo;
+    }
+
+    /**
+     * Copia de la función en caché con los asientos disponibles del contador
+     */
+    private Funcion conDisponibles(Funcion funcion) {
+        Funcion copia = new Funcion();
+        BeanUtils.copyProperties(funcion, copia);
+
+        if (funcion.getEstado() == EstadoFuncion.EN_CARTELERA) {
+            copia.setAsientosDisponibles(contadoresAsientos.disponibles(funcion));
+        }
+        return copia;
     }
 }
\ No newline at end of file
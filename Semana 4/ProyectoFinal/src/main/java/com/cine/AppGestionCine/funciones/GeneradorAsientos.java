@@ -0,0 +1,17 @@
+package com.cine.AppGestionCine.funciones;
+
+import java.util.Map;
+
+/**
+ * Generación de los asientos de funciones recién creadas
+ *
+ * La implementa el módulo de asientos; así funciones no depende de AsientoService
+ * y la importación puede repartir los bloques en hilos y reportar cuántos se crearon.
+ */
+public interface GeneradorAsientos {
+
+    /**
+     * Generar los asientos de varias funciones en los mismos lotes. Retorna cuántos asientos se insertaron
+     */
+    int generarAsientosPorFunciones(Map<Long, Integer> totalesPorFuncion);
+}
@@ -0,0 +1,168 @@
+package com.cine.AppGestionCine.funciones;
+
+import com.cine.AppGestionCine.funciones.events.FuncionCreadaEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Importación de una programación completa (ej. una semana) en tres etapas
+ *
+ * 1. Validación: cruces de horario de todas las funciones de una vez (PlanificadorSalas).
+ * 2. Funciones: INSERT en lotes JDBC en una sola transacción; cada horario se
+ *    registra en el planificador y se publica FuncionCreadaEvent como en crearFuncion.
+ * 3. Asientos: bloques de cine.funciones.programacion.funciones-por-bloque funciones
+ *    en cine.funciones.programacion.hilos hilos, cada bloque con un insert por lotes.
+ *    Los asientos de un bloque se arman dentro de su hilo, así en memoria hay
+ *    a lo más hilos x bloque funciones de asientos a la vez. Los genera el módulo
+ *    de asientos a través de GeneradorAsientos.
+ */
+@Service
+@Slf4j
+public class ImportadorProgramacion {
+
+    private final PlanificadorSalas planificadorSalas;
+    private final FuncionJdbcRepository funcionJdbcRepository;
+    private final ContadoresAsientos contadoresAsientos;
+    private final GeneradorAsientos generadorAsientos;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final int funcionesPorBloque;
+    private final ExecutorService hilosAsientos;
+
+    public ImportadorProgramacion(PlanificadorSalas planificadorSalas,
+                                  FuncionJdbcRepository funcionJdbcRepository,
+                                  ContadoresAsientos contadoresAsientos,
+                                  GeneradorAsientos generadorAsientos,
+                                  ApplicationEventPublisher eventPublisher,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${cine.funciones.programacion.hilos:4}") int hilos,
+                                  @Value("${cine.funciones.programacion.funciones-por-bloque:20}") int funcionesPorBloque) {
+        this.planificadorSalas = planificadorSalas;
+        this.funcionJdbcRepository = funcionJdbcRepository;
+        this.contadoresAsientos = contadoresAsientos;
+        this.generadorAsientos = generadorAsientos;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.funcionesPorBloque = funcionesPorBloque;
+
+        AtomicInteger numero = new AtomicInteger();
+        this.hilosAsientos = Executors.newFixedThreadPool(hilos, tarea -> {
+            Thread hilo = new Thread(tarea, "CineProgramacion-" + numero.incrementAndGet());
+            hilo.setDaemon(true);
+            return hilo;
+        });
+    }
+
+    /**
+     * Importar la programación; si alguna función se cruza con otra no se crea ninguna
+     */
+    public ResultadoProgramacion importar(List<Funcion> programacion) {
+        validarDatos(programacion);
+        ResultadoProgramacion resultado = new ResultadoProgramacion();
+        long inicio = System.nanoTime();
+
+        // 1. Validación de horarios
+        long t0 = System.nanoTime();
+        resultado.setConflictos(planificadorSalas.validarProgramacion(programacion));
+        resultado.setMsValidacion(milisDesde(t0));
+
+        if (!resultado.getConflictos().isEmpty()) {
+            log.warn("Programación rechazada: {} conflictos de horario", resultado.getConflictos().size());
+            resultado.setMsTotal(milisDesde(inicio));
+            return resultado;
+        }
+
+        // 2. Funciones en lotes, todo o nada
+        t0 = System.nanoTime();
+        transactionTemplate.executeWithoutResult(status -> {
+            funcionJdbcRepository.insertarLote(programacion);
+
+            for (Funcion funcion : programacion) {
+                // Vuelve a revisar con lock: otra alta pudo ocupar el horario después de validar
+                planificadorSalas.reservar(funcion);
+                contadoresAsientos.registrar(funcion.getId(), funcion.getAsientosDisponibles());
+                eventPublisher.publishEvent(new FuncionCreadaEvent(funcion.getId(), funcion.getPelicula(), funcion.getSala()));
+            }
+        });
+        resultado.setMsFunciones(milisDesde(t0));
+        resultado.setFuncionesCreadas(programacion.size());
+        programacion.forEach(funcion -> resultado.getFuncionIds().add(funcion.getId()));
+
+        // 3. Asientos por bloques en paralelo
+        t0 = System.nanoTime();
+        List<Map<Long, Integer>> bloques = new ArrayList<>();
+        List<Future<Integer>> pendientes = new ArrayList<>();
+
+        for (int desde = 0; desde < programacion.size(); desde += funcionesPorBloque) {
+            Map<Long, Integer> bloque = new LinkedHashMap<>();
+            for (Funcion funcion : programacion.subList(desde, Math.min(desde + funcionesPorBloque, programacion.size()))) {
+                bloque.put(funcion.getId(), funcion.getTotalAsientos());
+            }
+            bloques.add(bloque);
+            pendientes.add(hilosAsientos.submit(() -> generadorAsientos.generarAsientosPorFunciones(bloque)));
+        }
+
+        for (int i = 0; i < pendientes.size(); i++) {
+            try {
+                resultado.setAsientosCreados(resultado.getAsientosCreados() + pendientes.get(i).get());
+
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Importación interrumpida");
+
+            } catch (ExecutionException e) {
+                // Las funciones ya existen: se reportan para generar sus asientos después
+                log.error("Error al generar asientos de {} funciones: {}", bloques.get(i).size(), e.getCause().getMessage());
+                resultado.getFuncionesSinAsientos().addAll(bloques.get(i).keySet());
+            }
+        }
+        resultado.setMsAsientos(milisDesde(t0));
+        resultado.setMsTotal(milisDesde(inicio));
+
+        log.info("Programación importada: {} funciones, {} asientos (validación {} ms, funciones {} ms, asientos {} ms, total {} ms)",
+                resultado.getFuncionesCreadas(), resultado.getAsientosCreados(), resultado.getMsValidacion(),
+                resultado.getMsFunciones(), resultado.getMsAsientos(), resultado.getMsTotal());
+        return resultado;
+    }
+
+    @PreDestroy
+    public void cerrar() {
+        hilosAsientos.shutdown();
+    }
+
+    private static void validarDatos(List<Funcion> programacion) {
+        if (programacion == null || programacion.isEmpty()) {
+            throw new RuntimeException("La programación está vacía");
+        }
+
+        for (int i = 0; i < programacion.size(); i++) {
+            Funcion funcion = programacion.get(i);
+            if (funcion.getPelicula() == null || funcion.getPrecio() == null
+                    || funcion.getTotalAsientos() == null || funcion.getTotalAsientos() <= 0) {
+                throw new RuntimeException("Función #" + i + " de la programación: faltan pelicula, precio o totalAsientos");
+            }
+            if (funcion.getDuracionMinutos() != null && funcion.getDuracionMinutos() <= 0) {
+                throw new RuntimeException("Función #" + i + " de la programación: la duración debe ser mayor a 0 minutos");
+            }
+        }
+    }
+
+    private static long milisDesde(long t0) {
+        return (System.nanoTime() - t0) / 1_000_000;
+    }
+}
@@ -0,0 +1,293 @@
+package com.cine.AppGestionCine.funciones;
+
+import com.cine.AppGestionCine.funciones.events.FuncionCanceladaEvent;
+import com.cine.AppGestionCine.funciones.events.FuncionCreadaEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.text.Normalizer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Índice invertido de trigramas sobre los títulos de las películas en cartelera
+ *
+ * Reemplaza el LIKE '%x%' (que recorre toda la tabla) por una búsqueda en
+ * memoria: sin acentos ni mayúsculas, tolerante a errores de dedo y con
+ * resultados ordenados (primero los que empiezan igual, luego los que
+ * contienen el texto y luego los parecidos). Se indexan títulos, no
+ * funciones: varias funciones de la misma película comparten la entrada.
+ * Se mantiene con los eventos de creación y cancelación de funciones.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class IndicePeliculas {
+
+    // Fracción mínima de trigramas de la búsqueda que debe tener un título parecido
+    private static final double SIMILITUD_MINIMA = 0.5;
+
+    // Mayor puntaje primero; a igual puntaje, orden alfabético
+    private static final Comparator<Candidato> ORDEN = Comparator
+            .comparingDouble((Candidato c) -> c.puntaje).reversed()
+            .thenComparing(c -> c.titulo.normalizado);
+
+    private static final Pattern MARCAS = Pattern.compile("\\p{M}+");
+    private static final Pattern NO_ALFANUMERICO = Pattern.compile("[^a-z0-9]+");
+
+    private final FuncionRepository funcionRepository;
+
+    private final Map<String, Titulo> titulos = new ConcurrentHashMap<>();
+
+    // Cada título tiene un número; las listas del índice son arreglos de esos números
+    // que se reemplazan completos al escribir (pocas escrituras): las lecturas no usan locks
+    private final Map<String, int[]> indice = new ConcurrentHashMap<>();
+    private volatile Titulo[] tabla = new Titulo[0];
+    private final Deque<Integer> numerosLibres = new ArrayDeque<>();
+    private int siguienteNumero;
+
+    /**
+     * Al arrancar, indexar las funciones en cartelera
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void cargarTodo() {
+        try {
+            for (Funcion funcion : funcionRepository.findByEstado(EstadoFuncion.EN_CARTELERA)) {
+                agregar(funcion.getId(), funcion.getPelicula());
+            }
+            log.info("Índice de películas cargado: {} títulos, {} trigramas", titulos.size(), indice.size());
+
+        } catch (Exception e) {
+            log.error("Error al cargar índice de películas: {}", e.getMessage());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void manejarFuncionCreada(FuncionCreadaEvent evento) {
+        agregar(evento.getFuncionId(), evento.getPelicula());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void manejarFuncionCancelada(FuncionCanceladaEvent evento) {
+        quitar(evento.getFuncionId(), evento.getPelicula());
+    }
+
+    public synchronized void agregar(Long funcionId, String pelicula) {
+        String normalizado = normalizar(pelicula);
+        if (normalizado.isEmpty()) {
+            return;
+        }
+
+        Titulo existente = titulos.get(normalizado);
+        if (existente != null) {
+            existente.funcionIds.add(funcionId);
+            return;
+        }
+
+        Integer libre = numerosLibres.poll();
+        int numero = libre != null ? libre : siguienteNumero++;
+
+        Titulo titulo = new Titulo(numero, pelicula, normalizado);
+        titulo.funcionIds.add(funcionId);
+
+        // Los campos de Titulo son final: un lector que lo vea en la tabla lo ve completo
+        if (numero >= tabla.length) {
+            tabla = Arrays.copyOf(tabla, Math.max(16, tabla.length * 2));
+        }
+        tabla[numero] = titulo;
+
+        for (String trigrama : titulo.trigramas) {
+            indice.merge(trigrama, new int[]{numero}, IndicePeliculas::unir);
+        }
+        titulos.put(normalizado, titulo);
+    }
+
+    public synchronized void quitar(Long funcionId, String pelicula) {
+        String normalizado = normalizar(pelicula);
+        Titulo titulo = titulos.get(normalizado);
+        if (titulo == null || !titulo.funcionIds.remove(funcionId) || !titulo.funcionIds.isEmpty()) {
+            return;
+        }
+
+        // Última función de esa película: sacar el título del índice
+        titulos.remove(normalizado);
+        for (String trigrama : titulo.trigramas) {
+            indice.computeIfPresent(trigrama, (t, numeros) -> {
+                int[] restantes = Arrays.stream(numeros).filter(n -> n != titulo.numero).toArray();
+                return restantes.length == 0 ? null : restantes;
+            });
+        }
+
+        tabla[titulo.numero] = null;
+        numerosLibres.add(titulo.numero);
+    }
+
+    /**
+     * Títulos que coinciden con el texto, del más al menos relevante
+     */
+    public List<String> autocompletar(String texto, int limite) {
+        List<String> peliculas = new ArrayList<>();
+        for (Titulo titulo : rankear(texto, limite)) {
+            peliculas.add(titulo.pelicula);
+        }
+        return peliculas;
+    }
+
+    /**
+     * IDs de las funciones de los títulos que coinciden, en orden de relevancia
+     */
+    public List<Long> buscar(String texto, int limiteTitulos) {
+        List<Long> funcionIds = new ArrayList<>();
+        for (Titulo titulo : rankear(texto, limiteTitulos)) {
+            funcionIds.addAll(titulo.funcionIds);
+        }
+        return funcionIds;
+    }
+
+    private List<Titulo> rankear(String texto, int limite) {
+        String consulta = normalizar(texto);
+        if (consulta.isEmpty() || limite <= 0) {
+            return List.of();
+        }
+
+        String inicioDePalabra = " " + consulta;
+        Set<String> trigramasConsulta = trigramas(consulta);
+        int minimoEnComun = (int) Math.ceil(trigramasConsulta.size() * SIMILITUD_MINIMA);
+
+        // Cuántos trigramas de la búsqueda tiene cada título (por número de título).
+        // Un título agregado después de leer la tabla se ignora en esta búsqueda
+        Titulo[] tabla = this.tabla;
+        int[] comunes = new int[tabla.length];
+        int[] tocados = new int[tabla.length];
+        int totalTocados = 0;
+
+        for (String trigrama : trigramasConsulta) {
+            int[] numeros = indice.get(trigrama);
+            if (numeros == null) {
+                continue;
+            }
+            for (int numero : numeros) {
+                if (numero < comunes.length && comunes[numero]++ == 0) {
+                    tocados[totalTocados++] = numero;
+                }
+            }
+        }
+
+        // Top-k con un heap acotado: el peor de los mejores queda arriba
+        PriorityQueue<Candidato> mejores = new PriorityQueue<>(limite + 1, ORDEN.reversed());
+
+        for (int i = 0; i < totalTocados; i++) {
+            int enComun = comunes[tocados[i]];
+            Titulo titulo = tabla[tocados[i]];
+            if (enComun < minimoEnComun || titulo == null) {
+                continue;
+            }
+
+            // Desempate: más trigramas en común y título más corto (Jaccard)
+            double desempate = (double) enComun / trigramasConsulta.size() * 0.5
+                    + (double) enComun / (trigramasConsulta.size() + titulo.trigramas.size() - enComun) * 0.5;
+
+            // Ni en el mejor caso entra al top-k: no hace falta revisar el texto
+            if (mejores.size() == limite && 3 + desempate < mejores.peek().puntaje) {
+                continue;
+            }
+
+            double puntaje;
+            if (titulo.normalizado.startsWith(consulta) || titulo.normalizado.contains(inicioDePalabra)) {
+                puntaje = 3;   // alguna palabra empieza con lo escrito
+            } else if (titulo.normalizado.contains(consulta)) {
+                puntaje = 2;
+            } else {
+                puntaje = 1;   // parecido: error de dedo
+            }
+
+            mejores.add(new Candidato(titulo, puntaje + desempate));
+            if (mejores.size() > limite) {
+                mejores.poll();
+            }
+        }
+
+        List<Candidato> ordenados = new ArrayList<>(mejores);
+        ordenados.sort(ORDEN);
+
+        List<Titulo> resultado = new ArrayList<>(ordenados.size());
+        for (Candidato candidato : ordenados) {
+            resultado.add(candidato.titulo);
+        }
+        return resultado;
+    }
+
+    private static int[] unir(int[] numeros, int[] nuevo) {
+        int[] unidos = Arrays.copyOf(numeros, numeros.length + 1);
+        unidos[numeros.length] = nuevo[0];
+        return unidos;
+    }
+
+    public int totalTitulos() {
+        return titulos.size();
+    }
+
+    /**
+     * Minúsculas, sin acentos y con un solo espacio entre palabras ("Película!" → "pelicula")
+     */
+    static String normalizar(String texto) {
+        if (texto == null) {
+            return "";
+        }
+        String sinAcentos = MARCAS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("");
+        return NO_ALFANUMERICO.matcher(sinAcentos.toLowerCase()).replaceAll(" ").trim();
+    }
+
+    /**
+     * Trigramas de cada palabra con dos espacios al inicio y uno al final ("sol" → "  s", " so", "sol", "ol ")
+     */
+    static Set<String> trigramas(String normalizado) {
+        Set<String> trigramas = new LinkedHashSet<>();
+        for (String palabra : normalizado.split(" ")) {
+            String conBordes = "  " + palabra + " ";
+            for (int i = 0; i + 3 <= conBordes.length(); i++) {
+                trigramas.add(conBordes.substring(i, i + 3));
+            }
+        }
+        return trigramas;
+    }
+
+    private static class Titulo {
+        private final int numero;
+        private final String pelicula;
+        private final String normalizado;
+        private final Set<String> trigramas;
+        private final Set<Long> funcionIds = ConcurrentHashMap.newKeySet();
+
+        private Titulo(int numero, String pelicula, String normalizado) {
+            this.numero = numero;
+            this.pelicula = pelicula;
+            this.normalizado = normalizado;
+            this.trigramas = trigramas(normalizado);
+        }
+    }
+
+    private static class Candidato {
+        private final Titulo titulo;
+        private final double puntaje;
+
+        private Candidato(Titulo titulo, double puntaje) {
+            this.titulo = titulo;
+            this.puntaje = puntaje;
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package com.cine.AppGestionCine.funciones;
+
+import com.cine.AppGestionCine.funciones.events.FuncionCanceladaEvent;
+import com.cine.AppGestionCine.funciones.events.FuncionCreadaEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Horarios ocupados de cada sala, para no programar dos funciones que se cruzan
+ *
+ * Un ArbolIntervalos por sala con [fechaHora, fechaHora + duración) de las
+ * funciones en cartelera: revisar una función nueva es O(log n), sin consultar
+ * la BD. Cada sala se carga de la BD la primera vez que se usa. La revisión y el
+ * registro se hacen juntos con un lock por sala, así dos altas simultáneas no
+ * pueden quedar cruzadas. Las canceladas liberan su horario después del commit.
+ */
+@Component
+@Slf4j
+public class PlanificadorSalas {
+
+    private static final DateTimeFormatter FORMATO_HORA = DateTimeFormatter.ofPattern("dd/MM HH:mm");
+
+    private final FuncionRepository funcionRepository;
+    private final int duracionPredeterminada;
+
+    private final Map<String, Sala> salas = new ConcurrentHashMap<>();
+    private final Map<Long, String> salaPorFuncion = new ConcurrentHashMap<>();
+
+    public PlanificadorSalas(FuncionRepository funcionRepository,
+                             @Value("${cine.funciones.duracion-predeterminada-minutos:120}") int duracionPredeterminada) {
+        this.funcionRepository = funcionRepository;
+        this.duracionPredeterminada = duracionPredeterminada;
+    }
+
+    /**
+     * Registrar el horario de una función ya guardada; si se cruza con otra de la
+     * misma sala lanza excepción y no registra nada (la transacción debe revertirse)
+     */
+    public void reservar(Funcion funcion) {
+        Sala sala = obtenerSala(funcion.getSala());
+        long inicio = minutos(funcion.getFechaHora());
+        long fin = inicio + duracion(funcion);
+
+        synchronized (sala) {
+            // La carga de la sala pudo haber leído esta misma función (misma transacción)
+            sala.quitar(funcion.getId());
+
+            Long otra = sala.arbol.buscarSolape(inicio, fin);
+            if (otra != null) {
+                throw new RuntimeException("La " + funcion.getSala() + " ya tiene una función en ese horario: "
+                        + sala.describir(otra));
+            }
+            sala.agregar(funcion.getId(), inicio, fin, funcion.getPelicula());
+        }
+        salaPorFuncion.put(funcion.getId(), funcion.getSala());
+    }
+
+    /**
+     * Liberar el horario de una función
+     */
+    public void quitar(Long funcionId) {
+        String nombre = salaPorFuncion.remove(funcionId);
+        Sala sala = nombre != null ? salas.get(nombre) : null;
+        if (sala != null) {
+            synchronized (sala) {
+                sala.quitar(funcionId);
+            }
+        }
+    }
+
+    /**
+     * Revisar una programación completa sin guardar nada: cruces con lo que ya está
+     * en cartelera y entre las mismas funciones propuestas. O(n log n) en total
+     */
+    public List<ConflictoHorario> validarProgramacion(List<Funcion> propuestas) {
+        List<ConflictoHorario> conflictos = new ArrayList<>();
+        Map<String, List<Integer>> porSala = new HashMap<>();
+
+        for (int i = 0; i < propuestas.size(); i++) {
+            Funcion propuesta = propuestas.get(i);
+            if (propuesta.getSala() == null || propuesta.getFechaHora() == null) {
+                conflictos.add(conflicto(i, propuesta, "Faltan sala o fechaHora"));
+            } else {
+                porSala.computeIfAbsent(propuesta.getSala(), s -> new ArrayList<>()).add(i);
+            }
+        }
+
+        for (Map.Entry<String, List<Integer>> entrada : porSala.entrySet()) {
+            Sala sala = obtenerSala(entrada.getKey());
+            List<Integer> indices = entrada.getValue();
+            indices.sort(Comparator.comparing(i -> propuestas.get(i).getFechaHora()));
+
+            // Barrido en orden de inicio: se cruza si empieza antes de que termine la que acaba más tarde
+            int masLarga = -1;
+            long finMasLarga = Long.MIN_VALUE;
+
+            for (int indice : indices) {
+                Funcion propuesta = propuestas.get(indice);
+                long inicio = minutos(propuesta.getFechaHora());
+                long fin = inicio + duracion(propuesta);
+
+                if (inicio < finMasLarga) {
+                    conflictos.add(conflicto(indice, propuesta, "Se cruza con la función #" + masLarga
+                            + " de la programación (" + propuestas.get(masLarga).getPelicula() + ")"));
+                }
+                if (fin > finMasLarga) {
+                    masLarga = indice;
+                    finMasLarga = fin;
+                }
+
+                Long existente;
+                String descripcion = null;
+                synchronized (sala) {
+                    existente = sala.arbol.buscarSolape(inicio, fin);
+                    if (existente != null) {
+                        descripcion = sala.describir(existente);
+                    }
+                }
+                if (existente != null) {
+                    conflictos.add(conflicto(indice, propuesta, "Se cruza con " + descripcion));
+                }
+            }
+        }
+
+        conflictos.sort(Comparator.comparingInt(ConflictoHorario::getIndice));
+        return conflictos;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void manejarFuncionCancelada(FuncionCanceladaEvent evento) {
+        quitar(evento.getFuncionId());
+    }
+
+    /**
+     * Si la creación se revierte después de registrar el horario, liberarlo
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_ROLLBACK)
+    public void manejarCreacionRevertida(FuncionCreadaEvent evento) {
+        quitar(evento.getFuncionId());
+    }
+
+    public int totalFunciones(String sala) {
+        Sala actual = salas.get(sala);
+        if (actual == null) {
+            return 0;
+        }
+        synchronized (actual) {
+            return actual.arbol.tamanio();
+        }
+    }
+
+    private Sala obtenerSala(String nombre) {
+        return salas.computeIfAbsent(nombre, this::cargarSala);
+    }
+
+    private Sala cargarSala(String nombre) {
+        Sala sala = new Sala();
+        int cruzadas = 0;
+
+        for (Funcion funcion : funcionRepository.findBySalaAndEstado(nombre, EstadoFuncion.EN_CARTELERA)) {
+            long inicio = minutos(funcion.getFechaHora());
+            if (sala.arbol.buscarSolape(inicio, inicio + duracion(funcion)) != null) {
+                cruzadas++;   // Datos anteriores a esta validación: se conservan igual
+            }
+            sala.agregar(funcion.getId(), inicio, inicio + duracion(funcion), funcion.getPelicula());
+            salaPorFuncion.put(funcion.getId(), nombre);
+        }
+
+        if (cruzadas > 0) {
+            log.warn("La {} tiene {} funciones que se cruzan con otras", nombre, cruzadas);
+        }
+        log.debug("Horarios de {} cargados: {} funciones", nombre, sala.arbol.tamanio());
+        return sala;
+    }
+
+    private int duracion(Funcion funcion) {
+        return funcion.getDuracionMinutos() != null ? funcion.getDuracionMinutos() : duracionPredeterminada;
+    }
+
+    private static long minutos(LocalDateTime fechaHora) {
+        return fechaHora.toEpochSecond(ZoneOffset.UTC) / 60;
+    }
+
+    private static ConflictoHorario conflicto(int indice, Funcion propuesta, String motivo) {
+        return new ConflictoHorario(indice, propuesta.getSala(), propuesta.getFechaHora(), propuesta.getPelicula(), motivo);
+    }
+
+    /**
+     * Árbol de la sala y los datos para describir cada función en los mensajes
+     */
+    private static class Sala {
+        private final ArbolIntervalos arbol = new ArbolIntervalos();
+        private final Map<Long, Horario> horarios = new HashMap<>();
+
+        private void agregar(Long funcionId, long inicio, long fin, String pelicula) {
+            if (arbol.insertar(inicio, fin, funcionId)) {
+                horarios.put(funcionId, new Horario(inicio, fin, pelicula));
+            }
+        }
+
+        private void quitar(Long funcionId) {
+            Horario horario = horarios.remove(funcionId);
+            if (horario != null) {
+                arbol.eliminar(horario.inicio, funcionId);
+            }
+        }
+
+        private String describir(Long funcionId) {
+            Horario horario = horarios.get(funcionId);
+            return "función " + funcionId + " (" + horario.pelicula + ", "
+                    + FORMATO_HORA.format(LocalDateTime.ofEpochSecond(horario.inicio * 60, 0, ZoneOffset.UTC)) + " - "
+                    + FORMATO_HORA.format(LocalDateTime.ofEpochSecond(horario.fin * 60, 0, ZoneOffset.UTC)) + ")";
+        }
+    }
+
+    private static class Horario {
+        private final long inicio;
+        private final long fin;
+        private final String pelicula;
+
+        private Horario(long inicio, long fin, String pelicula) {
+            this.inicio = inicio;
+            this.fin = fin;
+            this.pelicula = pelicula;
+        }
+    }
+}
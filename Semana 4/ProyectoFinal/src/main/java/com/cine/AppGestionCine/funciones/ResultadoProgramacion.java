@@ -0,0 +1,27 @@
+package com.cine.AppGestionCine.funciones;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Resultado de importar una programación, con el tiempo de cada etapa
+ *
+ * Si hay conflictos de horario no se crea nada. funcionesSinAsientos son las
+ * que se crearon pero cuyo bloque de asientos falló (se pueden generar con
+ * POST /api/asientos/generar).
+ */
+@Data
+public class ResultadoProgramacion {
+    private int funcionesCreadas;
+    private long asientosCreados;
+    private List<Long> funcionIds = new ArrayList<>();
+    private List<ConflictoHorario> conflictos = new ArrayList<>();
+    private List<Long> funcionesSinAsientos = new ArrayList<>();
+
+    private long msValidacion;
+    private long msFunciones;
+    private long msAsientos;
+    private long msTotal;
+}
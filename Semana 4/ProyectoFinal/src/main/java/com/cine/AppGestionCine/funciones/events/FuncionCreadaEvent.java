@@ -0,0 +1,16 @@
+package com.cine.AppGestionCine.funciones.events;
+
+import lombok.Data;
+import lombok.AllArgsConstructor;
+
+/**
+ * Evento que se dispara cuando se crea una función
+ * La cartelera en caché debe volver a cargarse
+ */
+@Data
+@AllArgsConstructor
+public class FuncionCreadaEvent {
+    private final Long funcionId;
+    private final String pelicula;
+    private final String sala;
+}
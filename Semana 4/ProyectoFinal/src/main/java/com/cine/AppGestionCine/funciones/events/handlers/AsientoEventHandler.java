@@ -1,37 +1,39 @@
 package com.cine.AppGestionCine.funciones.events.handlers;
 
-import com.cine.AppGestionCine.funciones.FuncionService;
+import com.cine.AppGestionCine.funciones.ContadoresAsientos;
 import com.cine.AppGestionCine.asientos.events.AsientoReservadoEvent;
 import com.cine.AppGestionCine.asientos.events.AsientoCanceladoEvent;
+import com.cine.AppGestionCine.asientos.events.AsientosReservadosEvent;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
 
 /**
  * Handler que escucha eventos del módulo de asientos
  * Este handler vive en el módulo de funciones pero reacciona a eventos de asientos
+ *
+ * Solo suma a los contadores en memoria y después del commit de la reserva,
+ * para no contar reservas que hicieron rollback
  */
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class AsientoEventHandler {
 
-    private final FuncionService funcionService;
+    private final ContadoresAsientos contadoresAsientos;
 
     /**
      * Cuando se reserva un asiento, decrementar asientos disponibles
      */
-    @EventListener
-    @Transactional
+    @TransactionalEventListener(fallbackExecution = true)
     public void manejarAsientoReservado(AsientoReservadoEvent evento) {
         log.info("🎫 EVENTO RECIBIDO: AsientoReservadoEvent - Asiento {} reservado por {}",
                 evento.getNumeroAsiento(), evento.getClienteEmail());
 
         try {
             // Decrementar asientos disponibles (-1)
-            funcionService.actualizarAsientosDisponibles(evento.getFuncionId(), -1);
+            contadoresAsientos.sumar(evento.getFuncionId(), -1);
 
             log.info("✅ Asientos disponibles decrementados para función {} debido a reserva de {}",
                     evento.getFuncionId(), evento.getNumeroAsiento());
@@ -43,18 +45,39 @@ public class AsientoEventHandler {
         }
     }
 
+    /**
+     * Cuando se reserva un lote de asientos, decrementar la cantidad completa de una vez
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void manejarAsientosReservados(AsientosReservadosEvent evento) {
+        log.info("🎫 EVENTO RECIBIDO: AsientosReservadosEvent - {} asientos reservados por {}",
+                evento.getCantidad(), evento.getClienteEmail());
+
+        try {
+            // Decrementar asientos disponibles (-N)
+            contadoresAsientos.sumar(evento.getFuncionId(), -evento.getCantidad());
+
+            log.info("✅ Asientos disponibles decrementados en {} para función {}",
+                    evento.getCantidad(), evento.getFuncionId());
+
+        } catch (Exception e) {
+            log.error("❌ Error al actualizar asientos disponibles para función {}: {}",
+                    evento.getFuncionId(), e.getMessage(), e);
+            throw e;
+        }
+    }
+
     /**
      * Cuando se cancela una reserva de asiento, incrementar asientos disponibles
      */
-    @EventListener
-    @Transactional
+    @TransactionalEventListener(fallbackExecution = true)
     public void manejarAsientoCancelado(AsientoCanceladoEvent evento) {
         log.info("🎫 EVENTO RECIBIDO: AsientoCanceladoEvent - Asiento {} cancelado por {}",
                 evento.getNumeroAsiento(), evento.getClienteEmail());
 
         try {
             // Incrementar asientos disponibles (+1)
-            funcionService.actualizarAsientosDisponibles(evento.getFuncionId(), 1);
+            contadoresAsientos.sumar(evento.getFuncionId(), 1);
 
             log.info("✅ Asientos disponibles incrementados para función {} debido a cancelación de {}",
                     evento.getFuncionId(), evento.getNumeroAsiento());
@@ -1,5 +1,6 @@
 package com.cine.AppGestionCine.historial;
 
+import com.cine.AppGestionCine.compartido.Paginador;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.format.annotation.DateTimeFormat;
@@ -8,6 +9,8 @@ import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Set;
+import java.util.function.BiFunction;
 
 /**
  * Controller para consultar historial de operaciones
@@ -22,74 +25,86 @@ import java.util.List;
 @CrossOrigin(origins = "*")
 public class HistorialController {
 
+    private static final Set<String> CAMPOS_HISTORIAL = Paginador.nombres(
+            "id", "tipoOperacion", "timestamp", "funcionId", "asientoId", "clienteEmail", "datosAdicionales", "descripcion");
+
     private final HistorialService historialService;
+    private final Paginador paginador;
 
     // ════════════════════════════════════════════════════════
     // ENDPOINTS DE CONSULTA
     // ════════════════════════════════════════════════════════
 
     /**
-     * Obtener historial completo de una función
-     * GET /api/historial/funcion/{funcionId}
+     * Obtener historial completo de una función, por páginas
+     * GET /api/historial/funcion/{funcionId}?cursor=&limite=&fields=
      */
     @GetMapping("/funcion/{funcionId}")
-    public ResponseEntity<List<HistorialReserva>> getHistorialPorFuncion(
-            @PathVariable Long funcionId) {
+    public ResponseEntity<?> getHistorialPorFuncion(
+            @PathVariable Long funcionId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limite,
+            @RequestParam(required = false) String fields) {
 
         log.info("📊 Consultando historial de función {}", funcionId);
 
-        List<HistorialReserva> historial = historialService.getHistorialPorFuncion(funcionId);
-
-        return ResponseEntity.ok(historial);
+        return pagina(limite, fields, (tamanio, tipo) ->
+                historialService.getHistorialPorFuncion(funcionId, cursor, tamanio, tipo));
     }
 
     /**
-     * Obtener historial de un cliente específico
-     * GET /api/historial/cliente/{email}
+     * Obtener historial de un cliente específico, por páginas
+     * GET /api/historial/cliente/{email}?cursor=&limite=&fields=
      */
     @GetMapping("/cliente/{email}")
-    public ResponseEntity<List<HistorialReserva>> getHistorialPorCliente(
-            @PathVariable String email) {
+    public ResponseEntity<?> getHistorialPorCliente(
+            @PathVariable String email,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limite,
+            @RequestParam(required = false) String fields) {
 
         log.info("📊 Consultando historial de cliente {}", email);
 
-        List<HistorialReserva> historial = historialService.getHistorialPorCliente(email);
-
-        return ResponseEntity.ok(historial);
+        return pagina(limite, fields, (tamanio, tipo) ->
+                historialService.getHistorialPorCliente(email, cursor, tamanio, tipo));
     }
 
     /**
-     * Obtener operaciones por tipo
-     * GET /api/historial/tipo/{tipo}
+     * Obtener operaciones por tipo, por páginas
+     * GET /api/historial/tipo/{tipo}?cursor=&limite=&fields=
      *
      * Valores válidos: FUNCION_CREADA, FUNCION_CANCELADA,
      *                  ASIENTO_RESERVADO, ASIENTO_CANCELADO
      */
     @GetMapping("/tipo/{tipo}")
-    public ResponseEntity<List<HistorialReserva>> getHistorialPorTipo(
-            @PathVariable TipoOperacion tipo) {
+    public ResponseEntity<?> getHistorialPorTipo(
+            @PathVariable TipoOperacion tipo,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limite,
+            @RequestParam(required = false) String fields) {
 
         log.info("📊 Consultando historial por tipo: {}", tipo);
 
-        List<HistorialReserva> historial = historialService.getHistorialPorTipo(tipo);
-
-        return ResponseEntity.ok(historial);
+        return pagina(limite, fields, (tamanio, tipoResultado) ->
+                historialService.getHistorialPorTipo(tipo, cursor, tamanio, tipoResultado));
     }
 
     /**
-     * Obtener historial en un rango de fechas
-     * GET /api/historial/fechas?inicio=2025-09-27T00:00:00&fin=2025-09-27T23:59:59
+     * Obtener historial en un rango de fechas, por páginas
+     * GET /api/historial/fechas?inicio=2025-09-27T00:00:00&fin=2025-09-27T23:59:59&cursor=&limite=&fields=
      */
     @GetMapping("/fechas")
-    public ResponseEntity<List<HistorialReserva>> getHistorialPorFechas(
+    public ResponseEntity<?> getHistorialPorFechas(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime inicio,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fin) {
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fin,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limite,
+            @RequestParam(required = false) String fields) {
 
         log.info("📊 Consultando historial entre {} y {}", inicio, fin);
 
-        List<HistorialReserva> historial = historialService.getHistorialPorFechas(inicio, fin);
-
-        return ResponseEntity.ok(historial);
+        return pagina(limite, fields, (tamanio, tipo) ->
+                historialService.getHistorialPorFechas(inicio, fin, cursor, tamanio, tipo));
     }
 
     /**
@@ -131,6 +146,30 @@ public class HistorialController {
         return ResponseEntity.ok(new ContadorResponse(tipo, count));
     }
 
+    // ════════════════════════════════════════════════════════
+    // PAGINACIÓN
+    // ════════════════════════════════════════════════════════
+
+    /**
+     * Página por cursor: la consulta recibe limite + 1 y la clase a leer
+     * (HistorialResumen si los campos pedidos caben en ella). El siguiente
+     * cursor va en la cabecera X-Cursor-Siguiente
+     */
+    private ResponseEntity<?> pagina(Integer limite, String fields,
+                                     BiFunction<Integer, Class<?>, List<?>> consulta) {
+        try {
+            Set<String> campos = paginador.campos(fields, CAMPOS_HISTORIAL);
+            int tamanio = paginador.limite(limite);
+            Class<?> tipo = paginador.cabeEn(campos, HistorialResumen.CAMPOS) ? HistorialResumen.class : HistorialReserva.class;
+
+            return paginador.responder(consulta.apply(tamanio + 1, tipo), tamanio, campos);
+
+        } catch (Exception e) {
+            log.error("Error al consultar historial: {}", e.getMessage());
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
+    }
+
     // ════════════════════════════════════════════════════════
     // DTO para respuesta de contador
     // ════════════════════════════════════════════════════════
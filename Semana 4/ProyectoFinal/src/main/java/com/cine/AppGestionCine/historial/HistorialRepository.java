@@ -1,6 +1,6 @@
 package com.cine.AppGestionCine.historial;
 
-
+import org.springframework.data.domain.Limit;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
@@ -39,6 +39,22 @@ public interface HistorialRepository extends MongoRepository<HistorialReserva, S
             TipoOperacion tipo
     );
 
+    // Páginas por cursor sobre _id (ObjectId crece con el tiempo de inserción);
+    // tipo es HistorialReserva o la proyección HistorialResumen
+    <T> List<T> findByFuncionIdAndIdGreaterThanOrderByIdAsc(Long funcionId, String id, Limit limite, Class<T> tipo);
+
+    <T> List<T> findByClienteEmailAndIdGreaterThanOrderByIdAsc(String clienteEmail, String id, Limit limite, Class<T> tipo);
+
+    <T> List<T> findByTipoOperacionAndIdGreaterThanOrderByIdAsc(TipoOperacion tipoOperacion, String id, Limit limite, Class<T> tipo);
+
+    <T> List<T> findByTimestampBetweenAndIdGreaterThanOrderByIdAsc(
+            LocalDateTime inicio,
+            LocalDateTime fin,
+            String id,
+            Limit limite,
+            Class<T> tipo
+    );
+
     // Obtener últimos N registros ordenados por fecha
     List<HistorialReserva> findTop10ByOrderByTimestampDesc();
 }
\ No newline at end of file
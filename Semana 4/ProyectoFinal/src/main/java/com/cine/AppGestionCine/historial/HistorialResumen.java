@@ -0,0 +1,27 @@
+package com.cine.AppGestionCine.historial;
+
+import com.cine.AppGestionCine.compartido.Paginador;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+/**
+ * Proyección de HistorialReserva para listas con ?fields=: MongoDB solo
+ * devuelve estos campos (sin datosAdicionales ni descripcion)
+ */
+public interface HistorialResumen {
+
+    Set<String> CAMPOS = Paginador.nombres("id", "tipoOperacion", "timestamp", "funcionId", "asientoId", "clienteEmail");
+
+    String getId();
+
+    TipoOperacion getTipoOperacion();
+
+    LocalDateTime getTimestamp();
+
+    Long getFuncionId();
+
+    Long getAsientoId();
+
+    String getClienteEmail();
+}
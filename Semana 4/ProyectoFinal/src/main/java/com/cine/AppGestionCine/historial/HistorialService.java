@@ -2,10 +2,13 @@ package com.cine.AppGestionCine.historial;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
 @Service
@@ -13,6 +16,8 @@ import java.util.List;
 @Slf4j
 public class HistorialService {
 
+    private static final String CURSOR_INICIAL = "000000000000000000000000";
+
     private final HistorialRepository historialRepository;
 
     // ════════════════════════════════════════════════════════
@@ -44,6 +49,30 @@ public class HistorialService {
         return guardado;
     }
 
+    /**
+     * Registrar un lote de reservas con un solo saveAll
+     */
+    public List<HistorialReserva> registrarReservas(
+            Long funcionId,
+            List<Long> asientoIds,
+            List<String> numerosAsiento,
+            String clienteEmail) {
+
+        log.info("Registrando {} reservas de {}", asientoIds.size(), clienteEmail);
+
+        List<HistorialReserva> historiales = new ArrayList<>(asientoIds.size());
+        for (int i = 0; i < asientoIds.size(); i++) {
+            historiales.add(HistorialReserva.deReserva(
+                    funcionId,
+                    asientoIds.get(i),
+                    numerosAsiento.get(i),
+                    clienteEmail
+            ));
+        }
+
+        return historialRepository.saveAll(historiales);
+    }
+
     /**
      * Registrar cancelación de reserva
      */
@@ -110,38 +139,56 @@ public class HistorialService {
     // ════════════════════════════════════════════════════════
 
     /**
-     * Obtener historial completo de una función
+     * Historial de una función, página por cursor (tipo: HistorialReserva o HistorialResumen)
      */
-    public List<HistorialReserva> getHistorialPorFuncion(Long funcionId) {
+    public <T> List<T> getHistorialPorFuncion(Long funcionId, String cursor, int limite, Class<T> tipo) {
         log.info("Consultando historial de función {}", funcionId);
-        return historialRepository.findByFuncionId(funcionId);
+        return historialRepository.findByFuncionIdAndIdGreaterThanOrderByIdAsc(
+                funcionId, desde(cursor), Limit.of(limite), tipo);
     }
 
     /**
-     * Obtener historial de un cliente específico
+     * Historial de un cliente específico, página por cursor
      */
-    public List<HistorialReserva> getHistorialPorCliente(String clienteEmail) {
+    public <T> List<T> getHistorialPorCliente(String clienteEmail, String cursor, int limite, Class<T> tipo) {
         log.info("Consultando historial de cliente {}", clienteEmail);
-        return historialRepository.findByClienteEmail(clienteEmail);
+        return historialRepository.findByClienteEmailAndIdGreaterThanOrderByIdAsc(
+                clienteEmail, desde(cursor), Limit.of(limite), tipo);
     }
 
     /**
-     * Obtener operaciones por tipo
+     * Operaciones por tipo, página por cursor
      */
-    public List<HistorialReserva> getHistorialPorTipo(TipoOperacion tipo) {
+    public <T> List<T> getHistorialPorTipo(TipoOperacion tipo, String cursor, int limite, Class<T> tipoResultado) {
         log.info("Consultando historial por tipo: {}", tipo);
-        return historialRepository.findByTipoOperacion(tipo);
+        return historialRepository.findByTipoOperacionAndIdGreaterThanOrderByIdAsc(
+                tipo, desde(cursor), Limit.of(limite), tipoResultado);
     }
 
     /**
-     * Obtener historial en un rango de fechas
+     * Historial en un rango de fechas, página por cursor
      */
-    public List<HistorialReserva> getHistorialPorFechas(
+    public <T> List<T> getHistorialPorFechas(
             LocalDateTime inicio,
-            LocalDateTime fin) {
+            LocalDateTime fin,
+            String cursor,
+            int limite,
+            Class<T> tipo) {
 
         log.info("Consultando historial entre {} y {}", inicio, fin);
-        return historialRepository.findByTimestampBetween(inicio, fin);
+        return historialRepository.findByTimestampBetweenAndIdGreaterThanOrderByIdAsc(
+                inicio, fin, desde(cursor), Limit.of(limite), tipo);
+    }
+
+    // Sin cursor se empieza antes del primer ObjectId posible
+    private static String desde(String cursor) {
+        if (cursor == null) {
+            return CURSOR_INICIAL;
+        }
+        if (!ObjectId.isValid(cursor)) {
+            throw new RuntimeException("Cursor inválido: " + cursor);
+        }
+        return cursor;
     }
 
     /**
@@ -2,7 +2,8 @@ package com.cine.AppGestionCine.historial.events.handlers;
 
 import com.cine.AppGestionCine.asientos.events.AsientoReservadoEvent;
 import com.cine.AppGestionCine.asientos.events.AsientoCanceladoEvent;
-import com.cine.AppGestionCine.funciones.events.FuncionCanceladaEvent;
+import com.cine.AppGestionCine.asientos.events.AsientosCanceladosPorFuncionEvent;
+import com.cine.AppGestionCine.asientos.events.AsientosReservadosEvent;
 import com.cine.AppGestionCine.historial.HistorialService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -46,6 +47,29 @@ public class ReservaEventHandler {
         }
     }
 
+    /**
+     * Cuando se reserva un lote de asientos, registrar una entrada por asiento
+     */
+    @EventListener
+    public void manejarAsientosReservados(AsientosReservadosEvent evento) {
+        log.info("EVENTO RECIBIDO en Historial: AsientosReservadosEvent - {} asientos por {}",
+                evento.getCantidad(), evento.getClienteEmail());
+
+        try {
+            historialService.registrarReservas(
+                    evento.getFuncionId(),
+                    evento.getAsientoIds(),
+                    evento.getNumerosAsiento(),
+                    evento.getClienteEmail()
+            );
+
+            log.info("Lote de reservas registrado en historial MongoDB");
+
+        } catch (Exception e) {
+            log.error("Error al registrar lote en historial (no crítico): {}", e.getMessage());
+        }
+    }
+
     /**
      * Cuando se cancela una reserva, registrarlo en historial
      */
@@ -71,25 +95,24 @@ public class ReservaEventHandler {
     }
 
     // ════════════════════════════════════════════════════════
-    // ESCUCHAR EVENTOS DE FUNCIONES
+    // ESCUCHAR CANCELACIÓN DE FUNCIONES
     // ════════════════════════════════════════════════════════
 
     /**
      * Cuando se cancela una función, registrarlo en historial
+     * (lo publica asientos después de cancelar los asientos, con la cantidad real)
      */
     @EventListener
-    public void manejarFuncionCancelada(FuncionCanceladaEvent evento) {
-        log.info("📢 EVENTO RECIBIDO en Historial: FuncionCanceladaEvent - Función {} ({})",
-                evento.getFuncionId(), evento.getPelicula());
+    public void manejarFuncionCancelada(AsientosCanceladosPorFuncionEvent evento) {
+        log.info("📢 EVENTO RECIBIDO en Historial: AsientosCanceladosPorFuncionEvent - Función {} ({}), {} asientos",
+                evento.getFuncionId(), evento.getPelicula(), evento.getAsientosCancelados());
 
         try {
             // Registrar en MongoDB
-            // Nota: No sabemos cuántos asientos se cancelaron aquí
-            // Podrías consultar el repository si necesitas ese dato
             historialService.registrarFuncionCancelada(
                     evento.getFuncionId(),
                     evento.getPelicula(),
-                    0  // Puedes mejorar esto consultando cuántos asientos tenía
+                    evento.getAsientosCancelados()
             );
 
             log.info("Cancelación de función registrada en historial MongoDB");
@@ -0,0 +1,205 @@
+package com.cine.AppGestionCine;
+
+import com.cine.AppGestionCine.clientes.CacheClientes;
+import com.cine.AppGestionCine.clientes.Cliente;
+import com.cine.AppGestionCine.clientes.ClienteRepository;
+import com.cine.AppGestionCine.clientes.ClienteService;
+import com.cine.AppGestionCine.clientes.FiltroEmails;
+import com.cine.AppGestionCine.clientes.IndiceClientes;
+import com.cine.AppGestionCine.clientes.dto.ActualizarClienteRequest;
+import com.cine.AppGestionCine.clientes.dto.CrearClienteRequest;
+import com.cine.AppGestionCine.compartido.CacheConsultas;
+import com.cine.AppGestionCine.funciones.EstadoFuncion;
+import com.cine.AppGestionCine.funciones.Funcion;
+import com.cine.AppGestionCine.funciones.FuncionJdbcRepository;
+import com.cine.AppGestionCine.funciones.FuncionRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Caché de segundo nivel contra H2: SELECTs por reserva al validar el cliente,
+ * natural-id de email, caché de consultas de findByEstado y región de funciones
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.cine.AppGestionCine.CacheSegundoNivelTest$ContadorSelects",
+        "spring.jpa.show-sql=false"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CacheSegundoNivelTest {
+
+    private static final int RESERVAS = 1000;
+
+    @Configuration
+    @EntityScan(basePackageClasses = {Cliente.class, Funcion.class})
+    @EnableJpaRepositories(basePackageClasses = {ClienteRepository.class, FuncionRepository.class})
+    @Import({ClienteService.class, CacheClientes.class, FiltroEmails.class, IndiceClientes.class,
+            FuncionJdbcRepository.class, CacheConsultas.class})
+    static class Config {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    /**
+     * Cuenta los SELECT que Hibernate manda a la BD (Hibernate lo instancia por nombre de clase)
+     */
+    public static class ContadorSelects implements StatementInspector {
+        static final AtomicInteger SELECTS = new AtomicInteger();
+
+        @Override
+        public String inspect(String sql) {
+            if (sql.stripLeading().toLowerCase().startsWith("select")) {
+                SELECTS.incrementAndGet();
+            }
+            return sql;
+        }
+    }
+
+    @Autowired
+    private ClienteService clienteService;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private FuncionRepository funcionRepository;
+
+    @Autowired
+    private FuncionJdbcRepository funcionJdbcRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        // Borrado masivo: además vacía las regiones de ambas entidades
+        clienteRepository.deleteAllInBatch();
+        funcionRepository.deleteAllInBatch();
+    }
+
+    private Cliente crearCliente(String email) {
+        CrearClienteRequest request = new CrearClienteRequest();
+        request.setNombre("Juan");
+        request.setApellido("Pérez");
+        request.setEmail(email);
+        request.setTelefono("5512345678");
+        return clienteService.crearCliente(request);
+    }
+
+    private int selectsDurante(Runnable accion) {
+        int antes = ContadorSelects.SELECTS.get();
+        accion.run();
+        return ContadorSelects.SELECTS.get() - antes;
+    }
+
+    @Test
+    @DisplayName("Validar el cliente en cada reserva no debe ir a la BD con la caché caliente")
+    void cuandoValidarClienteEnCadaReserva_debeHacerUnSoloSelect() {
+        crearCliente("juan@example.com");
+
+        // Cada reserva es su propia transacción (una sesión nueva): solo la L2 evita el SELECT
+        int conCache = selectsDurante(() -> {
+            for (int i = 0; i < RESERVAS; i++) {
+                assertTrue(clienteService.getClienteByEmail("juan@example.com").isPresent());
+            }
+        });
+
+        // La consulta derivada de antes: nunca pasa por la caché de entidades
+        int sinCache = selectsDurante(() -> {
+            for (int i = 0; i < RESERVAS; i++) {
+                transactionTemplate.executeWithoutResult(status ->
+                        assertTrue(clienteRepository.findByEmail("juan@example.com").isPresent()));
+            }
+        });
+
+        assertTrue(conCache <= 1, "Con caché solo la primera reserva va a la BD: " + conCache);
+        assertEquals(RESERVAS, sinCache);
+    }
+
+    @Test
+    @DisplayName("Al cambiar el email, la caché de natural-id debe seguir al cliente")
+    void cuandoCambiarEmail_debeResolverElNuevoYNoElViejo() {
+        Cliente cliente = crearCliente("viejo@example.com");
+        assertTrue(clienteService.getClienteByEmail("viejo@example.com").isPresent());
+
+        ActualizarClienteRequest request = new ActualizarClienteRequest();
+        request.setEmail("nuevo@example.com");
+        clienteService.actualizarCliente(cliente.getId(), request);
+
+        assertTrue(clienteService.getClienteByEmail("viejo@example.com").isEmpty());
+        assertEquals(cliente.getId(), clienteService.getClienteByEmail("nuevo@example.com").orElseThrow().getId());
+    }
+
+    @Test
+    @DisplayName("findByEstado debe salir de la caché de consultas hasta que cambie un cliente")
+    void cuandoRepetirFindByEstado_debeUsarCacheDeConsultas() {
+        crearCliente("juan@example.com");
+        crearCliente("ana@example.com");
+
+        int primera = selectsDurante(() -> assertEquals(2, clienteService.getClientesActivos().size()));
+        int repetida = selectsDurante(() -> assertEquals(2, clienteService.getClientesActivos().size()));
+        assertEquals(1, primera);
+        assertEquals(0, repetida);
+
+        // Un INSERT en clientes invalida el resultado guardado
+        crearCliente("luis@example.com");
+        assertEquals(3, clienteService.getClientesActivos().size());
+    }
+
+    @Test
+    @DisplayName("Una función en caché no debe quedar vieja después del volcado de contadores")
+    void cuandoVolcarContador_debeReleerLaFuncion() {
+        Funcion funcion = funcionRepository.save(new Funcion("Dune", LocalDateTime.of(2030, 10, 7, 20, 0), "Sala 1", 100, 95.0));
+
+        int lecturas = selectsDurante(() -> {
+            for (int i = 0; i < 10; i++) {
+                assertEquals(100, funcionRepository.findById(funcion.getId()).orElseThrow().getAsientosDisponibles());
+            }
+        });
+        assertTrue(lecturas <= 1, "Solo la primera lectura va a la BD: " + lecturas);
+
+        // Mismo UPDATE masivo que ContadoresAsientos.volcar
+        transactionTemplate.executeWithoutResult(status -> funcionRepository.sumarAsientosDisponibles(funcion.getId(), -3));
+
+        assertEquals(97, funcionRepository.findById(funcion.getId()).orElseThrow().getAsientosDisponibles());
+    }
+
+    @Test
+    @DisplayName("Las funciones insertadas por JDBC deben aparecer en findByEstado aunque estuviera en caché")
+    void cuandoInsertarFuncionesPorJdbc_debeInvalidarLaCacheDeConsultas() {
+        funcionRepository.save(new Funcion("Dune", LocalDateTime.of(2030, 10, 7, 20, 0), "Sala 1", 100, 95.0));
+        assertEquals(1, funcionRepository.findByEstado(EstadoFuncion.EN_CARTELERA).size());
+
+        // Hibernate no ve este INSERT: sin invalidar, la consulta seguiría saliendo de la caché
+        transactionTemplate.executeWithoutResult(status -> funcionJdbcRepository.insertarLote(List.of(
+                new Funcion("Alien", LocalDateTime.of(2030, 10, 7, 23, 0), "Sala 1", 100, 95.0))));
+
+        assertEquals(2, funcionRepository.findByEstado(EstadoFuncion.EN_CARTELERA).size());
+    }
+}
@@ -0,0 +1,281 @@
+package com.cine.AppGestionCine;
+
+import com.cine.AppGestionCine.asientos.Asiento;
+import com.cine.AppGestionCine.asientos.AsientoJdbcRepository;
+import com.cine.AppGestionCine.asientos.AsientoRepository;
+import com.cine.AppGestionCine.asientos.AsientoResumen;
+import com.cine.AppGestionCine.asientos.EstadoAsiento;
+import com.cine.AppGestionCine.clientes.Cliente;
+import com.cine.AppGestionCine.clientes.ClienteRepository;
+import com.cine.AppGestionCine.clientes.ClienteResumen;
+import com.cine.AppGestionCine.clientes.EstadoCliente;
+import com.cine.AppGestionCine.compartido.CacheConsultas;
+import com.cine.AppGestionCine.funciones.EstadoFuncion;
+import com.cine.AppGestionCine.funciones.Funcion;
+import com.cine.AppGestionCine.funciones.FuncionJdbcRepository;
+import com.cine.AppGestionCine.funciones.FuncionRepository;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.reflect.Method;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Regresión de planes de consulta: cada método de AsientoRepository,
+ * FuncionRepository y ClienteRepository se ejecuta contra H2 en modo MySQL,
+ * se captura el SQL que genera Hibernate y se le hace EXPLAIN. Falla si alguno
+ * recorre la tabla completa (tableScan) sin estar en la lista de excepciones,
+ * o si un repositorio tiene un método nuevo que este test no revisa.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:planes;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.cine.AppGestionCine.PlanesConsultaTest$CapturaSql",
+        "spring.jpa.show-sql=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class PlanesConsultaTest {
+
+    private static final LocalDateTime LUNES = LocalDateTime.of(2025, 10, 6, 0, 0);
+
+    // Consultas que por diseño leen todo; cualquier otra con tableScan es una regresión
+    private static final Map<String, String> RECORRIDOS_PERMITIDOS = Map.of(
+            "findByPeliculaContainingIgnoreCase", "LIKE '%x%' no usa índices; la búsqueda va por IndicePeliculas",
+            "findByNombreContainingIgnoreCaseOrApellidoContainingIgnoreCase", "LIKE '%x%' no usa índices; la búsqueda va por IndiceClientes"
+    );
+
+    // H2 anota cada tabla del plan con /* PUBLIC.INDICE: condición */ o /* PUBLIC.TABLA.tableScan */
+    private static final Pattern ACCESO = Pattern.compile("/\\* PUBLIC\\.([\\w.]+)");
+
+    @Configuration
+    @EntityScan(basePackageClasses = {Asiento.class, Funcion.class, Cliente.class})
+    @EnableJpaRepositories(basePackageClasses = {AsientoRepository.class, FuncionRepository.class, ClienteRepository.class})
+    @Import({AsientoJdbcRepository.class, FuncionJdbcRepository.class, CacheConsultas.class})
+    static class Config {
+    }
+
+    /**
+     * Guarda cada SQL que Hibernate prepara (Hibernate lo instancia por nombre de clase)
+     */
+    public static class CapturaSql implements StatementInspector {
+        static final List<String> SENTENCIAS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            SENTENCIAS.add(sql);
+            return sql;
+        }
+    }
+
+    @Autowired
+    private AsientoRepository asientoRepository;
+
+    @Autowired
+    private FuncionRepository funcionRepository;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private AsientoJdbcRepository asientoJdbcRepository;
+
+    @Autowired
+    private FuncionJdbcRepository funcionJdbcRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    // método -> planes de sus sentencias
+    private final Map<String, List<String>> planes = new TreeMap<>();
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        asientoRepository.deleteAllInBatch();
+        funcionRepository.deleteAllInBatch();
+        clienteRepository.deleteAllInBatch();
+
+        // Datos suficientes para que el optimizador prefiera los índices a recorrer la tabla
+        List<Funcion> funciones = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            funciones.add(new Funcion("Pelicula " + i, LUNES.plusHours(i * 3L), "Sala " + (i % 12 + 1), 100, 95.0, 120));
+        }
+        funcionJdbcRepository.insertarLote(funciones);
+
+        List<Asiento> asientos = new ArrayList<>();
+        for (int f = 0; f < 50; f++) {
+            for (int i = 0; i < 100; i++) {
+                asientos.add(new Asiento(funciones.get(f).getId(), (char) ('A' + i / 10) + String.valueOf(i % 10 + 1), i / 10 + 1, i % 10 + 1));
+            }
+        }
+        asientoJdbcRepository.insertarLote(asientos);
+
+        for (int i = 0; i < 300; i++) {
+            Cliente cliente = new Cliente();
+            cliente.setNombre("Nombre" + i);
+            cliente.setApellido("Apellido" + i);
+            cliente.setEmail("cliente" + i + "@example.com");
+            cliente.setTelefono("555000" + i);
+            cliente.setEstado(i % 10 == 0 ? EstadoCliente.INACTIVO : EstadoCliente.ACTIVO);
+            clienteRepository.save(cliente);
+        }
+
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    /**
+     * Ejecutar la llamada (en una transacción, por los @Modifying) y hacer EXPLAIN de cada SQL que generó
+     */
+    private void explicar(String metodo, Runnable llamada) {
+        CapturaSql.SENTENCIAS.clear();
+        transactionTemplate.executeWithoutResult(status -> {
+            llamada.run();
+            status.setRollbackOnly();
+        });
+
+        List<String> sentencias = List.copyOf(CapturaSql.SENTENCIAS);
+        assertFalse(sentencias.isEmpty(), metodo + " no generó SQL");
+
+        List<String> planesMetodo = new ArrayList<>();
+        for (String sql : sentencias) {
+            planesMetodo.add(String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class)));
+        }
+        planes.put(metodo, planesMetodo);
+    }
+
+    /**
+     * Todos los métodos declarados en el repositorio deben haberse explicado y ninguno recorrer la tabla
+     */
+    private void verificar(Class<?> repositorio) {
+        Set<String> declarados = Arrays.stream(repositorio.getDeclaredMethods())
+                .filter(metodo -> !metodo.isSynthetic() && !metodo.isDefault())
+                .map(Method::getName)
+                .collect(Collectors.toCollection(TreeSet::new));
+
+        Set<String> sinRevisar = new TreeSet<>(declarados);
+        sinRevisar.removeAll(planes.keySet());
+        assertTrue(sinRevisar.isEmpty(), repositorio.getSimpleName() + " tiene métodos sin plan revisado: " + sinRevisar);
+
+        List<String> recorridos = new ArrayList<>();
+        for (String metodo : declarados) {
+            for (String plan : planes.get(metodo)) {
+                if (plan.contains(".tableScan") && !RECORRIDOS_PERMITIDOS.containsKey(metodo)) {
+                    recorridos.add(repositorio.getSimpleName() + "." + metodo + " " + accesos(plan) + ":\n" + plan);
+                }
+            }
+        }
+        assertTrue(recorridos.isEmpty(), "Consultas que recorren la tabla completa:\n" + String.join("\n\n", recorridos));
+    }
+
+    // Índices o recorridos que aparecen en el plan, ej. [IDX_ASIENTOS_FUNCION_ESTADO]
+    private static List<String> accesos(String plan) {
+        List<String> accesos = new ArrayList<>();
+        Matcher matcher = ACCESO.matcher(plan);
+        while (matcher.find()) {
+            accesos.add(matcher.group(1));
+        }
+        return accesos;
+    }
+
+    @Test
+    @DisplayName("Ninguna consulta de AsientoRepository debe recorrer la tabla de asientos")
+    void asientoRepository_debeUsarIndices() {
+        String email = "cliente1@example.com";
+
+        explicar("findByFuncionId", () -> asientoRepository.findByFuncionId(7L));
+        explicar("findByFuncionIdAndIdGreaterThanOrderByIdAsc", () -> asientoRepository
+                .findByFuncionIdAndIdGreaterThanOrderByIdAsc(7L, 0L, Limit.of(100), AsientoResumen.class));
+        explicar("findFuncionIdsConAsientos", () -> asientoRepository.findFuncionIdsConAsientos());
+        explicar("findByFuncionIdAndEstado", () -> asientoRepository.findByFuncionIdAndEstado(7L, EstadoAsiento.LIBRE));
+        explicar("countAsientosDisponiblesByFuncion", () -> asientoRepository.countAsientosDisponiblesByFuncion(7L));
+        explicar("findByFuncionIdAndNumeroAsiento", () -> asientoRepository.findByFuncionIdAndNumeroAsiento(7L, "A1"));
+        explicar("findByClienteEmailAndEstado", () -> asientoRepository.findByClienteEmailAndEstado(email, EstadoAsiento.RESERVADO));
+        explicar("isAsientoDisponible", () -> asientoRepository.isAsientoDisponible(7L, "A1"));
+        explicar("reservarSiLibre", () -> asientoRepository.reservarSiLibre(7L, "A1", email));
+        explicar("reservarLoteSiLibres", () -> asientoRepository.reservarLoteSiLibres(7L, List.of("A1", "A2"), email));
+        explicar("liberarSiReservado", () -> asientoRepository.liberarSiReservado(1L));
+        explicar("cancelarPorFuncion", () -> asientoRepository.cancelarPorFuncion(7L));
+
+        verificar(AsientoRepository.class);
+    }
+
+    @Test
+    @DisplayName("Ninguna consulta de FuncionRepository debe recorrer la tabla de funciones")
+    void funcionRepository_debeUsarIndices() {
+        explicar("findByEstado", () -> funcionRepository.findByEstado(EstadoFuncion.EN_CARTELERA));
+        explicar("findBySalaAndEstado", () -> funcionRepository.findBySalaAndEstado("Sala 3", EstadoFuncion.EN_CARTELERA));
+        explicar("findByPeliculaContainingIgnoreCase", () -> funcionRepository.findByPeliculaContainingIgnoreCase("dune"));
+        explicar("findFuncionesByFechaRango", () -> funcionRepository
+                .findFuncionesByFechaRango(LUNES, LUNES.plusDays(1), EstadoFuncion.EN_CARTELERA));
+        explicar("findFuncionesConAsientosDisponibles", () -> funcionRepository.findFuncionesConAsientosDisponibles());
+        explicar("sumarAsientosDisponibles", () -> funcionRepository.sumarAsientosDisponibles(1L, -2));
+        explicar("fijarAsientosDisponibles", () -> funcionRepository.fijarAsientosDisponibles(1L, 40));
+
+        verificar(FuncionRepository.class);
+    }
+
+    @Test
+    @DisplayName("Ninguna consulta de ClienteRepository debe recorrer la tabla de clientes")
+    void clienteRepository_debeUsarIndices() {
+        explicar("findByEmail", () -> clienteRepository.findByEmail("cliente1@example.com"));
+        explicar("existsByEmail", () -> clienteRepository.existsByEmail("cliente1@example.com"));
+        explicar("findByEstado", () -> clienteRepository.findByEstado(EstadoCliente.INACTIVO));
+        explicar("findByNombreContainingIgnoreCaseOrApellidoContainingIgnoreCase", () -> clienteRepository
+                .findByNombreContainingIgnoreCaseOrApellidoContainingIgnoreCase("juan", "juan"));
+        explicar("findByIdGreaterThanOrderByIdAsc", () -> clienteRepository
+                .findByIdGreaterThanOrderByIdAsc(0L, Limit.of(100), ClienteResumen.class));
+        explicar("findByEstadoAndIdGreaterThanOrderByIdAsc", () -> clienteRepository
+                .findByEstadoAndIdGreaterThanOrderByIdAsc(EstadoCliente.ACTIVO, 0L, Limit.of(100), ClienteResumen.class));
+        explicar("streamAllByOrderByIdAsc", () -> {
+            try (Stream<Cliente> clientes = clienteRepository.streamAllByOrderByIdAsc()) {
+                clientes.findFirst();
+            }
+        });
+        explicar("streamByEstadoOrderByIdAsc", () -> {
+            try (Stream<Cliente> clientes = clienteRepository.streamByEstadoOrderByIdAsc(EstadoCliente.INACTIVO)) {
+                clientes.findFirst();
+            }
+        });
+
+        verificar(ClienteRepository.class);
+    }
+}
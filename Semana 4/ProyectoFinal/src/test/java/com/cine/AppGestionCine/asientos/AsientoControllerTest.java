@@ -10,9 +10,11 @@ import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
@@ -36,6 +38,12 @@ class AsientoControllerTest {
     @MockitoBean
     private AsientoService asientoService;
 
+    @MockitoBean
+    private CacheMapaAsientos cacheMapaAsientos;
+
+    @MockitoBean
+    private StreamMapaAsientos streamMapaAsientos;
+
     @Test
     @DisplayName("GET /api/asientos/funcion/{id} debe retornar asientos de la función")
     void cuandoGetAsientosPorFuncion_debeRetornarLista() throws Exception {
@@ -54,7 +62,7 @@ class AsientoControllerTest {
 
         List<Asiento> asientos = Arrays.asList(asiento1, asiento2);
 
-        when(asientoService.getAsientosPorFuncion(funcionId))
+        when(asientoService.getAsientosPorFuncion(eq(funcionId), isNull(), eq(101), eq(Asiento.class)))
                 .thenReturn(asientos);
 
         mockMvc.perform(get("/api/asientos/funcion/{funcionId}", funcionId))
@@ -64,9 +72,46 @@ class AsientoControllerTest {
                 .andExpect(jsonPath("$[0].estado", is("LIBRE")))
                 .andExpect(jsonPath("$[1].numeroAsiento", is("A2")))
                 .andExpect(jsonPath("$[1].estado", is("RESERVADO")))
-                .andExpect(jsonPath("$[1].clienteEmail", is("juan@example.com")));
+                .andExpect(jsonPath("$[1].clienteEmail", is("juan@example.com")))
+                .andExpect(header().doesNotExist("X-Cursor-Siguiente"));
+
+        verify(asientoService, times(1)).getAsientosPorFuncion(funcionId, null, 101, Asiento.class);
+    }
+
+    @Test
+    @DisplayName("GET /api/asientos/funcion/{id} con fields debe usar la proyección y dar el siguiente cursor")
+    void cuandoGetAsientosPorFuncion_conFieldsYLimite_debeRecortarYPaginar() throws Exception {
+        Asiento asiento1 = new Asiento(1L, "A1", 1, 1);
+        asiento1.setId(10L);
+        Asiento asiento2 = new Asiento(1L, "A2", 1, 2);
+        asiento2.setId(11L);
+        Asiento asiento3 = new Asiento(1L, "A3", 1, 3);
+        asiento3.setId(12L);
+
+        // Pide limite + 1 filas: la tercera solo indica que hay otra página
+        doReturn(List.of(asiento1, asiento2, asiento3)).when(asientoService)
+                .getAsientosPorFuncion(eq(1L), eq(9L), eq(3), eq(AsientoResumen.class));
+
+        mockMvc.perform(get("/api/asientos/funcion/{funcionId}", 1L)
+                        .param("cursor", "9")
+                        .param("limite", "2")
+                        .param("fields", "id,numeroAsiento"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Cursor-Siguiente", "11"))
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[1].numeroAsiento", is("A2")))
+                .andExpect(jsonPath("$[0].fila").doesNotExist());
+    }
 
-        verify(asientoService, times(1)).getAsientosPorFuncion(funcionId);
+    @Test
+    @DisplayName("GET /api/asientos/funcion/{id} con un campo inexistente debe retornar 400")
+    void cuandoGetAsientosPorFuncion_campoInvalido_debeRetornar400() throws Exception {
+        mockMvc.perform(get("/api/asientos/funcion/{funcionId}", 1L)
+                        .param("fields", "id,precio"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string(containsString("precio")));
+
+        verify(asientoService, never()).getAsientosPorFuncion(anyLong(), any(), anyInt(), any());
     }
 
     @Test
@@ -97,6 +142,55 @@ class AsientoControllerTest {
         verify(asientoService, times(1)).getAsientosDisponibles(funcionId);
     }
 
+    @Test
+    @DisplayName("GET /api/asientos/funcion/{id}/mejores debe retornar el bloque sugerido")
+    void cuandoGetMejoresAsientos_debeRetornarBloque() throws Exception {
+        Asiento asiento1 = new Asiento(1L, "C5", 3, 5);
+        asiento1.setId(25L);
+        Asiento asiento2 = new Asiento(1L, "C6", 3, 6);
+        asiento2.setId(26L);
+
+        when(asientoService.getMejoresAsientos(1L, 2))
+                .thenReturn(List.of(asiento1, asiento2));
+
+        mockMvc.perform(get("/api/asientos/funcion/{funcionId}/mejores", 1L)
+                        .param("cantidad", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].numeroAsiento", is("C5")))
+                .andExpect(jsonPath("$[1].numeroAsiento", is("C6")));
+
+        verify(asientoService, times(1)).getMejoresAsientos(1L, 2);
+    }
+
+    @Test
+    @DisplayName("GET /api/asientos/funcion/{id}/mapa debe retornar el JSON con su ETag")
+    void cuandoGetMapa_sinEtag_debeRetornarJsonYEtag() throws Exception {
+        byte[] json = "{\"filas\":{\"A\":[{\"id\":1,\"numero\":\"A1\",\"estado\":\"LIBRE\",\"cliente\":null}]}}".getBytes();
+
+        when(cacheMapaAsientos.getMapa(1L))
+                .thenReturn(new CacheMapaAsientos.MapaSerializado(42L, json));
+
+        mockMvc.perform(get("/api/asientos/funcion/{funcionId}/mapa", 1L))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"42\""))
+                .andExpect(jsonPath("$.filas.A[0].numero", is("A1")));
+    }
+
+    @Test
+    @DisplayName("GET /api/asientos/funcion/{id}/mapa debe retornar 304 si el ETag no cambió")
+    void cuandoGetMapa_mismoEtag_debeRetornar304() throws Exception {
+        when(cacheMapaAsientos.getMapa(1L))
+                .thenReturn(new CacheMapaAsientos.MapaSerializado(42L, new byte[0]));
+
+        mockMvc.perform(get("/api/asientos/funcion/{funcionId}/mapa", 1L)
+                        .header("If-None-Match", "\"42\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        verify(asientoService, never()).getAsientosPorFuncion(anyLong(), any(), anyInt(), any());
+    }
+
     @Test
     @DisplayName("POST /api/asientos/reservar debe reservar exitosamente")
     void cuandoReservarAsiento_datosValidos_debeReservar() throws Exception {
@@ -112,19 +206,77 @@ class AsientoControllerTest {
         asientoReservado.setEstado(EstadoAsiento.RESERVADO);
         asientoReservado.setClienteEmail("maria@example.com");
 
-        when(asientoService.reservarAsiento(anyLong(), anyString(), anyString()))
-                .thenReturn(asientoReservado);
+        when(asientoService.reservarAsientoSecuenciado(anyLong(), anyString(), anyString()))
+                .thenReturn(CompletableFuture.completedFuture(asientoReservado));
 
-        mockMvc.perform(post("/api/asientos/reservar")
+        MvcResult resultado = mockMvc.perform(post("/api/asientos/reservar")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(request)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(resultado))
                 .andExpect(status().isCreated())
                 .andExpect(jsonPath("$.id", is(5)))
                 .andExpect(jsonPath("$.numeroAsiento", is("A5")))
                 .andExpect(jsonPath("$.estado", is("RESERVADO")))
                 .andExpect(jsonPath("$.clienteEmail", is("maria@example.com")));
 
-        verify(asientoService, times(1)).reservarAsiento(1L, "A5", "maria@example.com");
+        verify(asientoService, times(1)).reservarAsientoSecuenciado(1L, "A5", "maria@example.com");
+    }
+
+    @Test
+    @DisplayName("POST /api/asientos/hold debe retornar el token del hold")
+    void cuandoCrearHold_asientoLibre_debeRetornarToken() throws Exception {
+        AsientoController.ReservarAsientoRequest request = new AsientoController.ReservarAsientoRequest();
+        request.setFuncionId(1L);
+        request.setNumeroAsiento("A5");
+        request.setClienteEmail("maria@example.com");
+
+        HoldAsiento hold = new HoldAsiento("token-123", 1L, "A5", "maria@example.com",
+                java.time.LocalDateTime.now().plusMinutes(10));
+
+        when(asientoService.crearHold(1L, "A5", "maria@example.com"))
+                .thenReturn(hold);
+
+        mockMvc.perform(post("/api/asientos/hold")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.token", is("token-123")))
+                .andExpect(jsonPath("$.numeroAsiento", is("A5")));
+
+        verify(asientoService, times(1)).crearHold(1L, "A5", "maria@example.com");
+    }
+
+    @Test
+    @DisplayName("POST /api/asientos/reservar-lote debe reservar todos los asientos")
+    void cuandoReservarLote_datosValidos_debeReservar() throws Exception {
+        AsientoController.ReservarLoteRequest request = new AsientoController.ReservarLoteRequest();
+        request.setFuncionId(1L);
+        request.setNumerosAsiento(List.of("A5", "A6"));
+        request.setClienteEmail("maria@example.com");
+
+        Asiento asiento1 = new Asiento(1L, "A5", 1, 5);
+        asiento1.setId(5L);
+        asiento1.setEstado(EstadoAsiento.RESERVADO);
+
+        Asiento asiento2 = new Asiento(1L, "A6", 1, 6);
+        asiento2.setId(6L);
+        asiento2.setEstado(EstadoAsiento.RESERVADO);
+
+        when(asientoService.reservarAsientos(anyLong(), anyList(), anyString()))
+                .thenReturn(List.of(asiento1, asiento2));
+
+        mockMvc.perform(post("/api/asientos/reservar-lote")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].numeroAsiento", is("A5")))
+                .andExpect(jsonPath("$[1].numeroAsiento", is("A6")));
+
+        verify(asientoService, times(1)).reservarAsientos(1L, List.of("A5", "A6"), "maria@example.com");
     }
 
     @Test
@@ -135,16 +287,20 @@ class AsientoControllerTest {
         request.setNumeroAsiento("A5");
         request.setClienteEmail("maria@example.com");
 
-        when(asientoService.reservarAsiento(anyLong(), anyString(), anyString()))
-                .thenThrow(new RuntimeException("El asiento A5 no está disponible"));
+        when(asientoService.reservarAsientoSecuenciado(anyLong(), anyString(), anyString()))
+                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("El asiento A5 no está disponible")));
 
-        mockMvc.perform(post("/api/asientos/reservar")
+        MvcResult resultado = mockMvc.perform(post("/api/asientos/reservar")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(request)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(resultado))
                 .andExpect(status().isBadRequest())
-                .andExpect(content().string(containsString("Error")));
+                .andExpect(content().string(containsString("no está disponible")));
 
-        verify(asientoService, times(1)).reservarAsiento(1L, "A5", "maria@example.com");
+        verify(asientoService, times(1)).reservarAsientoSecuenciado(1L, "A5", "maria@example.com");
     }
 
     @Test
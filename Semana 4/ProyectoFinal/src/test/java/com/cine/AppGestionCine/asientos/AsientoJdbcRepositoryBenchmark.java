@@ -0,0 +1,88 @@
+package com.cine.AppGestionCine.asientos;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark JMH de la generación de asientos: insert por lotes contra el loop de save()
+ *
+ * Cada operación genera una función de 400 asientos en su propia transacción, sobre H2
+ * en memoria (ContextoBenchmarkH2); el resultado sale en filas por segundo. Con MySQL y
+ * rewriteBatchedStatements la diferencia es mayor, porque cada save() es un viaje de red.
+ * Se ejecuta igual que MejoresAsientosBenchmark.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AsientoJdbcRepositoryBenchmark {
+
+    private static final int ASIENTOS = 400;
+
+    private ConfigurableApplicationContext contexto;
+    private AsientoRepository asientoRepository;
+    private AsientoJdbcRepository asientoJdbcRepository;
+    private TransactionTemplate transactionTemplate;
+    private long siguienteFuncion;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        contexto = ContextoBenchmarkH2.iniciar();
+        asientoRepository = contexto.getBean(AsientoRepository.class);
+        asientoJdbcRepository = contexto.getBean(AsientoJdbcRepository.class);
+        transactionTemplate = new TransactionTemplate(contexto.getBean(PlatformTransactionManager.class));
+    }
+
+    // La tabla no crece durante toda la medición
+    @TearDown(Level.Iteration)
+    public void vaciar() {
+        asientoRepository.deleteAllInBatch();
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ASIENTOS)
+    public void saveLoop() {
+        List<Asiento> asientos = AsientoJdbcRepositoryTest.sala(++siguienteFuncion, ASIENTOS);
+        transactionTemplate.executeWithoutResult(status -> asientos.forEach(asientoRepository::save));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ASIENTOS)
+    public int insertarLote() {
+        List<Asiento> asientos = AsientoJdbcRepositoryTest.sala(++siguienteFuncion, ASIENTOS);
+        return transactionTemplate.execute(status -> asientoJdbcRepository.insertarLote(asientos));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(AsientoJdbcRepositoryBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,212 @@
+package com.cine.AppGestionCine.asientos;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Inserción masiva de asientos contra H2 y comparación con el loop de save()
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "cine.asientos.batch-size=200"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class AsientoJdbcRepositoryTest {
+
+    @Configuration
+    @EntityScan(basePackageClasses = Asiento.class)
+    @EnableJpaRepositories(basePackageClasses = AsientoRepository.class)
+    @Import(AsientoJdbcRepository.class)
+    static class Config {
+    }
+
+    @Autowired
+    private AsientoRepository asientoRepository;
+
+    @Autowired
+    private AsientoJdbcRepository asientoJdbcRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        asientoRepository.deleteAll();
+    }
+
+    static List<Asiento> sala(Long funcionId, int total) {
+        List<Asiento> asientos = new ArrayList<>(total);
+        for (int i = 0; i < total; i++) {
+            int fila = i / 10 + 1;
+            int columna = i % 10 + 1;
+            asientos.add(new Asiento(funcionId, (char) ('A' + fila - 1) + String.valueOf(columna), fila, columna));
+        }
+        return asientos;
+    }
+
+    @Test
+    @DisplayName("Debe insertar todos los asientos como LIBRE y legibles por JPA")
+    void cuandoInsertarLote_debeGuardarTodos() {
+        asientoJdbcRepository.insertarLote(sala(1L, 45));
+
+        List<Asiento> guardados = asientoRepository.findByFuncionId(1L);
+
+        assertEquals(200, asientoJdbcRepository.getBatchSize());
+        assertEquals(45, guardados.size());
+        assertTrue(guardados.stream().allMatch(a -> a.getEstado() == EstadoAsiento.LIBRE));
+        assertTrue(guardados.stream().allMatch(a -> a.getId() != null && a.getVersion() == 0L));
+        assertTrue(asientoRepository.findByFuncionIdAndNumeroAsiento(1L, "E5").isPresent());
+    }
+
+    @Test
+    @DisplayName("El batch de reservas debe afectar solo a los asientos que seguían libres")
+    void cuandoReservarSiLibres_debeRetornarFilasPorAsiento() {
+        asientoJdbcRepository.insertarLote(sala(1L, 3));
+        asientoJdbcRepository.insertarLote(sala(2L, 3));
+        transactionTemplate.execute(status -> asientoRepository.reservarSiLibre(1L, "A2", "maria@example.com"));
+
+        List<Asiento> pedidos = new ArrayList<>();
+        for (String numero : List.of("A1", "A2")) {
+            Asiento asiento = new Asiento(1L, numero, 1, 0);
+            asiento.setClienteEmail("juan@example.com");
+            pedidos.add(asiento);
+        }
+        Asiento otraFuncion = new Asiento(2L, "A3", 1, 3);
+        otraFuncion.setClienteEmail("juan@example.com");
+        pedidos.add(otraFuncion);
+
+        int[] filas = transactionTemplate.execute(status -> asientoJdbcRepository.reservarSiLibres(pedidos));
+
+        assertArrayEquals(new int[]{1, 0, 1}, filas);
+        assertEquals("maria@example.com",
+                asientoRepository.findByFuncionIdAndNumeroAsiento(1L, "A2").orElseThrow().getClienteEmail());
+        Asiento reservado = asientoRepository.findByFuncionIdAndNumeroAsiento(2L, "A3").orElseThrow();
+        assertEquals(EstadoAsiento.RESERVADO, reservado.getEstado());
+        assertEquals(1L, reservado.getVersion());
+    }
+
+    @Test
+    @DisplayName("Las páginas por cursor con la proyección deben recorrer todos los asientos una vez")
+    void cuandoPaginarConCursor_debeRecorrerTodosSinRepetir() {
+        asientoJdbcRepository.insertarLote(sala(1L, 250));
+        asientoJdbcRepository.insertarLote(sala(2L, 30));
+
+        List<Long> vistos = new ArrayList<>();
+        Long cursor = 0L;
+        int paginas = 0;
+        while (true) {
+            List<AsientoResumen> pagina = asientoRepository.findByFuncionIdAndIdGreaterThanOrderByIdAsc(
+                    1L, cursor, Limit.of(100), AsientoResumen.class);
+            if (pagina.isEmpty()) {
+                break;
+            }
+            pagina.forEach(asiento -> vistos.add(asiento.getId()));
+            cursor = pagina.get(pagina.size() - 1).getId();
+            paginas++;
+        }
+
+        assertEquals(3, paginas);
+        assertEquals(250, vistos.size());
+        assertEquals(250, vistos.stream().distinct().count());
+        assertEquals(vistos.stream().sorted().toList(), vistos, "Ordenados por id");
+
+        AsientoResumen primero = asientoRepository.findByFuncionIdAndIdGreaterThanOrderByIdAsc(
+                1L, 0L, Limit.of(1), AsientoResumen.class).get(0);
+        assertFalse(primero instanceof Asiento, "Debe ser la proyección, no la entidad");
+        assertEquals("A1", primero.getNumeroAsiento());
+        assertEquals(EstadoAsiento.LIBRE, primero.getEstado());
+    }
+
+    @Test
+    @DisplayName("save() debe marcar actualizadoEn con la hora de la BD, igual que los UPDATE masivos")
+    void cuandoGuardarConJpa_debeUsarElRelojDeLaBd() {
+        LocalDateTime antes = jdbcTemplate.queryForObject("SELECT LOCALTIMESTAMP", LocalDateTime.class);
+        Asiento asiento = transactionTemplate.execute(status -> asientoRepository.save(new Asiento(1L, "A1", 1, 1)));
+
+        assertNotNull(asiento.getActualizadoEn());
+        assertEquals(actualizadoEnGuardado(asiento.getId()), asiento.getActualizadoEn());
+        assertFalse(asiento.getActualizadoEn().isBefore(antes));
+
+        asiento.setEstado(EstadoAsiento.RESERVADO);
+        Asiento reservado = transactionTemplate.execute(status -> asientoRepository.save(asiento));
+
+        assertEquals(actualizadoEnGuardado(asiento.getId()), reservado.getActualizadoEn());
+        assertFalse(reservado.getActualizadoEn().isBefore(asiento.getActualizadoEn()));
+    }
+
+    private LocalDateTime actualizadoEnGuardado(Long id) {
+        return jdbcTemplate.queryForObject("SELECT actualizadoEn FROM asientos WHERE id = ?", LocalDateTime.class, id);
+    }
+
+    @Test
+    @DisplayName("La página profunda por cursor debe traer las mismas filas que con OFFSET")
+    void cuandoCompararCursorConOffset_debeTraerLaMismaPagina() {
+        int total = 20_000;
+        asientoJdbcRepository.insertarLote(sala(1L, total));
+        int ultimaPagina = total / 100 - 1;
+
+        List<Asiento> porOffset = asientoRepository.findAll(PageRequest.of(ultimaPagina, 100, Sort.by("id"))).getContent();
+        Long cursor = porOffset.get(0).getId() - 1;
+        List<Asiento> porCursor = asientoRepository.findByFuncionIdAndIdGreaterThanOrderByIdAsc(
+                1L, cursor, Limit.of(100), Asiento.class);
+
+        assertEquals(100, porCursor.size());
+        assertEquals(porOffset.stream().map(Asiento::getId).toList(), porCursor.stream().map(Asiento::getId).toList());
+    }
+
+    @Test
+    @DisplayName("El insert por lotes debe generar las mismas filas que el loop de save()")
+    void cuandoCompararConSaveLoop_debeGenerarLasMismasFilas() {
+        int funciones = 3;
+        int asientosPorFuncion = 400;
+
+        for (long funcionId = 1; funcionId <= funciones; funcionId++) {
+            List<Asiento> asientos = sala(funcionId, asientosPorFuncion);
+            transactionTemplate.executeWithoutResult(status -> asientos.forEach(asientoRepository::save));
+        }
+        for (long funcionId = 1001; funcionId <= 1000 + funciones; funcionId++) {
+            List<Asiento> asientos = sala(funcionId, asientosPorFuncion);
+            transactionTemplate.executeWithoutResult(status -> asientoJdbcRepository.insertarLote(asientos));
+        }
+
+        assertEquals((long) funciones * asientosPorFuncion * 2, asientoRepository.count());
+        for (long funcionId = 1; funcionId <= funciones; funcionId++) {
+            assertEquals(filas(funcionId), filas(funcionId + 1000), "Función " + funcionId);
+        }
+    }
+
+    private List<String> filas(Long funcionId) {
+        return asientoRepository.findByFuncionId(funcionId).stream()
+                .map(a -> a.getNumeroAsiento() + "|" + a.getFila() + "|" + a.getColumna() + "|" + a.getEstado() + "|" + a.getVersion())
+                .sorted()
+                .toList();
+    }
+}
@@ -0,0 +1,86 @@
+package com.cine.AppGestionCine.asientos;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark JMH del UPDATE condicionado (reservarSiLibre) con 16 hilos compitiendo
+ *
+ * Cada operación es una transacción que intenta reservar un asiento al azar entre los
+ * primeros {@code enDisputa} de una sala de 500; si gana, lo libera en otra transacción
+ * para que la sala no se llene. Con 1 todos pelean por la misma fila, como en
+ * AsientoRepositoryConcurrenciaTest. Corre sobre H2 en memoria (ContextoBenchmarkH2).
+ * Se ejecuta igual que MejoresAsientosBenchmark.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(16)
+public class AsientoRepositoryConcurrenciaBenchmark {
+
+    @Param({"1", "500"})
+    private int enDisputa;
+
+    private ConfigurableApplicationContext contexto;
+    private AsientoRepository asientoRepository;
+    private TransactionTemplate transactionTemplate;
+    private List<Asiento> asientos;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        contexto = ContextoBenchmarkH2.iniciar();
+        asientoRepository = contexto.getBean(AsientoRepository.class);
+        transactionTemplate = new TransactionTemplate(contexto.getBean(PlatformTransactionManager.class));
+
+        asientoRepository.deleteAllInBatch();
+        contexto.getBean(AsientoJdbcRepository.class).insertarLote(AsientoJdbcRepositoryTest.sala(1L, 500));
+        asientos = asientoRepository.findByFuncionId(1L);
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public int reservarYLiberar() {
+        Asiento asiento = asientos.get(ThreadLocalRandom.current().nextInt(enDisputa));
+        int filas = transactionTemplate.execute(status ->
+                asientoRepository.reservarSiLibre(1L, asiento.getNumeroAsiento(), "juan@example.com"));
+        if (filas == 1) {
+            transactionTemplate.execute(status -> asientoRepository.liberarSiReservado(asiento.getId()));
+        }
+        return filas;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(AsientoRepositoryConcurrenciaBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
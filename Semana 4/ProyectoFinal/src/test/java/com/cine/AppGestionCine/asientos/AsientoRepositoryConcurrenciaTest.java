@@ -0,0 +1,161 @@
+package com.cine.AppGestionCine.asientos;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas de concurrencia contra una BD real (H2 en memoria)
+ *
+ * Sin transacción de prueba: cada hilo hace commit de la suya
+ * y así la BD es la que decide quién gana el asiento.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class AsientoRepositoryConcurrenciaTest {
+
+    @Configuration
+    @EntityScan(basePackageClasses = Asiento.class)
+    @EnableJpaRepositories(basePackageClasses = AsientoRepository.class)
+    static class Config {
+    }
+
+    @Autowired
+    private AsientoRepository asientoRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        asientoRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Con 500 hilos compitiendo por el mismo asiento solo uno debe ganar")
+    void cuandoMuchosHilosReservanElMismoAsiento_soloUnoGana() throws Exception {
+        int hilos = 500;
+        Asiento asiento = asientoRepository.save(new Asiento(1L, "A1", 1, 1));
+
+        CountDownLatch inicio = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(64);
+        List<Future<Integer>> resultados = new ArrayList<>();
+
+        for (int h = 0; h < hilos; h++) {
+            String email = "cliente" + h + "@example.com";
+            resultados.add(executor.submit(() -> {
+                inicio.await();
+                return transactionTemplate.execute(status ->
+                        asientoRepository.reservarSiLibre(1L, "A1", email));
+            }));
+        }
+
+        inicio.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(60, TimeUnit.SECONDS));
+
+        int ganadores = 0;
+        for (Future<Integer> resultado : resultados) {
+            ganadores += resultado.get();
+        }
+
+        Asiento guardado = asientoRepository.findById(asiento.getId()).orElseThrow();
+
+        assertEquals(1, ganadores);
+        assertEquals(EstadoAsiento.RESERVADO, guardado.getEstado());
+        assertNotNull(guardado.getClienteEmail());
+        assertEquals(1L, guardado.getVersion());
+    }
+
+    @Test
+    @DisplayName("El UPDATE de lote debe contar solo los asientos que seguían libres")
+    void cuandoReservarLote_conUnoOcupado_debeRetornarMenosFilas() {
+        asientoRepository.save(new Asiento(1L, "A1", 1, 1));
+        asientoRepository.save(new Asiento(1L, "A2", 1, 2));
+        asientoRepository.save(new Asiento(1L, "A3", 1, 3));
+        transactionTemplate.execute(status -> asientoRepository.reservarSiLibre(1L, "A2", "maria@example.com"));
+
+        int reservados = transactionTemplate.execute(status ->
+                asientoRepository.reservarLoteSiLibres(1L, List.of("A1", "A2", "A3"), "juan@example.com"));
+
+        assertEquals(2, reservados);
+        assertEquals("maria@example.com",
+                asientoRepository.findByFuncionIdAndNumeroAsiento(1L, "A2").orElseThrow().getClienteEmail());
+    }
+
+    @Test
+    @DisplayName("Debe cancelar todos los asientos de la función en un solo UPDATE")
+    void cuandoCancelarPorFuncion_debeRetornarFilasCambiadas() {
+        asientoRepository.save(new Asiento(1L, "A1", 1, 1));
+        asientoRepository.save(new Asiento(1L, "A2", 1, 2));
+        asientoRepository.save(new Asiento(1L, "A3", 1, 3));
+        asientoRepository.save(new Asiento(2L, "A1", 1, 1));
+        transactionTemplate.execute(status -> asientoRepository.reservarSiLibre(1L, "A2", "juan@example.com"));
+
+        int primera = transactionTemplate.execute(status -> asientoRepository.cancelarPorFuncion(1L));
+        int segunda = transactionTemplate.execute(status -> asientoRepository.cancelarPorFuncion(1L));
+
+        assertEquals(3, primera);
+        assertEquals(0, segunda);
+        assertTrue(asientoRepository.findByFuncionId(1L).stream().allMatch(a -> a.getEstado() == EstadoAsiento.CANCELADO));
+        assertEquals(EstadoAsiento.LIBRE, asientoRepository.findByFuncionIdAndNumeroAsiento(2L, "A1").orElseThrow().getEstado());
+    }
+
+    @Test
+    @DisplayName("Debe liberar solo una vez un asiento reservado")
+    void cuandoLiberarDosVeces_soloLaPrimeraAfectaFilas() {
+        Asiento asiento = asientoRepository.save(new Asiento(1L, "A1", 1, 1));
+        transactionTemplate.execute(status -> asientoRepository.reservarSiLibre(1L, "A1", "juan@example.com"));
+
+        int primera = transactionTemplate.execute(status -> asientoRepository.liberarSiReservado(asiento.getId()));
+        int segunda = transactionTemplate.execute(status -> asientoRepository.liberarSiReservado(asiento.getId()));
+
+        Asiento guardado = asientoRepository.findById(asiento.getId()).orElseThrow();
+
+        assertEquals(1, primera);
+        assertEquals(0, segunda);
+        assertEquals(EstadoAsiento.LIBRE, guardado.getEstado());
+        assertNull(guardado.getClienteEmail());
+    }
+
+    @Test
+    @DisplayName("Debe rechazar el save de una copia desactualizada del asiento")
+    void cuandoGuardarCopiaDesactualizada_debeLanzarExcepcion() {
+        Asiento asiento = asientoRepository.save(new Asiento(1L, "A1", 1, 1));
+
+        Asiento copia1 = asientoRepository.findById(asiento.getId()).orElseThrow();
+        Asiento copia2 = asientoRepository.findById(asiento.getId()).orElseThrow();
+
+        copia1.setEstado(EstadoAsiento.RESERVADO);
+        copia1.setClienteEmail("juan@example.com");
+        asientoRepository.save(copia1);
+
+        copia2.setEstado(EstadoAsiento.CANCELADO);
+
+        assertThrows(ObjectOptimisticLockingFailureException.class,
+                () -> asientoRepository.save(copia2));
+    }
+}
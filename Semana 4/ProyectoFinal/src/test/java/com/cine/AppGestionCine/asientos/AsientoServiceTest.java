@@ -2,24 +2,31 @@ package com.cine.AppGestionCine.asientos;
 
 import com.cine.AppGestionCine.asientos.events.AsientoReservadoEvent;
 import com.cine.AppGestionCine.asientos.events.AsientoCanceladoEvent;
-import com.cine.AppGestionCine.clientes.Cliente;
+import com.cine.AppGestionCine.asientos.events.AsientosReservadosEvent;
+import com.cine.AppGestionCine.clientes.ClienteEstado;
 import com.cine.AppGestionCine.clientes.ClienteService;
 import com.cine.AppGestionCine.clientes.EstadoCliente;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.mockito.ArgumentCaptor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 class AsientoServiceTest {
@@ -27,41 +34,74 @@ class AsientoServiceTest {
     @Mock
     private AsientoRepository asientoRepository;
 
+    @Mock
+    private AsientoJdbcRepository asientoJdbcRepository;
+
+    @Mock
+    private CacheMapaAsientos cacheMapaAsientos;
+
+    @Mock
+    private SecuenciadorReservas secuenciadorReservas;
+
     @Mock
     private ApplicationEventPublisher eventPublisher;
 
     @Mock
     private ClienteService clienteService;
 
-    @InjectMocks
     private AsientoService asientoService;
 
+    private HoldsAsientos holdsAsientos;
+
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
 
+        // El motor en memoria es real: se carga desde el repository mockeado
+        MotorAsientos motorAsientos = new MotorAsientos(asientoRepository, 1000, 24);
+        holdsAsientos = new HoldsAsientos(600, 1000);
+        asientoService = new AsientoService(
+                asientoRepository, asientoJdbcRepository, eventPublisher, clienteService, motorAsientos, holdsAsientos, cacheMapaAsientos,
+                secuenciadorReservas);
+
         // Configurar mock de cliente por defecto
-        Cliente clienteMock = new Cliente();
-        clienteMock.setId(1L);
-        clienteMock.setEmail("test@example.com");
-        clienteMock.setEstado(EstadoCliente.ACTIVO);
+        ClienteEstado clienteMock = new ClienteEstado(1L, EstadoCliente.ACTIVO);
 
-        when(clienteService.getClienteByEmail(anyString()))
+        when(clienteService.getEstadoCliente(anyString()))
                 .thenReturn(Optional.of(clienteMock));
     }
 
+    private static List<Asiento> sala(Long funcionId, int total) {
+        List<Asiento> asientos = new ArrayList<>();
+        for (int i = 0; i < total; i++) {
+            Asiento asiento = new Asiento(funcionId, "A" + (i + 1), 1, i + 1);
+            asiento.setId((long) i + 1);
+            asientos.add(asiento);
+        }
+        return asientos;
+    }
+
     @Test
     @DisplayName("Debe generar asientos correctamente con nomenclatura A1, A2, B1, etc.")
     void cuandoGenerarAsientos_debeCrearConNomenclaturaCorrecta() {
         Long funcionId = 1L;
         Integer totalAsientos = 15;
 
-        when(asientoRepository.save(any(Asiento.class)))
-                .thenAnswer(invocation -> invocation.getArgument(0));
-
         asientoService.generarAsientosPorFuncion(funcionId, totalAsientos);
 
-        verify(asientoRepository, times(15)).save(any(Asiento.class));
+        // Un solo insert por lotes, sin save() por asiento
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Asiento>> captor = ArgumentCaptor.forClass(List.class);
+        verify(asientoJdbcRepository, times(1)).insertarLote(captor.capture());
+        verify(asientoRepository, never()).save(any(Asiento.class));
+
+        List<Asiento> generados = captor.getValue();
+        assertEquals(15, generados.size());
+        assertEquals("A1", generados.get(0).getNumeroAsiento());
+        assertEquals("A10", generados.get(9).getNumeroAsiento());
+        assertEquals("B1", generados.get(10).getNumeroAsiento());
+        assertEquals(2, generados.get(14).getFila());
+        assertEquals(5, generados.get(14).getColumna());
     }
 
     @Test
@@ -71,32 +111,30 @@ class AsientoServiceTest {
         String numeroAsiento = "A5";
         String clienteEmail = "juan@example.com";
 
-        Cliente clienteMock = new Cliente();
-        clienteMock.setId(1L);
-        clienteMock.setEmail(clienteEmail);
-        clienteMock.setEstado(EstadoCliente.ACTIVO);
+        ClienteEstado clienteMock = new ClienteEstado(1L, EstadoCliente.ACTIVO);
 
-        when(clienteService.getClienteByEmail(clienteEmail))
+        when(clienteService.getEstadoCliente(clienteEmail))
                 .thenReturn(Optional.of(clienteMock));
 
-        Asiento asientoLibre = new Asiento();
+        Asiento asientoLibre = new Asiento(funcionId, numeroAsiento, 1, 5);
         asientoLibre.setId(5L);
-        asientoLibre.setFuncionId(funcionId);
-        asientoLibre.setNumeroAsiento(numeroAsiento);
-        asientoLibre.setEstado(EstadoAsiento.LIBRE);
 
-        when(asientoRepository.findByFuncionIdAndNumeroAsiento(funcionId, numeroAsiento))
-                .thenReturn(Optional.of(asientoLibre));
-
-        when(asientoRepository.save(any(Asiento.class)))
-                .thenAnswer(invocation -> invocation.getArgument(0));
+        when(asientoRepository.findByFuncionId(funcionId))
+                .thenReturn(List.of(asientoLibre));
+        when(asientoRepository.reservarSiLibre(funcionId, numeroAsiento, clienteEmail))
+                .thenReturn(1);
 
         Asiento resultado = asientoService.reservarAsiento(funcionId, numeroAsiento, clienteEmail);
 
+        assertEquals(5L, resultado.getId());
         assertEquals(EstadoAsiento.RESERVADO, resultado.getEstado());
         assertEquals(clienteEmail, resultado.getClienteEmail());
 
-        verify(asientoRepository, times(1)).save(asientoLibre);
+        // Sin SELECT por asiento ni save de la entidad: un solo UPDATE condicionado
+        verify(asientoRepository, never()).findByFuncionIdAndNumeroAsiento(anyLong(), anyString());
+        verify(asientoRepository, never()).save(any(Asiento.class));
+        verify(asientoRepository, times(1))
+                .reservarSiLibre(funcionId, numeroAsiento, clienteEmail);
 
         ArgumentCaptor<AsientoReservadoEvent> eventoCaptor =
                 ArgumentCaptor.forClass(AsientoReservadoEvent.class);
@@ -117,16 +155,13 @@ class AsientoServiceTest {
         String numeroAsiento = "Z99";
         String clienteEmail = "juan@example.com";
 
-        Cliente clienteMock = new Cliente();
-        clienteMock.setId(1L);
-        clienteMock.setEmail(clienteEmail);
-        clienteMock.setEstado(EstadoCliente.ACTIVO);
+        ClienteEstado clienteMock = new ClienteEstado(1L, EstadoCliente.ACTIVO);
 
-        when(clienteService.getClienteByEmail(clienteEmail))
+        when(clienteService.getEstadoCliente(clienteEmail))
                 .thenReturn(Optional.of(clienteMock));
 
-        when(asientoRepository.findByFuncionIdAndNumeroAsiento(funcionId, numeroAsiento))
-                .thenReturn(Optional.empty());
+        when(asientoRepository.findByFuncionId(funcionId))
+                .thenReturn(List.of(new Asiento(funcionId, "A1", 1, 1)));
 
         RuntimeException exception = assertThrows(
                 RuntimeException.class,
@@ -138,7 +173,7 @@ class AsientoServiceTest {
                         exception.getMessage().toLowerCase().contains("asiento")
         );
 
-        verify(asientoRepository, never()).save(any(Asiento.class));
+        verify(asientoRepository, never()).reservarSiLibre(any(), any(), any());
         verify(eventPublisher, never()).publishEvent(any());
     }
 
@@ -149,23 +184,18 @@ class AsientoServiceTest {
         String numeroAsiento = "A5";
         String clienteEmail = "juan@example.com";
 
-        Cliente clienteMock = new Cliente();
-        clienteMock.setId(1L);
-        clienteMock.setEmail(clienteEmail);
-        clienteMock.setEstado(EstadoCliente.ACTIVO);
+        ClienteEstado clienteMock = new ClienteEstado(1L, EstadoCliente.ACTIVO);
 
-        when(clienteService.getClienteByEmail(clienteEmail))
+        when(clienteService.getEstadoCliente(clienteEmail))
                 .thenReturn(Optional.of(clienteMock));
 
-        Asiento asientoReservado = new Asiento();
+        Asiento asientoReservado = new Asiento(funcionId, numeroAsiento, 1, 5);
         asientoReservado.setId(5L);
-        asientoReservado.setFuncionId(funcionId);
-        asientoReservado.setNumeroAsiento(numeroAsiento);
         asientoReservado.setEstado(EstadoAsiento.RESERVADO);
         asientoReservado.setClienteEmail("maria@example.com");
 
-        when(asientoRepository.findByFuncionIdAndNumeroAsiento(funcionId, numeroAsiento))
-                .thenReturn(Optional.of(asientoReservado));
+        when(asientoRepository.findByFuncionId(funcionId))
+                .thenReturn(List.of(asientoReservado));
 
         RuntimeException exception = assertThrows(
                 RuntimeException.class,
@@ -177,10 +207,287 @@ class AsientoServiceTest {
                         exception.getMessage().toLowerCase().contains("reservado")
         );
 
-        verify(asientoRepository, never()).save(any(Asiento.class));
+        verify(asientoRepository, never()).reservarSiLibre(any(), any(), any());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    @DisplayName("Solo el primer cliente debe ganar un asiento libre")
+    void cuandoReservarAsiento_dosVeces_soloGanaLaPrimera() {
+        Long funcionId = 1L;
+
+        Asiento asientoLibre = new Asiento(funcionId, "A5", 1, 5);
+        asientoLibre.setId(5L);
+
+        when(asientoRepository.findByFuncionId(funcionId))
+                .thenReturn(List.of(asientoLibre));
+        when(asientoRepository.reservarSiLibre(eq(funcionId), eq("A5"), anyString()))
+                .thenReturn(1);
+
+        asientoService.reservarAsiento(funcionId, "A5", "juan@example.com");
+
+        RuntimeException exception = assertThrows(
+                RuntimeException.class,
+                () -> asientoService.reservarAsiento(funcionId, "A5", "maria@example.com")
+        );
+
+        assertTrue(exception.getMessage().contains("no está disponible"));
+        verify(asientoRepository, times(1)).reservarSiLibre(any(), any(), any());
+        verify(asientoRepository, times(1)).findByFuncionId(funcionId);
+    }
+
+    @Test
+    @DisplayName("Debe rechazar la reserva si el UPDATE condicionado no afecta filas")
+    void cuandoReservarAsiento_updateSinFilas_debeLanzarExcepcion() {
+        Long funcionId = 1L;
+
+        Asiento asientoLibre = new Asiento(funcionId, "A5", 1, 5);
+        asientoLibre.setId(5L);
+
+        when(asientoRepository.findByFuncionId(funcionId))
+                .thenReturn(List.of(asientoLibre));
+        // Otro nodo ya lo reservó en la BD
+        when(asientoRepository.reservarSiLibre(funcionId, "A5", "juan@example.com"))
+                .thenReturn(0);
+
+        RuntimeException exception = assertThrows(
+                RuntimeException.class,
+                () -> asientoService.reservarAsiento(funcionId, "A5", "juan@example.com")
+        );
+
+        assertTrue(exception.getMessage().contains("no está disponible"));
         verify(eventPublisher, never()).publishEvent(any());
     }
 
+    /**
+     * Ejecutar la llamada con sincronización de transacción activa y luego simular el rollback
+     */
+    private void conRollback(Runnable llamada) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            assertThrows(RuntimeException.class, llamada::run);
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Si el UPDATE lanza excepción, el rollback debe liberar el asiento en memoria")
+    void cuandoReservarAsiento_updateFalla_debeLiberarAlHacerRollback() {
+        Long funcionId = 1L;
+
+        when(asientoRepository.findByFuncionId(funcionId))
+                .thenReturn(sala(funcionId, 10));
+        when(asientoRepository.reservarSiLibre(funcionId, "A5", "juan@example.com"))
+                .thenThrow(new CannotAcquireLockException("Lock wait timeout exceeded"));
+
+        conRollback(() -> asientoService.reservarAsiento(funcionId, "A5", "juan@example.com"));
+
+        // El asiento sigue LIBRE en la BD: otro cliente debe poder tomarlo
+        when(asientoRepository.reservarSiLibre(funcionId, "A5", "maria@example.com"))
+                .thenReturn(1);
+        assertNotNull(asientoService.reservarAsiento(funcionId, "A5", "maria@example.com"));
+    }
+
+    @Test
+    @DisplayName("Si el UPDATE que confirma un hold lanza excepción, el rollback debe liberar el asiento")
+    void cuandoConfirmarHold_updateFalla_debeLiberarAlHacerRollback() {
+        Long funcionId = 1L;
+
+        when(asientoRepository.findByFuncionId(funcionId))
+                .thenReturn(sala(funcionId, 10));
+        when(asientoRepository.reservarSiLibre(funcionId, "A5", "juan@example.com"))
+                .thenThrow(new CannotAcquireLockException("Deadlock found when trying to get lock"));
+
+        HoldAsiento hold = asientoService.crearHold(funcionId, "A5", "juan@example.com");
+
+        conRollback(() -> asientoService.reservarAsiento(funcionId, "A5", "juan@example.com", hold.getToken()));
+
+        assertEquals(0, holdsAsientos.activos());
+        when(asientoRepository.reservarSiLibre(funcionId, "A5", "maria@example.com"))
+                .thenReturn(1);
+        assertNotNull(asientoService.reservarAsiento(funcionId, "A5", "maria@example.com"));
+    }
+
+    @Test
+    @DisplayName("Debe reservar un lote con un solo UPDATE y un solo evento")
+    void cuandoReservarLote_todosLibres_debeReservarYPublicarUnEvento() {
+        Long funcionId = 1L;
+        List<String> numeros = List.of("A1", "A2", "A3", "A4");
+
+        when(asientoRepository.findByFuncionId(funcionId))
+                .thenReturn(sala(funcionId, 10));
+        when(asientoRepository.reservarLoteSiLibres(funcionId, numeros, "juan@example.com"))
+                .thenReturn(4);
+
+        List<Asiento> resultado = asientoService.reservarAsientos(funcionId, numeros, "juan@example.com");
+
+        assertEquals(4, resultado.size());
+        assertTrue(resultado.stream().allMatch(a -> a.getEstado() == EstadoAsiento.RESERVADO));
+
+        ArgumentCaptor<AsientosReservadosEvent> eventCaptor =
+                ArgumentCaptor.forClass(AsientosReservadosEvent.class);
+        verify(eventPublisher, times(1)).publishEvent(eventCaptor.capture());
+
+        AsientosReservadosEvent evento = eventCaptor.getValue();
+        assertEquals(4, evento.getCantidad());
+        assertEquals(List.of(1L, 2L, 3L, 4L), evento.getAsientoIds());
+        assertEquals(numeros, evento.getNumerosAsiento());
+
+        verify(clienteService, times(1)).getEstadoCliente("juan@example.com");
+        verify(asientoRepository, times(1)).reservarLoteSiLibres(funcionId, numeros, "juan@example.com");
+        verify(asientoRepository, never()).reservarSiLibre(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Si un asiento del lote está ocupado no debe reservar ninguno")
+    void cuandoReservarLote_unoOcupado_noDebeReservarNinguno() {
+        Long funcionId = 1L;
+        List<Asiento> asientos = sala(funcionId, 10);
+        asientos.get(2).setEstado(EstadoAsiento.RESERVADO);   // A3
+
+        when(asientoRepository.findByFuncionId(funcionId))
+                .thenReturn(asientos);
+
+        RuntimeException exception = assertThrows(
+                RuntimeException.class,
+                () -> asientoService.reservarAsientos(funcionId, List.of("A1", "A2", "A3"), "juan@example.com")
+        );
+
+        assertTrue(exception.getMessage().contains("A3"));
+        verify(asientoRepository, never()).reservarLoteSiLibres(any(), any(), any());
+        verify(eventPublisher, never()).publishEvent(any());
+
+        // A1 y A2 se devolvieron al fallar el lote
+        when(asientoRepository.reservarSiLibre(eq(funcionId), anyString(), anyString()))
+                .thenReturn(1);
+        assertNotNull(asientoService.reservarAsiento(funcionId, "A1", "maria@example.com"));
+        assertNotNull(asientoService.reservarAsiento(funcionId, "A2", "maria@example.com"));
+    }
+
+    @Test
+    @DisplayName("Debe rechazar un lote con asientos repetidos")
+    void cuandoReservarLote_asientosRepetidos_debeLanzarExcepcion() {
+        RuntimeException exception = assertThrows(
+                RuntimeException.class,
+                () -> asientoService.reservarAsientos(1L, List.of("A1", "A1"), "juan@example.com")
+        );
+
+        assertTrue(exception.getMessage().contains("repetidos"));
+        verify(clienteService, never()).getEstadoCliente(anyString());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    @DisplayName("Debe fallar el lote si la BD no confirma todos los asientos")
+    void cuandoReservarLote_bdConfirmaMenos_debeLanzarExcepcion() {
+        Long funcionId = 1L;
+        List<String> numeros = List.of("A1", "A2");
+
+        when(asientoRepository.findByFuncionId(funcionId))
+                .thenReturn(sala(funcionId, 10));
+        when(asientoRepository.reservarLoteSiLibres(funcionId, numeros, "juan@example.com"))
+                .thenReturn(1);
+
+        RuntimeException exception = assertThrows(
+                RuntimeException.class,
+                () -> asientoService.reservarAsientos(funcionId, numeros, "juan@example.com")
+        );
+
+        assertTrue(exception.getMessage().contains("1 de 2"));
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    @DisplayName("Un hold debe bloquear el asiento y convertirse en reserva con su token")
+    void cuandoCrearHold_debeBloquearYReservarConToken() {
+        Long funcionId = 1L;
+
+        when(asientoRepository.findByFuncionId(funcionId))
+                .thenReturn(sala(funcionId, 10));
+        when(asientoRepository.reservarSiLibre(eq(funcionId), eq("A5"), anyString()))
+                .thenReturn(1);
+
+        HoldAsiento hold = asientoService.crearHold(funcionId, "A5", "juan@example.com");
+
+        // Mientras dure el hold nadie más puede reservarlo
+        assertThrows(RuntimeException.class,
+                () -> asientoService.reservarAsiento(funcionId, "A5", "maria@example.com"));
+
+        Asiento resultado = asientoService.reservarAsiento(funcionId, "A5", "juan@example.com", hold.getToken());
+
+        assertEquals(EstadoAsiento.RESERVADO, resultado.getEstado());
+        assertEquals(0, holdsAsientos.activos());
+        verify(asientoRepository, times(1)).reservarSiLibre(funcionId, "A5", "juan@example.com");
+        verify(eventPublisher, times(1)).publishEvent(any(AsientoReservadoEvent.class));
+
+        // El token no se puede usar dos veces
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> asientoService.reservarAsiento(funcionId, "A5", "juan@example.com", hold.getToken()));
+        assertTrue(exception.getMessage().contains("expiró o no existe"));
+    }
+
+    @Test
+    @DisplayName("Un hold vencido debe liberar el asiento sin tocar la BD")
+    void cuandoHoldExpira_debeLiberarAsientoSinEscribirEnBD() {
+        Long funcionId = 1L;
+
+        when(asientoRepository.findByFuncionId(funcionId))
+                .thenReturn(sala(funcionId, 10));
+        when(asientoRepository.reservarSiLibre(eq(funcionId), eq("A5"), anyString()))
+                .thenReturn(1);
+
+        HoldAsiento hold = asientoService.crearHold(funcionId, "A5", "juan@example.com");
+
+        holdsAsientos.expirarVencidos(System.currentTimeMillis() + 601_000);
+
+        assertEquals(0, holdsAsientos.activos());
+        verify(asientoRepository, never()).reservarSiLibre(any(), any(), any());
+        verify(asientoRepository, never()).save(any(Asiento.class));
+
+        assertThrows(RuntimeException.class,
+                () -> asientoService.reservarAsiento(funcionId, "A5", "juan@example.com", hold.getToken()));
+
+        // Ya libre: otro cliente puede reservarlo
+        assertNotNull(asientoService.reservarAsiento(funcionId, "A5", "maria@example.com"));
+    }
+
+    @Test
+    @DisplayName("El token de un hold no sirve para otro asiento")
+    void cuandoReservarConHoldDeOtroAsiento_debeLanzarExcepcion() {
+        Long funcionId = 1L;
+
+        when(asientoRepository.findByFuncionId(funcionId))
+                .thenReturn(sala(funcionId, 10));
+
+        HoldAsiento hold = asientoService.crearHold(funcionId, "A5", "juan@example.com");
+
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> asientoService.reservarAsiento(funcionId, "A6", "juan@example.com", hold.getToken()));
+
+        assertTrue(exception.getMessage().contains("no corresponde"));
+        assertEquals(1, holdsAsientos.activos());
+    }
+
+    @Test
+    @DisplayName("Debe sugerir los mejores asientos contiguos sin reservarlos")
+    void cuandoGetMejoresAsientos_debeRetornarBloqueCentral() {
+        Long funcionId = 1L;
+
+        when(asientoRepository.findByFuncionId(funcionId))
+                .thenReturn(sala(funcionId, 10));
+
+        List<Asiento> mejores = asientoService.getMejoresAsientos(funcionId, 4);
+
+        assertEquals(List.of("A4", "A5", "A6", "A7"),
+                mejores.stream().map(Asiento::getNumeroAsiento).toList());
+        assertTrue(mejores.stream().allMatch(a -> a.getEstado() == EstadoAsiento.LIBRE));
+        assertTrue(asientoService.getMejoresAsientos(funcionId, 11).isEmpty());
+        verify(asientoRepository, never()).reservarSiLibre(any(), any(), any());
+    }
+
     @Test
     @DisplayName("Debe cancelar reserva existente y publicar evento")
     void cuandoCancelarReserva_reservaExiste_debeCancelarYPublicarEvento() {
@@ -196,15 +503,13 @@ class AsientoServiceTest {
         when(asientoRepository.findById(asientoId))
                 .thenReturn(Optional.of(asientoReservado));
 
-        when(asientoRepository.save(any(Asiento.class)))
-                .thenAnswer(invocation -> invocation.getArgument(0));
+        when(asientoRepository.liberarSiReservado(asientoId))
+                .thenReturn(1);
 
         asientoService.cancelarReserva(asientoId);
 
-        assertEquals(EstadoAsiento.LIBRE, asientoReservado.getEstado());
-        assertNull(asientoReservado.getClienteEmail());
-
-        verify(asientoRepository, times(1)).save(asientoReservado);
+        verify(asientoRepository, times(1)).liberarSiReservado(asientoId);
+        verify(asientoRepository, never()).save(any(Asiento.class));
 
         ArgumentCaptor<AsientoCanceladoEvent> eventoCaptor =
                 ArgumentCaptor.forClass(AsientoCanceladoEvent.class);
@@ -236,44 +541,51 @@ class AsientoServiceTest {
         assertTrue(exception.getMessage().contains("no está reservado"));
 
         verify(asientoRepository, never()).save(any(Asiento.class));
+        verify(asientoRepository, never()).liberarSiReservado(any());
         verify(eventPublisher, never()).publishEvent(any());
     }
 
     @Test
-    @DisplayName("Debe cancelar todos los asientos de una función")
-    void cuandoCancelarAsientosPorFuncion_debeCancelarTodos() {
-        Long funcionId = 1L;
-
-        Asiento asiento1 = new Asiento();
-        asiento1.setId(1L);
-        asiento1.setFuncionId(funcionId);
-        asiento1.setEstado(EstadoAsiento.LIBRE);
+    @DisplayName("Debe lanzar excepción si otra cancelación ganó la carrera")
+    void cuandoCancelarReserva_updateSinFilas_debeLanzarExcepcion() {
+        Long asientoId = 5L;
 
-        Asiento asiento2 = new Asiento();
-        asiento2.setId(2L);
-        asiento2.setFuncionId(funcionId);
-        asiento2.setEstado(EstadoAsiento.RESERVADO);
+        Asiento asientoReservado = new Asiento();
+        asientoReservado.setId(asientoId);
+        asientoReservado.setFuncionId(1L);
+        asientoReservado.setNumeroAsiento("A5");
+        asientoReservado.setEstado(EstadoAsiento.RESERVADO);
 
-        Asiento asiento3 = new Asiento();
-        asiento3.setId(3L);
-        asiento3.setFuncionId(funcionId);
-        asiento3.setEstado(EstadoAsiento.RESERVADO);
+        when(asientoRepository.findById(asientoId))
+                .thenReturn(Optional.of(asientoReservado));
+        when(asientoRepository.liberarSiReservado(asientoId))
+                .thenReturn(0);
 
-        List<Asiento> asientos = Arrays.asList(asiento1, asiento2, asiento3);
+        RuntimeException exception = assertThrows(
+                RuntimeException.class,
+                () -> asientoService.cancelarReserva(asientoId)
+        );
 
-        when(asientoRepository.findByFuncionId(funcionId))
-                .thenReturn(asientos);
+        assertTrue(exception.getMessage().contains("no está reservado"));
+        verify(eventPublisher, never()).publishEvent(any());
+    }
 
-        when(asientoRepository.save(any(Asiento.class)))
-                .thenAnswer(invocation -> invocation.getArgument(0));
+    @Test
+    @DisplayName("Debe cancelar todos los asientos de una función")
+    void cuandoCancelarAsientosPorFuncion_debeCancelarTodos() {
+        Long funcionId = 1L;
 
-        asientoService.cancelarAsientosPorFuncion(funcionId);
+        when(asientoRepository.cancelarPorFuncion(funcionId))
+                .thenReturn(3);
 
-        assertEquals(EstadoAsiento.CANCELADO, asiento1.getEstado());
-        assertEquals(EstadoAsiento.CANCELADO, asiento2.getEstado());
-        assertEquals(EstadoAsiento.CANCELADO, asiento3.getEstado());
+        int cancelados = asientoService.cancelarAsientosPorFuncion(funcionId);
 
-        verify(asientoRepository, times(3)).save(any(Asiento.class));
+        // Un solo UPDATE: ni se cargan ni se guardan los asientos uno por uno
+        assertEquals(3, cancelados);
+        verify(asientoRepository, times(1)).cancelarPorFuncion(funcionId);
+        verify(asientoRepository, never()).findByFuncionId(anyLong());
+        verify(asientoRepository, never()).save(any(Asiento.class));
+        verify(cacheMapaAsientos, times(1)).invalidar(funcionId);
     }
 
     @Test
@@ -0,0 +1,98 @@
+package com.cine.AppGestionCine.asientos;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BuscadorMejoresAsientosTest {
+
+    // Sala de filas x columnas con todos los asientos libres
+    private static List<Asiento> sala(int filas, int columnas) {
+        List<Asiento> asientos = new ArrayList<>();
+        for (int f = 1; f <= filas; f++) {
+            for (int c = 1; c <= columnas; c++) {
+                Asiento asiento = new Asiento(1L, (char) ('A' + f - 1) + String.valueOf(c), f, c);
+                asiento.setId((long) asientos.size() + 1);
+                asientos.add(asiento);
+            }
+        }
+        return asientos;
+    }
+
+    private static List<String> numeros(MapaOcupacion mapa, int[] indices) {
+        List<String> numeros = new ArrayList<>();
+        for (int indice : indices) {
+            numeros.add(mapa.numeroAsiento(indice));
+        }
+        return numeros;
+    }
+
+    @Test
+    @DisplayName("En una sala vacía debe elegir el bloque del centro")
+    void cuandoSalaVacia_debeElegirElCentro() {
+        MapaOcupacion mapa = MapaOcupacion.desde(1L, sala(5, 10));
+
+        int[] indices = BuscadorMejoresAsientos.buscar(mapa, 4);
+
+        assertEquals(List.of("C4", "C5", "C6", "C7"), numeros(mapa, indices));
+    }
+
+    @Test
+    @DisplayName("Debe saltar huecos demasiado chicos y preferir el bloque más cercano al centro")
+    void cuandoCentroOcupado_debeBuscarBloqueContiguo() {
+        List<Asiento> asientos = sala(5, 10);
+        // Fila C: solo quedan libres C1-C3 y C8-C10
+        for (int c = 4; c <= 7; c++) {
+            asientos.get(2 * 10 + c - 1).setEstado(EstadoAsiento.RESERVADO);
+        }
+        MapaOcupacion mapa = MapaOcupacion.desde(1L, asientos);
+
+        assertEquals(List.of("B4", "B5", "B6", "B7"), numeros(mapa, BuscadorMejoresAsientos.buscar(mapa, 4)));
+        // Un lateral de C queda más lejos del centro que el centro de B
+        assertEquals(List.of("B4", "B5", "B6"), numeros(mapa, BuscadorMejoresAsientos.buscar(mapa, 3)));
+    }
+
+    @Test
+    @DisplayName("Debe retornar vacío si no hay bloque del tamaño pedido")
+    void cuandoNoHayBloque_debeRetornarVacio() {
+        List<Asiento> asientos = sala(2, 6);
+        // Libres: A1, A3, A5, B2, B4, B6
+        for (Asiento asiento : asientos) {
+            if ((asiento.getFila() + asiento.getColumna()) % 2 == 1) {
+                asiento.setEstado(EstadoAsiento.RESERVADO);
+            }
+        }
+        MapaOcupacion mapa = MapaOcupacion.desde(1L, asientos);
+
+        assertEquals(1, BuscadorMejoresAsientos.buscar(mapa, 1).length);
+        assertEquals(0, BuscadorMejoresAsientos.buscar(mapa, 2).length);
+        assertEquals(0, BuscadorMejoresAsientos.buscar(mapa, 7).length);
+    }
+
+    @Test
+    @DisplayName("Los inicios de bloque deben coincidir con una búsqueda lineal")
+    void cuandoCompararConBusquedaLineal_debeCoincidir() {
+        Random random = new Random(7);
+
+        for (int prueba = 0; prueba < 10_000; prueba++) {
+            long libres = random.nextLong() | random.nextLong();
+            int k = 1 + random.nextInt(64);
+
+            long esperado = 0;
+            for (int j = 0; j + k <= 64; j++) {
+                long mascara = (k == 64 ? -1L : (1L << k) - 1) << j;
+                if ((libres & mascara) == mascara) {
+                    esperado |= 1L << j;
+                }
+            }
+
+            assertEquals(esperado, BuscadorMejoresAsientos.iniciosDeBloque(libres, k),
+                    "libres=" + Long.toBinaryString(libres) + " k=" + k);
+        }
+    }
+}
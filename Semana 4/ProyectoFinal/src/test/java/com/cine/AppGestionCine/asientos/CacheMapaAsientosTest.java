@@ -0,0 +1,162 @@
+package com.cine.AppGestionCine.asientos;
+
+import com.cine.AppGestionCine.asientos.events.AsientoCanceladoEvent;
+import com.cine.AppGestionCine.asientos.events.AsientoReservadoEvent;
+import com.cine.AppGestionCine.asientos.events.AsientosReservadosEvent;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.ArgumentCaptor;
+import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CacheMapaAsientosTest {
+
+    @Mock
+    private AsientoRepository asientoRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private CacheMapaAsientos cacheMapaAsientos;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        cacheMapaAsientos = new CacheMapaAsientos(asientoRepository, objectMapper, eventPublisher, 3, 24);
+
+        when(asientoRepository.findByFuncionId(anyLong())).thenReturn(List.of());
+        when(asientoRepository.findByFuncionId(1L)).thenReturn(sala());
+    }
+
+    private static List<Asiento> sala() {
+        List<Asiento> asientos = new ArrayList<>();
+        for (int i = 0; i < 15; i++) {
+            int fila = i / 10 + 1;
+            int columna = i % 10 + 1;
+            Asiento asiento = new Asiento(1L, (char) ('A' + fila - 1) + String.valueOf(columna), fila, columna);
+            asiento.setId((long) i + 1);
+            asientos.add(asiento);
+        }
+        return asientos;
+    }
+
+    @Test
+    @DisplayName("Debe armar el mismo JSON por filas que el endpoint original")
+    void cuandoGetMapa_debeAgruparPorFila() throws Exception {
+        JsonNode json = objectMapper.readTree(cacheMapaAsientos.getMapa(1L).getJson());
+
+        assertEquals(10, json.get("filas").get("A").size());
+        assertEquals(5, json.get("filas").get("B").size());
+        assertEquals("B3", json.get("filas").get("B").get(2).get("numero").asText());
+        assertEquals("LIBRE", json.get("filas").get("B").get(2).get("estado").asText());
+        assertTrue(json.get("filas").get("B").get(2).get("cliente").isNull());
+    }
+
+    @Test
+    @DisplayName("Sin cambios debe devolver el mismo ETag y no volver a la BD")
+    void cuandoSinCambios_debeReusarSnapshot() {
+        CacheMapaAsientos.MapaSerializado primero = cacheMapaAsientos.getMapa(1L);
+        CacheMapaAsientos.MapaSerializado segundo = cacheMapaAsientos.getMapa(1L);
+
+        assertSame(primero, segundo);
+        verify(asientoRepository, times(1)).findByFuncionId(1L);
+    }
+
+    @Test
+    @DisplayName("Los eventos deben actualizar solo el asiento afectado y subir la versión")
+    void cuandoEventos_debeActualizarIncrementalmente() throws Exception {
+        CacheMapaAsientos.MapaSerializado inicial = cacheMapaAsientos.getMapa(1L);
+
+        cacheMapaAsientos.manejarAsientoReservado(new AsientoReservadoEvent(12L, 1L, "B2", "juan@example.com"));
+        CacheMapaAsientos.MapaSerializado reservado = cacheMapaAsientos.getMapa(1L);
+
+        cacheMapaAsientos.manejarAsientosReservados(new AsientosReservadosEvent(1L, List.of(1L, 2L), List.of("A1", "A2"), "maria@example.com"));
+        cacheMapaAsientos.manejarAsientoCancelado(new AsientoCanceladoEvent(12L, 1L, "B2", "juan@example.com"));
+        CacheMapaAsientos.MapaSerializado actual = cacheMapaAsientos.getMapa(1L);
+
+        assertNotEquals(inicial.getEtag(), reservado.getEtag());
+        assertTrue(Long.parseLong(actual.getEtag().replace("\"", ""))
+                > Long.parseLong(reservado.getEtag().replace("\"", "")));
+
+        JsonNode json = objectMapper.readTree(actual.getJson());
+        assertEquals("RESERVADO", json.get("filas").get("A").get(0).get("estado").asText());
+        assertEquals("maria@example.com", json.get("filas").get("A").get(1).get("cliente").asText());
+        assertEquals("LIBRE", json.get("filas").get("B").get(1).get("estado").asText());
+
+        verify(asientoRepository, times(1)).findByFuncionId(1L);
+
+        // Un cambio por evento, solo con los asientos afectados y la versión resultante
+        ArgumentCaptor<CambioMapaAsientos> captor = ArgumentCaptor.forClass(CambioMapaAsientos.class);
+        verify(eventPublisher, times(3)).publishEvent(captor.capture());
+        assertEquals(2, captor.getAllValues().get(1).getAsientos().size());
+        assertEquals(actual.getVersion(), captor.getAllValues().get(2).getVersion());
+    }
+
+    @Test
+    @DisplayName("Invalidar debe forzar una recarga desde la BD")
+    void cuandoInvalidar_debeRecargar() {
+        String etag = cacheMapaAsientos.getMapa(1L).getEtag();
+
+        cacheMapaAsientos.invalidar(1L);
+
+        assertNotEquals(etag, cacheMapaAsientos.getMapa(1L).getEtag());
+        verify(asientoRepository, times(2)).findByFuncionId(1L);
+        verify(eventPublisher).publishEvent(argThat((Object e) -> e instanceof CambioMapaAsientos c && c.esInvalidacion()));
+    }
+
+    @Test
+    @DisplayName("Un ID sin asientos no debe quedarse en memoria")
+    void cuandoFuncionNoExiste_noDebeGuardarMapa() throws Exception {
+        for (long id = 1000; id < 1100; id++) {
+            JsonNode json = objectMapper.readTree(cacheMapaAsientos.getMapa(id).getJson());
+            assertTrue(json.get("filas").isEmpty());
+        }
+
+        assertEquals(0, cacheMapaAsientos.totalMapas());
+    }
+
+    @Test
+    @DisplayName("No debe guardar más mapas que el máximo configurado")
+    void cuandoSuperarMaximo_debeDescartarMapas() {
+        when(asientoRepository.findByFuncionId(anyLong())).thenAnswer(invocacion -> {
+            Asiento asiento = new Asiento(invocacion.getArgument(0), "A1", 1, 1);
+            asiento.setId(1L);
+            return List.of(asiento);
+        });
+
+        for (long id = 1; id <= 50; id++) {
+            cacheMapaAsientos.getMapa(id);
+        }
+
+        assertTrue(cacheMapaAsientos.totalMapas() <= 3, "Mapas en memoria: " + cacheMapaAsientos.totalMapas());
+    }
+
+    @Test
+    @DisplayName("Una reserva que llega mientras se carga el mapa no debe perderse")
+    void cuandoReservaDuranteLaCarga_noDebeGuardarElMapaViejo() throws Exception {
+        // La reserva se confirma después de leer los asientos y antes de guardar el mapa
+        List<Asiento> conReserva = sala();
+        conReserva.get(11).setEstado(EstadoAsiento.RESERVADO);
+        when(asientoRepository.findByFuncionId(1L)).thenAnswer(invocacion -> {
+            cacheMapaAsientos.manejarAsientoReservado(new AsientoReservadoEvent(12L, 1L, "B2", "juan@example.com"));
+            return sala();
+        }).thenReturn(conReserva);
+
+        cacheMapaAsientos.getMapa(1L);
+        JsonNode json = objectMapper.readTree(cacheMapaAsientos.getMapa(1L).getJson());
+
+        assertEquals("RESERVADO", json.get("filas").get("B").get(1).get("estado").asText());
+    }
+}
@@ -0,0 +1,75 @@
+package com.cine.AppGestionCine.asientos;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark JMH de reservas concurrentes sobre el mapa de ocupación de una sala de 500 asientos
+ *
+ * 16 hilos reservan y liberan asientos al azar del mismo mapa (CAS sobre la misma
+ * palabra cuando caen en la misma fila). Se ejecuta igual que MejoresAsientosBenchmark.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(16)
+public class MapaOcupacionBenchmark {
+
+    private MapaOcupacion mapa;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        List<Asiento> asientos = new ArrayList<>();
+
+        // 25 filas x 20 columnas = 500 asientos
+        for (int f = 1; f <= 25; f++) {
+            for (int c = 1; c <= 20; c++) {
+                Asiento asiento = new Asiento(1L, "F" + f + "C" + c, f, c);
+                asiento.setId((long) asientos.size() + 1);
+                asientos.add(asiento);
+            }
+        }
+
+        mapa = MapaOcupacion.desde(1L, asientos);
+    }
+
+    /**
+     * Un intento de reserva; si gana, libera el asiento para que el mapa no se llene
+     */
+    @Benchmark
+    public boolean reservarYLiberar() {
+        int indice = mapa.indice(ThreadLocalRandom.current().nextInt(1, 26), ThreadLocalRandom.current().nextInt(1, 21));
+        boolean reservado = mapa.reservar(indice);
+        if (reservado) {
+            mapa.liberar(indice);
+        }
+        return reservado;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(MapaOcupacionBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
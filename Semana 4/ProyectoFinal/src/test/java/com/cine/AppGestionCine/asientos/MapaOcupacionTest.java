@@ -0,0 +1,123 @@
+package com.cine.AppGestionCine.asientos;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MapaOcupacionTest {
+
+    private static List<Asiento> sala(Long funcionId, int total) {
+        List<Asiento> asientos = new ArrayList<>();
+        for (int i = 0; i < total; i++) {
+            int fila = i / 10 + 1;
+            int columna = i % 10 + 1;
+            Asiento asiento = new Asiento(funcionId, (char) ('A' + fila - 1) + String.valueOf(columna), fila, columna);
+            asiento.setId((long) i + 1);
+            asientos.add(asiento);
+        }
+        return asientos;
+    }
+
+    @Test
+    @DisplayName("Debe reflejar el estado de la BD y las posiciones inexistentes como ocupadas")
+    void cuandoConstruir_debeRespetarEstadosDeLaBD() {
+        List<Asiento> asientos = sala(1L, 15);
+        asientos.get(1).setEstado(EstadoAsiento.RESERVADO);   // A2
+        asientos.get(12).setEstado(EstadoAsiento.CANCELADO);  // B3
+
+        MapaOcupacion mapa = MapaOcupacion.desde(1L, asientos);
+
+        assertEquals(2, mapa.getFilas());
+        assertEquals(10, mapa.getColumnas());
+        assertEquals(13, mapa.disponibles());
+        assertTrue(mapa.estaOcupado(mapa.indice("A2")));
+        assertTrue(mapa.estaOcupado(mapa.indice("B3")));
+        assertFalse(mapa.estaOcupado(mapa.indice("B5")));
+        assertEquals(-1, mapa.indice("B6"));
+        assertTrue(mapa.estaOcupado(mapa.indice(2, 6)), "B6 no existe y no debe poder reservarse");
+    }
+
+    @Test
+    @DisplayName("Debe permitir reservar y liberar un asiento una sola vez")
+    void cuandoReservarYLiberar_debeCambiarEstado() {
+        MapaOcupacion mapa = MapaOcupacion.desde(1L, sala(1L, 10));
+        int indice = mapa.indice("A7");
+
+        assertTrue(mapa.reservar(indice));
+        assertFalse(mapa.reservar(indice));
+        assertEquals(7L, mapa.asientoId(indice));
+        assertEquals(1, mapa.fila(indice));
+        assertEquals(7, mapa.columna(indice));
+
+        assertTrue(mapa.liberar(indice));
+        assertFalse(mapa.liberar(indice));
+        assertTrue(mapa.reservar(indice));
+    }
+
+    @Test
+    @DisplayName("Debe ocupar todos los asientos al cancelar la función")
+    void cuandoOcuparTodos_noDebeQuedarNingunoLibre() {
+        MapaOcupacion mapa = MapaOcupacion.desde(1L, sala(1L, 25));
+
+        mapa.ocuparTodos();
+
+        assertEquals(0, mapa.disponibles());
+        assertFalse(mapa.reservar(mapa.indice("C1")));
+    }
+
+    /**
+     * Benchmark de contención: 16 hilos intentan reservar los 500 asientos
+     * de la misma función en distinto orden. Cada asiento debe tener un solo ganador.
+     */
+    @Test
+    @DisplayName("Con alta contención cada asiento debe tener exactamente un ganador")
+    void cuandoMuchosHilosCompiten_cadaAsientoTieneUnGanador() throws Exception {
+        int hilos = 16;
+        int rondas = 200;
+        List<Asiento> asientos = sala(1L, 500);
+
+        for (int ronda = 0; ronda < rondas; ronda++) {
+            MapaOcupacion mapa = MapaOcupacion.desde(1L, asientos);
+            AtomicIntegerArray ganadores = new AtomicIntegerArray(500);
+            CountDownLatch inicio = new CountDownLatch(1);
+            ExecutorService executor = Executors.newFixedThreadPool(hilos);
+
+            for (int h = 0; h < hilos; h++) {
+                List<Integer> orden = new ArrayList<>();
+                for (int i = 0; i < 500; i++) {
+                    orden.add(i);
+                }
+                Collections.shuffle(orden);
+
+                executor.submit(() -> {
+                    inicio.await();
+                    for (int indice : orden) {
+                        if (mapa.reservar(indice)) {
+                            ganadores.incrementAndGet(indice);
+                        }
+                    }
+                    return null;
+                });
+            }
+
+            inicio.countDown();
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+            for (int i = 0; i < 500; i++) {
+                assertEquals(1, ganadores.get(i), "Asiento " + i + " con más de un ganador");
+            }
+            assertEquals(0, mapa.disponibles());
+        }
+    }
+}
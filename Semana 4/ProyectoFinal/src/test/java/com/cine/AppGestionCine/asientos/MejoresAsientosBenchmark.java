@@ -0,0 +1,111 @@
+package com.cine.AppGestionCine.asientos;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark JMH del buscador de mejores asientos en una sala de 500 asientos
+ *
+ * No corre con mvn test (no termina en Test). Para ejecutarlo, correr main()
+ * desde el IDE o, después de mvn test-compile:
+ * java -cp target/test-classes:target/classes:<classpath de test> org.openjdk.jmh.Main MejoresAsientosBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MejoresAsientosBenchmark {
+
+    @Param({"0.0", "0.5", "0.9"})
+    private double ocupacion;
+
+    @Param({"2", "5", "8"})
+    private int cantidad;
+
+    private MapaOcupacion mapa;
+    private List<Asiento> disponibles;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        Random random = new Random(42);
+        List<Asiento> asientos = new ArrayList<>();
+
+        // 25 filas x 20 columnas = 500 asientos
+        for (int f = 1; f <= 25; f++) {
+            for (int c = 1; c <= 20; c++) {
+                Asiento asiento = new Asiento(1L, "F" + f + "C" + c, f, c);
+                asiento.setId((long) asientos.size() + 1);
+                if (random.nextDouble() < ocupacion) {
+                    asiento.setEstado(EstadoAsiento.RESERVADO);
+                }
+                asientos.add(asiento);
+            }
+        }
+
+        mapa = MapaOcupacion.desde(1L, asientos);
+        disponibles = asientos.stream().filter(a -> a.getEstado() == EstadoAsiento.LIBRE).toList();
+    }
+
+    @Benchmark
+    public int[] bitset() {
+        return BuscadorMejoresAsientos.buscar(mapa, cantidad);
+    }
+
+    /**
+     * Lo que hace hoy el frontend: recorrer la lista de disponibles buscando bloques
+     */
+    @Benchmark
+    public int listaDisponibles() {
+        boolean[][] libre = new boolean[26][21];
+        for (Asiento asiento : disponibles) {
+            libre[asiento.getFila()][asiento.getColumna()] = true;
+        }
+
+        int mejor = -1;
+        double mejorPuntaje = Double.MAX_VALUE;
+        for (int f = 1; f <= 25; f++) {
+            for (int c = 1; c + cantidad - 1 <= 20; c++) {
+                boolean bloque = true;
+                for (int i = 0; i < cantidad && bloque; i++) {
+                    bloque = libre[f][c + i];
+                }
+                if (bloque) {
+                    double dF = f - 13.0;
+                    double dC = c + (cantidad - 1) / 2.0 - 10.5;
+                    double puntaje = dF * dF + dC * dC;
+                    if (puntaje < mejorPuntaje) {
+                        mejorPuntaje = puntaje;
+                        mejor = f * 100 + c;
+                    }
+                }
+            }
+        }
+        return mejor;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(MejoresAsientosBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
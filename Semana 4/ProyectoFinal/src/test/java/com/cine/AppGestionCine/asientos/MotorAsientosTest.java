@@ -0,0 +1,83 @@
+package com.cine.AppGestionCine.asientos;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+class MotorAsientosTest {
+
+    private AsientoRepository asientoRepository;
+    private MotorAsientos motorAsientos;
+
+    @BeforeEach
+    void setUp() {
+        asientoRepository = mock(AsientoRepository.class);
+        // Las funciones 1 a 100 tienen 10 asientos; cualquier otro ID no existe
+        when(asientoRepository.findByFuncionId(anyLong())).thenAnswer(invocacion -> {
+            Long funcionId = invocacion.getArgument(0);
+            return funcionId <= 100 ? sala(funcionId, 10) : List.of();
+        });
+        motorAsientos = new MotorAsientos(asientoRepository, 3, 24);
+    }
+
+    private static List<Asiento> sala(Long funcionId, int total) {
+        List<Asiento> asientos = new ArrayList<>();
+        for (int i = 0; i < total; i++) {
+            Asiento asiento = new Asiento(funcionId, "A" + (i + 1), 1, i + 1);
+            asiento.setId((long) i + 1);
+            asientos.add(asiento);
+        }
+        return asientos;
+    }
+
+    @Test
+    @DisplayName("Debe cargar el mapa de la BD una sola vez")
+    void cuandoPedirMapaDosVeces_debeCargarUnaVez() {
+        MapaOcupacion mapa = motorAsientos.getMapa(1L);
+
+        assertSame(mapa, motorAsientos.getMapa(1L));
+        assertEquals(10, mapa.disponibles());
+        verify(asientoRepository, times(1)).findByFuncionId(1L);
+    }
+
+    @Test
+    @DisplayName("Una función sin asientos no debe quedarse en memoria")
+    void cuandoFuncionNoExiste_noDebeGuardarMapa() {
+        for (long id = 1000; id < 1100; id++) {
+            MapaOcupacion mapa = motorAsientos.getMapa(id);
+            assertEquals(0, mapa.getFilas());
+            assertEquals(-1, mapa.indice("A1"));
+        }
+
+        assertEquals(0, motorAsientos.totalMapas());
+    }
+
+    @Test
+    @DisplayName("No debe guardar más mapas que el máximo configurado")
+    void cuandoSuperarMaximo_debeDescartarMapas() {
+        for (long id = 1; id <= 50; id++) {
+            motorAsientos.getMapa(id);
+        }
+
+        assertTrue(motorAsientos.totalMapas() <= 3, "Mapas en memoria: " + motorAsientos.totalMapas());
+    }
+
+    @Test
+    @DisplayName("Al cancelar la función debe ocupar todo y sacar su mapa de memoria")
+    void cuandoBloquearFuncion_debeOcuparYDescartar() {
+        MapaOcupacion mapa = motorAsientos.getMapa(1L);
+
+        motorAsientos.bloquearFuncion(1L);
+
+        assertEquals(0, mapa.disponibles(), "Quien tenga la referencia ve todo ocupado");
+        assertEquals(0, motorAsientos.totalMapas());
+        assertNotSame(mapa, motorAsientos.getMapa(1L));
+    }
+}
@@ -0,0 +1,80 @@
+package com.cine.AppGestionCine.asientos;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RuedaTemporizadoraTest {
+
+    @Test
+    @DisplayName("Debe expirar cada elemento en su tick y no antes")
+    void cuandoAvanzar_debeExpirarEnOrden() {
+        RuedaTemporizadora<String> rueda = new RuedaTemporizadora<>(100, 0);
+        List<String> expirados = new ArrayList<>();
+
+        rueda.programar("a", 250);
+        rueda.programar("b", 500);
+
+        rueda.avanzar(200, expirados::add);
+        assertTrue(expirados.isEmpty());
+
+        rueda.avanzar(300, expirados::add);
+        assertEquals(List.of("a"), expirados);
+
+        rueda.avanzar(500, expirados::add);
+        assertEquals(List.of("a", "b"), expirados);
+        assertEquals(0, rueda.pendientes());
+    }
+
+    @Test
+    @DisplayName("Debe bajar de nivel los elementos lejanos y expirarlos a tiempo")
+    void cuandoElementoEstaEnNivelSuperior_debeExpirarEnSuTick() {
+        RuedaTemporizadora<Long> rueda = new RuedaTemporizadora<>(1, 0);
+        Random random = new Random(42);
+        List<Long> vencimientos = new ArrayList<>();
+
+        // Vencimientos repartidos en los 3 primeros niveles (hasta 64^3 ticks)
+        for (int i = 0; i < 2000; i++) {
+            long vence = 1 + random.nextInt(262_000);
+            vencimientos.add(vence);
+            rueda.programar(vence, vence);
+        }
+
+        long[] ahora = {0};
+        List<Long> tarde = new ArrayList<>();
+        for (long t = 1000; t <= 262_000; t += 1000) {
+            ahora[0] = t;
+            rueda.avanzar(t, vence -> {
+                if (vence > ahora[0] || vence <= ahora[0] - 1000) {
+                    tarde.add(vence);
+                }
+            });
+        }
+
+        assertTrue(tarde.isEmpty(), "Expirados fuera de su ventana: " + tarde);
+        assertEquals(0, rueda.pendientes());
+    }
+
+    @Test
+    @DisplayName("Un temporizador cancelado no debe expirar")
+    void cuandoCancelar_noDebeExpirar() {
+        RuedaTemporizadora<String> rueda = new RuedaTemporizadora<>(100, 0);
+        List<String> expirados = new ArrayList<>();
+
+        RuedaTemporizadora.Temporizador<String> temporizador = rueda.programar("a", 10_000);
+        rueda.programar("b", 10_000);
+
+        assertTrue(rueda.cancelar(temporizador));
+        assertFalse(rueda.cancelar(temporizador));
+
+        rueda.avanzar(20_000, expirados::add);
+
+        assertEquals(List.of("b"), expirados);
+        assertEquals(0, rueda.pendientes());
+    }
+}
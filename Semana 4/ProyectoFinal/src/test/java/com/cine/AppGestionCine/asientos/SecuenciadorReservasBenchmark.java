@@ -0,0 +1,115 @@
+package com.cine.AppGestionCine.asientos;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Benchmark JMH del secuenciador con una función taquillera (90% del tráfico)
+ *
+ * 16 hilos reservan un asiento al azar, esperan la respuesta del group commit y
+ * lo liberan en el mapa para que la sala no se llene. La BD es un mock que
+ * acepta todo el lote, así que se mide el recorrido por los carriles y el
+ * agrupamiento, no el UPDATE. Se ejecuta igual que MejoresAsientosBenchmark.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(16)
+public class SecuenciadorReservasBenchmark {
+
+    private MotorAsientos motorAsientos;
+    private SecuenciadorReservas secuenciador;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        // stubOnly: los mocks no guardan cada invocación durante millones de llamadas
+        AsientoRepository asientoRepository = mock(AsientoRepository.class, withSettings().stubOnly());
+        when(asientoRepository.findByFuncionId(anyLong())).thenAnswer(invocation -> sala(invocation.getArgument(0)));
+        motorAsientos = new MotorAsientos(asientoRepository, 1000, 24);
+
+        AsientoJdbcRepository asientoJdbcRepository = mock(AsientoJdbcRepository.class, withSettings().stubOnly());
+        when(asientoJdbcRepository.reservarSiLibres(any())).thenAnswer(invocation -> {
+            int[] filas = new int[invocation.<List<Asiento>>getArgument(0).size()];
+            Arrays.fill(filas, 1);
+            return filas;
+        });
+
+        secuenciador = new SecuenciadorReservas(motorAsientos, asientoJdbcRepository, evento -> { },
+                mock(PlatformTransactionManager.class, withSettings().stubOnly()), 4, 10_000, 256);
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrar() {
+        secuenciador.cerrar();
+    }
+
+    // 25 filas x 20 columnas = 500 asientos
+    private static List<Asiento> sala(Long funcionId) {
+        List<Asiento> asientos = new ArrayList<>();
+        for (int f = 1; f <= 25; f++) {
+            for (int c = 1; c <= 20; c++) {
+                Asiento asiento = new Asiento(funcionId, "F" + f + "C" + c, f, c);
+                asiento.setId(funcionId * 1000 + asientos.size() + 1);
+                asientos.add(asiento);
+            }
+        }
+        return asientos;
+    }
+
+    /**
+     * Una reserva de punta a punta; si dos hilos piden el mismo asiento el perdedor recibe error
+     */
+    @Benchmark
+    public boolean reservar() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        // 9 de cada 10 a la función 1; el resto repartido en 2..4
+        long funcionId = random.nextInt(10) == 0 ? random.nextInt(2, 5) : 1;
+        int fila = random.nextInt(1, 26);
+        int columna = random.nextInt(1, 21);
+
+        boolean reservado = secuenciador.reservar(funcionId, "F" + fila + "C" + columna, "cliente@example.com")
+                .handle((asiento, error) -> error == null)
+                .join();
+        if (reservado) {
+            MapaOcupacion mapa = motorAsientos.getMapa(funcionId);
+            mapa.liberar(mapa.indice(fila, columna));
+        }
+        return reservado;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(SecuenciadorReservasBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,241 @@
+package com.cine.AppGestionCine.asientos;
+
+import com.cine.AppGestionCine.asientos.events.AsientoReservadoEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionSystemException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+class SecuenciadorReservasTest {
+
+    private AsientoJdbcRepository asientoJdbcRepository;
+    private ApplicationEventPublisher eventPublisher;
+    private PlatformTransactionManager transactionManager;
+    private MotorAsientos motorAsientos;
+    private SecuenciadorReservas secuenciador;
+
+    // Cuántos group commits llegaron a la BD y cuántas filas traía cada uno
+    private final List<Integer> lotes = Collections.synchronizedList(new ArrayList<>());
+
+    @BeforeEach
+    void setUp() {
+        AsientoRepository asientoRepository = mock(AsientoRepository.class);
+        when(asientoRepository.findByFuncionId(anyLong())).thenAnswer(invocation -> sala(invocation.getArgument(0), 500));
+        motorAsientos = new MotorAsientos(asientoRepository, 1000, 24);
+
+        asientoJdbcRepository = mock(AsientoJdbcRepository.class);
+        when(asientoJdbcRepository.reservarSiLibres(any())).thenAnswer(invocation -> {
+            List<Asiento> asientos = invocation.getArgument(0);
+            lotes.add(asientos.size());
+            int[] filas = new int[asientos.size()];
+            Arrays.fill(filas, 1);
+            return filas;
+        });
+
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        transactionManager = mock(PlatformTransactionManager.class);
+        secuenciador = new SecuenciadorReservas(motorAsientos, asientoJdbcRepository, eventPublisher,
+                transactionManager, 4, 10_000, 256);
+    }
+
+    @AfterEach
+    void tearDown() {
+        secuenciador.cerrar();
+    }
+
+    private static List<Asiento> sala(Long funcionId, int total) {
+        List<Asiento> asientos = new ArrayList<>();
+        for (int i = 0; i < total; i++) {
+            int fila = i / 10 + 1;
+            int columna = i % 10 + 1;
+            Asiento asiento = new Asiento(funcionId, (char) ('A' + fila - 1) + String.valueOf(columna), fila, columna);
+            asiento.setId(funcionId * 1000 + i + 1);
+            asientos.add(asiento);
+        }
+        return asientos;
+    }
+
+    private static String mensaje(CompletableFuture<Asiento> respuesta) throws InterruptedException {
+        try {
+            respuesta.get(10, TimeUnit.SECONDS);
+            return null;
+        } catch (ExecutionException e) {
+            return e.getCause().getMessage();
+        } catch (TimeoutException e) {
+            return fail("La reserva no respondió a tiempo");
+        }
+    }
+
+    @Test
+    @DisplayName("Debe reservar el asiento, confirmarlo en la BD y publicar el evento")
+    void cuandoReservar_debeConfirmarYPublicarEvento() throws Exception {
+        Asiento asiento = secuenciador.reservar(1L, "A5", "juan@example.com").get(10, TimeUnit.SECONDS);
+
+        assertEquals(EstadoAsiento.RESERVADO, asiento.getEstado());
+        assertEquals(1005L, asiento.getId());
+        assertEquals("juan@example.com", asiento.getClienteEmail());
+        assertTrue(motorAsientos.getMapa(1L).estaOcupado(motorAsientos.getMapa(1L).indice("A5")));
+        verify(eventPublisher).publishEvent(new AsientoReservadoEvent(1005L, 1L, "A5", "juan@example.com"));
+    }
+
+    @Test
+    @DisplayName("Debe rechazar un asiento que no existe sin ir a la BD")
+    void cuandoAsientoNoExiste_debeFallarSinEscribir() throws Exception {
+        assertEquals("Asiento no encontrado: Z99", mensaje(secuenciador.reservar(1L, "Z99", "juan@example.com")));
+        verify(asientoJdbcRepository, never()).reservarSiLibres(any());
+    }
+
+    @Test
+    @DisplayName("Si la BD ya no lo tiene libre, debe fallar esa reserva y dejar el bit ocupado")
+    void cuandoBDRechazaAsiento_debeFallarSoloEseAsiento() throws Exception {
+        doReturn(new int[]{0}).when(asientoJdbcRepository).reservarSiLibres(any());
+
+        assertEquals("El asiento A1 no está disponible", mensaje(secuenciador.reservar(1L, "A1", "juan@example.com")));
+        assertTrue(motorAsientos.getMapa(1L).estaOcupado(motorAsientos.getMapa(1L).indice("A1")));
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    @DisplayName("Si falla el commit, debe reintentar uno por uno y liberar solo el que falla")
+    void cuandoFallaElLote_debeReintentarUnoPorUno() throws Exception {
+        CountDownLatch trabar = new CountDownLatch(1);
+        AtomicInteger llamadas = new AtomicInteger();
+
+        doAnswer(invocation -> {
+            if (llamadas.incrementAndGet() == 1) {
+                trabar.await();
+            }
+            List<Asiento> asientos = invocation.getArgument(0);
+            if (asientos.size() > 1 || asientos.get(0).getNumeroAsiento().equals("A3")) {
+                throw new RuntimeException("Deadlock simulado");
+            }
+            return new int[]{1};
+        }).when(asientoJdbcRepository).reservarSiLibres(any());
+
+        // A1 traba el carril; A2..A4 llegan juntas al siguiente lote
+        CompletableFuture<Asiento> primera = secuenciador.reservar(1L, "A1", "juan@example.com");
+        while (llamadas.get() == 0) {
+            Thread.sleep(1);
+        }
+        CompletableFuture<Asiento> a2 = secuenciador.reservar(1L, "A2", "juan@example.com");
+        CompletableFuture<Asiento> a3 = secuenciador.reservar(1L, "A3", "juan@example.com");
+        CompletableFuture<Asiento> a4 = secuenciador.reservar(1L, "A4", "juan@example.com");
+        trabar.countDown();
+
+        assertNull(mensaje(primera));
+        assertNull(mensaje(a2));
+        assertEquals("Deadlock simulado", mensaje(a3));
+        assertNull(mensaje(a4));
+
+        MapaOcupacion mapa = motorAsientos.getMapa(1L);
+        assertFalse(mapa.estaOcupado(mapa.indice("A3")), "A3 debe volver a estar libre");
+        assertTrue(mapa.estaOcupado(mapa.indice("A4")));
+    }
+
+    @Test
+    @DisplayName("Si falla el commit del lote, cada evento debe publicarse una sola vez y después del commit")
+    void cuandoFallaElCommitDelLote_noDebeDuplicarEventos() throws Exception {
+        CountDownLatch trabar = new CountDownLatch(1);
+        AtomicInteger llamadas = new AtomicInteger();
+
+        doAnswer(invocation -> {
+            if (llamadas.incrementAndGet() == 1) {
+                trabar.await();
+            }
+            List<Asiento> asientos = invocation.getArgument(0);
+            int[] filas = new int[asientos.size()];
+            Arrays.fill(filas, 1);
+            return filas;
+        }).when(asientoJdbcRepository).reservarSiLibres(any());
+        // El commit de A1 pasa, el del lote A2..A4 falla y los reintentos pasan
+        doNothing().doThrow(new TransactionSystemException("Commit fallido")).doNothing()
+                .when(transactionManager).commit(any());
+
+        CompletableFuture<Asiento> primera = secuenciador.reservar(1L, "A1", "juan@example.com");
+        while (llamadas.get() == 0) {
+            Thread.sleep(1);
+        }
+        List<CompletableFuture<Asiento>> lote = List.of(
+                secuenciador.reservar(1L, "A2", "juan@example.com"),
+                secuenciador.reservar(1L, "A3", "juan@example.com"),
+                secuenciador.reservar(1L, "A4", "juan@example.com"));
+        trabar.countDown();
+
+        assertNull(mensaje(primera));
+        for (CompletableFuture<Asiento> respuesta : lote) {
+            assertNull(mensaje(respuesta));
+        }
+
+        // Un commit de A1, el del lote que falló y tres reintentos; los eventos del lote deshecho no salen
+        verify(transactionManager, times(5)).commit(any());
+        verify(eventPublisher, times(4)).publishEvent(any(AsientoReservadoEvent.class));
+        for (String numero : List.of("A2", "A3", "A4")) {
+            verify(eventPublisher, times(1)).publishEvent(new AsientoReservadoEvent(
+                    1000L + Integer.parseInt(numero.substring(1)), 1L, numero, "juan@example.com"));
+        }
+    }
+
+    /**
+     * Una función taquillera recibe el 90% del tráfico: cada asiento debe tener un solo ganador
+     */
+    @Test
+    @DisplayName("Con una función taquillera cada asiento debe tener un solo ganador")
+    void cuandoFuncionTaquillera_cadaAsientoTieneUnGanador() throws Exception {
+        int hilos = 16;
+        int porHilo = 500;
+        ExecutorService clientes = Executors.newFixedThreadPool(hilos);
+        CountDownLatch inicio = new CountDownLatch(1);
+
+        List<CompletableFuture<Asiento>> respuestas = Collections.synchronizedList(new ArrayList<>());
+
+        for (int h = 0; h < hilos; h++) {
+            int hilo = h;
+            clientes.submit(() -> {
+                inicio.await();
+                for (int i = 0; i < porHilo; i++) {
+                    // 9 de cada 10 a la función 1; el resto repartido en 2..4
+                    long funcionId = i % 10 == 0 ? 2 + (i / 10) % 3 : 1;
+                    String numero = (char) ('A' + (i * 7 + hilo) % 50 / 10) + String.valueOf((i * 7 + hilo) % 10 + 1);
+                    respuestas.add(secuenciador.reservar(funcionId, numero, "cliente" + hilo + "@example.com"));
+                }
+                return null;
+            });
+        }
+
+        inicio.countDown();
+        clientes.shutdown();
+        assertTrue(clientes.awaitTermination(30, TimeUnit.SECONDS));
+        CompletableFuture.allOf(respuestas.toArray(new CompletableFuture[0]))
+                .exceptionally(e -> null)
+                .get(30, TimeUnit.SECONDS);
+
+        // Cada función tiene 50 asientos posibles en la prueba: exactamente 50 ganadores por función
+        long ganadores = respuestas.stream().filter(r -> !r.isCompletedExceptionally()).count();
+        assertEquals(4 * 50, ganadores);
+        verify(eventPublisher, times(4 * 50)).publishEvent(any(AsientoReservadoEvent.class));
+
+        int filas = lotes.stream().mapToInt(Integer::intValue).sum();
+        assertEquals(4 * 50, filas);
+    }
+}
@@ -0,0 +1,205 @@
+package com.cine.AppGestionCine.asientos;
+
+import com.cine.AppGestionCine.asientos.events.AsientoCanceladoEvent;
+import com.cine.AppGestionCine.asientos.events.AsientoReservadoEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class StreamMapaAsientosTest {
+
+    private CacheMapaAsientos cacheMapaAsientos;
+    private StreamMapaAsientos streamMapaAsientos;
+
+    @BeforeEach
+    void setUp() {
+        AsientoRepository asientoRepository = mock(AsientoRepository.class);
+        when(asientoRepository.findByFuncionId(anyLong())).thenAnswer(invocation -> {
+            Long funcionId = invocation.getArgument(0);
+            List<Asiento> asientos = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                int fila = i / 10 + 1;
+                int columna = i % 10 + 1;
+                Asiento asiento = new Asiento(funcionId, (char) ('A' + fila - 1) + String.valueOf(columna), fila, columna);
+                asiento.setId(funcionId * 1000 + i + 1);
+                asientos.add(asiento);
+            }
+            return asientos;
+        });
+
+        // Los cambios del caché llegan al stream como lo haría el publisher de Spring
+        ApplicationEventPublisher publisher = evento -> {
+            if (evento instanceof CambioMapaAsientos cambio) {
+                streamMapaAsientos.manejarCambio(cambio);
+            }
+        };
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        cacheMapaAsientos = new CacheMapaAsientos(asientoRepository, objectMapper, publisher, 1000, 24);
+        streamMapaAsientos = new StreamMapaAsientos(cacheMapaAsientos, objectMapper, 4, 10_000, 60_000, 4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        streamMapaAsientos.cerrar();
+    }
+
+    private static void esperar(BooleanSupplier condicion) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(20);
+        while (!condicion.getAsBoolean()) {
+            if (System.nanoTime() > limite) {
+                fail("La condición no se cumplió a tiempo");
+            }
+            Thread.sleep(5);
+        }
+    }
+
+    /**
+     * Canal de prueba: guarda los eventos recibidos; opcionalmente se traba hasta que lo suelten
+     */
+    private static class CanalPrueba implements StreamMapaAsientos.Canal {
+        private final List<String> eventos = Collections.synchronizedList(new ArrayList<>());
+        private final CountDownLatch soltar;
+        private volatile long ultimaVersion;
+        private volatile String ultimoJson;
+
+        CanalPrueba(CountDownLatch soltar) {
+            this.soltar = soltar;
+        }
+
+        @Override
+        public void enviar(String evento, long id, String json) {
+            if (soltar != null && evento.equals("delta")) {
+                try {
+                    soltar.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            eventos.add(evento);
+            ultimaVersion = id;
+            ultimoJson = json;
+        }
+
+        @Override
+        public void cerrar() {
+        }
+
+        long contar(String evento) {
+            synchronized (eventos) {
+                return eventos.stream().filter(evento::equals).count();
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Debe mandar el mapa completo al suscribirse y luego solo los cambios")
+    void cuandoSuscribir_debeRecibirMapaYDeltas() throws Exception {
+        CanalPrueba canal = new CanalPrueba(null);
+        streamMapaAsientos.suscribir(1L, canal);
+
+        esperar(() -> canal.contar("mapa") == 1);
+        assertTrue(canal.ultimoJson.contains("\"filas\""));
+
+        cacheMapaAsientos.manejarAsientoReservado(new AsientoReservadoEvent(1005L, 1L, "A5", "juan@example.com"));
+        esperar(() -> canal.contar("delta") == 1);
+
+        assertTrue(canal.ultimoJson.contains("\"numero\":\"A5\""));
+        assertTrue(canal.ultimoJson.contains("\"estado\":\"RESERVADO\""));
+        assertFalse(canal.ultimoJson.contains("\"filas\""));
+        assertEquals(cacheMapaAsientos.getMapa(1L).getVersion(), canal.ultimaVersion);
+    }
+
+    @Test
+    @DisplayName("Un kiosko lento no debe frenar las reservas y debe recibir el mapa de nuevo")
+    void cuandoSuscriptorLento_noDebeBloquearYDebeResincronizar() throws Exception {
+        CountDownLatch soltar = new CountDownLatch(1);
+        CanalPrueba lento = new CanalPrueba(soltar);
+        CanalPrueba rapido = new CanalPrueba(null);
+
+        streamMapaAsientos.suscribir(1L, lento);
+        streamMapaAsientos.suscribir(1L, rapido);
+        esperar(() -> lento.contar("mapa") == 1 && rapido.contar("mapa") == 1);
+
+        long t0 = System.nanoTime();
+        for (int i = 1; i <= 50; i++) {
+            cacheMapaAsientos.manejarAsientoReservado(new AsientoReservadoEvent(1000L + i, 1L, "X", "juan@example.com"));
+        }
+        long nanos = System.nanoTime() - t0;
+
+        // 50 cambios publicados mientras el lento está trabado: nadie esperó por él
+        assertTrue(nanos < TimeUnit.SECONDS.toNanos(2), "Publicar tardó " + nanos / 1e6 + " ms");
+
+        // El rápido queda al día aunque el lento siga trabado
+        long versionFinal = cacheMapaAsientos.getMapa(1L).getVersion();
+        esperar(() -> rapido.ultimaVersion == versionFinal);
+        assertTrue(lento.ultimaVersion < versionFinal);
+
+        soltar.countDown();
+        esperar(() -> lento.ultimaVersion == versionFinal);
+
+        // Su cola (4) se llenó: recibió el mapa completo otra vez en lugar de los 50 deltas
+        // (puede ser más de una vez según cuándo se trabó)
+        assertTrue(lento.contar("mapa") >= 2);
+        assertTrue(lento.contar("delta") < 50);
+    }
+
+    @Test
+    @DisplayName("Al invalidar el mapa los suscriptores deben recibirlo completo otra vez")
+    void cuandoInvalidar_debeReenviarMapa() throws Exception {
+        CanalPrueba canal = new CanalPrueba(null);
+        streamMapaAsientos.suscribir(1L, canal);
+        esperar(() -> canal.contar("mapa") == 1);
+
+        cacheMapaAsientos.invalidar(1L);
+
+        esperar(() -> canal.contar("mapa") == 2);
+    }
+
+    /**
+     * 5000 suscriptores ociosos en 10 funciones y una ráfaga de 200 cambios sobre una de ellas
+     */
+    @Test
+    @DisplayName("Debe soportar miles de suscriptores con un pool chico de envío")
+    void cuandoMilesDeSuscriptores_todosRecibenElEstadoFinal() throws Exception {
+        int funciones = 10;
+        int porFuncion = 500;
+        List<CanalPrueba> canales = new ArrayList<>();
+
+        for (long funcionId = 1; funcionId <= funciones; funcionId++) {
+            for (int i = 0; i < porFuncion; i++) {
+                CanalPrueba canal = new CanalPrueba(null);
+                streamMapaAsientos.suscribir(funcionId, canal);
+                canales.add(canal);
+            }
+        }
+        esperar(() -> canales.stream().allMatch(c -> c.contar("mapa") == 1));
+        assertEquals(funciones * porFuncion, streamMapaAsientos.suscriptoresActivos());
+
+        for (int i = 1; i <= 100; i++) {
+            cacheMapaAsientos.manejarAsientoReservado(new AsientoReservadoEvent(1000L + i, 1L, "X", "juan@example.com"));
+            cacheMapaAsientos.manejarAsientoCancelado(new AsientoCanceladoEvent(1000L + i, 1L, "X", "juan@example.com"));
+        }
+
+        long versionFinal = cacheMapaAsientos.getMapa(1L).getVersion();
+        esperar(() -> canales.subList(0, porFuncion).stream().allMatch(c -> c.ultimaVersion == versionFinal));
+
+        // Las otras funciones no recibieron nada después del mapa inicial
+        assertTrue(canales.subList(porFuncion, canales.size()).stream().allMatch(c -> c.contar("delta") == 0));
+    }
+}
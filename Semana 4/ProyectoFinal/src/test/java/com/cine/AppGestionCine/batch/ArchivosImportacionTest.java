@@ -0,0 +1,42 @@
+package com.cine.AppGestionCine.batch;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ArchivosImportacionTest {
+
+    @TempDir
+    private Path directorio;
+
+    private ArchivosImportacion archivosImportacion;
+
+    @BeforeEach
+    void setUp() {
+        archivosImportacion = new ArchivosImportacion(directorio.toString());
+    }
+
+    @Test
+    @DisplayName("Debe resolver el CSV y su reporte dentro del directorio de importaciones")
+    void cuandoRutaRelativa_debeResolverDentroDelDirectorio() {
+        assertEquals(directorio.resolve("clientes.csv"), archivosImportacion.resolver("clientes.csv"));
+        assertEquals(directorio.resolve("cine-norte/clientes.csv"), archivosImportacion.resolver("cine-norte/./clientes.csv"));
+        assertEquals(directorio.resolve("cine-norte/clientes.csv.rechazados.csv"),
+                archivosImportacion.rechazados("cine-norte/clientes.csv"));
+    }
+
+    @Test
+    @DisplayName("Debe rechazar rutas absolutas o que salgan del directorio")
+    void cuandoRutaSaleDelDirectorio_debeLanzarExcepcion() {
+        for (String archivo : new String[]{"/etc/passwd", directorio.resolve("clientes.csv").toString(),
+                "../clientes.csv", "cine-norte/../../clientes.csv", "cine-norte/..", "", "  ", null}) {
+            assertThrows(RuntimeException.class, () -> archivosImportacion.resolver(archivo), "Aceptó: " + archivo);
+        }
+        assertThrows(RuntimeException.class, () -> archivosImportacion.rechazados("../clientes.csv"));
+    }
+}
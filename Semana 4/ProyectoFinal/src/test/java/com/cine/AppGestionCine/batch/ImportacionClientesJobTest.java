@@ -0,0 +1,213 @@
+package com.cine.AppGestionCine.batch;
+
+import com.cine.AppGestionCine.clientes.CacheClientes;
+import com.cine.AppGestionCine.clientes.Cliente;
+import com.cine.AppGestionCine.clientes.ClienteJdbcRepository;
+import com.cine.AppGestionCine.clientes.ClienteRepository;
+import com.cine.AppGestionCine.clientes.EstadoCliente;
+import com.cine.AppGestionCine.clientes.FiltroEmails;
+import com.cine.AppGestionCine.clientes.events.ClientesImportadosEvent;
+import com.cine.AppGestionCine.compartido.CacheConsultas;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.launch.JobLauncher;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.batch.BatchAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Job de importación de clientes contra H2: validación, duplicados, reporte de rechazados y reinicio
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "spring.batch.jdbc.initialize-schema=always",
+        "spring.batch.job.enabled=false",
+        "cine.batch.importacion-clientes.chunk=3"
+})
+@ImportAutoConfiguration({BatchAutoConfiguration.class, ValidationAutoConfiguration.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@RecordApplicationEvents
+class ImportacionClientesJobTest {
+
+    private static final String ENCABEZADO = "nombre,apellido,email,telefono";
+
+    @Configuration
+    @EntityScan(basePackageClasses = Cliente.class)
+    @EnableJpaRepositories(basePackageClasses = ClienteRepository.class)
+    @Import({ImportacionClientesJobConfig.class, ArchivosImportacion.class, ClienteJdbcRepository.class,
+            CacheConsultas.class, FiltroEmails.class, CacheClientes.class})
+    static class Config {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    private JobLauncher jobLauncher;
+
+    @Autowired
+    private Job importacionClientesJob;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private FiltroEmails filtroEmails;
+
+    @Autowired
+    private ApplicationEvents eventos;
+
+    @TempDir
+    static Path directorio;
+
+    @DynamicPropertySource
+    static void directorioImportaciones(DynamicPropertyRegistry registry) {
+        registry.add("cine.batch.importacion-clientes.directorio", directorio::toString);
+    }
+
+    @BeforeEach
+    void setUp() {
+        clienteRepository.deleteAllInBatch();
+    }
+
+    // El nombre identifica la ejecución: cada prueba usa el suyo dentro del directorio de importaciones
+    private static String archivo(String nombre, String... lineas) throws Exception {
+        Files.writeString(directorio.resolve(nombre), ENCABEZADO + "\n" + String.join("\n", lineas) + "\n",
+                StandardCharsets.UTF_8);
+        return nombre;
+    }
+
+    private JobExecution ejecutar(String archivo) throws Exception {
+        JobParameters params = new JobParametersBuilder()
+                .addString("archivo", archivo)
+                .toJobParameters();
+        return jobLauncher.run(importacionClientesJob, params);
+    }
+
+    private static long total(JobExecution execution, String clave) {
+        StepExecution step = execution.getStepExecutions().iterator().next();
+        return step.getExecutionContext().getLong(clave, 0L);
+    }
+
+    private static List<String> rechazados(String archivo) throws Exception {
+        return Files.readAllLines(directorio.resolve(archivo + ".rechazados.csv"));
+    }
+
+    @Test
+    @DisplayName("Debe importar las filas válidas y reportar cada rechazada con su línea y motivo")
+    void cuandoImportarCsv_debeInsertarValidasYReportarRechazadas() throws Exception {
+        Cliente existente = new Cliente();
+        existente.setNombre("Ana");
+        existente.setApellido("López");
+        existente.setEmail("ana@example.com");
+        existente.setTelefono("5512345678");
+        clienteRepository.save(existente);
+        // Como hace crearCliente: el filtro ya se cargó al arrancar el contexto
+        filtroEmails.registrar(existente.getEmail());
+
+        String archivo = archivo("clientes.csv",
+                "Juan,Pérez,juan@example.com,5511111111",
+                "Luis,Gómez,correo-invalido,5522222222",
+                "Sofía,Ruiz,JUAN@example.com,5533333333",
+                "Ana,López,ana@example.com,5544444444",
+                "Sin,Columnas",
+                "Marta,Díaz,marta@example.com,",
+                "Pedro,Soto,pedro@example.com,5555555555",
+                "\"Vega, Rosa\",Lara,rosa@example.com,5566666666");
+
+        JobExecution execution = ejecutar(archivo);
+
+        assertEquals(BatchStatus.COMPLETED, execution.getStatus());
+        assertEquals(3, total(execution, ImportacionClientesWriter.IMPORTADOS));
+        assertEquals(5, total(execution, ImportacionClientesWriter.RECHAZADOS));
+        assertEquals(4, clienteRepository.count());
+
+        Cliente rosa = clienteRepository.findByEmail("rosa@example.com").orElseThrow();
+        assertEquals("Vega, Rosa", rosa.getNombre());
+        assertEquals(EstadoCliente.ACTIVO, rosa.getEstado());
+        assertNotNull(rosa.getFechaRegistro());
+
+        // Un evento por chunk con altas, no uno por cliente (el segundo chunk no tuvo ninguna)
+        List<ClientesImportadosEvent> importados = eventos.stream(ClientesImportadosEvent.class).toList();
+        assertEquals(2, importados.size());
+        assertEquals(3, importados.stream().mapToInt(ClientesImportadosEvent::getCantidad).sum());
+
+        assertEquals(List.of(
+                "linea,motivo,nombre,apellido,email,telefono",
+                "3,\"El email debe tener un formato válido\",Luis,Gómez,correo-invalido,5522222222",
+                "4,\"Email repetido en la línea 2\",Sofía,Ruiz,JUAN@example.com,5533333333",
+                "5,\"Ya existe un cliente con el email: ana@example.com\",Ana,López,ana@example.com,5544444444",
+                "6,\"Formato inválido: se esperaban 4 columnas\",Sin,Columnas",
+                "7,\"El teléfono debe tener 10 dígitos; El teléfono es obligatorio\",Marta,Díaz,marta@example.com,"
+        ), rechazados(archivo));
+    }
+
+    @Test
+    @DisplayName("Un job que falla a la mitad debe reiniciar desde el último chunk confirmado")
+    void cuandoFallaYSeReinicia_debeSeguirDesdeElUltimoChunk() throws Exception {
+        // La columna nombre es VARCHAR(255): la validación la deja pasar pero el INSERT del segundo chunk falla
+        String nombreLargo = "N".repeat(300);
+        String archivo = archivo("clientes-reinicio.csv",
+                "Juan,Pérez,juan@example.com,5511111111",
+                "Luis,Gómez,correo-invalido,5522222222",
+                "Ana,López,ana@example.com,5544444444",
+                "Pedro,Soto,pedro@example.com,5555555555",
+                nombreLargo + ",Lara,rosa@example.com,5566666666",
+                "Sin,Columnas",
+                "Marta,Díaz,marta@example.com,5577777777");
+
+        JobExecution fallida = ejecutar(archivo);
+        assertEquals(BatchStatus.FAILED, fallida.getStatus());
+        assertEquals(2, clienteRepository.count(), "Solo el primer chunk quedó confirmado");
+
+        // Se corrige el archivo y se lanza con los mismos parámetros
+        Path csv = directorio.resolve(archivo);
+        Files.writeString(csv, Files.readString(csv).replace(nombreLargo, "Rosa"));
+        JobExecution reinicio = ejecutar(archivo);
+
+        assertEquals(BatchStatus.COMPLETED, reinicio.getStatus());
+        assertEquals(fallida.getJobInstance().getInstanceId(), reinicio.getJobInstance().getInstanceId());
+        assertEquals(4, reinicio.getStepExecutions().iterator().next().getReadCount(), "No vuelve a leer el primer chunk");
+        assertEquals(5, total(reinicio, ImportacionClientesWriter.IMPORTADOS));
+        assertEquals(2, total(reinicio, ImportacionClientesWriter.RECHAZADOS));
+        assertEquals(5, clienteRepository.count());
+
+        // El reporte no repite las rechazadas del chunk confirmado ni guarda las del chunk deshecho
+        List<String> reporte = rechazados(archivo);
+        assertEquals(3, reporte.size());
+        assertTrue(reporte.get(1).startsWith("3,"));
+        assertTrue(reporte.get(2).startsWith("7,"));
+    }
+}
@@ -0,0 +1,219 @@
+package com.cine.AppGestionCine.batch;
+
+import com.cine.AppGestionCine.asientos.Asiento;
+import com.cine.AppGestionCine.asientos.AsientoJdbcRepository;
+import com.cine.AppGestionCine.asientos.AsientoRepository;
+import com.cine.AppGestionCine.compartido.CacheConsultas;
+import com.cine.AppGestionCine.funciones.ContadoresAsientos;
+import com.cine.AppGestionCine.funciones.Funcion;
+import com.cine.AppGestionCine.funciones.FuncionJdbcRepository;
+import com.cine.AppGestionCine.funciones.FuncionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.launch.JobLauncher;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.batch.BatchAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Job de reconciliación contra H2: ventana por actualizadoEn y corrección de funciones desviadas
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "spring.batch.jdbc.initialize-schema=always",
+        "spring.batch.job.enabled=false",
+        "cine.batch.reconciliacion.margen-segundos=0",
+        "cine.batch.reconciliacion.max-ventanas-diferidas=2"
+})
+@ImportAutoConfiguration(BatchAutoConfiguration.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ReconciliacionAsientosJobTest {
+
+    private static final LocalDateTime LUNES = LocalDateTime.of(2030, 10, 7, 18, 0);
+
+    @Configuration
+    @EntityScan(basePackageClasses = {Asiento.class, Funcion.class})
+    @EnableJpaRepositories(basePackageClasses = {AsientoRepository.class, FuncionRepository.class})
+    @Import({ReconciliacionAsientosJobConfig.class, MarcaReconciliacion.class, ContadoresAsientos.class,
+            AsientoJdbcRepository.class, FuncionJdbcRepository.class, CacheConsultas.class})
+    static class Config {
+    }
+
+    @Autowired
+    private JobLauncher jobLauncher;
+
+    @Autowired
+    private Job reconciliacionAsientosJob;
+
+    @Autowired
+    private MarcaReconciliacion marcaReconciliacion;
+
+    @Autowired
+    private ContadoresAsientos contadoresAsientos;
+
+    @Autowired
+    private FuncionRepository funcionRepository;
+
+    @Autowired
+    private AsientoRepository asientoRepository;
+
+    @Autowired
+    private FuncionJdbcRepository funcionJdbcRepository;
+
+    @Autowired
+    private AsientoJdbcRepository asientoJdbcRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private List<Funcion> funciones;
+
+    @BeforeEach
+    void setUp() {
+        asientoRepository.deleteAllInBatch();
+        funcionRepository.deleteAllInBatch();
+
+        funciones = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            funciones.add(new Funcion("Pelicula " + i, LUNES.plusHours(i * 3L), "Sala 1", 10, 95.0, 120));
+        }
+        funcionJdbcRepository.insertarLote(funciones);
+
+        List<Asiento> asientos = new ArrayList<>();
+        for (Funcion funcion : funciones) {
+            for (int i = 1; i <= 10; i++) {
+                asientos.add(new Asiento(funcion.getId(), "A" + i, 1, i));
+            }
+            contadoresAsientos.registrar(funcion.getId(), 10);
+        }
+        asientoJdbcRepository.insertarLote(asientos);
+    }
+
+    private StepExecution ejecutar() throws Exception {
+        // La ventana termina en la hora de la BD: que los cambios anteriores queden dentro
+        Thread.sleep(20);
+        JobParameters params = marcaReconciliacion.siguienteVentana("test");
+        assertNotNull(params);
+
+        JobExecution execution = jobLauncher.run(reconciliacionAsientosJob, params);
+        assertEquals(BatchStatus.COMPLETED, execution.getStatus());
+        return execution.getStepExecutions().iterator().next();
+    }
+
+    @Test
+    @DisplayName("Debe corregir solo la función desviada y revisar solo lo que cambió desde la última ejecución")
+    void cuandoEventoPerdido_debeCorregirSoloLaFuncionDesviada() throws Exception {
+        // Primera ejecución sin marca: revisa todo, nada desviado
+        StepExecution primera = ejecutar();
+        assertEquals(3, primera.getReadCount());
+        assertEquals(0, primera.getWriteCount());
+
+        // Dos reservas cuyo evento se perdió: ni la fila ni el contador se enteraron
+        Long desviada = funciones.get(1).getId();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            asientoRepository.reservarSiLibre(desviada, "A1", "juan@example.com");
+            asientoRepository.reservarSiLibre(desviada, "A2", "juan@example.com");
+        });
+
+        StepExecution segunda = ejecutar();
+        assertEquals(1, segunda.getReadCount(), "Solo la función con asientos cambiados");
+        assertEquals(1, segunda.getWriteCount());
+        assertEquals(8, funcionRepository.findById(desviada).orElseThrow().getAsientosDisponibles());
+        assertEquals(8, contadoresAsientos.disponiblesEnMemoria(desviada));
+        assertEquals(10, funcionRepository.findById(funciones.get(0).getId()).orElseThrow().getAsientosDisponibles());
+
+        // Sin cambios nuevos la ventana no trae ninguna función
+        StepExecution tercera = ejecutar();
+        assertEquals(0, tercera.getReadCount());
+    }
+
+    @Test
+    @DisplayName("Debe corregir el contador en memoria aunque la fila esté bien")
+    void cuandoSoloLaMemoriaSeDesvio_debeCorregirElContador() throws Exception {
+        Long funcionId = funciones.get(2).getId();
+        contadoresAsientos.sumar(funcionId, -3);
+        contadoresAsientos.volcar();
+        // El volcado dejó la fila en 7, pero los asientos siguen libres
+        assertEquals(7, funcionRepository.findById(funcionId).orElseThrow().getAsientosDisponibles());
+
+        StepExecution ejecucion = ejecutar();
+
+        assertEquals(1, ejecucion.getWriteCount());
+        assertEquals(10, contadoresAsientos.disponiblesEnMemoria(funcionId));
+        assertEquals(10, funcionRepository.findById(funcionId).orElseThrow().getAsientosDisponibles());
+    }
+
+    @Test
+    @DisplayName("Con cambios sin volcar debe corregir el contador y dejar la fila lista para el volcado")
+    void cuandoHayPendienteSinVolcar_debeDejarFilaYContadorIguales() throws Exception {
+        Long funcionId = funciones.get(2).getId();
+        contadoresAsientos.sumar(funcionId, -3);
+
+        StepExecution ejecucion = ejecutar();
+
+        assertEquals(1, ejecucion.getWriteCount());
+        assertEquals(10, contadoresAsientos.disponiblesEnMemoria(funcionId));
+        assertEquals(13, funcionRepository.findById(funcionId).orElseThrow().getAsientosDisponibles());
+
+        contadoresAsientos.volcar();
+        assertEquals(10, funcionRepository.findById(funcionId).orElseThrow().getAsientosDisponibles());
+    }
+
+    @Test
+    @DisplayName("Una función que nunca deja de moverse debe revisarse tras las ventanas diferidas permitidas")
+    void cuandoFuncionSiempreEnMovimiento_debeRevisarseTrasLasVentanasDiferidas() throws Exception {
+        Long caliente = funciones.get(0).getId();
+        contadoresAsientos.sumar(caliente, -2);
+        contadoresAsientos.volcar();
+        // Un asiento con un cambio posterior a cualquier hasta: la función siempre está en movimiento
+        jdbcTemplate.update("UPDATE asientos SET actualizadoEn = ? WHERE funcionId = ? AND numeroAsiento = 'A10'",
+                LocalDateTime.now().plusDays(1), caliente);
+
+        // Se difiere dos veces y a la tercera se corrige aunque siga moviéndose
+        for (int ventana = 1; ventana <= 3; ventana++) {
+            jdbcTemplate.update("UPDATE asientos SET actualizadoEn = LOCALTIMESTAMP WHERE funcionId = ? AND numeroAsiento = 'A1'",
+                    caliente);
+            StepExecution ejecucion = ejecutar();
+            assertEquals(ventana == 3 ? 1 : 0, ejecucion.getWriteCount(), "Ventana " + ventana);
+        }
+
+        assertEquals(10, contadoresAsientos.disponiblesEnMemoria(caliente));
+        assertEquals(10, funcionRepository.findById(caliente).orElseThrow().getAsientosDisponibles());
+    }
+
+    @Test
+    @DisplayName("El conteo de la ventana debe entrar por el índice de actualizadoEn, sin recorrer asientos")
+    void cuandoExplicarConteoDeVentana_debeUsarIndices() {
+        String plan = String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + ReconciliacionAsientosJobConfig.sqlConteo(true),
+                String.class, LUNES, LUNES, LUNES));
+
+        assertTrue(plan.contains("IDX_ASIENTOS_ACTUALIZADO"), plan);
+        assertFalse(plan.contains(".tableScan"), plan);
+    }
+}
@@ -0,0 +1,134 @@
+package com.cine.AppGestionCine.clientes;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CacheClientesTest {
+
+    private static final int RESERVAS = 1000;
+
+    private ClienteRepository clienteRepository;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        clienteRepository = mock(ClienteRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    private CacheClientes cache(long ttlNoEncontradoSegundos) {
+        return new CacheClientes(clienteRepository, meterRegistry, 100, 300, ttlNoEncontradoSegundos);
+    }
+
+    private static Cliente cliente(Long id, String email, EstadoCliente estado) {
+        Cliente cliente = new Cliente();
+        cliente.setId(id);
+        cliente.setEmail(email);
+        cliente.setEstado(estado);
+        return cliente;
+    }
+
+    private double gets(String resultado) {
+        return meterRegistry.get("cache.gets").tag("cache", "clientes").tag("result", resultado).functionCounter().count();
+    }
+
+    @Test
+    @DisplayName("Validar al cliente en cada reserva debe ir a la BD una sola vez")
+    void cuandoReservarMuchasVeces_debeIrUnaVezALaBD() {
+        when(clienteRepository.buscarPorEmail("juan@example.com"))
+                .thenReturn(Optional.of(cliente(1L, "juan@example.com", EstadoCliente.ACTIVO)));
+        CacheClientes cacheClientes = cache(30);
+
+        for (int i = 0; i < RESERVAS; i++) {
+            ClienteEstado estado = cacheClientes.buscar("juan@example.com").orElseThrow();
+            assertEquals(1L, estado.getId());
+            assertEquals(EstadoCliente.ACTIVO, estado.getEstado());
+        }
+
+        verify(clienteRepository, times(1)).buscarPorEmail("juan@example.com");
+        assertEquals(RESERVAS - 1, gets("hit"));
+        assertEquals(1, gets("miss"));
+    }
+
+    @Test
+    @DisplayName("Un email no registrado debe quedar en caché solo durante su TTL")
+    void cuandoEmailNoExiste_debeUsarElTtlDeNoEncontrado() {
+        when(clienteRepository.buscarPorEmail("nadie@example.com")).thenReturn(Optional.empty());
+
+        CacheClientes conTtl = cache(30);
+        assertTrue(conTtl.buscar("nadie@example.com").isEmpty());
+        assertTrue(conTtl.buscar("nadie@example.com").isEmpty());
+        verify(clienteRepository, times(1)).buscarPorEmail("nadie@example.com");
+
+        // TTL 0: cada búsqueda de un email desconocido vuelve a la BD
+        CacheClientes sinTtl = cache(0);
+        sinTtl.buscar("nadie@example.com");
+        sinTtl.buscar("nadie@example.com");
+        verify(clienteRepository, times(3)).buscarPorEmail("nadie@example.com");
+    }
+
+    @Test
+    @DisplayName("Invalidar debe hacer que la siguiente búsqueda vea el cambio")
+    void cuandoInvalidar_debeReleerElCliente() {
+        when(clienteRepository.buscarPorEmail("juan@example.com"))
+                .thenReturn(Optional.of(cliente(1L, "juan@example.com", EstadoCliente.ACTIVO)),
+                        Optional.of(cliente(1L, "juan@example.com", EstadoCliente.INACTIVO)));
+        CacheClientes cacheClientes = cache(30);
+        assertEquals(EstadoCliente.ACTIVO, cacheClientes.buscar("juan@example.com").orElseThrow().getEstado());
+
+        cacheClientes.invalidar("juan@example.com");
+
+        assertEquals(EstadoCliente.INACTIVO, cacheClientes.buscar("juan@example.com").orElseThrow().getEstado());
+    }
+
+    @Test
+    @DisplayName("Invalidar un email debe alcanzar la entrada guardada con otras mayúsculas")
+    void cuandoInvalidarConOtrasMayusculas_debeReleerElCliente() {
+        when(clienteRepository.buscarPorEmail("Ana@X.com"))
+                .thenReturn(Optional.of(cliente(1L, "ana@x.com", EstadoCliente.ACTIVO)),
+                        Optional.of(cliente(1L, "ana@x.com", EstadoCliente.INACTIVO)));
+        CacheClientes cacheClientes = cache(30);
+        assertEquals(EstadoCliente.ACTIVO, cacheClientes.buscar("Ana@X.com").orElseThrow().getEstado());
+        assertEquals(EstadoCliente.ACTIVO, cacheClientes.buscar(" ana@x.com").orElseThrow().getEstado());
+
+        cacheClientes.invalidar("ana@x.com");
+
+        assertEquals(EstadoCliente.INACTIVO, cacheClientes.buscar("Ana@X.com").orElseThrow().getEstado());
+        verify(clienteRepository, times(2)).buscarPorEmail("Ana@X.com");
+        verify(clienteRepository, never()).buscarPorEmail(" ana@x.com");
+    }
+
+    @Test
+    @DisplayName("Dentro de una transacción debe invalidar otra vez al terminar")
+    void cuandoInvalidarEnTransaccion_debeInvalidarTambienAlTerminar() {
+        when(clienteRepository.buscarPorEmail("juan@example.com"))
+                .thenReturn(Optional.of(cliente(1L, "juan@example.com", EstadoCliente.ACTIVO)),
+                        Optional.of(cliente(1L, "juan@example.com", EstadoCliente.ACTIVO)),
+                        Optional.of(cliente(1L, "juan@example.com", EstadoCliente.INACTIVO)));
+        CacheClientes cacheClientes = cache(30);
+        cacheClientes.buscar("juan@example.com");
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cacheClientes.invalidar("juan@example.com");
+            // Otra reserva lee antes del commit y vuelve a guardar el estado anterior
+            assertEquals(EstadoCliente.ACTIVO, cacheClientes.buscar("juan@example.com").orElseThrow().getEstado());
+
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sincronizacion -> sincronizacion.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(EstadoCliente.INACTIVO, cacheClientes.buscar("juan@example.com").orElseThrow().getEstado());
+    }
+}
@@ -8,6 +8,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
@@ -20,6 +21,7 @@ import java.util.Optional;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 // Imports de Spring MockMvc
@@ -30,6 +32,9 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasItem;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @SpringBootTest
 @AutoConfigureMockMvc
@@ -47,6 +52,9 @@ class ClienteControllerTest {
     @MockitoBean
     private ClienteService clienteService;
 
+    @MockitoBean
+    private ExportadorClientes exportadorClientes;
+
     @Test
     @DisplayName("POST /api/clientes debe crear cliente correctamente")
     void cuandoCrearCliente_datosValidos_debeCrear() throws Exception {
@@ -89,14 +97,38 @@ class ClienteControllerTest {
         cliente2.setId(2L);
         cliente2.setNombre("María");
 
-        when(clienteService.getAllClientes())
+        when(clienteService.getClientesPagina(isNull(), isNull(), eq(101), eq(Cliente.class)))
                 .thenReturn(Arrays.asList(cliente1, cliente2));
 
         mockMvc.perform(get("/api/clientes"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$", hasSize(2)));
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(header().doesNotExist("X-Cursor-Siguiente"));
+
+        verify(clienteService, times(1)).getClientesPagina(null, null, 101, Cliente.class);
+    }
+
+    @Test
+    @DisplayName("GET /api/clientes/activos con limite debe retornar el cursor de la siguiente página")
+    void cuandoGetClientesActivos_hayMasPaginas_debeRetornarCursor() throws Exception {
+        Cliente cliente1 = new Cliente();
+        cliente1.setId(5L);
+        cliente1.setNombre("Juan");
+
+        Cliente cliente2 = new Cliente();
+        cliente2.setId(8L);
+        cliente2.setNombre("María");
+
+        when(clienteService.getClientesPagina(eq(EstadoCliente.ACTIVO), eq(4L), eq(2), eq(Cliente.class)))
+                .thenReturn(Arrays.asList(cliente1, cliente2));
 
-        verify(clienteService, times(1)).getAllClientes();
+        mockMvc.perform(get("/api/clientes/activos")
+                        .param("cursor", "4")
+                        .param("limite", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].nombre", is("Juan")))
+                .andExpect(header().string("X-Cursor-Siguiente", "5"));
     }
 
     @Test
@@ -172,4 +204,25 @@ class ClienteControllerTest {
 
         verify(clienteService, times(1)).eliminarCliente(clienteId);
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("GET /api/clientes/export debe comprimir solo si Accept-Encoding acepta gzip")
+    void cuandoExportar_debeRespetarLaCalidadDeGzip() throws Exception {
+        mockMvc.perform(get("/api/clientes/export").header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0, identity"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(containsString(HttpHeaders.ACCEPT_ENCODING))));
+
+        mockMvc.perform(get("/api/clientes/export").header(HttpHeaders.ACCEPT_ENCODING, "br, gzip;q=0.5"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(containsString(HttpHeaders.ACCEPT_ENCODING))));
+
+        assertTrue(ClienteController.aceptaGzip("GZIP; Q=0.001"));
+        assertTrue(ClienteController.aceptaGzip("br, *"));
+        assertFalse(ClienteController.aceptaGzip("gzip;q=0, *"));
+        assertFalse(ClienteController.aceptaGzip("*;q=0"));
+        assertFalse(ClienteController.aceptaGzip("identity"));
+        assertFalse(ClienteController.aceptaGzip(null));
+    }
+}
@@ -3,6 +3,7 @@ package com.cine.AppGestionCine.clientes;
 import com.cine.AppGestionCine.clientes.dto.ActualizarClienteRequest;
 import com.cine.AppGestionCine.clientes.dto.CrearClienteRequest;
 import com.cine.AppGestionCine.clientes.events.ClienteRegistradoEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -10,6 +11,7 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.springframework.context.ApplicationEventPublisher;
 
 import java.util.Arrays;
@@ -29,6 +31,17 @@ class ClienteServiceTest {
     @Mock
     private ApplicationEventPublisher eventPublisher;
 
+    @Mock
+    private CacheClientes cacheClientes;
+
+    // Sin cargar: deja pasar todas las verificaciones a la BD
+    @Spy
+    private FiltroEmails filtroEmails = new FiltroEmails(mock(ClienteRepository.class), new SimpleMeterRegistry(), 1000, 0.01, 100);
+
+    // Índice real vacío: sin transacción indexa al momento
+    @Spy
+    private IndiceClientes indiceClientes = new IndiceClientes(mock(ClienteRepository.class));
+
     @InjectMocks
     private ClienteService clienteService;
 
@@ -196,6 +209,44 @@ class ClienteServiceTest {
         // ASSERT
         assertEquals(EstadoCliente.INACTIVO, cliente.getEstado());
         verify(clienteRepository, times(1)).save(cliente);
+        verify(cacheClientes, times(1)).invalidar(cliente.getEmail());
+    }
+
+    @Test
+    @DisplayName("Al cambiar el email debe invalidar en caché el anterior y el nuevo")
+    void cuandoActualizarEmail_debeInvalidarAmbosEmails() {
+        // ARRANGE
+        Cliente cliente = new Cliente();
+        cliente.setId(1L);
+        cliente.setEmail("viejo@example.com");
+
+        ActualizarClienteRequest request = new ActualizarClienteRequest();
+        request.setEmail("nuevo@example.com");
+
+        when(clienteRepository.findById(1L)).thenReturn(Optional.of(cliente));
+        when(clienteRepository.findByEmail("nuevo@example.com")).thenReturn(Optional.empty());
+        when(clienteRepository.save(any(Cliente.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // ACT
+        clienteService.actualizarCliente(1L, request);
+
+        // ASSERT
+        verify(cacheClientes, times(1)).invalidar("viejo@example.com", "nuevo@example.com");
+    }
+
+    @Test
+    @DisplayName("El estado del cliente para reservas debe salir del near-cache")
+    void cuandoGetEstadoCliente_debeUsarElCache() {
+        // ARRANGE
+        when(cacheClientes.buscar("juan@example.com"))
+                .thenReturn(Optional.of(new ClienteEstado(1L, EstadoCliente.ACTIVO)));
+
+        // ACT
+        Optional<ClienteEstado> resultado = clienteService.getEstadoCliente("juan@example.com");
+
+        // ASSERT
+        assertEquals(EstadoCliente.ACTIVO, resultado.orElseThrow().getEstado());
+        verify(clienteRepository, never()).buscarPorEmail(anyString());
     }
 
     @Test
@@ -248,7 +299,7 @@ class ClienteServiceTest {
         Cliente cliente = new Cliente();
         cliente.setEmail(email);
 
-        when(clienteRepository.findByEmail(email))
+        when(clienteRepository.buscarPorEmail(email))
                 .thenReturn(Optional.of(cliente));
 
         // ACT
@@ -260,26 +311,42 @@ class ClienteServiceTest {
     }
 
     @Test
-    @DisplayName("Debe buscar clientes por nombre")
+    @DisplayName("Debe buscar clientes por nombre en el índice y devolverlos en orden de relevancia")
     void cuandoBuscarClientes_debeRetornarCoincidencias() {
         // ARRANGE
         String busqueda = "Juan";
 
         Cliente cliente1 = new Cliente();
+        cliente1.setId(1L);
         cliente1.setNombre("Juan");
+        cliente1.setApellido("López");
+        cliente1.setEmail("jlopez@example.com");
 
         Cliente cliente2 = new Cliente();
+        cliente2.setId(2L);
+        cliente2.setNombre("Ana");
         cliente2.setApellido("Juanez");
+        cliente2.setEmail("ajuanez@example.com");
 
-        when(clienteRepository.findByNombreContainingIgnoreCaseOrApellidoContainingIgnoreCase(
-                busqueda, busqueda))
-                .thenReturn(Arrays.asList(cliente1, cliente2));
+        Cliente cliente3 = new Cliente();
+        cliente3.setId(3L);
+        cliente3.setNombre("Pedro");
+        cliente3.setApellido("Soto");
+        cliente3.setEmail("psoto@example.com");
+
+        for (Cliente cliente : List.of(cliente1, cliente2, cliente3)) {
+            indiceClientes.indexar(cliente);
+        }
+        // La BD no respeta el orden del IN
+        when(clienteRepository.findAllById(List.of(1L, 2L)))
+                .thenReturn(Arrays.asList(cliente2, cliente1));
 
         // ACT
-        List<Cliente> resultado = clienteService.buscarClientes(busqueda);
+        List<Cliente> resultado = clienteService.buscarClientes(busqueda, 10);
 
         // ASSERT
-        assertEquals(2, resultado.size());
+        assertEquals(List.of(cliente1, cliente2), resultado);
+        verify(clienteRepository, never()).findByNombreContainingIgnoreCaseOrApellidoContainingIgnoreCase(any(), any());
     }
 
     @Test
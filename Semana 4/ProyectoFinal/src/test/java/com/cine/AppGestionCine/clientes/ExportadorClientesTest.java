@@ -0,0 +1,144 @@
+package com.cine.AppGestionCine.clientes;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Exportación NDJSON contra H2: formato por línea, filtro por estado y memoria constante
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false"
+})
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ExportadorClientesTest {
+
+    private static final int CLIENTES = 2000;
+
+    @Configuration
+    @EntityScan(basePackageClasses = Cliente.class)
+    @EnableJpaRepositories(basePackageClasses = ClienteRepository.class)
+    @Import(ExportadorClientes.class)
+    static class Config {
+    }
+
+    @Autowired
+    private ExportadorClientes exportadorClientes;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private List<Long> ids;
+
+    @BeforeEach
+    void setUp() {
+        clienteRepository.deleteAllInBatch();
+
+        List<Cliente> clientes = new ArrayList<>();
+        for (int i = 0; i < CLIENTES; i++) {
+            Cliente cliente = new Cliente();
+            cliente.setNombre("Cliente");
+            cliente.setApellido(String.valueOf(i));
+            cliente.setEmail("cliente" + i + "@example.com");
+            cliente.setTelefono("5512345678");
+            cliente.setEstado(i % 10 == 0 ? EstadoCliente.INACTIVO : EstadoCliente.ACTIVO);
+            clientes.add(cliente);
+        }
+        clientes.get(1).setNombre("José \"Pepe\"");
+        ids = clienteRepository.saveAll(clientes).stream().map(Cliente::getId).toList();
+    }
+
+    private List<JsonNode> lineas(ByteArrayOutputStream salida) throws Exception {
+        String texto = salida.toString(StandardCharsets.UTF_8);
+        assertTrue(texto.endsWith("\n"), "Cada cliente termina en salto de línea");
+
+        List<JsonNode> lineas = new ArrayList<>();
+        for (String linea : texto.split("\n")) {
+            lineas.add(objectMapper.readTree(linea));
+        }
+        return lineas;
+    }
+
+    @Test
+    @DisplayName("Debe escribir un cliente por línea, ordenados por ID y filtrados por estado")
+    void cuandoExportar_debeEscribirUnClientePorLinea() throws Exception {
+        ByteArrayOutputStream todos = new ByteArrayOutputStream();
+        assertEquals(CLIENTES, exportadorClientes.exportar(null, todos));
+
+        List<JsonNode> lineas = lineas(todos);
+        assertEquals(CLIENTES, lineas.size());
+        for (int i = 1; i < lineas.size(); i++) {
+            assertTrue(lineas.get(i).get("id").asLong() > lineas.get(i - 1).get("id").asLong());
+        }
+
+        JsonNode pepe = lineas.get(1);
+        assertEquals("José \"Pepe\"", pepe.get("nombre").asText());
+        assertEquals("cliente1@example.com", pepe.get("email").asText());
+        assertEquals("ACTIVO", pepe.get("estado").asText());
+        assertTrue(pepe.get("fechaRegistro").isTextual(), "Fecha en ISO, no como arreglo");
+
+        ByteArrayOutputStream inactivos = new ByteArrayOutputStream();
+        assertEquals(CLIENTES / 10, exportadorClientes.exportar(EstadoCliente.INACTIVO, inactivos));
+        assertTrue(lineas(inactivos).stream().allMatch(linea -> linea.get("estado").asText().equals("INACTIVO")));
+    }
+
+    @Test
+    @DisplayName("No debe acumular clientes en el contexto de persistencia ni en la caché de segundo nivel")
+    void cuandoExportar_debeMantenerLaMemoriaConstante() throws Exception {
+        entityManagerFactory.getCache().evictAll();
+
+        // Cada vez que el generador vacía su búfer se cuenta cuántas entidades sigue administrando la sesión
+        int[] maximoEnSesion = {0};
+        int[] escrituras = {0};
+        ByteArrayOutputStream salida = new ByteArrayOutputStream() {
+            @Override
+            public void write(byte[] b, int off, int len) {
+                int enSesion = entityManager.unwrap(Session.class).getStatistics().getEntityCount();
+                maximoEnSesion[0] = Math.max(maximoEnSesion[0], enSesion);
+                escrituras[0]++;
+                super.write(b, off, len);
+            }
+        };
+
+        assertEquals(CLIENTES, exportadorClientes.exportar(null, salida));
+
+
+        assertTrue(escrituras[0] > 10, "El NDJSON sale por partes, no al final");
+        assertTrue(maximoEnSesion[0] <= 1, "Entidades en sesión: " + maximoEnSesion[0]);
+
+        assertTrue(ids.stream().noneMatch(id -> entityManagerFactory.getCache().contains(Cliente.class, id)));
+    }
+}
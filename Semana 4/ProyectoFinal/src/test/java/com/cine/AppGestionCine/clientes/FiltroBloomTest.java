@@ -0,0 +1,54 @@
+package com.cine.AppGestionCine.clientes;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FiltroBloomTest {
+
+    private static final int EMAILS = 200_000;
+
+    @Test
+    @DisplayName("Nunca debe decir 'no está' de un email agregado, aunque se pase de la capacidad inicial")
+    void cuandoSuperarLaCapacidad_debeCrecerSinFalsosNegativos() {
+        FiltroBloom filtro = new FiltroBloom(1000, 0.01);
+
+        for (int i = 0; i < EMAILS; i++) {
+            filtro.agregar("cliente" + i + "@example.com");
+        }
+
+        for (int i = 0; i < EMAILS; i++) {
+            assertTrue(filtro.puedeContener("cliente" + i + "@example.com"), "Falso negativo en " + i);
+        }
+        assertEquals(EMAILS, filtro.elementos());
+        assertTrue(filtro.numeroCapas() > 1);
+    }
+
+    @Test
+    @DisplayName("La tasa de falsos positivos medida debe quedar cerca de la pedida")
+    void cuandoConsultarEmailsNuevos_debeRespetarLaTasaPedida() {
+        FiltroBloom filtro = new FiltroBloom(10_000, 0.01);
+        for (int i = 0; i < EMAILS; i++) {
+            filtro.agregar("cliente" + i + "@example.com");
+        }
+
+        int falsosPositivos = 0;
+        for (int i = 0; i < EMAILS; i++) {
+            if (filtro.puedeContener("nuevo" + i + "@example.com")) {
+                falsosPositivos++;
+            }
+        }
+        double tasa = (double) falsosPositivos / EMAILS;
+
+        assertTrue(tasa < 0.015, "Tasa medida: " + tasa);
+        assertTrue(filtro.tasaFalsosPositivosEstimada() <= 0.01);
+    }
+
+    @Test
+    @DisplayName("Debe rechazar una tasa de falsos positivos fuera de (0, 1)")
+    void cuandoTasaInvalida_debeLanzarExcepcion() {
+        assertThrows(IllegalArgumentException.class, () -> new FiltroBloom(1000, 1.0));
+        assertThrows(IllegalArgumentException.class, () -> new FiltroBloom(0, 0.01));
+    }
+}
@@ -0,0 +1,155 @@
+package com.cine.AppGestionCine.clientes;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Filtro de emails contra H2: carga por páginas y verificaciones que se ahorran el SELECT
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class FiltroEmailsTest {
+
+    private static final int CLIENTES = 1000;
+
+    @Configuration
+    @EntityScan(basePackageClasses = Cliente.class)
+    @EnableJpaRepositories(basePackageClasses = ClienteRepository.class)
+    static class Config {
+    }
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private FiltroEmails filtroEmails;
+
+    // Cuántas veces se llegó a consultar la BD
+    private final AtomicInteger consultas = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        clienteRepository.deleteAllInBatch();
+
+        List<Cliente> clientes = new ArrayList<>();
+        for (int i = 0; i < CLIENTES; i++) {
+            Cliente cliente = new Cliente();
+            cliente.setNombre("Cliente");
+            cliente.setApellido(String.valueOf(i));
+            cliente.setEmail("cliente" + i + "@example.com");
+            cliente.setTelefono("5512345678");
+            clientes.add(cliente);
+        }
+        clientes.get(0).setEmail("José.Pérez@Example.com");
+        clienteRepository.saveAll(clientes);
+
+        meterRegistry = new SimpleMeterRegistry();
+        // Lote pequeño: la carga recorre varias páginas
+        filtroEmails = new FiltroEmails(clienteRepository, meterRegistry, 100, 0.01, 64);
+    }
+
+    private boolean existe(String email) {
+        return filtroEmails.existe(email, e -> {
+            consultas.incrementAndGet();
+            return clienteRepository.existsByEmail(e);
+        });
+    }
+
+    private double consultas(String resultado) {
+        return meterRegistry.get("clientes.emails.filtro.consultas").tag("resultado", resultado).counter().count();
+    }
+
+    @Test
+    @DisplayName("Antes de cargar, toda verificación debe ir a la BD")
+    void cuandoNoCargado_debeConsultarSiempre() {
+        assertFalse(existe("nuevo@example.com"));
+        assertTrue(existe("cliente5@example.com"));
+
+        assertEquals(2, consultas.get());
+    }
+
+    @Test
+    @DisplayName("Con el filtro cargado, los emails nuevos no deben consultar la BD")
+    void cuandoCargado_emailsNuevosNoDebenConsultar() {
+        filtroEmails.cargar();
+        assertTrue(filtroEmails.isCargado());
+
+        for (int i = 0; i < CLIENTES; i++) {
+            assertFalse(existe("nuevo" + i + "@example.com"));
+        }
+        // Todos los registrados deben llegar a la BD y encontrarse
+        for (int i = 1; i < CLIENTES; i++) {
+            assertTrue(existe("cliente" + i + "@example.com"));
+        }
+
+        double descartados = consultas("descartado");
+        double falsosPositivos = consultas("falso-positivo");
+
+        assertEquals(CLIENTES, descartados + falsosPositivos);
+        assertTrue(falsosPositivos <= CLIENTES * 0.03, "Falsos positivos: " + falsosPositivos);
+        assertEquals(CLIENTES - 1, consultas("duplicado"));
+        assertEquals(CLIENTES - 1 + (int) falsosPositivos, consultas.get());
+    }
+
+    @Test
+    @DisplayName("Mayúsculas y acentos no deben esconder un email registrado")
+    void cuandoEmailDifiereEnMayusculasOAcentos_debeConsultar() {
+        filtroEmails.cargar();
+
+        filtroEmails.existe("jose.perez@example.com", e -> {
+            consultas.incrementAndGet();
+            return true;
+        });
+
+        assertEquals(1, consultas.get());
+    }
+
+    @Test
+    @DisplayName("Un email registrado después de cargar debe consultar la BD")
+    void cuandoRegistrarDespuesDeCargar_debeConsultar() {
+        filtroEmails.cargar();
+
+        filtroEmails.registrar("nueva@example.com");
+
+        existe("nueva@example.com");
+        assertEquals(1, consultas.get());
+    }
+
+    @Test
+    @DisplayName("Una lista de emails debe ir a la BD en un solo SELECT y solo con los que el filtro no descarta")
+    void cuandoBuscarExistentes_debeConsultarSoloLosCandidatos() {
+        filtroEmails.cargar();
+        List<String> enviados = new ArrayList<>();
+
+        Set<String> existentes = filtroEmails.existentes(List.of("cliente1@example.com", "nuevo@example.com", "CLIENTE2@example.com"),
+                emails -> {
+                    consultas.incrementAndGet();
+                    enviados.addAll(emails);
+                    return clienteRepository.findAll().stream().map(Cliente::getEmail).filter(emails::contains).toList();
+                });
+
+        assertEquals(1, consultas.get());
+        assertEquals(Set.of("cliente1@example.com"), existentes);
+        // En mayúsculas también es candidato: la collation de MySQL lo encontraría
+        assertTrue(enviados.containsAll(List.of("cliente1@example.com", "CLIENTE2@example.com")), "Enviados: " + enviados);
+    }
+}
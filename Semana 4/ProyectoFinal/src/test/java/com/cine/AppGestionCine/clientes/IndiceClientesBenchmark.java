@@ -0,0 +1,56 @@
+package com.cine.AppGestionCine.clientes;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark JMH de la búsqueda de clientes con un millón de clientes y consultas de
+ * 1 a 12 letras como las de taquilla, incluidas las que tienen errores de dedo
+ *
+ * Usa la misma cartera que IndiceClientesTest. Se ejecuta igual que MejoresAsientosBenchmark.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IndiceClientesBenchmark {
+
+    @Param({"g", "gonz", "maria gonz", "fernandes", "lopez mart", "rmz"})
+    private String consulta;
+
+    private IndiceClientes indice;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        indice = IndiceClientesTest.cartera(1_000_000);
+    }
+
+    @Benchmark
+    public List<Long> buscar() {
+        return indice.buscar(consulta, 20);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(IndiceClientesBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,122 @@
+package com.cine.AppGestionCine.clientes;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class IndiceClientesTest {
+
+    private IndiceClientes indice;
+
+    @BeforeEach
+    void setUp() {
+        indice = new IndiceClientes(mock(ClienteRepository.class));
+        indice.agregar(1L, "José", "Peña Núñez", "jose.pena@example.com");
+        indice.agregar(2L, "María", "González", "mgonzalez@gmail.com");
+        indice.agregar(3L, "Mario", "Gómez", "mario88@example.com");
+        indice.agregar(4L, "Ana", "Martínez", "anita@example.com");
+        indice.agregar(5L, "Juan", "Pérez", "juan.perez@example.com");
+    }
+
+    @Test
+    @DisplayName("Debe ignorar acentos, mayúsculas y el dominio del email")
+    void cuandoBuscarSinAcentos_debeEncontrar() {
+        assertEquals(List.of(1L), indice.buscar("pena nunez", 10));
+        assertEquals(List.of(1L), indice.buscar("PEÑA", 10));
+        assertEquals(List.of(4L), indice.buscar("anita@example.com", 10));
+        assertEquals(List.of(3L), indice.buscar("mario88", 10));
+        assertEquals("jose pena nunez jose pena", IndiceClientes.textoIndexado("José", "Peña-Núñez", "jose.pena@x.com"));
+    }
+
+    @Test
+    @DisplayName("Debe encontrar por prefijo mientras se escribe y tolerar errores de dedo")
+    void cuandoBuscarPrefijoOConErrores_debeEncontrar() {
+        assertEquals(List.of(2L), indice.buscar("gonz", 10));
+        assertEquals(List.of(5L), indice.buscar("juan p", 10));
+        assertEquals(List.of(2L), indice.buscar("gonzales", 10));
+        assertEquals(List.of(4L), indice.buscar("martines", 10));
+        assertTrue(indice.buscar("xyzw", 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Debe poner primero a quien tiene una palabra que empieza con lo escrito")
+    void cuandoVariosCoinciden_debeOrdenarPorRelevancia() {
+        // "mar" empieza palabras de María, Mario y Martínez: primero el texto más corto
+        assertEquals(List.of(4L, 3L, 2L), indice.buscar("mar", 10));
+        assertEquals(List.of(4L), indice.buscar("mar", 1));
+        // Solo Ana Martínez tiene las dos palabras; los otros quedan como parecidos
+        assertEquals(4L, indice.buscar("mar mart", 10).get(0));
+    }
+
+    @Test
+    @DisplayName("Al cambiar el nombre o el email debe dejar de encontrarse por el anterior")
+    void cuandoActualizar_debeReemplazarElTexto() {
+        indice.agregar(5L, "Juan", "Ramírez", "jramirez@example.com");
+
+        assertTrue(indice.buscar("perez", 10).isEmpty());
+        assertEquals(List.of(5L), indice.buscar("ramirez", 10));
+        assertEquals(List.of(5L), indice.buscar("juan", 10));
+        assertEquals(5, indice.totalClientes());
+    }
+
+    @Test
+    @DisplayName("Dentro de una transacción debe indexar hasta el commit")
+    void cuandoIndexarEnTransaccion_debeEsperarAlCommit() {
+        Cliente cliente = new Cliente();
+        cliente.setId(6L);
+        cliente.setNombre("Sofía");
+        cliente.setApellido("Ruiz");
+        cliente.setEmail("sruiz@example.com");
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            indice.indexar(cliente);
+            assertTrue(indice.buscar("sofia", 10).isEmpty());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(List.of(6L), indice.buscar("sofia", 10));
+    }
+
+    @Test
+    @DisplayName("Con una cartera grande debe ocupar unos cientos de bytes por cliente")
+    void cuandoCarteraGrande_debeOcuparPocaMemoria() {
+        int clientes = 100_000;
+        IndiceClientes grande = cartera(clientes);
+
+        double bytesPorCliente = (double) grande.bytesEstimados() / clientes;
+        assertEquals(clientes, grande.totalClientes());
+        assertTrue(bytesPorCliente < 300, "Bytes por cliente: " + bytesPorCliente);
+        assertFalse(grande.buscar("maria gonz", 20).isEmpty());
+        assertFalse(grande.buscar("fernandes", 20).isEmpty());
+    }
+
+    static IndiceClientes cartera(int clientes) {
+        String[] nombres = {"María", "José", "Juan", "Ana", "Luis", "Sofía", "Carlos", "Fernanda", "Miguel", "Lucía",
+                "Jorge", "Valeria", "Ricardo", "Daniela", "Alejandro", "Gabriela"};
+        String[] apellidos = {"García", "Hernández", "López", "Martínez", "González", "Pérez", "Rodríguez", "Sánchez",
+                "Ramírez", "Cruz", "Flores", "Gómez", "Morales", "Vázquez", "Jiménez", "Reyes", "Díaz", "Torres",
+                "Fernández", "Ruiz"};
+        Random random = new Random(42);
+        IndiceClientes indice = new IndiceClientes(mock(ClienteRepository.class));
+
+        for (long id = 1; id <= clientes; id++) {
+            String nombre = nombres[random.nextInt(nombres.length)];
+            String apellido = apellidos[random.nextInt(apellidos.length)] + " " + apellidos[random.nextInt(apellidos.length)];
+            String email = nombre.charAt(0) + apellido.replace(" ", "").substring(0, 6) + id + "@example.com";
+            indice.agregar(id, nombre, apellido, email);
+        }
+        return indice;
+    }
+}
@@ -0,0 +1,78 @@
+package com.cine.AppGestionCine.compartido;
+
+import com.cine.AppGestionCine.asientos.Asiento;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PaginadorTest {
+
+    private static final Set<String> CAMPOS = Paginador.nombres("id", "numeroAsiento", "fila", "columna", "estado");
+
+    private final Paginador paginador = new Paginador(JsonMapper.builder().findAndAddModules().build());
+
+    private static Asiento asiento(long id, String numero) {
+        Asiento asiento = new Asiento(1L, numero, 1, (int) id);
+        asiento.setId(id);
+        return asiento;
+    }
+
+    @Test
+    @DisplayName("El límite debe quedar entre 1 y el máximo, con 100 por defecto")
+    void cuandoPedirLimite_debeAcotarlo() {
+        assertEquals(Paginador.LIMITE_PREDETERMINADO, paginador.limite(null));
+        assertEquals(1, paginador.limite(0));
+        assertEquals(25, paginador.limite(25));
+        assertEquals(Paginador.LIMITE_MAXIMO, paginador.limite(50_000));
+    }
+
+    @Test
+    @DisplayName("Debe leer los campos pedidos y rechazar los que no existen")
+    void cuandoPedirCampos_debeValidarlos() {
+        assertTrue(paginador.campos(null, CAMPOS).isEmpty());
+        assertEquals(List.of("id", "estado"), List.copyOf(paginador.campos(" id, estado,,", CAMPOS)));
+
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> paginador.campos("id,clienteEmail", CAMPOS));
+        assertTrue(exception.getMessage().contains("clienteEmail"));
+    }
+
+    @Test
+    @DisplayName("La proyección solo se usa si se pidieron campos y todos caben en ella")
+    void cuandoCompararConProyeccion_debeExigirSubconjunto() {
+        Set<String> proyeccion = Set.of("id", "numeroAsiento");
+
+        assertFalse(paginador.cabeEn(Set.of(), proyeccion), "Sin fields se necesitan todos los campos");
+        assertTrue(paginador.cabeEn(Set.of("numeroAsiento"), proyeccion));
+        assertFalse(paginador.cabeEn(Set.of("id", "fila"), proyeccion));
+    }
+
+    @Test
+    @DisplayName("Con una fila de más debe cortar la página y dar el cursor de la última")
+    void cuandoHayMasFilas_debeDarCursor() {
+        List<Asiento> filas = List.of(asiento(3, "A1"), asiento(4, "A2"), asiento(9, "A3"));
+
+        ResponseEntity<List<?>> respuesta = paginador.responder(filas, 2, Set.of());
+
+        assertEquals(2, respuesta.getBody().size());
+        assertEquals("4", respuesta.getHeaders().getFirst(Paginador.CABECERA_CURSOR));
+    }
+
+    @Test
+    @DisplayName("En la última página no hay cursor y los campos se recortan")
+    void cuandoUltimaPagina_debeRecortarSinCursor() {
+        List<Asiento> filas = List.of(asiento(3, "A1"), asiento(4, "A2"));
+
+        ResponseEntity<List<?>> respuesta = paginador.responder(filas, 2, Paginador.nombres("numeroAsiento"));
+
+        assertNull(respuesta.getHeaders().getFirst(Paginador.CABECERA_CURSOR));
+        assertEquals(List.of(Map.of("numeroAsiento", "A1"), Map.of("numeroAsiento", "A2")), respuesta.getBody());
+    }
+}
@@ -0,0 +1,73 @@
+package com.cine.AppGestionCine.funciones;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * Benchmark JMH de "qué hay esta noche" sobre un año de cartelera (20 salas x 6 funciones diarias)
+ *
+ * Compara la agenda contra recorrer la lista completa como hacían los clientes.
+ * Se ejecuta igual que MejoresAsientosBenchmark.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AgendaFuncionesBenchmark {
+
+    private List<Funcion> cartelera;
+    private AgendaFunciones agenda;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        cartelera = AgendaFuncionesTest.carteleraDeUnAnio();
+        agenda = new AgendaFunciones(mock(FuncionRepository.class));
+        cartelera.forEach(agenda::agregar);
+    }
+
+    private static LocalDateTime nocheAlAzar() {
+        return AgendaFuncionesTest.HOY.plusDays(ThreadLocalRandom.current().nextInt(365)).withHour(18);
+    }
+
+    @Benchmark
+    public List<Funcion> agenda() {
+        LocalDateTime noche = nocheAlAzar();
+        return agenda.enRango(noche, noche.withHour(23).withMinute(59), null);
+    }
+
+    @Benchmark
+    public List<Funcion> filtrarLista() {
+        LocalDateTime noche = nocheAlAzar();
+        LocalDateTime fin = noche.withHour(23).withMinute(59);
+        return cartelera.stream()
+                .filter(f -> !f.getFechaHora().isBefore(noche) && !f.getFechaHora().isAfter(fin))
+                .toList();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(AgendaFuncionesBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,116 @@
+package com.cine.AppGestionCine.funciones;
+
+import com.cine.AppGestionCine.funciones.events.FuncionCanceladaEvent;
+import com.cine.AppGestionCine.funciones.events.FuncionCreadaEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class AgendaFuncionesTest {
+
+    static final LocalDateTime HOY = LocalDateTime.of(2025, 9, 30, 0, 0);
+
+    private FuncionRepository funcionRepository;
+    private AgendaFunciones agenda;
+
+    @BeforeEach
+    void setUp() {
+        funcionRepository = mock(FuncionRepository.class);
+        when(funcionRepository.findByEstado(EstadoFuncion.EN_CARTELERA)).thenReturn(List.of(
+                funcion(1L, "Sala 1", HOY.withHour(16)),
+                funcion(2L, "Sala 1", HOY.withHour(20)),
+                funcion(3L, "Sala 2", HOY.withHour(20)),
+                funcion(4L, "Sala 2", HOY.withHour(22)),
+                funcion(5L, "Sala 1", HOY.plusDays(1).withHour(20))
+        ));
+
+        agenda = new AgendaFunciones(funcionRepository);
+        agenda.cargarTodo();
+    }
+
+    private static Funcion funcion(Long id, String sala, LocalDateTime fechaHora) {
+        Funcion funcion = new Funcion("Dune", fechaHora, sala, 100, 120.0);
+        funcion.setId(id);
+        return funcion;
+    }
+
+    private static List<Long> ids(List<Funcion> funciones) {
+        return funciones.stream().map(Funcion::getId).toList();
+    }
+
+    @Test
+    @DisplayName("Debe devolver las funciones de la noche en orden, de todas las salas o de una")
+    void cuandoBuscarEstaNoche_debeFiltrarPorHorarioYSala() {
+        assertTrue(agenda.isCargada());
+        assertEquals(List.of(2L, 3L, 4L), ids(agenda.enRango(HOY.withHour(18), HOY.withHour(23), null)));
+        assertEquals(List.of(3L, 4L), ids(agenda.enRango(HOY.withHour(18), HOY.withHour(23), "Sala 2")));
+        assertTrue(agenda.enRango(HOY.withHour(18), HOY.withHour(23), "Sala 9").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Los extremos del rango deben estar incluidos, como en el BETWEEN de la BD")
+    void cuandoFuncionEnElLimite_debeIncluirla() {
+        assertEquals(List.of(2L, 3L), ids(agenda.enRango(HOY.withHour(20), HOY.withHour(20), null)));
+    }
+
+    @Test
+    @DisplayName("Debe agregar las funciones nuevas y quitar las canceladas")
+    void cuandoCrearYCancelar_debeActualizarAgenda() {
+        when(funcionRepository.findById(6L)).thenReturn(Optional.of(funcion(6L, "Sala 2", HOY.withHour(19))));
+
+        agenda.manejarFuncionCreada(new FuncionCreadaEvent(6L, "Dune", "Sala 2"));
+        agenda.manejarFuncionCancelada(new FuncionCanceladaEvent(3L, "Dune", "Sala 2"));
+
+        assertEquals(List.of(6L, 4L), ids(agenda.enRango(HOY.withHour(18), HOY.withHour(23), "Sala 2")));
+        assertEquals(List.of(6L, 2L, 4L), ids(agenda.enRango(HOY.withHour(18), HOY.withHour(23), null)));
+        assertEquals(5, agenda.totalFunciones());
+    }
+
+    /**
+     * Un año de cartelera (20 salas x 6 funciones diarias): la consulta "qué hay esta noche"
+     * debe dar lo mismo que recorrer la lista completa como hacían los clientes
+     */
+    @Test
+    @DisplayName("Con un año de cartelera el rango de una noche debe coincidir con filtrar la lista")
+    void cuandoCarteleraGrande_debeCoincidirConFiltrarLaLista() {
+        List<Funcion> cartelera = carteleraDeUnAnio();
+        AgendaFunciones grande = new AgendaFunciones(mock(FuncionRepository.class));
+        cartelera.forEach(grande::agregar);
+
+        assertEquals(cartelera.size(), grande.totalFunciones());
+        for (int dia : new int[]{0, 1, 180, 364}) {
+            LocalDateTime noche = HOY.plusDays(dia).withHour(18);
+            LocalDateTime fin = noche.withHour(23).withMinute(59);
+            List<Long> filtradas = ids(cartelera.stream()
+                    .filter(f -> !f.getFechaHora().isBefore(noche) && !f.getFechaHora().isAfter(fin))
+                    .toList());
+
+            List<Long> enRango = ids(grande.enRango(noche, fin, null));
+
+            // 20 salas x funciones de las 18, 20 y 22 h
+            assertEquals(60, enRango.size());
+            assertEquals(filtradas.stream().sorted().toList(), enRango.stream().sorted().toList());
+        }
+    }
+
+    static List<Funcion> carteleraDeUnAnio() {
+        List<Funcion> cartelera = new ArrayList<>();
+        long id = 1;
+        for (int dia = 0; dia < 365; dia++) {
+            for (int sala = 1; sala <= 20; sala++) {
+                for (int hora = 12; hora < 24; hora += 2) {
+                    cartelera.add(funcion(id++, "Sala " + sala, HOY.plusDays(dia).withHour(hora)));
+                }
+            }
+        }
+        return cartelera;
+    }
+}
@@ -0,0 +1,72 @@
+package com.cine.AppGestionCine.funciones;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ArbolIntervalosTest {
+
+    @Test
+    @DisplayName("Dos intervalos que solo se tocan no deben cruzarse")
+    void cuandoIntervalosSeTocan_noDebeHaberSolape() {
+        ArbolIntervalos arbol = new ArbolIntervalos();
+        arbol.insertar(100, 200, 1);
+
+        assertNull(arbol.buscarSolape(200, 300));
+        assertNull(arbol.buscarSolape(0, 100));
+        assertEquals(1L, arbol.buscarSolape(199, 300));
+        assertEquals(1L, arbol.buscarSolape(120, 130));
+    }
+
+    @Test
+    @DisplayName("Debe coincidir con la revisión uno por uno después de altas y bajas al azar")
+    void cuandoAltasYBajasAlAzar_debeCoincidirConFuerzaBruta() {
+        Random random = new Random(7);
+        ArbolIntervalos arbol = new ArbolIntervalos();
+        List<long[]> intervalos = new ArrayList<>();
+
+        for (int i = 0; i < 5_000; i++) {
+            if (!intervalos.isEmpty() && random.nextInt(3) == 0) {
+                long[] quitado = intervalos.remove(random.nextInt(intervalos.size()));
+                assertTrue(arbol.eliminar(quitado[0], quitado[2]));
+            } else {
+                long inicio = random.nextInt(100_000);
+                long[] nuevo = {inicio, inicio + 1 + random.nextInt(300), i};
+                assertTrue(arbol.insertar(nuevo[0], nuevo[1], nuevo[2]));
+                intervalos.add(nuevo);
+            }
+
+            long a = random.nextInt(100_000);
+            long b = a + 1 + random.nextInt(300);
+            List<Long> esperados = intervalos.stream()
+                    .filter(x -> x[0] < b && a < x[1])
+                    .sorted((x, y) -> x[0] != y[0] ? Long.compare(x[0], y[0]) : Long.compare(x[2], y[2]))
+                    .map(x -> x[2])
+                    .toList();
+
+            assertEquals(esperados, arbol.solapes(a, b));
+            assertEquals(esperados.isEmpty(), arbol.buscarSolape(a, b) == null);
+        }
+
+        assertEquals(intervalos.size(), arbol.tamanio());
+        // AVL: altura <= 1.44 log2(n + 2)
+        assertTrue(arbol.altura() <= 1.44 * Math.log(arbol.tamanio() + 2) / Math.log(2));
+    }
+
+    @Test
+    @DisplayName("No debe duplicar ni quitar lo que no está")
+    void cuandoRepetirOperaciones_debeSerIdempotente() {
+        ArbolIntervalos arbol = new ArbolIntervalos();
+
+        assertTrue(arbol.insertar(10, 20, 1));
+        assertFalse(arbol.insertar(10, 20, 1));
+        assertTrue(arbol.eliminar(10, 1));
+        assertFalse(arbol.eliminar(10, 1));
+        assertEquals(0, arbol.tamanio());
+    }
+}
@@ -0,0 +1,90 @@
+package com.cine.AppGestionCine.funciones;
+
+import com.cine.AppGestionCine.funciones.events.FuncionCanceladaEvent;
+import com.cine.AppGestionCine.funciones.events.FuncionCreadaEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CacheFuncionesTest {
+
+    private FuncionRepository funcionRepository;
+    private SimpleMeterRegistry meterRegistry;
+    private CacheFunciones cacheFunciones;
+
+    @BeforeEach
+    void setUp() {
+        funcionRepository = mock(FuncionRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+        cacheFunciones = new CacheFunciones(funcionRepository, meterRegistry, 100, 300);
+    }
+
+    private static Funcion funcion(Long id) {
+        Funcion funcion = new Funcion("Dune", LocalDateTime.now(), "Sala 1", 100, 120.0);
+        funcion.setId(id);
+        return funcion;
+    }
+
+    private double gets(String cache, String resultado) {
+        return meterRegistry.get("cache.gets").tag("cache", cache).tag("result", resultado).functionCounter().count();
+    }
+
+    @Test
+    @DisplayName("La cartelera debe leerse de la BD una sola vez mientras no cambie")
+    void cuandoLeerCarteleraVariasVeces_debeIrUnaVezALaBD() {
+        when(funcionRepository.findByEstado(EstadoFuncion.EN_CARTELERA)).thenReturn(List.of(funcion(1L), funcion(2L)));
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals(2, cacheFunciones.getFunciones(EstadoFuncion.EN_CARTELERA).size());
+        }
+
+        verify(funcionRepository, times(1)).findByEstado(EstadoFuncion.EN_CARTELERA);
+        assertEquals(99, gets("cartelera", "hit"));
+        assertEquals(1, gets("cartelera", "miss"));
+    }
+
+    @Test
+    @DisplayName("Crear una función debe invalidar la cartelera y el 'no existe' de su ID")
+    void cuandoFuncionCreada_debeInvalidarCarteleraYSuId() {
+        when(funcionRepository.findById(3L)).thenReturn(Optional.empty(), Optional.of(funcion(3L)));
+        when(funcionRepository.findByEstado(EstadoFuncion.EN_CARTELERA)).thenReturn(List.of(funcion(1L)), List.of(funcion(1L), funcion(3L)));
+
+        assertTrue(cacheFunciones.getFuncion(3L).isEmpty());
+        assertEquals(1, cacheFunciones.getFunciones(EstadoFuncion.EN_CARTELERA).size());
+
+        cacheFunciones.manejarFuncionCreada(new FuncionCreadaEvent(3L, "Dune", "Sala 1"));
+
+        assertTrue(cacheFunciones.getFuncion(3L).isPresent());
+        assertEquals(2, cacheFunciones.getFunciones(EstadoFuncion.EN_CARTELERA).size());
+    }
+
+    @Test
+    @DisplayName("Cancelar una función debe invalidar solo su entrada y la cartelera")
+    void cuandoFuncionCancelada_debeInvalidarSoloSuEntrada() {
+        when(funcionRepository.findById(1L)).thenReturn(Optional.of(funcion(1L)));
+        when(funcionRepository.findById(2L)).thenReturn(Optional.of(funcion(2L)));
+        when(funcionRepository.findByEstado(EstadoFuncion.EN_CARTELERA)).thenReturn(List.of(funcion(1L), funcion(2L)));
+
+        cacheFunciones.getFuncion(1L);
+        cacheFunciones.getFuncion(2L);
+        cacheFunciones.getFunciones(EstadoFuncion.EN_CARTELERA);
+
+        cacheFunciones.manejarFuncionCancelada(new FuncionCanceladaEvent(1L, "Dune", "Sala 1"));
+
+        cacheFunciones.getFuncion(1L);
+        cacheFunciones.getFuncion(2L);
+        cacheFunciones.getFunciones(EstadoFuncion.EN_CARTELERA);
+
+        verify(funcionRepository, times(2)).findById(1L);
+        verify(funcionRepository, times(1)).findById(2L);
+        verify(funcionRepository, times(2)).findByEstado(EstadoFuncion.EN_CARTELERA);
+    }
+}
@@ -0,0 +1,63 @@
+package com.cine.AppGestionCine.funciones;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Benchmark JMH de los contadores de asientos disponibles: 16 hilos sumando sobre la misma función
+ *
+ * Es el caso que antes era findById → +cambio → save por cada reserva. Nunca se
+ * vuelca a la BD durante la medición. Se ejecuta igual que MejoresAsientosBenchmark.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(16)
+public class ContadoresAsientosBenchmark {
+
+    private ContadoresAsientos contadoresAsientos;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        contadoresAsientos = new ContadoresAsientos(mock(FuncionRepository.class, withSettings().stubOnly()),
+                mock(PlatformTransactionManager.class, withSettings().stubOnly()));
+        contadoresAsientos.registrar(1L, 1_000_000);
+    }
+
+    /**
+     * 3 reservas por cada cancelación, como en la prueba de concurrencia
+     */
+    @Benchmark
+    public void sumar() {
+        contadoresAsientos.sumar(1L, ThreadLocalRandom.current().nextInt(4) == 0 ? 1 : -1);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ContadoresAsientosBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
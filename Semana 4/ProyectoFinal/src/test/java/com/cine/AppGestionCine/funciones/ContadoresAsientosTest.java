@@ -0,0 +1,175 @@
+package com.cine.AppGestionCine.funciones;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class ContadoresAsientosTest {
+
+    private FuncionRepository funcionRepository;
+    private ContadoresAsientos contadoresAsientos;
+
+    @BeforeEach
+    void setUp() {
+        funcionRepository = mock(FuncionRepository.class);
+        when(funcionRepository.sumarAsientosDisponibles(anyLong(), anyInt())).thenReturn(1);
+        contadoresAsientos = new ContadoresAsientos(funcionRepository, mock(PlatformTransactionManager.class));
+    }
+
+    private static Funcion funcion(Long id, int disponibles) {
+        Funcion funcion = new Funcion("Dune", LocalDateTime.now(), "Sala 1", 100, 120.0);
+        funcion.setId(id);
+        funcion.setAsientosDisponibles(disponibles);
+        return funcion;
+    }
+
+    @Test
+    @DisplayName("Debe cargar el contador de la BD la primera vez y luego no volver a leerla")
+    void cuandoSumarSinContador_debeCargarDeLaBD() {
+        when(funcionRepository.findById(1L)).thenReturn(Optional.of(funcion(1L, 40)));
+
+        contadoresAsientos.sumar(1L, -1);
+        contadoresAsientos.sumar(1L, -1);
+
+        assertEquals(38, contadoresAsientos.disponibles(funcion(1L, 40)));
+        verify(funcionRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    @DisplayName("Debe volcar solo el acumulado neto con un UPDATE por función")
+    void cuandoVolcar_debeMandarElNetoPorFuncion() {
+        contadoresAsientos.registrar(1L, 100);
+        contadoresAsientos.registrar(2L, 100);
+        contadoresAsientos.sumar(1L, -3);
+        contadoresAsientos.sumar(1L, 1);
+
+        contadoresAsientos.volcar();
+        contadoresAsientos.volcar();
+
+        verify(funcionRepository, times(1)).sumarAsientosDisponibles(1L, -2);
+        verify(funcionRepository, never()).sumarAsientosDisponibles(eq(2L), anyInt());
+        assertEquals(98, contadoresAsientos.disponibles(funcion(1L, 100)));
+    }
+
+    @Test
+    @DisplayName("Si el volcado falla, debe reintentarlo en el siguiente")
+    void cuandoVolcadoFalla_debeConservarLoPendiente() {
+        contadoresAsientos.registrar(1L, 100);
+        contadoresAsientos.sumar(1L, -5);
+
+        doThrow(new RuntimeException("BD caída"))
+                .doReturn(1)
+                .when(funcionRepository).sumarAsientosDisponibles(1L, -5);
+
+        contadoresAsientos.volcar();
+        contadoresAsientos.volcar();
+
+        verify(funcionRepository, times(2)).sumarAsientosDisponibles(1L, -5);
+    }
+
+    @Test
+    @DisplayName("Corregir debe ajustar el contador y devolver lo que sigue pendiente, también a mitad de un volcado")
+    void cuandoCorregirConPendiente_debeConservarloParaElVolcado() {
+        contadoresAsientos.registrar(1L, 100);
+        contadoresAsientos.sumar(1L, -5);
+
+        // El volcado sigue contando su cambio como pendiente mientras hace el UPDATE
+        Integer[] aMitad = new Integer[1];
+        when(funcionRepository.sumarAsientosDisponibles(1L, -5)).thenAnswer(invocacion -> {
+            aMitad[0] = contadoresAsientos.corregir(1L, 90);
+            return 1;
+        });
+        contadoresAsientos.volcar();
+
+        assertEquals(-5, aMitad[0]);
+        assertEquals(0, contadoresAsientos.corregir(1L, 90));
+        assertEquals(90, contadoresAsientos.disponiblesEnMemoria(1L));
+        assertEquals(0, contadoresAsientos.corregir(2L, 50), "Sin contador no hay nada pendiente");
+    }
+
+    @Test
+    @DisplayName("Una corrección en medio de muchas reservas no debe perder ninguna")
+    void cuandoCorregirMientrasSeSuma_noSePierdenActualizaciones() throws Exception {
+        int hilos = 8;
+        int porHilo = 50_000;
+        contadoresAsientos.registrar(1L, 1_000_000);
+
+        CountDownLatch inicio = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(hilos);
+        for (int h = 0; h < hilos; h++) {
+            executor.submit(() -> {
+                inicio.await();
+                for (int i = 0; i < porHilo; i++) {
+                    contadoresAsientos.sumar(1L, -1);
+                }
+                return null;
+            });
+        }
+
+        inicio.countDown();
+        while (contadoresAsientos.disponiblesEnMemoria(1L) > 1_000_000 - porHilo) {
+            Thread.onSpinWait();
+        }
+        Integer pendiente = null;
+        while (pendiente == null) {
+            pendiente = contadoresAsientos.corregir(1L, 2_000_000);
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        // Las reservas posteriores a la corrección son las que no estaban pendientes en ella
+        int total = hilos * porHilo;
+        assertEquals(2_000_000 - total - pendiente, contadoresAsientos.disponiblesEnMemoria(1L));
+    }
+
+    /**
+     * 16 hilos reservando y cancelando sobre la misma función.
+     * Con findById → +cambio → save se perdían actualizaciones; aquí el total es exacto
+     */
+    @Test
+    @DisplayName("Con muchos hilos sobre la misma función no se debe perder ninguna actualización")
+    void cuandoMuchosHilosSuman_noSePierdenActualizaciones() throws Exception {
+        int hilos = 16;
+        int porHilo = 100_000;
+        contadoresAsientos.registrar(1L, 10_000_000);
+
+        CountDownLatch inicio = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(hilos);
+
+        for (int h = 0; h < hilos; h++) {
+            executor.submit(() -> {
+                inicio.await();
+                for (int i = 0; i < porHilo; i++) {
+                    // 3 reservas por cada cancelación
+                    contadoresAsientos.sumar(1L, i % 4 == 0 ? 1 : -1);
+                }
+                return null;
+            });
+        }
+
+        inicio.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        contadoresAsientos.volcar();
+
+        int neto = hilos * (porHilo / 4 - porHilo * 3 / 4);
+        assertEquals(10_000_000 + neto, contadoresAsientos.disponibles(funcion(1L, 0)));
+        verify(funcionRepository, times(1)).sumarAsientosDisponibles(1L, neto);
+        verify(funcionRepository, never()).findById(anyLong());
+    }
+}
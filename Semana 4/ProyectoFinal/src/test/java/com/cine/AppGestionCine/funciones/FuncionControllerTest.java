@@ -39,6 +39,9 @@ class FuncionControllerTest {
     @MockitoBean
     private FuncionService funcionService;
 
+    @MockitoBean
+    private ImportadorProgramacion importadorProgramacion;
+
     @Test
     @DisplayName("GET /api/funciones debe retornar lista de funciones")
     void cuandoGetFunciones_debeRetornarListaExitosamente() throws Exception {
@@ -56,7 +59,7 @@ class FuncionControllerTest {
 
         List<Funcion> funciones = Arrays.asList(funcion1, funcion2);
 
-        when(funcionService.getFuncionesEnCartelera()).thenReturn(funciones);
+        when(funcionService.getFuncionesEnCartelera(null, 101)).thenReturn(funciones);
 
         mockMvc.perform(get("/api/funciones"))
                 .andExpect(status().isOk())
@@ -64,7 +67,28 @@ class FuncionControllerTest {
                 .andExpect(jsonPath("$[0].pelicula", is("Avengers")))
                 .andExpect(jsonPath("$[1].pelicula", is("Spider-Man")));
 
-        verify(funcionService, times(1)).getFuncionesEnCartelera();
+        verify(funcionService, times(1)).getFuncionesEnCartelera(null, 101);
+    }
+
+    @Test
+    @DisplayName("GET /api/funciones con fields y limite debe recortar campos y dar el siguiente cursor")
+    void cuandoGetFunciones_conFieldsYLimite_debeRecortarYPaginar() throws Exception {
+        Funcion funcion1 = new Funcion("Avengers", LocalDateTime.of(2025, 10, 1, 18, 0), "Sala 1", 50, 100.0);
+        funcion1.setId(4L);
+        Funcion funcion2 = new Funcion("Spider-Man", LocalDateTime.of(2025, 10, 1, 20, 0), "Sala 2", 50, 100.0);
+        funcion2.setId(7L);
+
+        when(funcionService.getFuncionesEnCartelera(3L, 2)).thenReturn(Arrays.asList(funcion1, funcion2));
+
+        mockMvc.perform(get("/api/funciones")
+                        .param("cursor", "3")
+                        .param("limite", "1")
+                        .param("fields", "id,pelicula"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Cursor-Siguiente", "4"))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].pelicula", is("Avengers")))
+                .andExpect(jsonPath("$[0].sala").doesNotExist());
     }
 
     @Test
@@ -125,7 +149,8 @@ class FuncionControllerTest {
                 any(LocalDateTime.class),
                 anyString(),
                 anyInt(),
-                anyDouble()
+                anyDouble(),
+                isNull()
         )).thenReturn(funcionCreada);
 
         mockMvc.perform(post("/api/funciones")
@@ -141,7 +166,8 @@ class FuncionControllerTest {
                 any(LocalDateTime.class),
                 eq("Sala 1"),
                 eq(50),
-                eq(150.0)
+                eq(150.0),
+                isNull()
         );
     }
 
@@ -200,4 +226,105 @@ class FuncionControllerTest {
 
         verify(funcionService, times(1)).getFuncionesConAsientosDisponibles();
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("GET /api/funciones/rango debe retornar las funciones de la sala en ese horario")
+    void cuandoGetRango_debeRetornarFuncionesDelHorario() throws Exception {
+        Funcion funcion = new Funcion();
+        funcion.setId(1L);
+        funcion.setPelicula("Dune");
+        funcion.setSala("Sala 1");
+        funcion.setFechaHora(LocalDateTime.of(2025, 9, 30, 20, 0));
+
+        when(funcionService.getFuncionesPorRango(
+                LocalDateTime.of(2025, 9, 30, 18, 0), LocalDateTime.of(2025, 9, 30, 23, 59), "Sala 1"))
+                .thenReturn(List.of(funcion));
+
+        mockMvc.perform(get("/api/funciones/rango")
+                        .param("inicio", "2025-09-30T18:00:00")
+                        .param("fin", "2025-09-30T23:59:00")
+                        .param("sala", "Sala 1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].pelicula", is("Dune")));
+    }
+
+    @Test
+    @DisplayName("GET /api/funciones/rango debe retornar 400 si el rango está invertido")
+    void cuandoGetRango_invertido_debeRetornar400() throws Exception {
+        when(funcionService.getFuncionesPorRango(any(LocalDateTime.class), any(LocalDateTime.class), isNull()))
+                .thenThrow(new RuntimeException("La fecha de inicio debe ser anterior a la fecha de fin"));
+
+        mockMvc.perform(get("/api/funciones/rango")
+                        .param("inicio", "2025-09-30T23:00:00")
+                        .param("fin", "2025-09-30T18:00:00"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string(containsString("Error")));
+    }
+
+    @Test
+    @DisplayName("POST /api/funciones/programacion/validar debe listar los cruces de horario")
+    void cuandoValidarProgramacion_debeRetornarConflictos() throws Exception {
+        FuncionController.CrearFuncionRequest request = new FuncionController.CrearFuncionRequest();
+        request.setPelicula("Dune");
+        request.setFechaHora(LocalDateTime.of(2025, 9, 30, 20, 0));
+        request.setSala("Sala 1");
+        request.setTotalAsientos(50);
+        request.setPrecio(150.0);
+        request.setDuracionMinutos(150);
+
+        when(funcionService.validarProgramacion(anyList())).thenReturn(List.of(new ConflictoHorario(
+                0, "Sala 1", request.getFechaHora(), "Dune", "Se cruza con función 3 (Wicked, 30/09 19:00 - 21:00)")));
+
+        mockMvc.perform(post("/api/funciones/programacion/validar")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(request))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].indice", is(0)))
+                .andExpect(jsonPath("$[0].motivo", containsString("Wicked")));
+    }
+
+    @Test
+    @DisplayName("POST /api/funciones/programacion debe crear la programación y reportar los tiempos")
+    void cuandoImportarProgramacion_debeRetornarResultado() throws Exception {
+        FuncionController.CrearFuncionRequest request = new FuncionController.CrearFuncionRequest();
+        request.setPelicula("Dune");
+        request.setFechaHora(LocalDateTime.of(2025, 9, 30, 20, 0));
+        request.setSala("Sala 1");
+        request.setTotalAsientos(50);
+        request.setPrecio(150.0);
+
+        ResultadoProgramacion resultado = new ResultadoProgramacion();
+        resultado.setFuncionesCreadas(1);
+        resultado.setAsientosCreados(50);
+        resultado.setMsTotal(12);
+
+        when(importadorProgramacion.importar(anyList())).thenReturn(resultado);
+
+        mockMvc.perform(post("/api/funciones/programacion")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(request))))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.funcionesCreadas", is(1)))
+                .andExpect(jsonPath("$.asientosCreados", is(50)))
+                .andExpect(jsonPath("$.msTotal", is(12)));
+    }
+
+    @Test
+    @DisplayName("POST /api/funciones/programacion debe retornar 409 si hay cruces de horario")
+    void cuandoImportarProgramacion_conCruces_debeRetornar409() throws Exception {
+        ResultadoProgramacion resultado = new ResultadoProgramacion();
+        resultado.getConflictos().add(new ConflictoHorario(0, "Sala 1", LocalDateTime.of(2025, 9, 30, 20, 0),
+                "Dune", "Se cruza con función 3 (Wicked, 30/09 19:00 - 21:00)"));
+
+        when(importadorProgramacion.importar(anyList())).thenReturn(resultado);
+
+        mockMvc.perform(post("/api/funciones/programacion")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"pelicula\":\"Dune\",\"sala\":\"Sala 1\"}]"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.conflictos", hasSize(1)))
+                .andExpect(jsonPath("$.funcionesCreadas", is(0)));
+    }
+}
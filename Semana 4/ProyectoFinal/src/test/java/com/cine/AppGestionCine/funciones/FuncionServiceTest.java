@@ -1,19 +1,25 @@
 package com.cine.AppGestionCine.funciones;
 
 import com.cine.AppGestionCine.funciones.events.FuncionCanceladaEvent;
+import com.cine.AppGestionCine.funciones.events.FuncionCreadaEvent;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.springframework.context.ApplicationEventPublisher;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
         import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
 /**
@@ -33,6 +39,22 @@ class FuncionServiceTest {
     @Mock
     private ApplicationEventPublisher eventPublisher;
 
+    @Mock
+    private ContadoresAsientos contadoresAsientos;
+
+    @Mock
+    private CacheFunciones cacheFunciones;
+
+    // Índice real: la búsqueda se prueba con sus reglas de coincidencia
+    @Spy
+    private IndicePeliculas indicePeliculas = new IndicePeliculas(mock(FuncionRepository.class));
+
+    @Mock
+    private AgendaFunciones agendaFunciones;
+
+    @Mock
+    private PlanificadorSalas planificadorSalas;
+
     // @InjectMocks = Inyectar los mocks en el servicio que queremos probar
     @InjectMocks
     private FuncionService funcionService;
@@ -190,65 +212,190 @@ class FuncionServiceTest {
     }
 
     // ============================================
-    // TEST 5: Actualizar Asientos Disponibles
+    // TEST 5: Asientos Disponibles desde los Contadores
     // ============================================
 
     @Test
-    @DisplayName("Debe actualizar asientos disponibles correctamente al decrementar")
-    void cuandoActualizarAsientos_decrementar_debeActualizarCorrectamente() {
+    @DisplayName("Debe listar las funciones con asientos disponibles según los contadores en memoria")
+    void cuandoListarDisponibles_debeUsarContadores() {
         // ARRANGE
-        Long funcionId = 1L;
-        Funcion funcion = new Funcion();
-        funcion.setId(funcionId);
-        funcion.setAsientosDisponibles(50);
+        Funcion llena = new Funcion("Dune", LocalDateTime.now(), "Sala 1", 50, 120.0);
+        llena.setId(1L);
+        Funcion conLugar = new Funcion("Wicked", LocalDateTime.now(), "Sala 2", 50, 120.0);
+        conLugar.setId(2L);
 
-        when(funcionRepository.findById(funcionId)).thenReturn(Optional.of(funcion));
-        when(funcionRepository.save(any(Funcion.class))).thenReturn(funcion);
+        when(cacheFunciones.getFunciones(EstadoFuncion.EN_CARTELERA)).thenReturn(List.of(llena, conLugar));
+        when(contadoresAsientos.disponibles(llena)).thenReturn(0);    // La BD todavía dice 50
+        when(contadoresAsientos.disponibles(conLugar)).thenReturn(7);
 
         // ACT
-        funcionService.actualizarAsientosDisponibles(funcionId, -1); // Decrementar 1
+        List<Funcion> resultado = funcionService.getFuncionesConAsientosDisponibles();
 
         // ASSERT
-        assertEquals(49, funcion.getAsientosDisponibles(), "Debe decrementar a 49");
-        verify(funcionRepository, times(1)).save(funcion);
+        assertEquals(1, resultado.size(), "Solo debe quedar la función con lugar");
+        assertEquals(2L, resultado.get(0).getId());
+        assertEquals(7, resultado.get(0).getAsientosDisponibles(), "Debe mostrar el valor del contador");
+        assertEquals(50, conLugar.getAsientosDisponibles(), "La entrada en caché no se modifica");
+        verify(funcionRepository, never()).findByEstado(any());
+        verify(funcionRepository, never()).save(any(Funcion.class));
     }
 
     @Test
-    @DisplayName("Debe actualizar asientos disponibles correctamente al incrementar")
-    void cuandoActualizarAsientos_incrementar_debeActualizarCorrectamente() {
+    @DisplayName("Debe registrar el contador al crear y descartarlo al cancelar")
+    void cuandoCrearYCancelar_debeActualizarContadores() {
         // ARRANGE
-        Long funcionId = 1L;
-        Funcion funcion = new Funcion();
-        funcion.setId(funcionId);
-        funcion.setAsientosDisponibles(48);
+        Funcion funcion = new Funcion("Dune", LocalDateTime.now(), "Sala 1", 50, 120.0);
+        funcion.setId(1L);
 
-        when(funcionRepository.findById(funcionId)).thenReturn(Optional.of(funcion));
         when(funcionRepository.save(any(Funcion.class))).thenReturn(funcion);
+        when(funcionRepository.findById(1L)).thenReturn(Optional.of(funcion));
 
         // ACT
-        funcionService.actualizarAsientosDisponibles(funcionId, 1); // Incrementar 1
+        funcionService.crearFuncion("Dune", funcion.getFechaHora(), "Sala 1", 50, 120.0);
+        funcionService.cancelarFuncion(1L);
 
         // ASSERT
-        assertEquals(49, funcion.getAsientosDisponibles(), "Debe incrementar a 49");
-        verify(funcionRepository, times(1)).save(funcion);
+        verify(contadoresAsientos, times(1)).registrar(1L, 50);
+        verify(eventPublisher, times(1)).publishEvent(any(FuncionCreadaEvent.class));
+        verify(contadoresAsientos, times(1)).descartar(1L);
     }
 
+    // ============================================
+    // TEST 6: Funciones por Rango de Fechas
+    // ============================================
+
     @Test
-    @DisplayName("No debe permitir asientos disponibles negativos")
-    void cuandoActualizarAsientos_resultadoNegativo_noDebeActualizar() {
+    @DisplayName("Debe responder el rango desde la agenda en memoria sin ir a la BD")
+    void cuandoBuscarPorRango_conAgendaCargada_noDebeConsultarBD() {
         // ARRANGE
-        Long funcionId = 1L;
-        Funcion funcion = new Funcion();
-        funcion.setId(funcionId);
-        funcion.setAsientosDisponibles(1); // Solo 1 disponible
+        LocalDateTime inicio = LocalDateTime.of(2025, 9, 30, 18, 0);
+        LocalDateTime fin = LocalDateTime.of(2025, 9, 30, 23, 59);
+        Funcion funcion = new Funcion("Dune", LocalDateTime.of(2025, 9, 30, 20, 0), "Sala 1", 50, 120.0);
+        funcion.setId(1L);
 
-        when(funcionRepository.findById(funcionId)).thenReturn(Optional.of(funcion));
+        when(agendaFunciones.isCargada()).thenReturn(true);
+        when(agendaFunciones.enRango(inicio, fin, "Sala 1")).thenReturn(List.of(funcion));
+        when(contadoresAsientos.disponibles(funcion)).thenReturn(12);
 
         // ACT
-        funcionService.actualizarAsientosDisponibles(funcionId, -5); // Intentar decrementar 5
+        List<Funcion> resultado = funcionService.getFuncionesPorRango(inicio, fin, "Sala 1");
 
         // ASSERT
-        assertEquals(1, funcion.getAsientosDisponibles(), "No debe cambiar si quedaría negativo");
-        verify(funcionRepository, never()).save(any(Funcion.class));
+        assertEquals(1, resultado.size());
+        assertEquals(12, resultado.get(0).getAsientosDisponibles(), "Debe mostrar el valor del contador");
+        verify(funcionRepository, never()).findFuncionesByFechaRango(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Si la agenda no está cargada, debe consultar la BD y filtrar por sala")
+    void cuandoBuscarPorRango_sinAgenda_debeConsultarBD() {
+        // ARRANGE
+        LocalDateTime inicio = LocalDateTime.of(2025, 9, 30, 18, 0);
+        LocalDateTime fin = LocalDateTime.of(2025, 9, 30, 23, 59);
+        Funcion tarde = new Funcion("Dune", LocalDateTime.of(2025, 9, 30, 22, 0), "Sala 1", 50, 120.0);
+        tarde.setId(1L);
+        Funcion otraSala = new Funcion("Wicked", LocalDateTime.of(2025, 9, 30, 19, 0), "Sala 2", 50, 120.0);
+        otraSala.setId(2L);
+        Funcion temprano = new Funcion("Wicked", LocalDateTime.of(2025, 9, 30, 18, 30), "Sala 1", 50, 120.0);
+        temprano.setId(3L);
+
+        when(funcionRepository.findFuncionesByFechaRango(inicio, fin, EstadoFuncion.EN_CARTELERA))
+                .thenReturn(List.of(tarde, otraSala, temprano));
+        when(contadoresAsientos.disponibles(any())).thenReturn(50);
+
+        // ACT
+        List<Funcion> resultado = funcionService.getFuncionesPorRango(inicio, fin, "Sala 1");
+
+        // ASSERT
+        assertEquals(List.of(3L, 1L), resultado.stream().map(Funcion::getId).toList(), "Solo Sala 1, por hora");
+    }
+
+    @Test
+    @DisplayName("Debe paginar la cartelera en caché a partir del cursor")
+    void cuandoListarCartelera_conCursor_debeEmpezarDespuesDelCursor() {
+        // ARRANGE - la caché entrega la cartelera ordenada por ID
+        List<Funcion> cartelera = new ArrayList<>();
+        for (long id = 1; id <= 9; id += 2) {
+            Funcion funcion = new Funcion("Pelicula " + id, LocalDateTime.now(), "Sala 1", 50, 100.0);
+            funcion.setId(id);
+            cartelera.add(funcion);
+        }
+        when(cacheFunciones.getFunciones(EstadoFuncion.EN_CARTELERA)).thenReturn(cartelera);
+
+        // ACT
+        List<Funcion> primera = funcionService.getFuncionesEnCartelera(null, 2);
+        List<Funcion> siguiente = funcionService.getFuncionesEnCartelera(4L, 2);
+        List<Funcion> ultima = funcionService.getFuncionesEnCartelera(9L, 2);
+
+        // ASSERT
+        assertEquals(List.of(1L, 3L), primera.stream().map(Funcion::getId).toList());
+        assertEquals(List.of(5L, 7L), siguiente.stream().map(Funcion::getId).toList(), "El cursor no tiene que existir");
+        assertTrue(ultima.isEmpty());
+        verify(funcionRepository, never()).findByEstado(any());
+    }
+
+    @Test
+    @DisplayName("Debe buscar solo en cartelera, con títulos parecidos y hasta 50 títulos")
+    void cuandoBuscarPorPelicula_debeUsarElContratoDelIndice() {
+        // ARRANGE - el índice se llena con los eventos; la función 3 se canceló
+        List<Funcion> funciones = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            funciones.add(new Funcion("Avengers: Endgame", LocalDateTime.now(), "Sala 1", 50, 100.0));
+        }
+        for (int i = 1; i <= 60; i++) {
+            funciones.add(new Funcion("Estreno " + i, LocalDateTime.now(), "Sala 2", 50, 100.0));
+        }
+        for (int i = 0; i < funciones.size(); i++) {
+            Funcion funcion = funciones.get(i);
+            funcion.setId(i + 1L);
+            indicePeliculas.manejarFuncionCreada(new FuncionCreadaEvent(funcion.getId(), funcion.getPelicula(), funcion.getSala()));
+            when(cacheFunciones.getFuncion(funcion.getId())).thenReturn(Optional.of(funcion));
+        }
+        indicePeliculas.manejarFuncionCancelada(new FuncionCanceladaEvent(3L, "Avengers: Endgame", "Sala 1"));
+
+        // ACT
+        List<Funcion> exacta = funcionService.buscarPorPelicula("endgame");
+        List<Funcion> conError = funcionService.buscarPorPelicula("avengrs");
+        List<Funcion> muchas = funcionService.buscarPorPelicula("estreno");
+
+        // ASSERT
+        assertEquals(List.of(1L, 2L), exacta.stream().map(Funcion::getId).sorted().toList(), "Sin la cancelada");
+        assertEquals(List.of(1L, 2L), conError.stream().map(Funcion::getId).sorted().toList(), "Incluye parecidos");
+        assertEquals(50, muchas.size(), "60 títulos coinciden, se devuelven 50");
+        verify(funcionRepository, never()).findByPeliculaContainingIgnoreCase(any());
+    }
+
+    @Test
+    @DisplayName("Debe rechazar un rango con inicio después del fin")
+    void cuandoBuscarPorRango_invertido_debeLanzarExcepcion() {
+        LocalDateTime inicio = LocalDateTime.of(2025, 9, 30, 23, 0);
+        LocalDateTime fin = LocalDateTime.of(2025, 9, 30, 18, 0);
+
+        assertThrows(RuntimeException.class, () -> funcionService.getFuncionesPorRango(inicio, fin, null));
+        verify(agendaFunciones, never()).enRango(any(), any(), any());
+    }
+
+    // ============================================
+    // TEST 7: Cruce de Horario en la Sala
+    // ============================================
+
+    @Test
+    @DisplayName("Debe rechazar la función si se cruza con otra de la misma sala")
+    void cuandoCrearFuncion_conCruceDeHorario_debeLanzarExcepcion() {
+        // ARRANGE
+        Funcion funcion = new Funcion("Dune", LocalDateTime.of(2025, 9, 30, 20, 0), "Sala 1", 50, 120.0, 150);
+        funcion.setId(1L);
+
+        when(funcionRepository.save(any(Funcion.class))).thenReturn(funcion);
+        doThrow(new RuntimeException("La Sala 1 ya tiene una función en ese horario"))
+                .when(planificadorSalas).reservar(funcion);
+
+        // ACT & ASSERT
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> funcionService.crearFuncion(
+                "Dune", funcion.getFechaHora(), "Sala 1", 50, 120.0, 150));
+
+        assertTrue(exception.getMessage().contains("ese horario"));
+        verify(eventPublisher, never()).publishEvent(any());
+        verify(contadoresAsientos, never()).registrar(anyLong(), anyInt());
     }
-}
\ No newline at end of file
+}
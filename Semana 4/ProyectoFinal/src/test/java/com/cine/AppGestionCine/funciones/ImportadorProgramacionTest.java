@@ -0,0 +1,172 @@
+package com.cine.AppGestionCine.funciones;
+
+import com.cine.AppGestionCine.asientos.Asiento;
+import com.cine.AppGestionCine.asientos.AsientoJdbcRepository;
+import com.cine.AppGestionCine.asientos.AsientoRepository;
+import com.cine.AppGestionCine.asientos.AsientoService;
+import com.cine.AppGestionCine.asientos.CacheMapaAsientos;
+import com.cine.AppGestionCine.asientos.HoldsAsientos;
+import com.cine.AppGestionCine.asientos.MotorAsientos;
+import com.cine.AppGestionCine.asientos.SecuenciadorReservas;
+import com.cine.AppGestionCine.clientes.ClienteService;
+import com.cine.AppGestionCine.compartido.CacheConsultas;
+import com.cine.AppGestionCine.funciones.events.FuncionCreadaEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Importación de programación completa contra H2: funciones por lotes JDBC y asientos en paralelo
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ImportadorProgramacionTest {
+
+    private static final LocalDateTime LUNES = LocalDateTime.of(2025, 10, 6, 0, 0);
+
+    @Configuration
+    @EntityScan(basePackageClasses = {Funcion.class, Asiento.class})
+    @EnableJpaRepositories(basePackageClasses = {FuncionRepository.class, AsientoRepository.class})
+    @Import({FuncionJdbcRepository.class, AsientoJdbcRepository.class, CacheConsultas.class})
+    static class Config {
+    }
+
+    @Autowired
+    private FuncionRepository funcionRepository;
+
+    @Autowired
+    private AsientoRepository asientoRepository;
+
+    @Autowired
+    private FuncionJdbcRepository funcionJdbcRepository;
+
+    @Autowired
+    private AsientoJdbcRepository asientoJdbcRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private ApplicationEventPublisher eventPublisher;
+    private ImportadorProgramacion importador;
+
+    @BeforeEach
+    void setUp() {
+        asientoRepository.deleteAll();
+        funcionRepository.deleteAll();
+
+        AsientoService asientoService = new AsientoService(asientoRepository, asientoJdbcRepository,
+                mock(ApplicationEventPublisher.class), mock(ClienteService.class), new MotorAsientos(asientoRepository, 1000, 24),
+                mock(HoldsAsientos.class), mock(CacheMapaAsientos.class), mock(SecuenciadorReservas.class));
+
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        importador = new ImportadorProgramacion(new PlanificadorSalas(funcionRepository, 120), funcionJdbcRepository,
+                mock(ContadoresAsientos.class), asientoService, eventPublisher, transactionManager, 4, 20);
+    }
+
+    @AfterEach
+    void tearDown() {
+        importador.cerrar();
+    }
+
+    /**
+     * Una semana: 7 días x 12 salas x 5 funciones de 140 minutos, 120 asientos cada una
+     */
+    private static List<Funcion> semana() {
+        List<Funcion> funciones = new ArrayList<>();
+        for (int dia = 0; dia < 7; dia++) {
+            for (int sala = 1; sala <= 12; sala++) {
+                for (int turno = 0; turno < 5; turno++) {
+                    funciones.add(new Funcion("Pelicula " + (sala + turno), LUNES.plusDays(dia).withHour(12).plusMinutes(turno * 150L),
+                            "Sala " + sala, 120, 95.0, 140));
+                }
+            }
+        }
+        return funciones;
+    }
+
+    @Test
+    @DisplayName("Debe crear todas las funciones con sus asientos y reportar el tiempo de cada etapa")
+    void cuandoImportarSemana_debeCrearFuncionesYAsientos() {
+        List<Funcion> programacion = semana();
+
+        ResultadoProgramacion resultado = importador.importar(programacion);
+
+        assertTrue(resultado.getConflictos().isEmpty());
+        assertTrue(resultado.getFuncionesSinAsientos().isEmpty());
+        assertEquals(420, resultado.getFuncionesCreadas());
+        assertEquals(420 * 120, resultado.getAsientosCreados());
+        assertEquals(420, funcionRepository.count());
+        assertEquals(420 * 120, asientoRepository.count());
+
+        // Los IDs generados por el batch corresponden a las filas
+        Funcion primera = funcionRepository.findById(resultado.getFuncionIds().get(0)).orElseThrow();
+        assertEquals("Sala 1", primera.getSala());
+        assertEquals(140, primera.getDuracionMinutos());
+        assertEquals(120, asientoRepository.findByFuncionId(primera.getId()).size());
+        verify(eventPublisher, times(420)).publishEvent(any(FuncionCreadaEvent.class));
+
+        // El total cubre las tres etapas
+        assertTrue(resultado.getMsTotal() >= resultado.getMsValidacion() + resultado.getMsFunciones()
+                + resultado.getMsAsientos());
+    }
+
+    @Test
+    @DisplayName("Si alguna función se cruza con otra no se debe crear nada")
+    void cuandoHayCruces_noDebeCrearNada() {
+        List<Funcion> programacion = semana();
+        programacion.add(new Funcion("Dune", LUNES.withHour(13), "Sala 3", 120, 95.0, 150));
+
+        ResultadoProgramacion resultado = importador.importar(programacion);
+
+        // Dune (13:00 - 15:30) pisa las funciones de las 12:00 y de las 14:30 de la Sala 3
+        assertEquals(2, resultado.getConflictos().size());
+        assertTrue(resultado.getConflictos().stream().anyMatch(c -> c.getIndice() == programacion.size() - 1));
+        assertEquals(0, funcionRepository.count());
+        assertEquals(0, asientoRepository.count());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    @DisplayName("Una segunda importación de la misma semana debe chocar con la primera")
+    void cuandoImportarDosVeces_debeDetectarLoYaCreado() {
+        importador.importar(semana());
+
+        ResultadoProgramacion resultado = importador.importar(semana());
+
+        assertEquals(420, resultado.getConflictos().size());
+        assertEquals(420, funcionRepository.count());
+    }
+
+    @Test
+    @DisplayName("Debe rechazar funciones sin los datos obligatorios")
+    void cuandoFaltanDatos_debeLanzarExcepcion() {
+        List<Funcion> programacion = List.of(new Funcion("Dune", LUNES.withHour(20), "Sala 1", null, 95.0, 150));
+
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> importador.importar(programacion));
+
+        assertTrue(exception.getMessage().contains("#0"));
+        assertEquals(0, funcionRepository.count());
+    }
+}
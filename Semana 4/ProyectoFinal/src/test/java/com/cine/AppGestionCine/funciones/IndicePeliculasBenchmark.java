@@ -0,0 +1,59 @@
+package com.cine.AppGestionCine.funciones;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark JMH del autocompletado de películas con búsquedas de 1 a 8 letras como
+ * las del buscador, en un catálogo realista (2,000 títulos) y uno exagerado (20,000)
+ *
+ * Usa el mismo catálogo que IndicePeliculasTest. Se ejecuta igual que MejoresAsientosBenchmark.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IndicePeliculasBenchmark {
+
+    @Param({"2000", "20000"})
+    private int titulos;
+
+    @Param({"s", "som", "sombra d", "estreya"})
+    private String consulta;
+
+    private IndicePeliculas indice;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        indice = IndicePeliculasTest.catalogo(titulos);
+    }
+
+    @Benchmark
+    public List<String> autocompletar() {
+        return indice.autocompletar(consulta, 10);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(IndicePeliculasBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
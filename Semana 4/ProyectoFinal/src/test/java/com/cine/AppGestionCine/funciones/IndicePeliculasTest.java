@@ -0,0 +1,95 @@
+package com.cine.AppGestionCine.funciones;
+
+import com.cine.AppGestionCine.funciones.events.FuncionCanceladaEvent;
+import com.cine.AppGestionCine.funciones.events.FuncionCreadaEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class IndicePeliculasTest {
+
+    private IndicePeliculas indice;
+
+    @BeforeEach
+    void setUp() {
+        indice = new IndicePeliculas(mock(FuncionRepository.class));
+        indice.agregar(1L, "Avengers: Endgame");
+        indice.agregar(2L, "Avengers: Endgame");
+        indice.agregar(3L, "La Película de Mario");
+        indice.agregar(4L, "Intensa-Mente 2");
+        indice.agregar(5L, "El Señor de los Anillos");
+        indice.agregar(6L, "Mente Maestra");
+    }
+
+    @Test
+    @DisplayName("Debe ignorar acentos, mayúsculas y signos")
+    void cuandoBuscarSinAcentos_debeEncontrar() {
+        assertEquals(List.of("La Película de Mario"), indice.autocompletar("pelicula", 10));
+        assertEquals(List.of("La Película de Mario"), indice.autocompletar("PELÍCULA", 10));
+        assertEquals(List.of("El Señor de los Anillos"), indice.autocompletar("senor", 10));
+        assertEquals("avengers endgame", IndicePeliculas.normalizar("  Avengers: ENDGAME! "));
+    }
+
+    @Test
+    @DisplayName("Debe tolerar errores de dedo")
+    void cuandoBuscarConErrores_debeEncontrarElParecido() {
+        assertEquals(List.of("Avengers: Endgame"), indice.autocompletar("avengrs", 10));
+        assertEquals(List.of("El Señor de los Anillos"), indice.autocompletar("anilos", 10));
+        assertTrue(indice.autocompletar("xyzw", 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Debe poner primero los títulos que empiezan con lo escrito")
+    void cuandoVariasCoinciden_debeOrdenarPorRelevancia() {
+        // "mente" empieza la palabra en ambos; "Mente Maestra" empieza el título y es más parecido
+        assertEquals(List.of("Mente Maestra", "Intensa-Mente 2"), indice.autocompletar("mente", 10));
+        assertEquals(List.of("Mente Maestra"), indice.autocompletar("mente", 1));
+    }
+
+    @Test
+    @DisplayName("Debe devolver todas las funciones de la película y quitar el título al cancelar la última")
+    void cuandoCancelarFunciones_debeActualizarIndice() {
+        assertEquals(List.of(1L, 2L), indice.buscar("endgame", 10).stream().sorted().toList());
+
+        indice.manejarFuncionCancelada(new FuncionCanceladaEvent(1L, "Avengers: Endgame", "Sala 1"));
+        assertEquals(List.of(2L), indice.buscar("endgame", 10));
+
+        indice.manejarFuncionCancelada(new FuncionCanceladaEvent(2L, "Avengers: Endgame", "Sala 1"));
+        assertTrue(indice.buscar("endgame", 10).isEmpty());
+
+        indice.manejarFuncionCreada(new FuncionCreadaEvent(7L, "Avengers: Endgame", "Sala 3"));
+        assertEquals(List.of(7L), indice.buscar("endgame", 10));
+    }
+
+    @Test
+    @DisplayName("Con miles de títulos las búsquedas del buscador deben encontrar resultados sin pasar del límite")
+    void cuandoMilesDeTitulos_debeResponderConElLimite() {
+        IndicePeliculas grande = catalogo(20_000);
+
+        assertEquals(20_000, grande.totalTitulos());
+        for (String consulta : new String[]{"s", "so", "som", "sombr", "sombra d", "ciuda", "estreya", "perdid"}) {
+            List<String> titulos = grande.autocompletar(consulta, 10);
+            assertFalse(titulos.isEmpty(), "Sin resultados para " + consulta);
+            assertTrue(titulos.size() <= 10);
+        }
+    }
+
+    static IndicePeliculas catalogo(int titulos) {
+        String[] palabras = {"amor", "guerra", "noche", "ciudad", "sombra", "rey", "mar", "fuego", "perdido",
+                "ultimo", "viaje", "secreto", "familia", "tiempo", "estrella", "lobo", "bosque", "casa"};
+        Random random = new Random(42);
+        IndicePeliculas indice = new IndicePeliculas(mock(FuncionRepository.class));
+
+        for (long id = 1; id <= titulos; id++) {
+            indice.agregar(id, palabras[random.nextInt(palabras.length)] + " " + palabras[random.nextInt(palabras.length)]
+                    + " " + id);
+        }
+        return indice;
+    }
+}
@@ -0,0 +1,71 @@
+package com.cine.AppGestionCine.funciones;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Benchmark JMH de un mes de programación (12 salas x 5 funciones diarias) en salas vacías
+ *
+ * validar revisa los cruces de todo el mes de una vez; reservar da de alta las
+ * 1,800 funciones una por una en un planificador nuevo. Usa la misma programación
+ * que PlanificadorSalasTest. Se ejecuta igual que MejoresAsientosBenchmark.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlanificadorSalasBenchmark {
+
+    private FuncionRepository funcionRepository;
+    private PlanificadorSalas planificador;
+    private List<Funcion> mes;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        funcionRepository = mock(FuncionRepository.class, withSettings().stubOnly());
+        when(funcionRepository.findBySalaAndEstado(anyString(), eq(EstadoFuncion.EN_CARTELERA))).thenReturn(List.of());
+        planificador = new PlanificadorSalas(funcionRepository, 120);
+        mes = PlanificadorSalasTest.programacionDeUnMes();
+    }
+
+    @Benchmark
+    public List<ConflictoHorario> validar() {
+        return planificador.validarProgramacion(mes);
+    }
+
+    @Benchmark
+    public PlanificadorSalas reservar() {
+        PlanificadorSalas nuevo = new PlanificadorSalas(funcionRepository, 120);
+        mes.forEach(nuevo::reservar);
+        return nuevo;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(PlanificadorSalasBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
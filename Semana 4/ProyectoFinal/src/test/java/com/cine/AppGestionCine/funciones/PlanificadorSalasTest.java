@@ -0,0 +1,139 @@
+package com.cine.AppGestionCine.funciones;
+
+import com.cine.AppGestionCine.funciones.events.FuncionCanceladaEvent;
+import com.cine.AppGestionCine.funciones.events.FuncionCreadaEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class PlanificadorSalasTest {
+
+    private static final LocalDateTime HOY = LocalDateTime.of(2025, 9, 30, 0, 0);
+
+    private FuncionRepository funcionRepository;
+    private PlanificadorSalas planificador;
+
+    @BeforeEach
+    void setUp() {
+        funcionRepository = mock(FuncionRepository.class);
+        // Sala 1 ya tiene Dune de 18:00 a 20:30
+        when(funcionRepository.findBySalaAndEstado("Sala 1", EstadoFuncion.EN_CARTELERA))
+                .thenReturn(List.of(funcion(1L, "Dune", "Sala 1", HOY.withHour(18), 150)));
+        planificador = new PlanificadorSalas(funcionRepository, 120);
+    }
+
+    private static Funcion funcion(Long id, String pelicula, String sala, LocalDateTime fechaHora, Integer duracion) {
+        Funcion funcion = new Funcion(pelicula, fechaHora, sala, 100, 120.0, duracion);
+        funcion.setId(id);
+        return funcion;
+    }
+
+    @Test
+    @DisplayName("Debe rechazar una función que se cruza con otra de la misma sala")
+    void cuandoHorarioSeCruza_debeRechazar() {
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> planificador.reservar(funcion(2L, "Wicked", "Sala 1", HOY.withHour(20), 120)));
+
+        assertTrue(exception.getMessage().contains("Dune"), exception.getMessage());
+        assertEquals(1, planificador.totalFunciones("Sala 1"), "La rechazada no se registra");
+    }
+
+    @Test
+    @DisplayName("Debe aceptar funciones seguidas, en otra sala o con la duración predeterminada")
+    void cuandoHorarioLibre_debeAceptar() {
+        planificador.reservar(funcion(2L, "Wicked", "Sala 1", HOY.withHour(20).withMinute(30), null));
+        planificador.reservar(funcion(3L, "Wicked", "Sala 2", HOY.withHour(19), 120));
+
+        // Wicked sin duración ocupa 20:30 - 22:30 con la predeterminada
+        assertThrows(RuntimeException.class,
+                () -> planificador.reservar(funcion(4L, "Mario", "Sala 1", HOY.withHour(22), 90)));
+        planificador.reservar(funcion(5L, "Mario", "Sala 1", HOY.withHour(22).withMinute(30), 90));
+
+        assertEquals(3, planificador.totalFunciones("Sala 1"));
+        verify(funcionRepository, times(1)).findBySalaAndEstado("Sala 1", EstadoFuncion.EN_CARTELERA);
+    }
+
+    @Test
+    @DisplayName("La carga de la sala puede incluir la misma función que se está registrando")
+    void cuandoSalaCargadaConLaMismaFuncion_noDebeChocarConsigoMisma() {
+        Funcion nueva = funcion(2L, "Wicked", "Sala 3", HOY.withHour(20), 120);
+        when(funcionRepository.findBySalaAndEstado("Sala 3", EstadoFuncion.EN_CARTELERA)).thenReturn(List.of(nueva));
+
+        planificador.reservar(nueva);
+
+        assertEquals(1, planificador.totalFunciones("Sala 3"));
+    }
+
+    @Test
+    @DisplayName("Debe liberar el horario al cancelar o al revertirse la creación")
+    void cuandoCancelarORevertir_debeLiberarHorario() {
+        planificador.reservar(funcion(2L, "Wicked", "Sala 1", HOY.withHour(21), 120));
+
+        planificador.manejarFuncionCancelada(new FuncionCanceladaEvent(1L, "Dune", "Sala 1"));
+        planificador.manejarCreacionRevertida(new FuncionCreadaEvent(2L, "Wicked", "Sala 1"));
+
+        assertEquals(0, planificador.totalFunciones("Sala 1"));
+        planificador.reservar(funcion(3L, "Mario", "Sala 1", HOY.withHour(19), 180));
+    }
+
+    @Test
+    @DisplayName("Debe reportar cruces con la cartelera y entre las funciones propuestas")
+    void cuandoValidarProgramacion_debeReportarCruces() {
+        List<Funcion> propuestas = List.of(
+                new Funcion("Wicked", HOY.withHour(19), "Sala 1", 100, 120.0, 120),    // choca con Dune
+                new Funcion("Mario", HOY.withHour(21), "Sala 2", 100, 120.0, 120),
+                new Funcion("Moana", HOY.withHour(22), "Sala 2", 100, 120.0, 90),      // choca con #1
+                new Funcion("Elio", HOY.withHour(23).withMinute(30), "Sala 2", 100, 120.0, 90),
+                new Funcion("Sin sala", HOY.withHour(12), null, 100, 120.0, 90)
+        );
+
+        List<ConflictoHorario> conflictos = planificador.validarProgramacion(propuestas);
+
+        assertEquals(List.of(0, 2, 4), conflictos.stream().map(ConflictoHorario::getIndice).toList());
+        assertTrue(conflictos.get(0).getMotivo().contains("Dune"));
+        assertTrue(conflictos.get(1).getMotivo().contains("#1"));
+        assertEquals(1, planificador.totalFunciones("Sala 1"), "Validar no registra nada");
+    }
+
+    /**
+     * Un mes de programación (12 salas x 5 funciones diarias) revisado de una vez
+     * y dado de alta función por función
+     */
+    @Test
+    @DisplayName("Un mes de programación se debe revisar sin consultas por función")
+    void cuandoProgramacionDeUnMes_debeValidarSinConsultasPorFuncion() {
+        when(funcionRepository.findBySalaAndEstado(anyString(), eq(EstadoFuncion.EN_CARTELERA))).thenReturn(List.of());
+        PlanificadorSalas vacio = new PlanificadorSalas(funcionRepository, 120);
+        List<Funcion> mes = programacionDeUnMes();
+
+        List<ConflictoHorario> conflictos = vacio.validarProgramacion(mes);
+        mes.forEach(vacio::reservar);
+
+        assertTrue(conflictos.isEmpty());
+        assertEquals(30 * 5, vacio.totalFunciones("Sala 1"));
+        // Una consulta por sala (la carga), no una por función
+        verify(funcionRepository, times(12)).findBySalaAndEstado(anyString(), eq(EstadoFuncion.EN_CARTELERA));
+    }
+
+    static List<Funcion> programacionDeUnMes() {
+        List<Funcion> mes = new ArrayList<>();
+        long id = 100;
+        for (int dia = 0; dia < 30; dia++) {
+            for (int sala = 1; sala <= 12; sala++) {
+                for (int turno = 0; turno < 5; turno++) {
+                    mes.add(funcion(id++, "Pelicula " + turno, "Sala " + sala,
+                            HOY.plusDays(dia).withHour(12).plusMinutes(turno * 150L), 140));
+                }
+            }
+        }
+        return mes;
+    }
+}